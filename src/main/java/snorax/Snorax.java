@@ -1,9 +1,18 @@
 package snorax;
 
+import java.util.ArrayList;
+
 import snorax.command.Command;
+import snorax.command.ResponseCache;
 import snorax.exception.SnoraxException;
 import snorax.parser.Parser;
-import snorax.storage.Storage;
+import snorax.storage.AsyncStorage;
+import snorax.storage.PageFileStorage;
+import snorax.storage.TaskFileFormat;
+import snorax.storage.TaskStore;
+import snorax.tasklist.ConcurrentTaskList;
+import snorax.tasklist.ListChange;
+import snorax.tasklist.TaskCollection;
 import snorax.tasklist.TaskList;
 import snorax.ui.Ui;
 
@@ -12,26 +21,47 @@ import snorax.ui.Ui;
  * Handles initialization, task loading, and the main execution loop.
  */
 public class Snorax {
-    private Storage storage;
-    private TaskList tasks;
+    private static final int RESPONSE_CACHE_SIZE = 64;
+    private static final String FORMAT_PROPERTY = "snorax.format";
+
+    private TaskStore storage;
+    private TaskCollection tasks;
     private Ui ui;
+    private ResponseCache responseCache = new ResponseCache(RESPONSE_CACHE_SIZE);
 
     /**
-     * Constructs a Snorax instance with the specified file path for task storage.
-     * Initializes UI, storage, and attempts to load existing tasks from the file.
-     * If loading fails, starts with an empty task list.
+     * Constructs a Snorax instance with the specified file path for task storage,
+     * in the format named by the {@code snorax.format} system property, or text if it names none.
      *
      * @param filePath The path to the file where tasks are stored.
      */
     public Snorax(String filePath) {
+        this(filePath, configuredFormat());
+    }
+
+    /**
+     * Constructs a Snorax instance with the specified file path and format for task storage.
+     * Initializes UI, storage, and attempts to load existing tasks from the file.
+     * If loading fails, starts with an empty task list. A page file is kept by
+     * {@link PageFileStorage}, which writes each change in place; the other formats
+     * by {@link AsyncStorage}, which journals changes in the background.
+     *
+     * @param filePath The path to the file where tasks are stored.
+     * @param format   The format to keep the file in.
+     */
+    public Snorax(String filePath, TaskFileFormat format) {
         assert filePath != null : "File path cannot be null";
         ui = new Ui();
-        storage = new Storage(filePath);
+        if (format == TaskFileFormat.PAGED) {
+            storage = new PageFileStorage(filePath);
+        } else {
+            storage = new AsyncStorage(filePath, format);
+        }
         try {
-            tasks = new TaskList(storage.load());
+            tasks = new ConcurrentTaskList(new TaskList(storage.loadLazily()));
         } catch (SnoraxException e) {
             ui.showError("Error loading tasks: " + e.getMessage());
-            tasks = new TaskList();
+            tasks = new ConcurrentTaskList(new TaskList());
         }
 
         assert tasks != null : "TaskList must be initialized";
@@ -39,17 +69,93 @@ public class Snorax {
         assert storage != null : "Storage must be initialized";
     }
 
+    private static TaskFileFormat configuredFormat() {
+        String name = System.getProperty(FORMAT_PROPERTY, "");
+        for (TaskFileFormat format : TaskFileFormat.values()) {
+            if (format.name().equalsIgnoreCase(name.trim())) {
+                return format;
+            }
+        }
+        return TaskFileFormat.TEXT;
+    }
+
+    /**
+     * Returns the response to a line of user input. The responses to read-only
+     * commands that depend on nothing but the list are cached until the list next changes.
+     * Changes that could not be saved since the last input are undone first, and
+     * the response starts with a warning about them.
+     *
+     * @param input The user input string.
+     * @return The response to show the user.
+     */
     public String getResponse(String input) {
         assert input != null : "Input cannot be null";
         try {
-            Command command = Parser.parse(input);
-            assert command != null : "Parser should not return null command";
-            return command.execute(tasks, ui, storage);
+            String warning = undoLostChanges();
+            return warning + respond(input);
         } catch (Exception e) {
             return "Sorry something went wrong im gg back to sleep";
         }
     }
 
+    private String respond(String input) throws SnoraxException {
+        Command command = Parser.parse(input);
+        assert command != null : "Parser should not return null command";
+        if (!command.isCacheable()) {
+            return execute(command);
+        }
+
+        // Read the version first, so that a change made meanwhile can only make the entry unreachable
+        String normalised = Parser.normalise(input);
+        long version = tasks.getModificationCount();
+        String response = responseCache.get(normalised, version);
+        if (response == null) {
+            response = execute(command);
+            responseCache.put(normalised, version, response);
+        }
+        return response;
+    }
+
+    /**
+     * Returns the cache of responses to read-only commands, with its hit and miss counts.
+     *
+     * @return The response cache.
+     */
+    public ResponseCache getResponseCache() {
+        return responseCache;
+    }
+
+    /**
+     * Executes a command against the task list, as a reader if it only reads the
+     * list and otherwise as the only writer, so that it sees one state of the list.
+     * A command that writes does not wait for its changes to be stored; the storage
+     * is given the changes that undo it instead, in case storing them fails.
+     */
+    private String execute(Command command) throws SnoraxException {
+        if (command.isReadOnly()) {
+            return tasks.read(view -> command.execute(view, ui, storage));
+        }
+        ArrayList<ListChange> undo = new ArrayList<>();
+        String response = tasks.write(view -> command.execute(view, ui, storage), undo);
+        storage.endChange(undo);
+        return response;
+    }
+
+    /**
+     * Takes back out of the list the changes that the storage failed to save in the background.
+     *
+     * @return A warning about the lost changes, or an empty string if every change was saved.
+     */
+    private String undoLostChanges() {
+        ArrayList<ListChange> undo = new ArrayList<>();
+        SnoraxException failure = storage.takeFailure(undo);
+        if (failure == null) {
+            return "";
+        }
+        tasks.applyChanges(undo);
+        return "Some changes could not be saved, so they were undone: " + failure.getMessage() + "\n";
+    }
+
     /**
      * Runs the main application loop.
      * Displays welcome message, reads user commands, parses them,
@@ -63,8 +169,12 @@ public class Snorax {
             try {
                 String input = ui.readCommand();
                 ui.showLine();
+                String warning = undoLostChanges();
+                if (!warning.isEmpty()) {
+                    ui.showError(warning.trim());
+                }
                 Command command = Parser.parse(input);
-                command.execute(tasks, ui, storage);
+                execute(command);
                 isExit = command.isExit();
             } catch (Exception e) {
                 ui.showError("Sorry something went wrong I'm gg back to sleep");
@@ -1,11 +1,11 @@
 package snorax.command;
 
 import snorax.exception.SnoraxException;
-import snorax.storage.Storage;
+import snorax.storage.TaskStore;
 import snorax.task.Deadline;
 import snorax.task.Event;
 import snorax.task.Task;
-import snorax.tasklist.TaskList;
+import snorax.tasklist.TaskCollection;
 import snorax.ui.Ui;
 
 /**
@@ -24,34 +24,31 @@ public class AddCommand extends Command {
     }
 
     @Override
-    public String execute(TaskList tasks, Ui ui, Storage storage) throws SnoraxException {
-        // Validate date/time before adding
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException {
+        // Validate the date/times parsed when the task was built
         try {
             if (task instanceof Deadline) {
-                Deadline d = (Deadline) task;
-                Deadline.validate(d.getBy());
+                ((Deadline) task).validate();
             } else if (task instanceof Event) {
-                Event e = (Event) task;
-                Event.validate(e.getFrom(), e.getTo());
+                ((Event) task).validate();
             }
         } catch (IllegalArgumentException e) {
             throw new SnoraxException(e.getMessage());
         }
 
         // Check for duplicate tasks
-        for (int i = 0; i < tasks.size(); i++) {
-            Task existing = tasks.getTask(i);
-            if (existing.toString().equals(task.toString())) {
-                throw new SnoraxException(
-                        "A duplicate task already exists at position " + (i + 1) + ":\n"
-                                + existing + "\nPlease add a different task.");
-            }
+        int duplicate = tasks.findDuplicate(task);
+        if (duplicate >= 0) {
+            throw new SnoraxException(
+                    "A duplicate task already exists at position " + (duplicate + 1) + ":\n"
+                            + tasks.peekTask(duplicate) + "\nPlease add a different task.");
         }
 
+        String conflicts = describeConflicts(tasks);
         tasks.addTask(task);
 
         try {
-            storage.save(tasks.getTasks());
+            storage.recordAdd(task);
         } catch (SnoraxException e) {
             // Roll back the add if save fails
             tasks.deleteTask(tasks.size() - 1);
@@ -60,7 +57,27 @@ public class AddCommand extends Command {
         }
 
         return "Got it. I've added this task:\n  " + task
-                + "\nNow you have " + tasks.size() + " task(s) in the list.";
+                + "\nNow you have " + tasks.size() + " task(s) in the list." + conflicts;
+    }
+
+    /**
+     * Lists the events not yet done that overlap the event being added.
+     *
+     * @return A warning naming the overlapping events, or an empty string if there are none.
+     */
+    private String describeConflicts(TaskCollection tasks) {
+        if (!(task instanceof Event)) {
+            return "";
+        }
+        Event event = (Event) task;
+        StringBuilder conflicts = new StringBuilder();
+        for (int index : tasks.findOverlappingEvents(event.getFromDateTime(), event.getToDateTime())) {
+            Task existing = tasks.peekTask(index);
+            if (!existing.isDone()) {
+                conflicts.append("\n  ").append(index + 1).append(". ").append(existing);
+            }
+        }
+        return conflicts.length() == 0 ? "" : "\nHeads up, this overlaps with:" + conflicts;
     }
 
     @Override
@@ -0,0 +1,68 @@
+package snorax.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import snorax.exception.SnoraxException;
+import snorax.storage.TaskStore;
+import snorax.task.Task;
+import snorax.tasklist.ListChange;
+import snorax.tasklist.TaskCollection;
+import snorax.ui.Ui;
+
+/**
+ * Represents a command to delete several tasks from the task list at once.
+ */
+public class BulkDeleteCommand extends Command {
+    private TaskSelection selection;
+
+    /**
+     * Constructs a BulkDeleteCommand for the selected tasks.
+     *
+     * @param selection The tasks to delete.
+     */
+    public BulkDeleteCommand(TaskSelection selection) {
+        assert selection != null : "Selection cannot be null";
+        this.selection = selection;
+    }
+
+    /**
+     * Executes the command by deleting every selected task as one change, then recording
+     * the deletions, from the last back, as one write. Nothing is deleted if the write fails.
+     *
+     * @param tasks   The task list to delete from.
+     * @param ui      The user interface for displaying messages.
+     * @param storage The storage handler for saving tasks.
+     * @throws SnoraxException If a selected task does not exist or saving fails.
+     */
+    @Override
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException {
+        return tasks.write(list -> {
+            int[] indexes = selection.resolve(list);
+            Task[] removed = list.deleteTasks(indexes);
+            List<ListChange> changes = new ArrayList<>();
+            for (int i = indexes.length - 1; i >= 0; i--) {
+                changes.add(ListChange.delete(indexes[i]));
+            }
+
+            try {
+                storage.recordChanges(changes);
+            } catch (SnoraxException e) {
+                throw new SnoraxException("Failed to save after deletion: " + e.getMessage()
+                        + "\nNo task was deleted.");
+            }
+
+            StringBuilder sb = new StringBuilder("Noted. I've removed these ")
+                    .append(removed.length).append(" task(s):");
+            for (Task task : removed) {
+                sb.append("\n  ").append(task);
+            }
+            return sb.append("\nNow you have ").append(list.size()).append(" task(s) in the list.").toString();
+        });
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -0,0 +1,76 @@
+package snorax.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import snorax.exception.SnoraxException;
+import snorax.storage.TaskStore;
+import snorax.tasklist.ListChange;
+import snorax.tasklist.TaskCollection;
+import snorax.ui.Ui;
+
+/**
+ * Represents a command to mark several tasks as done or not done at once.
+ */
+public class BulkStatusCommand extends Command {
+    private TaskSelection selection;
+    private boolean isDone;
+
+    /**
+     * Constructs a BulkStatusCommand for the selected tasks.
+     *
+     * @param selection The tasks to mark.
+     * @param isDone    Whether to mark them as done rather than not done.
+     */
+    public BulkStatusCommand(TaskSelection selection, boolean isDone) {
+        assert selection != null : "Selection cannot be null";
+        this.selection = selection;
+        this.isDone = isDone;
+    }
+
+    /**
+     * Executes the command by marking every selected task as one change, then recording
+     * the new status of each task that changed as one write. Nothing is changed if the write fails.
+     *
+     * @param tasks   The task list containing the tasks.
+     * @param ui      The user interface for displaying messages.
+     * @param storage The storage handler for saving tasks.
+     * @throws SnoraxException If a selected task does not exist, none needs marking or saving fails.
+     */
+    @Override
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException {
+        return tasks.write(list -> {
+            int[] indexes = selection.resolve(list);
+            List<ListChange> changes = new ArrayList<>();
+            for (int index : indexes) {
+                if (list.getTask(index).isDone() != isDone) {
+                    changes.add(ListChange.status(index, isDone));
+                }
+            }
+            int changed = list.setDone(indexes, isDone);
+            if (changed == 0) {
+                throw new SnoraxException("Those tasks are already marked as " + (isDone ? "" : "not ")
+                        + "done.");
+            }
+
+            try {
+                storage.recordChanges(changes);
+            } catch (SnoraxException e) {
+                throw new SnoraxException("Failed to save after marking: " + e.getMessage()
+                        + "\nNo task was changed.");
+            }
+
+            StringBuilder sb = new StringBuilder(isDone ? "Nice! I've marked " : "OK, I've marked ")
+                    .append(changed).append(" task(s) as ").append(isDone ? "done:" : "not done yet:");
+            for (int index : indexes) {
+                sb.append("\n  ").append(index + 1).append(". ").append(list.getTask(index));
+            }
+            return sb.toString();
+        });
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
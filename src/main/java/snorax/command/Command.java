@@ -1,8 +1,8 @@
 package snorax.command;
 
 import snorax.exception.SnoraxException;
-import snorax.storage.Storage;
-import snorax.tasklist.TaskList;
+import snorax.storage.TaskStore;
+import snorax.tasklist.TaskCollection;
 import snorax.ui.Ui;
 
 /**
@@ -19,7 +19,7 @@ public abstract class Command {
      * @param storage The storage handler for saving tasks.
      * @throws SnoraxException If an error occurs during execution.
      */
-    public abstract String execute(TaskList tasks, Ui ui, Storage storage) throws SnoraxException;
+    public abstract String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException;
 
     /**
      * Indicates whether this command will exit the application.
@@ -27,4 +27,24 @@ public abstract class Command {
      * @return true if the command exits the application, false otherwise.
      */
     public abstract boolean isExit();
+
+    /**
+     * Indicates whether this command only reads the task list, so that it may run
+     * alongside other readers of a shared list.
+     *
+     * @return true if the command changes neither the list nor any task in it.
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Indicates whether the response to this command may be reused for as long as
+     * the task list does not change.
+     *
+     * @return true if the command only reads the list and its response depends on nothing else.
+     */
+    public boolean isCacheable() {
+        return isReadOnly();
+    }
 }
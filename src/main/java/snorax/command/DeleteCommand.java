@@ -1,16 +1,15 @@
 package snorax.command;
 
 import snorax.exception.SnoraxException;
-import snorax.storage.Storage;
+import snorax.storage.TaskStore;
 import snorax.task.Task;
-import snorax.tasklist.TaskList;
+import snorax.tasklist.TaskCollection;
 import snorax.ui.Ui;
 
 /**
  * Represents a command to delete a task from the task list.
  */
-public class DeleteCommand extends Command {
-    private int index;
+public class DeleteCommand extends TaskCommand {
 
     /**
      * Constructs a DeleteCommand with the given task index.
@@ -18,27 +17,34 @@ public class DeleteCommand extends Command {
      * @param index The zero-based index of the task to delete.
      */
     public DeleteCommand(int index) {
-        this.index = index;
+        super(index);
+    }
+
+    /**
+     * Constructs a DeleteCommand for the task at the given position or with the given ID.
+     *
+     * @param number The zero-based index of the task, or its ID.
+     * @param isId   Whether the number is an ID rather than an index.
+     */
+    public DeleteCommand(int number, boolean isId) {
+        super(number, isId);
     }
 
     @Override
-    public String execute(TaskList tasks, Ui ui, Storage storage) throws SnoraxException {
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException {
         if (tasks.isEmpty()) {
             throw new SnoraxException("There are no tasks to delete.");
         }
-        if (index >= tasks.size()) {
-            throw new SnoraxException("Task " + (index + 1) + " does not exist.\n"
-                    + "You have " + tasks.size() + " task(s). "
-                    + "Please enter a number between 1 and " + tasks.size() + ".");
-        }
+        int index = resolveIndex(tasks);
 
+        int id = tasks.getId(index);
         Task removed = tasks.deleteTask(index);
 
         try {
-            storage.save(tasks.getTasks());
+            storage.recordDelete(index);
         } catch (SnoraxException e) {
             // Roll back deletion if save fails
-            tasks.addTask(removed);
+            tasks.restoreTask(index, id, removed);
             throw new SnoraxException("Failed to save after deletion: " + e.getMessage()
                     + "\nTask was not deleted.");
         }
@@ -1,7 +1,8 @@
 package snorax.command;
 
-import snorax.storage.Storage;
-import snorax.tasklist.TaskList;
+import snorax.exception.SnoraxException;
+import snorax.storage.TaskStore;
+import snorax.tasklist.TaskCollection;
 import snorax.ui.Ui;
 
 /**
@@ -10,17 +11,26 @@ import snorax.ui.Ui;
 public class ExitCommand extends Command {
 
     /**
-     * Executes the exit command by displaying a goodbye message and closing the UI.
+     * Executes the exit command by writing any outstanding changes, displaying a
+     * goodbye message and closing the UI.
      *
      * @param tasks   The task list containing all tasks.
      * @param ui      The user interface for displaying messages.
      * @param storage The storage handler for saving tasks.
      */
     @Override
-    public String execute(TaskList tasks, Ui ui, Storage storage) {
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) {
+        String warning = "";
+        try {
+            storage.close();
+        } catch (SnoraxException e) {
+            warning = "Some changes could not be saved: " + e.getMessage() + "\n";
+            ui.showError(warning.trim());
+        }
+
         ui.showGoodbye();
         ui.close();
-        return "Goodnight. Time for a nap!";
+        return warning + "Goodnight. Time for a nap!";
     }
 
     /**
@@ -0,0 +1,71 @@
+package snorax.command;
+
+import java.util.ArrayList;
+
+import snorax.storage.TaskStore;
+import snorax.task.Task;
+import snorax.tasklist.TaskCollection;
+import snorax.tasklist.TaskFilter;
+import snorax.ui.Ui;
+
+/**
+ * Represents a command to list the tasks that meet every condition of a filter,
+ * such as pending deadlines before a date whose description mentions a word.
+ */
+public class FilterCommand extends Command {
+    private static final int TASK_NUMBER_OFFSET = 1;
+
+    private TaskFilter filter;
+
+    /**
+     * Constructs a FilterCommand with the given filter.
+     *
+     * @param filter The conditions the tasks must meet.
+     */
+    public FilterCommand(TaskFilter filter) {
+        assert filter != null : "Filter cannot be null";
+        this.filter = filter;
+    }
+
+    /**
+     * Executes the filter command by finding the tasks that pass the filter and
+     * displaying them with their positions in the list.
+     *
+     * @param tasks   The task list to filter.
+     * @param ui      The UI to display messages.
+     * @param storage The storage (not used in this command).
+     */
+    @Override
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) {
+        int[] indexes = tasks.filter(filter);
+        if (indexes.length == 0) {
+            return "No tasks match your filter.";
+        }
+
+        ArrayList<Task> matchingTasks = new ArrayList<>();
+        StringBuilder result = new StringBuilder("Here are the ").append(indexes.length)
+                .append(" task(s) that match your filter:");
+        for (int index : indexes) {
+            Task task = tasks.peekTask(index);
+            matchingTasks.add(task);
+            result.append("\n").append(index + TASK_NUMBER_OFFSET).append(". ").append(task);
+        }
+        ui.showFoundTasks(matchingTasks);
+        return result.toString();
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    /**
+     * Indicates whether this command only reads the task list.
+     *
+     * @return true, as this command only reads the tasks.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -1,44 +1,87 @@
 package snorax.command;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
-import snorax.storage.Storage;
+import snorax.search.SearchQuery;
+import snorax.storage.TaskStore;
 import snorax.task.Task;
-import snorax.tasklist.TaskList;
+import snorax.tasklist.TaskCollection;
 import snorax.ui.Ui;
 
 /**
- * Represents a command to find tasks containing a specific keyword.
+ * Represents a command to find tasks whose descriptions contain a given phrase,
+ * in word mode, words starting with the given ones, or, in fuzzy mode, a word
+ * within a few typos of a given one.
+ * See {@link SearchQuery} for how phrases are combined with AND and OR.
  */
 public class FindCommand extends Command {
     private static final int TASK_NUMBER_OFFSET = 1;
 
     private String keyword;
+    private boolean isFuzzy;
+    private boolean isWordSearch;
+    private int maxDistance;
 
     /**
-     * Constructs a FindCommand with the specified keyword.
+     * Constructs a FindCommand with the specified query.
      *
-     * @param keyword The keyword to search for in task descriptions.
+     * @param keyword The phrases to search for in task descriptions.
      */
     public FindCommand(String keyword) {
         this.keyword = keyword;
     }
 
     /**
-     * Executes the find command by searching for tasks that contain the keyword
-     * and displaying the matching tasks to the user.
+     * Constructs a FindCommand that, if asked to, matches whole words instead of text
+     * inside them: a task matches a phrase if it has a word starting with each of its
+     * words, in any order.
+     *
+     * @param keyword      The phrases to search for in task descriptions.
+     * @param isWordSearch Whether to match the starts of words rather than any text.
+     */
+    public FindCommand(String keyword, boolean isWordSearch) {
+        this.keyword = keyword;
+        this.isWordSearch = isWordSearch;
+    }
+
+    /**
+     * Constructs a FindCommand that finds tasks with a word close to the given one, closest first.
+     *
+     * @param keyword     The word to search for in task descriptions.
+     * @param maxDistance The largest number of single-character edits between the words.
+     */
+    public FindCommand(String keyword, int maxDistance) {
+        assert maxDistance >= 0 : "Edit distance cannot be negative";
+        this.keyword = keyword;
+        this.isFuzzy = true;
+        this.maxDistance = maxDistance;
+    }
+
+    /**
+     * Executes the find command by looking up the tasks whose descriptions contain
+     * the phrases of the query, ignoring case, and displaying them to the user in list order.
+     * In word mode, the word index answers the query without reading any description.
+     * In fuzzy mode, the tasks are ordered by how close their closest word is instead.
      *
      * @param tasks   The task list to search in.
      * @param ui      The UI to display messages.
      * @param storage The storage (not used in this command).
      */
     @Override
-    public String execute(TaskList tasks, Ui ui, Storage storage) {
-        ArrayList<Task> matchingTasks = tasks.getTasks().stream()
-                .filter(task -> task.getDescription().toLowerCase()
-                        .contains(keyword.toLowerCase()))
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) {
+        int[] indexes;
+        if (isFuzzy) {
+            indexes = tasks.searchFuzzy(keyword, maxDistance);
+        } else if (isWordSearch) {
+            indexes = tasks.searchWords(SearchQuery.parse(keyword));
+        } else {
+            indexes = tasks.search(SearchQuery.parse(keyword));
+        }
+        ArrayList<Task> matchingTasks = Arrays.stream(indexes)
+                .mapToObj(tasks::peekTask)
                 .collect(Collectors.toCollection(ArrayList::new));
 
         if (matchingTasks.isEmpty()) {
@@ -47,8 +90,9 @@ public class FindCommand extends Command {
 
         String result = IntStream.range(0, matchingTasks.size())
                 .mapToObj(i -> (i + TASK_NUMBER_OFFSET) + ". " + matchingTasks.get(i))
-                .collect(Collectors.joining("\n",
-                        "Here are the matching tasks in your list:\n", ""));
+                .collect(Collectors.joining("\n", isFuzzy
+                        ? "Here are the tasks closest to '" + keyword + "' in your list:\n"
+                        : "Here are the matching tasks in your list:\n", ""));
 
         ui.showFoundTasks(matchingTasks);
         return result.trim();
@@ -63,4 +107,14 @@ public class FindCommand extends Command {
     public boolean isExit() {
         return false;
     }
+
+    /**
+     * Indicates whether this command only reads the task list.
+     *
+     * @return true, as this command only reads the tasks.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
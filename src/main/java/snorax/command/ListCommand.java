@@ -1,40 +1,101 @@
 package snorax.command;
 
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
-
-import snorax.storage.Storage;
-import snorax.tasklist.TaskList;
+import snorax.exception.SnoraxException;
+import snorax.storage.TaskStore;
+import snorax.tasklist.TaskCollection;
+import snorax.tasklist.TaskRange;
 import snorax.ui.Ui;
 
 /**
- * Represents a command to list all tasks.
+ * Represents a command to list all tasks, or the tasks in a window of the list,
+ * optionally with the ID of each task.
  */
 public class ListCommand extends Command {
     private static final int TASK_NUMBER_OFFSET = 1;
     private static final String EMPTY_LIST_MESSAGE = "You have no tasks in your list.";
     private static final String HEADER = "Here are the tasks in your list:\n";
 
+    private int from;
+    private int to;
+    private boolean isShowingIds;
+
+    /**
+     * Constructs a ListCommand that lists every task.
+     */
+    public ListCommand() {
+        this(0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Constructs a ListCommand that lists the tasks from one position up to another.
+     * A window running past the end of the list stops at the last task.
+     *
+     * @param from The zero-based index of the first task to list.
+     * @param to   The zero-based index after the last task to list.
+     */
+    public ListCommand(int from, int to) {
+        this(from, to, false);
+    }
+
+    /**
+     * Constructs a ListCommand that lists the tasks from one position up to another,
+     * followed by their IDs if asked to.
+     * A window running past the end of the list stops at the last task.
+     *
+     * @param from         The zero-based index of the first task to list.
+     * @param to           The zero-based index after the last task to list.
+     * @param isShowingIds Whether to show the ID of each task after it.
+     */
+    public ListCommand(int from, int to, boolean isShowingIds) {
+        assert 0 <= from && from < to : "Window must hold at least one task";
+        this.from = from;
+        this.to = to;
+        this.isShowingIds = isShowingIds;
+    }
+
     /**
-     * Executes the list command by displaying all tasks.
+     * Executes the list command by displaying the tasks in the window.
+     * Only the tasks in the window are read, and the total count comes from the list size.
      *
      * @param tasks   The task list containing all tasks.
      * @param ui      The user interface for displaying messages.
      * @param storage The storage handler for saving tasks.
+     * @throws SnoraxException If the window starts past the end of the list.
      */
     @Override
-    public String execute(TaskList tasks, Ui ui, Storage storage) {
-        ui.showTaskList(tasks);
-
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException {
         if (tasks.isEmpty()) {
+            ui.showTaskList(tasks);
             return EMPTY_LIST_MESSAGE;
         }
+        if (from >= tasks.size()) {
+            throw new SnoraxException("There is no task " + (from + TASK_NUMBER_OFFSET) + ".\n"
+                    + "You have " + tasks.size() + " task(s).");
+        }
 
-        String result = IntStream.range(0, tasks.size())
-                .mapToObj(i -> (i + TASK_NUMBER_OFFSET) + ". " + tasks.getTask(i))
-                .collect(Collectors.joining("\n", HEADER, ""));
+        TaskRange range = tasks.getRange(from, Math.min(to, tasks.size()));
+        ui.showTaskRange(range, isShowingIds);
 
-        return result.trim();
+        StringBuilder result = new StringBuilder(describe(range));
+        for (int i = 0; i < range.size(); i++) {
+            result.append("\n").append(range.getStart() + i + TASK_NUMBER_OFFSET).append(". ")
+                    .append(range.peekTask(i));
+            if (isShowingIds) {
+                result.append(" #").append(range.getId(i));
+            }
+        }
+        return result.toString();
+    }
+
+    /**
+     * Returns the header for a window, which names the window unless it holds the whole list.
+     */
+    private static String describe(TaskRange range) {
+        if (range.size() == range.getTotal()) {
+            return HEADER.trim();
+        }
+        return "Here are tasks " + (range.getStart() + TASK_NUMBER_OFFSET) + "-"
+                + (range.getStart() + range.size()) + " of " + range.getTotal() + " in your list:";
     }
 
     /**
@@ -46,4 +107,14 @@ public class ListCommand extends Command {
     public boolean isExit() {
         return false;
     }
+
+    /**
+     * Indicates whether this command only reads the task list.
+     *
+     * @return true, as this command only reads the tasks.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
@@ -1,16 +1,15 @@
 package snorax.command;
 
 import snorax.exception.SnoraxException;
-import snorax.storage.Storage;
+import snorax.storage.TaskStore;
 import snorax.task.Task;
-import snorax.tasklist.TaskList;
+import snorax.tasklist.TaskCollection;
 import snorax.ui.Ui;
 
 /**
  * Represents a command to mark a task as done.
  */
-public class MarkCommand extends Command {
-    private int index;
+public class MarkCommand extends TaskCommand {
 
     /**
      * Constructs a MarkCommand with the given task index.
@@ -18,19 +17,25 @@ public class MarkCommand extends Command {
      * @param index The zero-based index of the task to mark.
      */
     public MarkCommand(int index) {
-        this.index = index;
+        super(index);
+    }
+
+    /**
+     * Constructs a MarkCommand for the task at the given position or with the given ID.
+     *
+     * @param number The zero-based index of the task, or its ID.
+     * @param isId   Whether the number is an ID rather than an index.
+     */
+    public MarkCommand(int number, boolean isId) {
+        super(number, isId);
     }
 
     @Override
-    public String execute(TaskList tasks, Ui ui, Storage storage) throws SnoraxException {
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException {
         if (tasks.isEmpty()) {
             throw new SnoraxException("There are no tasks to mark.");
         }
-        if (index >= tasks.size()) {
-            throw new SnoraxException("Task " + (index + 1) + " does not exist.\n"
-                    + "You have " + tasks.size() + " task(s). "
-                    + "Please enter a number between 1 and " + tasks.size() + ".");
-        }
+        int index = resolveIndex(tasks);
 
         Task task = tasks.getTask(index);
 
@@ -39,8 +44,8 @@ public class MarkCommand extends Command {
                     + task);
         }
 
-        task.markAsDone();
-        storage.save(tasks.getTasks());
+        tasks.setDone(index, true);
+        storage.recordStatus(index, true);
 
         return "Nice! I've marked this task as done:\n  " + task;
     }
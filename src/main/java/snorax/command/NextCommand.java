@@ -0,0 +1,89 @@
+package snorax.command;
+
+import java.time.LocalDateTime;
+
+import snorax.storage.TaskStore;
+import snorax.tasklist.TaskCollection;
+import snorax.ui.Ui;
+
+/**
+ * Represents a command to show the deadlines and events coming up next.
+ */
+public class NextCommand extends Command {
+    private static final int TASK_NUMBER_OFFSET = 1;
+
+    private int limit;
+    private LocalDateTime from;
+
+    /**
+     * Constructs a NextCommand that shows the tasks due or starting from now on.
+     *
+     * @param limit The most tasks to show.
+     */
+    public NextCommand(int limit) {
+        this(limit, null);
+    }
+
+    /**
+     * Constructs a NextCommand that shows the tasks due or starting from the given time on.
+     *
+     * @param limit The most tasks to show.
+     * @param from  The earliest time to include, or null for the time the command runs.
+     */
+    public NextCommand(int limit, LocalDateTime from) {
+        this.limit = limit;
+        this.from = from;
+    }
+
+    /**
+     * Executes the next command by listing the earliest deadlines and events
+     * that are not done yet, with their positions in the list.
+     *
+     * @param tasks   The task list to search in.
+     * @param ui      The UI to display messages.
+     * @param storage The storage (not used in this command).
+     */
+    @Override
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) {
+        int[] upcoming = tasks.getUpcoming(from != null ? from : LocalDateTime.now(), limit);
+        if (upcoming.length == 0) {
+            return "Nothing is coming up. Enjoy the free time!";
+        }
+
+        StringBuilder result = new StringBuilder("Here is what's coming up next:");
+        for (int index : upcoming) {
+            result.append("\n").append(index + TASK_NUMBER_OFFSET).append(". ").append(tasks.peekTask(index));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Indicates whether this command will cause the application to exit.
+     *
+     * @return false, as this command does not exit the application.
+     */
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    /**
+     * Indicates whether this command only reads the task list.
+     *
+     * @return true, as this command only reads the tasks.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    /**
+     * Indicates whether the response to this command may be reused while the list is unchanged.
+     *
+     * @return false if the command looks ahead from the time it runs, whose response changes with the clock.
+     */
+    @Override
+    public boolean isCacheable() {
+        return from != null;
+    }
+}
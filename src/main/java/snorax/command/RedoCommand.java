@@ -0,0 +1,66 @@
+package snorax.command;
+
+import java.util.ArrayList;
+
+import snorax.exception.SnoraxException;
+import snorax.storage.TaskStore;
+import snorax.tasklist.ListChange;
+import snorax.tasklist.TaskCollection;
+import snorax.ui.Ui;
+
+/**
+ * Represents a command to redo the changes to the task list that were undone last.
+ */
+public class RedoCommand extends Command {
+    private int steps;
+
+    /**
+     * Constructs a RedoCommand that redoes the given number of undone changes.
+     *
+     * @param steps The number of changes to redo.
+     */
+    public RedoCommand(int steps) {
+        assert steps > 0 : "Must redo at least one change";
+        this.steps = steps;
+    }
+
+    /**
+     * Executes the redo command by stepping the task list forward again and recording
+     * only the changes it made, so that redoing a small edit costs O(log n) rather than a full save.
+     *
+     * @param tasks   The task list to step forward.
+     * @param ui      The user interface for displaying messages.
+     * @param storage The storage handler for saving tasks.
+     * @throws SnoraxException If there is nothing to redo or saving fails.
+     */
+    @Override
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException {
+        ArrayList<ListChange> changes = new ArrayList<>();
+        int redone = 0;
+        while (redone < steps && tasks.redo(changes)) {
+            redone++;
+        }
+        if (redone == 0) {
+            throw new SnoraxException("There is nothing to redo.");
+        }
+
+        try {
+            storage.recordChanges(changes);
+        } catch (SnoraxException e) {
+            // Roll back the redo if save fails
+            for (int i = 0; i < redone; i++) {
+                tasks.undo();
+            }
+            throw new SnoraxException("Failed to save after redoing: " + e.getMessage()
+                    + "\nNothing was redone.");
+        }
+
+        return "Redone! I've stepped forward " + redone + " change(s)."
+                + "\nNow you have " + tasks.size() + " task(s) in the list.";
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
@@ -0,0 +1,80 @@
+package snorax.command;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the responses to the latest read-only commands, so that repeating one
+ * while the task list is unchanged does not run it again.
+ *
+ * <p>Each response is kept under the normalised command together with the task
+ * list's modification count when it was worked out. Any change to the list raises
+ * the count, so entries from before it are never looked up again; they are
+ * evicted, least recently used first, once the cache is full.
+ */
+public class ResponseCache {
+    private final int capacity;
+    private final LinkedHashMap<String, String> responses;
+    private long hits;
+    private long misses;
+
+    /**
+     * Constructs a ResponseCache that holds up to the given number of responses.
+     *
+     * @param capacity The largest number of responses to keep.
+     */
+    public ResponseCache(int capacity) {
+        assert capacity > 0 : "Cache must hold at least one response";
+        this.capacity = capacity;
+        this.responses = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > ResponseCache.this.capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the response kept for a command against a version of the task list.
+     *
+     * @param command The normalised command.
+     * @param version The modification count of the task list.
+     * @return The response, or null if none is kept.
+     */
+    public synchronized String get(String command, long version) {
+        String response = responses.get(keyOf(command, version));
+        if (response == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return response;
+    }
+
+    /**
+     * Keeps the response to a command against a version of the task list.
+     *
+     * @param command  The normalised command.
+     * @param version  The modification count of the task list the response was worked out from.
+     * @param response The response.
+     */
+    public synchronized void put(String command, long version, String response) {
+        responses.put(keyOf(command, version), response);
+    }
+
+    private static String keyOf(String command, long version) {
+        return version + " " + command;
+    }
+
+    public synchronized int size() {
+        return responses.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+}
@@ -0,0 +1,81 @@
+package snorax.command;
+
+import java.time.LocalDateTime;
+
+import snorax.storage.TaskStore;
+import snorax.tasklist.TaskCollection;
+import snorax.ui.Ui;
+
+/**
+ * Represents a command to show the events on at an instant or overlapping a period.
+ */
+public class ScheduleCommand extends Command {
+    private static final int TASK_NUMBER_OFFSET = 1;
+
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    /**
+     * Constructs a ScheduleCommand for the events on at the given instant.
+     *
+     * @param time The instant.
+     */
+    public ScheduleCommand(LocalDateTime time) {
+        this(time, null);
+    }
+
+    /**
+     * Constructs a ScheduleCommand for the events overlapping the given period.
+     *
+     * @param from The start of the period.
+     * @param to   The end of the period, excluded, or null to ask about the instant {@code from}.
+     */
+    public ScheduleCommand(LocalDateTime from, LocalDateTime to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Executes the schedule command by listing the matching events in order of start time,
+     * with their positions in the list.
+     *
+     * @param tasks   The task list to search in.
+     * @param ui      The UI to display messages.
+     * @param storage The storage (not used in this command).
+     */
+    @Override
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) {
+        int[] events = to == null ? tasks.findEventsAt(from) : tasks.findOverlappingEvents(from, to);
+        if (events.length == 0) {
+            return to == null ? "Nothing is on at that time." : "No events fall in that period.";
+        }
+
+        StringBuilder result = new StringBuilder(to == null
+                ? "Here is what's on at that time:"
+                : "Here are the events in that period:");
+        for (int index : events) {
+            result.append("\n").append(index + TASK_NUMBER_OFFSET).append(". ").append(tasks.peekTask(index));
+        }
+        return result.toString();
+    }
+
+    /**
+     * Indicates whether this command will cause the application to exit.
+     *
+     * @return false, as this command does not exit the application.
+     */
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    /**
+     * Indicates whether this command only reads the task list.
+     *
+     * @return true, as this command only reads the tasks.
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
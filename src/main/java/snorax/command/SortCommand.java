@@ -1,8 +1,8 @@
 package snorax.command;
 
 import snorax.exception.SnoraxException;
-import snorax.storage.Storage;
-import snorax.tasklist.TaskList;
+import snorax.storage.TaskStore;
+import snorax.tasklist.TaskCollection;
 import snorax.ui.Ui;
 
 /**
@@ -41,7 +41,7 @@ public class SortCommand extends Command {
      * @throws SnoraxException If there is an error saving to storage.
      */
     @Override
-    public String execute(TaskList tasks, Ui ui, Storage storage) throws SnoraxException {
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException {
         assert tasks != null : "Task list cannot be null";
 
         if (tasks.isEmpty()) {
@@ -50,19 +50,16 @@ public class SortCommand extends Command {
 
         switch (sortType) {
             case SORT_TYPE_ALL:
-                tasks.sortTasks();
-                storage.save(tasks.getTasks());
+                storage.recordReorder(tasks.sortTasks());
                 return "All tasks have been sorted chronologically!\n"
                         + "(Deadlines first, then Events, then Todos)";
 
             case SORT_TYPE_DEADLINE:
-                tasks.sortDeadlines();
-                storage.save(tasks.getTasks());
+                storage.recordReorder(tasks.sortDeadlines());
                 return "Deadlines have been sorted chronologically!";
 
             case SORT_TYPE_EVENT:
-                tasks.sortEvents();
-                storage.save(tasks.getTasks());
+                storage.recordReorder(tasks.sortEvents());
                 return "Events have been sorted chronologically!";
 
             default:
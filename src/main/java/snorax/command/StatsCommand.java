@@ -0,0 +1,49 @@
+package snorax.command;
+
+import snorax.storage.TaskStore;
+import snorax.task.TaskType;
+import snorax.tasklist.TaskCollection;
+import snorax.ui.Ui;
+
+/**
+ * Represents a command to count the tasks of each type, and how many of them are not done yet.
+ */
+public class StatsCommand extends Command {
+
+    /**
+     * Executes the stats command. Every count comes from the task list's type and
+     * status bitmaps, so no task is read.
+     *
+     * @param tasks   The task list to count.
+     * @param ui      The UI (not used in this command).
+     * @param storage The storage (not used in this command).
+     */
+    @Override
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) {
+        if (tasks.isEmpty()) {
+            return "You have no tasks in your list.";
+        }
+
+        StringBuilder result = new StringBuilder("Here is how your list stands:");
+        appendCount(result, "Todos", tasks, TaskType.TODO);
+        appendCount(result, "Deadlines", tasks, TaskType.DEADLINE);
+        appendCount(result, "Events", tasks, TaskType.EVENT);
+        appendCount(result, "Total", tasks, null);
+        return result.toString();
+    }
+
+    private static void appendCount(StringBuilder result, String label, TaskCollection tasks, TaskType type) {
+        result.append("\n  ").append(label).append(": ").append(tasks.countTasks(type, null))
+                .append(" (").append(tasks.countTasks(type, false)).append(" not done)");
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+package snorax.command;
+
+import snorax.exception.SnoraxException;
+import snorax.tasklist.TaskCollection;
+
+/**
+ * Represents a command that acts on a single task, picked either by its
+ * position in the list or by its stable ID.
+ */
+public abstract class TaskCommand extends Command {
+    private int number;
+    private boolean isId;
+
+    /**
+     * Constructs a TaskCommand for the task at the given position.
+     *
+     * @param index The zero-based index of the task.
+     */
+    protected TaskCommand(int index) {
+        this(index, false);
+    }
+
+    /**
+     * Constructs a TaskCommand for the task at the given position or with the given ID.
+     *
+     * @param number The zero-based index of the task, or its ID.
+     * @param isId   Whether the number is an ID rather than an index.
+     */
+    protected TaskCommand(int number, boolean isId) {
+        this.number = number;
+        this.isId = isId;
+    }
+
+    /**
+     * Finds the current index of the task this command acts on.
+     *
+     * @param tasks The task list.
+     * @return The zero-based index of the task.
+     * @throws SnoraxException If no such task exists.
+     */
+    protected int resolveIndex(TaskCollection tasks) throws SnoraxException {
+        if (isId) {
+            int index = tasks.indexOfId(number);
+            if (index < 0) {
+                throw new SnoraxException("No task has ID #" + number + ".\n"
+                        + "Use 'list ids' to see the ID of each task.");
+            }
+            return index;
+        }
+        if (number >= tasks.size()) {
+            throw new SnoraxException("Task " + (number + 1) + " does not exist.\n"
+                    + "You have " + tasks.size() + " task(s). "
+                    + "Please enter a number between 1 and " + tasks.size() + ".");
+        }
+        return number;
+    }
+}
@@ -0,0 +1,76 @@
+package snorax.command;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import snorax.exception.SnoraxException;
+import snorax.tasklist.TaskCollection;
+
+/**
+ * Represents the tasks picked out by a bulk command: either ranges of positions
+ * in the list, or every task, optionally only those with a given status.
+ */
+public class TaskSelection {
+    private final List<int[]> ranges;
+    private final boolean isAll;
+    private final Boolean isDone;
+
+    private TaskSelection(List<int[]> ranges, boolean isAll, Boolean isDone) {
+        this.ranges = ranges;
+        this.isAll = isAll;
+        this.isDone = isDone;
+    }
+
+    /**
+     * Constructs a selection of the tasks in the given ranges of positions.
+     * Ranges may overlap and come in any order.
+     *
+     * @param ranges Pairs of zero-based indexes of the first and last task in each range.
+     * @return The selection.
+     */
+    public static TaskSelection of(List<int[]> ranges) {
+        assert !ranges.isEmpty() : "Selection needs at least one range";
+        return new TaskSelection(new ArrayList<>(ranges), false, null);
+    }
+
+    /**
+     * Constructs a selection of every task with a status.
+     *
+     * @param isDone Whether the tasks are done, or null for every task.
+     * @return The selection.
+     */
+    public static TaskSelection all(Boolean isDone) {
+        return new TaskSelection(List.of(), true, isDone);
+    }
+
+    /**
+     * Finds the positions of the selected tasks, each once and in list order.
+     *
+     * @param tasks The task list.
+     * @return The zero-based indexes of the tasks.
+     * @throws SnoraxException If a range runs past the end of the list or no task is selected.
+     */
+    public int[] resolve(TaskCollection tasks) throws SnoraxException {
+        if (isAll) {
+            int[] indexes = tasks.findTasks(null, isDone);
+            if (indexes.length == 0) {
+                throw new SnoraxException(isDone == null ? "You have no tasks in your list."
+                        : isDone ? "None of your tasks are done." : "All of your tasks are done.");
+            }
+            return indexes;
+        }
+
+        BitSet selected = new BitSet();
+        for (int[] range : ranges) {
+            int last = range[1];
+            if (last >= tasks.size()) {
+                throw new SnoraxException("Task " + (last + 1) + " does not exist.\n"
+                        + "You have " + tasks.size() + " task(s). "
+                        + "Please enter numbers between 1 and " + tasks.size() + ".");
+            }
+            selected.set(range[0], last + 1);
+        }
+        return selected.stream().toArray();
+    }
+}
@@ -0,0 +1,66 @@
+package snorax.command;
+
+import java.util.ArrayList;
+
+import snorax.exception.SnoraxException;
+import snorax.storage.TaskStore;
+import snorax.tasklist.ListChange;
+import snorax.tasklist.TaskCollection;
+import snorax.ui.Ui;
+
+/**
+ * Represents a command to undo the last changes to the task list.
+ */
+public class UndoCommand extends Command {
+    private int steps;
+
+    /**
+     * Constructs an UndoCommand that undoes the given number of changes.
+     *
+     * @param steps The number of changes to undo.
+     */
+    public UndoCommand(int steps) {
+        assert steps > 0 : "Must undo at least one change";
+        this.steps = steps;
+    }
+
+    /**
+     * Executes the undo command by stepping the task list back and recording
+     * only the changes it made, so that undoing a small edit costs O(log n) rather than a full save.
+     *
+     * @param tasks   The task list to step back.
+     * @param ui      The user interface for displaying messages.
+     * @param storage The storage handler for saving tasks.
+     * @throws SnoraxException If there is nothing to undo or saving fails.
+     */
+    @Override
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException {
+        ArrayList<ListChange> changes = new ArrayList<>();
+        int undone = 0;
+        while (undone < steps && tasks.undo(changes)) {
+            undone++;
+        }
+        if (undone == 0) {
+            throw new SnoraxException("There is nothing to undo.");
+        }
+
+        try {
+            storage.recordChanges(changes);
+        } catch (SnoraxException e) {
+            // Roll back the undo if save fails
+            for (int i = 0; i < undone; i++) {
+                tasks.redo();
+            }
+            throw new SnoraxException("Failed to save after undoing: " + e.getMessage()
+                    + "\nNothing was undone.");
+        }
+
+        return "Undone! I've stepped back " + undone + " change(s)."
+                + "\nNow you have " + tasks.size() + " task(s) in the list.";
+    }
+
+    @Override
+    public boolean isExit() {
+        return false;
+    }
+}
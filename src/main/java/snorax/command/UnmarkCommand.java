@@ -1,16 +1,15 @@
 package snorax.command;
 
 import snorax.exception.SnoraxException;
-import snorax.storage.Storage;
+import snorax.storage.TaskStore;
 import snorax.task.Task;
-import snorax.tasklist.TaskList;
+import snorax.tasklist.TaskCollection;
 import snorax.ui.Ui;
 
 /**
  * Represents a command to mark a task as not done.
  */
-public class UnmarkCommand extends Command {
-    private int index;
+public class UnmarkCommand extends TaskCommand {
 
     /**
      * Constructs an UnmarkCommand with the given task index.
@@ -18,19 +17,25 @@ public class UnmarkCommand extends Command {
      * @param index The zero-based index of the task to unmark.
      */
     public UnmarkCommand(int index) {
-        this.index = index;
+        super(index);
+    }
+
+    /**
+     * Constructs a UnmarkCommand for the task at the given position or with the given ID.
+     *
+     * @param number The zero-based index of the task, or its ID.
+     * @param isId   Whether the number is an ID rather than an index.
+     */
+    public UnmarkCommand(int number, boolean isId) {
+        super(number, isId);
     }
 
     @Override
-    public String execute(TaskList tasks, Ui ui, Storage storage) throws SnoraxException {
+    public String execute(TaskCollection tasks, Ui ui, TaskStore storage) throws SnoraxException {
         if (tasks.isEmpty()) {
             throw new SnoraxException("There are no tasks to unmark.");
         }
-        if (index >= tasks.size()) {
-            throw new SnoraxException("Task " + (index + 1) + " does not exist.\n"
-                    + "You have " + tasks.size() + " task(s). "
-                    + "Please enter a number between 1 and " + tasks.size() + ".");
-        }
+        int index = resolveIndex(tasks);
 
         Task task = tasks.getTask(index);
 
@@ -39,8 +44,8 @@ public class UnmarkCommand extends Command {
                     + task);
         }
 
-        task.markAsNotDone();
-        storage.save(tasks.getTasks());
+        tasks.setDone(index, false);
+        storage.recordStatus(index, false);
 
         return "OK, I've marked this task as not done yet:\n  " + task;
     }
@@ -1,18 +1,39 @@
 package snorax.parser;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
 import snorax.command.AddCommand;
+import snorax.command.BulkDeleteCommand;
+import snorax.command.BulkStatusCommand;
 import snorax.command.Command;
 import snorax.command.DeleteCommand;
 import snorax.command.ExitCommand;
+import snorax.command.FilterCommand;
 import snorax.command.FindCommand;
 import snorax.command.ListCommand;
 import snorax.command.MarkCommand;
+import snorax.command.NextCommand;
+import snorax.command.RedoCommand;
+import snorax.command.ScheduleCommand;
 import snorax.command.SortCommand;
+import snorax.command.StatsCommand;
+import snorax.command.TaskSelection;
+import snorax.command.UndoCommand;
 import snorax.command.UnmarkCommand;
 import snorax.exception.SnoraxException;
+import snorax.task.DateTimeCodec;
 import snorax.task.Deadline;
 import snorax.task.Event;
+import snorax.task.TaskType;
 import snorax.task.Todo;
+import snorax.tasklist.TaskFilter;
 
 /**
  * Parses user input and converts it into executable commands.
@@ -28,12 +49,42 @@ public class Parser {
     private static final String COMMAND_EVENT = "event";
     private static final String COMMAND_FIND = "find";
     private static final String COMMAND_SORT = "sort";
+    private static final String COMMAND_NEXT = "next";
+    private static final String COMMAND_AT = "at";
+    private static final String COMMAND_OVERLAP = "overlap";
+    private static final String COMMAND_UNDO = "undo";
+    private static final String LIST_FROM = "from";
+    private static final String LIST_TO = "to";
+    private static final String LIST_IDS = "ids";
+    private static final String COMMAND_REDO = "redo";
+    private static final String COMMAND_STATS = "stats";
+    private static final String COMMAND_FILTER = "filter";
+
+    private static final String SELECTION_ALL = "all";
+    private static final String SELECTION_DONE = "done";
+    private static final String SELECTION_NOT_DONE = "not done";
+    private static final String SELECTION_SEPARATOR = ",";
+    private static final String SELECTION_RANGE = "-";
+
+    private static final String FILTER_TYPE = "type";
+    private static final String FILTER_DONE = "done";
+    private static final String FILTER_BEFORE = "before";
+    private static final String FILTER_AFTER = "after";
+    private static final String FILTER_TEXT = "text";
 
     private static final String DELIMITER_BY = "/by";
     private static final String DELIMITER_FROM = "/from";
     private static final String DELIMITER_TO = "/to";
 
+    private static final String TASK_ID_PREFIX = "#";
+    private static final String FUZZY_PREFIX = "~";
+    private static final String WORD_PREFIX = "^";
+
     private static final int TASK_INDEX_OFFSET = 1;
+    private static final int DEFAULT_NEXT_COUNT = 5;
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int SHORT_WORD_LENGTH = 4;
+    private static final int MAX_FUZZY_DISTANCE = 3;
 
     /**
      * Parses the user input string and returns the corresponding command.
@@ -47,16 +98,14 @@ public class Parser {
             throw new SnoraxException("Please enter a command!");
         }
 
-        // Normalise multiple spaces to single space
-        String normalised = input.trim().replaceAll("\\s+", " ");
-        String[] parts = normalised.split(" ", 2);
-        String commandWord = parts[0].toLowerCase();
+        String[] parts = normalise(input).split(" ", 2);
+        String commandWord = parts[0];
 
         switch (commandWord) {
             case COMMAND_BYE:
                 return new ExitCommand();
             case COMMAND_LIST:
-                return new ListCommand();
+                return parseListCommand(parts);
             case COMMAND_MARK:
                 return parseMarkCommand(parts);
             case COMMAND_UNMARK:
@@ -73,28 +122,159 @@ public class Parser {
                 return parseFindCommand(parts);
             case COMMAND_SORT:
                 return parseSortCommand(parts);
+            case COMMAND_NEXT:
+                return parseNextCommand(parts);
+            case COMMAND_AT:
+                return parseAtCommand(parts);
+            case COMMAND_OVERLAP:
+                return parseOverlapCommand(parts);
+            case COMMAND_UNDO:
+                return new UndoCommand(parseStepCount(parts, "undo"));
+            case COMMAND_REDO:
+                return new RedoCommand(parseStepCount(parts, "redo"));
+            case COMMAND_STATS:
+                return new StatsCommand();
+            case COMMAND_FILTER:
+                return parseFilterCommand(parts);
             default:
                 throw new SnoraxException("Unknown command: '" + commandWord + "'\n"
                         + "Valid commands: todo, deadline, event, list, mark, unmark, "
-                        + "delete, find, sort, bye");
+                        + "delete, find, filter, sort, next, at, overlap, undo, redo, stats, bye");
+        }
+    }
+
+    /**
+     * Returns the form of an input that the parser works from: trimmed, with runs of
+     * whitespace turned into single spaces and the command word in lower case.
+     * Inputs with the same normal form give the same command.
+     *
+     * @param input The user input string.
+     * @return The normalised input.
+     */
+    public static String normalise(String input) {
+        String[] parts = input.trim().replaceAll("\\s+", " ").split(" ", 2);
+        parts[0] = parts[0].toLowerCase();
+        return String.join(" ", parts);
+    }
+
+    private static Command parseListCommand(String[] parts) throws SnoraxException {
+        if (parts.length < 2) {
+            return new ListCommand();
+        }
+        String usage = "list [ids] | list <page> [page size] [ids] | list from <first> to <last> [ids]";
+        String[] words = parts[1].trim().split("\\s+");
+        boolean isShowingIds = words[words.length - 1].equals(LIST_IDS);
+        if (isShowingIds) {
+            words = Arrays.copyOf(words, words.length - 1);
         }
+        if (words.length == 0) {
+            return new ListCommand(0, Integer.MAX_VALUE, true);
+        }
+        if (words[0].equals(LIST_FROM)) {
+            if (words.length != 4 || !words[2].equals(LIST_TO)) {
+                throw new SnoraxException("Invalid list command.\nUsage: " + usage);
+            }
+            int first = parseCount(words[1], "task number", usage);
+            int last = parseCount(words[3], "task number", usage);
+            if (last < first) {
+                throw new SnoraxException("The last task to list must not come before the first.");
+            }
+            return new ListCommand(first - 1, last, isShowingIds);
+        }
+        if (words.length > 2) {
+            throw new SnoraxException("Invalid list command.\nUsage: " + usage);
+        }
+        int page = parseCount(words[0], "page number", usage);
+        int pageSize = words.length == 2 ? parseCount(words[1], "page size", usage) : DEFAULT_PAGE_SIZE;
+        long from = (long) (page - 1) * pageSize;
+        if (from >= Integer.MAX_VALUE) {
+            throw new SnoraxException("Page " + page + " is past the end of your list.");
+        }
+        return new ListCommand((int) from, (int) Math.min(from + pageSize, Integer.MAX_VALUE), isShowingIds);
+    }
+
+    /**
+     * Parses a positive whole number of at most nine digits.
+     */
+    private static int parseCount(String text, String name, String usage) throws SnoraxException {
+        if (!text.matches("\\d{1,9}") || Integer.parseInt(text) == 0) {
+            throw new SnoraxException("'" + text + "' is not a valid " + name + ".\nUsage: " + usage);
+        }
+        return Integer.parseInt(text);
     }
 
     private static Command parseMarkCommand(String[] parts) throws SnoraxException {
-        validateHasArgument(parts, "mark <task number>");
+        validateHasArgument(parts, "mark <task number | #id | numbers and ranges | all [done | not done]>");
+        if (isTaskId(parts[1])) {
+            return new MarkCommand(parseTaskId(parts[1], "mark"), true);
+        }
+        if (isSelection(parts[1])) {
+            return new BulkStatusCommand(parseSelection(parts[1], "mark"), true);
+        }
         return new MarkCommand(parseTaskIndex(parts[1], "mark"));
     }
 
     private static Command parseUnmarkCommand(String[] parts) throws SnoraxException {
-        validateHasArgument(parts, "unmark <task number>");
+        validateHasArgument(parts, "unmark <task number | #id | numbers and ranges | all [done | not done]>");
+        if (isTaskId(parts[1])) {
+            return new UnmarkCommand(parseTaskId(parts[1], "unmark"), true);
+        }
+        if (isSelection(parts[1])) {
+            return new BulkStatusCommand(parseSelection(parts[1], "unmark"), false);
+        }
         return new UnmarkCommand(parseTaskIndex(parts[1], "unmark"));
     }
 
     private static Command parseDeleteCommand(String[] parts) throws SnoraxException {
-        validateHasArgument(parts, "delete <task number>");
+        validateHasArgument(parts, "delete <task number | #id | numbers and ranges | all [done | not done]>");
+        if (isTaskId(parts[1])) {
+            return new DeleteCommand(parseTaskId(parts[1], "delete"), true);
+        }
+        if (isSelection(parts[1])) {
+            return new BulkDeleteCommand(parseSelection(parts[1], "delete"));
+        }
         return new DeleteCommand(parseTaskIndex(parts[1], "delete"));
     }
 
+    private static boolean isSelection(String target) {
+        String trimmed = target.trim().toLowerCase();
+        return trimmed.contains(SELECTION_SEPARATOR) || trimmed.contains(SELECTION_RANGE)
+                || trimmed.split(" ")[0].equals(SELECTION_ALL);
+    }
+
+    /**
+     * Parses a selection such as "3,7,9-12", "all", "all done" or "all not done".
+     */
+    private static TaskSelection parseSelection(String target, String command) throws SnoraxException {
+        String usage = command + " <number>,<first>-<last>,... | " + command + " all [done | not done]";
+        String trimmed = target.trim().toLowerCase();
+        if (trimmed.split(" ")[0].equals(SELECTION_ALL)) {
+            switch (trimmed.substring(SELECTION_ALL.length()).trim()) {
+                case "":
+                    return TaskSelection.all(null);
+                case SELECTION_DONE:
+                    return TaskSelection.all(true);
+                case SELECTION_NOT_DONE:
+                    return TaskSelection.all(false);
+                default:
+                    throw new SnoraxException("Invalid selection: '" + target.trim() + "'\nUsage: " + usage);
+            }
+        }
+
+        List<int[]> ranges = new ArrayList<>();
+        for (String item : trimmed.split(SELECTION_SEPARATOR, -1)) {
+            String[] ends = item.split(SELECTION_RANGE, -1);
+            if (ends.length > 2) {
+                throw new SnoraxException("Invalid range: '" + item.trim() + "'\nUsage: " + usage);
+            }
+            int first = parseTaskIndex(ends[0], command);
+            int last = ends.length == 2 ? parseTaskIndex(ends[1], command) : first;
+            // A range may be written from its last task back to its first
+            ranges.add(new int[] {Math.min(first, last), Math.max(first, last)});
+        }
+        return TaskSelection.of(ranges);
+    }
+
     private static Command parseTodoCommand(String[] parts) throws SnoraxException {
         validateHasArgument(parts, "todo <description>");
         String description = parts[1].trim();
@@ -173,12 +353,116 @@ public class Parser {
     }
 
     private static Command parseFindCommand(String[] parts) throws SnoraxException {
-        validateHasArgument(parts, "find <keyword>");
+        validateHasArgument(parts, "find <words> [OR <words>]... | find ^<words> | find ~<word> [max typos]");
         String keyword = parts[1].trim();
-        validateNotEmpty(keyword, "Search keyword cannot be empty.\nUsage: find <keyword>");
+        validateNotEmpty(keyword, "Search keyword cannot be empty.\nUsage: find <words> [OR <words>]...");
+        if (keyword.startsWith(FUZZY_PREFIX)) {
+            return parseFuzzyFindCommand(keyword.substring(FUZZY_PREFIX.length()).trim());
+        }
+        if (keyword.startsWith(WORD_PREFIX)) {
+            String words = keyword.substring(WORD_PREFIX.length()).trim();
+            validateNotEmpty(words, "Word search needs at least one word.\nUsage: find ^<words> [OR <words>]...");
+            return new FindCommand(words, true);
+        }
         return new FindCommand(keyword);
     }
 
+    private static Command parseFuzzyFindCommand(String argument) throws SnoraxException {
+        String usage = "find ~<word> [max typos, 0 to " + MAX_FUZZY_DISTANCE + "]";
+        String[] words = argument.split(" ");
+        if (words.length > 2 || !words[0].matches("[\\p{L}\\p{N}]+")) {
+            throw new SnoraxException("Fuzzy search takes a single word of letters or digits.\nUsage: " + usage);
+        }
+        String word = words[0];
+        // A second typo in a short word leaves too little of it to go on
+        int maxDistance = word.length() <= SHORT_WORD_LENGTH ? 1 : 2;
+        if (words.length == 2) {
+            if (!words[1].matches("\\d") || Integer.parseInt(words[1]) > MAX_FUZZY_DISTANCE) {
+                throw new SnoraxException("'" + words[1] + "' is not a valid number of typos.\nUsage: " + usage);
+            }
+            maxDistance = Integer.parseInt(words[1]);
+        }
+        return new FindCommand(word, maxDistance);
+    }
+
+    private static Command parseFilterCommand(String[] parts) throws SnoraxException {
+        String usage = "filter [type:todo|deadline|event] [done:yes|no] [before:<yyyy-MM-dd>] "
+                + "[after:<yyyy-MM-dd>] [text:<word>]...";
+        validateHasArgument(parts, usage);
+        TaskType type = null;
+        Boolean isDone = null;
+        LocalDate before = null;
+        LocalDate after = null;
+        List<String> words = new ArrayList<>();
+        Set<String> seen = new HashSet<>();
+        for (String condition : parts[1].trim().split(" ")) {
+            String[] keyValue = condition.split(":", 2);
+            String key = keyValue[0].toLowerCase();
+            if (keyValue.length < 2 || keyValue[1].isEmpty()) {
+                throw new SnoraxException("'" + condition + "' is not a condition.\nUsage: " + usage);
+            }
+            if (!key.equals(FILTER_TEXT) && !seen.add(key)) {
+                throw new SnoraxException("'" + key + "' is given more than once.\nUsage: " + usage);
+            }
+            String value = keyValue[1];
+            switch (key) {
+                case FILTER_TYPE:
+                    type = parseTaskType(value, usage);
+                    break;
+                case FILTER_DONE:
+                    isDone = parseYesNo(value, usage);
+                    break;
+                case FILTER_BEFORE:
+                    before = parseDate(value, usage);
+                    break;
+                case FILTER_AFTER:
+                    after = parseDate(value, usage);
+                    break;
+                case FILTER_TEXT:
+                    words.add(value);
+                    break;
+                default:
+                    throw new SnoraxException("Unknown condition: '" + key + "'\nUsage: " + usage);
+            }
+        }
+
+        // Tasks after a day come from the next day on; tasks before a day end the day before it
+        LocalDateTime from = after == null ? null : after.plusDays(1).atStartOfDay();
+        LocalDateTime to = before == null ? null : before.atStartOfDay();
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new SnoraxException("No day is both after " + after + " and before " + before + ".");
+        }
+        return new FilterCommand(new TaskFilter(type, isDone, from, to, words));
+    }
+
+    private static TaskType parseTaskType(String value, String usage) throws SnoraxException {
+        for (TaskType type : TaskType.values()) {
+            if (type.name().equalsIgnoreCase(value)) {
+                return type;
+            }
+        }
+        throw new SnoraxException("Unknown task type: '" + value + "'\nUsage: " + usage);
+    }
+
+    private static boolean parseYesNo(String value, String usage) throws SnoraxException {
+        switch (value.toLowerCase()) {
+            case "yes":
+                return true;
+            case "no":
+                return false;
+            default:
+                throw new SnoraxException("'" + value + "' is not yes or no.\nUsage: " + usage);
+        }
+    }
+
+    private static LocalDate parseDate(String value, String usage) throws SnoraxException {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new SnoraxException("'" + value + "' is not a valid date.\nUsage: " + usage);
+        }
+    }
+
     private static Command parseSortCommand(String[] parts) throws SnoraxException {
         if (parts.length < 2) {
             return new SortCommand();
@@ -191,6 +475,66 @@ public class Parser {
         return new SortCommand(sortType);
     }
 
+    private static Command parseNextCommand(String[] parts) throws SnoraxException {
+        if (parts.length < 2) {
+            return new NextCommand(DEFAULT_NEXT_COUNT);
+        }
+        String count = parts[1].trim();
+        if (!count.matches("\\d{1,6}") || Integer.parseInt(count) == 0) {
+            throw new SnoraxException("'" + count + "' is not a valid number of tasks.\n"
+                    + "Usage: next | next <count>");
+        }
+        return new NextCommand(Integer.parseInt(count));
+    }
+
+    private static int parseStepCount(String[] parts, String commandWord) throws SnoraxException {
+        if (parts.length < 2) {
+            return 1;
+        }
+        String count = parts[1].trim();
+        if (!count.matches("\\d{1,6}") || Integer.parseInt(count) == 0) {
+            throw new SnoraxException("'" + count + "' is not a valid number of changes.\n"
+                    + "Usage: " + commandWord + " | " + commandWord + " <count>");
+        }
+        return Integer.parseInt(count);
+    }
+
+    private static Command parseAtCommand(String[] parts) throws SnoraxException {
+        validateHasArgument(parts, "at <yyyy-MM-dd HHmm>");
+        return new ScheduleCommand(parseDateTime(parts[1], "at <yyyy-MM-dd HHmm>"));
+    }
+
+    private static Command parseOverlapCommand(String[] parts) throws SnoraxException {
+        String usage = "overlap /from <yyyy-MM-dd HHmm> /to <yyyy-MM-dd HHmm>";
+        validateHasArgument(parts, usage);
+        String[] fromParts = parts[1].split(DELIMITER_FROM, 2);
+        if (fromParts.length < 2 || !fromParts[0].trim().isEmpty()) {
+            throw new SnoraxException("Missing '/from' in overlap command.\nUsage: " + usage);
+        }
+        String[] toParts = fromParts[1].split(DELIMITER_TO, 2);
+        if (toParts.length < 2) {
+            throw new SnoraxException("Missing '/to' in overlap command.\nUsage: " + usage);
+        }
+
+        LocalDateTime from = parseDateTime(toParts[0], usage);
+        LocalDateTime to = parseDateTime(toParts[1], usage);
+        if (!from.isBefore(to)) {
+            throw new SnoraxException("The period must start before it ends.");
+        }
+        return new ScheduleCommand(from, to);
+    }
+
+    private static LocalDateTime parseDateTime(String text, String usage) throws SnoraxException {
+        switch (DateTimeCodec.check(text)) {
+            case DateTimeCodec.VALID:
+                return DateTimeCodec.parse(text);
+            case DateTimeCodec.NONEXISTENT:
+                throw new SnoraxException("The date/time '" + text.trim() + "' does not exist.");
+            default:
+                throw new SnoraxException("'" + text.trim() + "' is not a valid date/time.\nUsage: " + usage);
+        }
+    }
+
     private static void validateHasArgument(String[] parts, String usage) throws SnoraxException {
         if (parts.length < 2 || parts[1].trim().isEmpty()) {
             throw new SnoraxException("Missing argument.\nUsage: " + usage);
@@ -220,6 +564,24 @@ public class Parser {
         return count;
     }
 
+    private static boolean isTaskId(String target) {
+        return target.trim().startsWith(TASK_ID_PREFIX);
+    }
+
+    private static int parseTaskId(String target, String command) throws SnoraxException {
+        String digits = target.trim().substring(TASK_ID_PREFIX.length());
+        if (!digits.matches("\\d+")) {
+            throw new SnoraxException("'" + target.trim() + "' is not a valid task ID.\n"
+                    + "Usage: " + command + " #<id>");
+        }
+
+        try {
+            return Integer.parseInt(digits);
+        } catch (NumberFormatException e) {
+            throw new SnoraxException("Task ID is too large. Please enter a valid ID.");
+        }
+    }
+
     private static int parseTaskIndex(String indexString, String command) throws SnoraxException {
         String trimmed = indexString.trim();
 
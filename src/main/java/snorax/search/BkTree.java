@@ -0,0 +1,109 @@
+package snorax.search;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * A set of words that finds the ones within an edit distance of a given word
+ * without comparing it to most of them.
+ *
+ * <p>Each child of a node sits under its Levenshtein distance from the node's
+ * word. By the triangle inequality, a word within k of the query can only be
+ * below a child whose distance from the node is within k of the query's own
+ * distance from it, so every other child is skipped. Words are never removed;
+ * callers skip words that have fallen out of use.
+ */
+class BkTree {
+    private Node root;
+
+    /**
+     * Adds a word, unless it is already in the tree.
+     *
+     * @param word The word.
+     */
+    void add(String word) {
+        if (root == null) {
+            root = new Node(word);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = distance(node.word, word);
+            if (distance == 0) {
+                return;
+            }
+            Node child = node.children.get(distance);
+            if (child == null) {
+                node.children.put(distance, new Node(word));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Returns the words within an edit distance of a word.
+     *
+     * @param word        The word.
+     * @param maxDistance The largest edit distance to include.
+     * @return For each distance from 0 to maxDistance, the words that far away.
+     */
+    List<List<String>> search(String word, int maxDistance) {
+        List<List<String>> byDistance = new ArrayList<>();
+        for (int i = 0; i <= maxDistance; i++) {
+            byDistance.add(new ArrayList<>());
+        }
+        if (root == null) {
+            return byDistance;
+        }
+        ArrayDeque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = distance(node.word, word);
+            if (distance <= maxDistance) {
+                byDistance.get(distance).add(node.word);
+            }
+            for (int i = Math.max(1, distance - maxDistance); i <= distance + maxDistance; i++) {
+                Node child = node.children.get(i);
+                if (child != null) {
+                    pending.push(child);
+                }
+            }
+        }
+        return byDistance;
+    }
+
+    /**
+     * Returns the fewest single-character insertions, deletions and substitutions that turn one word into another.
+     */
+    static int distance(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    private static class Node {
+        private final String word;
+        private final HashMap<Integer, Node> children = new HashMap<>();
+
+        Node(String word) {
+            this.word = word;
+        }
+    }
+}
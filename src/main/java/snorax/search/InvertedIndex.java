@@ -0,0 +1,156 @@
+package snorax.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import snorax.task.Task;
+import snorax.tasklist.TaskIndex;
+
+/**
+ * Finds the tasks whose descriptions contain words starting with those of a
+ * {@link SearchQuery}, without reading any description.
+ *
+ * <p>Each description is split into lower-case terms made of letters and digits.
+ * Every term maps to a posting list: the sorted IDs of the tasks that use it.
+ * Query phrases are split into terms the same way, so the word index matches
+ * the terms of a phrase in any order. A query term is looked up by
+ * prefix in a sorted map of terms, the postings of the terms it matches are
+ * merged, and the results of the terms in a group are intersected starting
+ * from the shortest, so a query costs time in proportion to the postings it
+ * touches rather than the number of tasks.
+ *
+ * <p>Every term ever used is also kept in a {@link BkTree}, so that the terms
+ * within a few edits of a mistyped word can be found without comparing it to
+ * the whole vocabulary.
+ */
+public class InvertedIndex implements TaskIndex {
+    private final TreeMap<String, Postings> postingsByTerm = new TreeMap<>();
+    private final BkTree vocabulary = new BkTree();
+
+    /**
+     * Splits text into its distinct lower-case terms, in order of first use.
+     *
+     * @param text The text.
+     * @return The terms.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean isTermChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (isTermChar && start < 0) {
+                start = i;
+            } else if (!isTermChar && start >= 0) {
+                String term = text.substring(start, i).toLowerCase();
+                if (!terms.contains(term)) {
+                    terms.add(term);
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    @Override
+    public void add(Task task, int id) {
+        for (String term : tokenize(task.getDescription())) {
+            postingsByTerm.computeIfAbsent(term, key -> {
+                vocabulary.add(key);
+                return new Postings();
+            }).add(id);
+        }
+    }
+
+    @Override
+    public void remove(Task task, int id) {
+        for (String term : tokenize(task.getDescription())) {
+            Postings postings = postingsByTerm.get(term);
+            if (postings != null && postings.remove(id) && postings.size() == 0) {
+                postingsByTerm.remove(term);
+            }
+        }
+    }
+
+    /**
+     * Returns the IDs of the tasks that match a query.
+     *
+     * @param query The query.
+     * @return The IDs, in increasing order.
+     */
+    public int[] search(SearchQuery query) {
+        int[] matches = new int[0];
+        for (List<String> group : query.getGroups()) {
+            matches = Postings.union(matches, searchAll(group));
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the IDs of the tasks that match every term of the phrases in a group.
+     */
+    private int[] searchAll(List<String> words) {
+        List<String> terms = new ArrayList<>();
+        for (String word : words) {
+            terms.addAll(tokenize(word));
+        }
+        if (terms.isEmpty()) {
+            return new int[0];
+        }
+        int[][] lists = new int[terms.size()][];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = searchPrefix(terms.get(i));
+        }
+        // Intersecting from the shortest list keeps every intermediate result small
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.length, b.length));
+        int[] matches = lists[0];
+        for (int i = 1; i < lists.length && matches.length > 0; i++) {
+            matches = Postings.intersect(matches, lists[i]);
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the IDs of the tasks that use a term starting with the given one.
+     */
+    private int[] searchPrefix(String prefix) {
+        int[] matches = new int[0];
+        for (Map.Entry<String, Postings> entry : postingsByTerm.tailMap(prefix).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            matches = Postings.union(matches, entry.getValue().toArray());
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the IDs of the tasks with a term within an edit distance of a word,
+     * grouped by the distance of their closest term.
+     *
+     * @param word        The word, in lower case.
+     * @param maxDistance The largest edit distance to include.
+     * @return For each distance from 0 to maxDistance, the IDs of the tasks whose
+     *     closest term is that far from the word, in increasing order.
+     */
+    public int[][] searchFuzzy(String word, int maxDistance) {
+        int[][] idsByDistance = new int[maxDistance + 1][];
+        int[] found = new int[0];
+        List<List<String>> termsByDistance = vocabulary.search(word, maxDistance);
+        for (int distance = 0; distance <= maxDistance; distance++) {
+            int[] ids = new int[0];
+            for (String term : termsByDistance.get(distance)) {
+                // Terms no task uses any more stay in the tree but have no postings
+                Postings postings = postingsByTerm.get(term);
+                if (postings != null) {
+                    ids = Postings.union(ids, postings.toArray());
+                }
+            }
+            idsByDistance[distance] = Postings.subtract(ids, found);
+            found = Postings.union(found, ids);
+        }
+        return idsByDistance;
+    }
+}
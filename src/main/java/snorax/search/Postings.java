@@ -0,0 +1,130 @@
+package snorax.search;
+
+import java.util.Arrays;
+
+/**
+ * The sorted IDs of the tasks filed under one key of an index. New tasks get
+ * the highest ID yet, so adding one is usually an append.
+ */
+class Postings {
+    private int[] ids = new int[2];
+    private int size;
+
+    /**
+     * Adds an ID, unless it is already here.
+     *
+     * @param id The ID.
+     */
+    void add(int id) {
+        int slot = size == 0 || ids[size - 1] < id ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+        if (slot >= 0) {
+            return;
+        }
+        int at = -slot - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        System.arraycopy(ids, at, ids, at + 1, size - at);
+        ids[at] = id;
+        size++;
+    }
+
+    /**
+     * Removes an ID.
+     *
+     * @param id The ID.
+     * @return true if the ID was here.
+     */
+    boolean remove(int id) {
+        int slot = Arrays.binarySearch(ids, 0, size, id);
+        if (slot < 0) {
+            return false;
+        }
+        System.arraycopy(ids, slot + 1, ids, slot, size - slot - 1);
+        size--;
+        return true;
+    }
+
+    boolean contains(int id) {
+        return Arrays.binarySearch(ids, 0, size, id) >= 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+
+    /**
+     * Returns the IDs in both of two sorted arrays, in O(a + b) time.
+     */
+    static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Returns the IDs in either of two sorted arrays, in O(a + b) time.
+     */
+    static int[] union(int[] a, int[] b) {
+        if (a.length == 0) {
+            return b;
+        }
+        if (b.length == 0) {
+            return a;
+        }
+        int[] result = new int[a.length + b.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) {
+                result[count++] = a[i++];
+            } else if (a[i] > b[j]) {
+                result[count++] = b[j++];
+            } else {
+                result[count++] = a[i++];
+                j++;
+            }
+        }
+        while (i < a.length) {
+            result[count++] = a[i++];
+        }
+        while (j < b.length) {
+            result[count++] = b[j++];
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * Returns the IDs in the first of two sorted arrays but not the second, in O(a + b) time.
+     */
+    static int[] subtract(int[] a, int[] b) {
+        int[] result = new int[a.length];
+        int count = 0;
+        int j = 0;
+        for (int id : a) {
+            while (j < b.length && b[j] < id) {
+                j++;
+            }
+            if (j == b.length || b[j] != id) {
+                result[count++] = id;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+}
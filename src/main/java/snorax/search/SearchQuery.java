@@ -0,0 +1,94 @@
+package snorax.search;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A full-text query: phrases that must all appear, with OR between groups of them.
+ *
+ * <p>Words next to each other form one phrase, kept with single spaces between
+ * them, so a query without operators is a single phrase. Phrases joined by
+ * {@code AND} must all match, and a task matches the query if it matches any
+ * group separated by {@code OR}, so {@code read AND book OR buy milk} finds
+ * tasks with both "read" and "book" or with "buy milk". The operators must be
+ * written in capitals, and join only phrases: one with no phrase before it or
+ * nothing after it is searched for as a word, so {@code find OR} finds "work"
+ * and {@code find read AND} finds "read and write". Phrases are kept in lower
+ * case; how a phrase matches a description is up to the index that answers the query.
+ */
+public class SearchQuery {
+    private static final String OPERATOR_AND = "AND";
+    private static final String OPERATOR_OR = "OR";
+
+    private final List<List<String>> groups;
+
+    private SearchQuery(List<List<String>> groups) {
+        this.groups = groups;
+    }
+
+    /**
+     * Parses a query. A word is an operator only if it follows a word of a phrase
+     * and is followed by another word; otherwise it is part of a phrase, so the
+     * query is empty only if the text has no words at all.
+     *
+     * @param text The query.
+     * @return The query.
+     */
+    public static SearchQuery parse(String text) {
+        List<List<String>> groups = new ArrayList<>();
+        List<String> group = new ArrayList<>();
+        StringBuilder phrase = new StringBuilder();
+        String[] words = text.trim().split("\\s+");
+        for (int i = 0; i < words.length; i++) {
+            String word = words[i];
+            boolean isOperator = (word.equals(OPERATOR_OR) || word.equals(OPERATOR_AND))
+                    && phrase.length() > 0 && i + 1 < words.length;
+            if (!isOperator) {
+                if (!word.isEmpty()) {
+                    phrase.append(phrase.length() == 0 ? "" : " ").append(word.toLowerCase());
+                }
+                continue;
+            }
+            addPhrase(group, phrase);
+            phrase.setLength(0);
+            if (word.equals(OPERATOR_OR)) {
+                addGroup(groups, group);
+                group = new ArrayList<>();
+            }
+        }
+        addPhrase(group, phrase);
+        addGroup(groups, group);
+        return new SearchQuery(groups);
+    }
+
+    private static void addPhrase(List<String> group, StringBuilder phrase) {
+        if (phrase.length() > 0) {
+            group.add(phrase.toString());
+        }
+    }
+
+    private static void addGroup(List<List<String>> groups, List<String> group) {
+        if (!group.isEmpty()) {
+            groups.add(Collections.unmodifiableList(group));
+        }
+    }
+
+    /**
+     * Returns the groups of phrases, any of which a task must match in full.
+     *
+     * @return The groups.
+     */
+    public List<List<String>> getGroups() {
+        return Collections.unmodifiableList(groups);
+    }
+
+    /**
+     * Returns whether the query has no phrases, and so matches nothing.
+     *
+     * @return true if the query is empty.
+     */
+    public boolean isEmpty() {
+        return groups.isEmpty();
+    }
+}
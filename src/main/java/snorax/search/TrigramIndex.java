@@ -0,0 +1,158 @@
+package snorax.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import snorax.task.Task;
+import snorax.tasklist.TaskIndex;
+
+/**
+ * Finds the tasks whose descriptions contain the phrases of a {@link SearchQuery}
+ * anywhere, ignoring case, so that "ook" finds "Read book" and "d b" finds it too.
+ *
+ * <p>Every run of three characters in a lower-cased description is a trigram,
+ * and each trigram maps to the sorted IDs of the tasks that contain it. A word
+ * of three or more characters can only appear in a task that has all of its
+ * trigrams, so the IDs in the shortest of their posting lists are looked up in
+ * the others by binary search. That leaves a small set of candidates, and only
+ * those are checked with {@code contains}. Shorter
+ * words have no trigram to narrow the search, so every task is checked for them.
+ */
+public class TrigramIndex implements TaskIndex {
+    private static final int GRAM = 3;
+
+    private final HashMap<Long, Postings> postingsByTrigram = new HashMap<>();
+    private final Postings all = new Postings();
+
+    @Override
+    public void add(Task task, int id) {
+        for (long trigram : trigrams(task.getDescription().toLowerCase())) {
+            postingsByTrigram.computeIfAbsent(trigram, key -> new Postings()).add(id);
+        }
+        all.add(id);
+    }
+
+    @Override
+    public void remove(Task task, int id) {
+        for (long trigram : trigrams(task.getDescription().toLowerCase())) {
+            Postings postings = postingsByTrigram.get(trigram);
+            if (postings != null && postings.remove(id) && postings.size() == 0) {
+                postingsByTrigram.remove(trigram);
+            }
+        }
+        all.remove(id);
+    }
+
+    /**
+     * Returns the distinct trigrams of a text, each packed into the low 48 bits of a long.
+     */
+    private static long[] trigrams(String text) {
+        if (text.length() < GRAM) {
+            return new long[0];
+        }
+        long[] trigrams = new long[text.length() - GRAM + 1];
+        for (int i = 0; i < trigrams.length; i++) {
+            trigrams[i] = (long) text.charAt(i) << 32 | (long) text.charAt(i + 1) << 16 | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int count = 0;
+        for (int i = 0; i < trigrams.length; i++) {
+            if (i == 0 || trigrams[i] != trigrams[i - 1]) {
+                trigrams[count++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, count);
+    }
+
+    /**
+     * Returns the IDs of the tasks that match a query.
+     *
+     * @param query        The query.
+     * @param descriptions Gives the description of the task with an ID, to check candidates against.
+     * @return The IDs, in increasing order.
+     */
+    public int[] search(SearchQuery query, IntFunction<String> descriptions) {
+        int[] matches = new int[0];
+        for (List<String> group : query.getGroups()) {
+            matches = Postings.union(matches, searchAll(group, descriptions));
+        }
+        return matches;
+    }
+
+    /**
+     * Returns the IDs of the tasks that contain every phrase in a group.
+     */
+    private int[] searchAll(List<String> words, IntFunction<String> descriptions) {
+        int[] candidates = findCandidates(words);
+        int count = 0;
+        for (int id : candidates) {
+            String description = descriptions.apply(id).toLowerCase();
+            boolean isMatch = true;
+            for (String word : words) {
+                isMatch &= description.contains(word);
+            }
+            if (isMatch) {
+                candidates[count++] = id;
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * Returns the number of tasks {@link #findCandidates} would return at most,
+     * without collecting them: the length of the shortest posting list of a trigram of the words.
+     *
+     * @param words The words, in lower case.
+     * @return The largest number of candidates.
+     */
+    public int estimateCandidates(List<String> words) {
+        int estimate = all.size();
+        for (String word : words) {
+            for (long trigram : trigrams(word)) {
+                Postings postings = postingsByTrigram.get(trigram);
+                estimate = Math.min(estimate, postings == null ? 0 : postings.size());
+            }
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the IDs of the tasks that have every trigram of the words. Every task
+     * that contains all the words is among them, but some of them may not.
+     *
+     * @param words The words, in lower case.
+     * @return The IDs, in increasing order.
+     */
+    public int[] findCandidates(List<String> words) {
+        ArrayList<Postings> lists = new ArrayList<>();
+        for (String word : words) {
+            for (long trigram : trigrams(word)) {
+                Postings postings = postingsByTrigram.get(trigram);
+                if (postings == null) {
+                    return new int[0];
+                }
+                lists.add(postings);
+            }
+        }
+
+        // Start from the shortest posting list, and look the candidates up in the others
+        lists.sort(Comparator.comparingInt(Postings::size));
+        int[] candidates = lists.isEmpty() ? all.toArray() : lists.get(0).toArray();
+        int kept = candidates.length;
+        for (int i = 1; i < lists.size() && kept > 0; i++) {
+            Postings postings = lists.get(i);
+            int count = 0;
+            for (int j = 0; j < kept; j++) {
+                if (postings.contains(candidates[j])) {
+                    candidates[count++] = candidates[j];
+                }
+            }
+            kept = count;
+        }
+        return Arrays.copyOf(candidates, kept);
+    }
+}
@@ -0,0 +1,425 @@
+package snorax.storage;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import snorax.exception.SnoraxException;
+import snorax.task.Task;
+import snorax.tasklist.ListChange;
+import snorax.tasklist.TaskSource;
+
+/**
+ * Storage that writes on a background thread, so commands return without waiting for the disk.
+ *
+ * <p>Records and saves are queued in order and written by a single writer
+ * thread. Everything that queued up while the writer was busy is written
+ * together: a full save supersedes the changes queued before it, and the
+ * journal records after it share one sync.
+ *
+ * <p>A change is only known to be stored once {@link #flush} returns, which
+ * only closing the storage and the shutdown hook wait for. A write that fails
+ * is dropped, together with everything queued after it, since those changes
+ * build on it. The caller marks the end of the records of each change with
+ * {@link #endChange}, giving the changes that would undo it, and learns of the
+ * failure later from {@link #takeFailure}, together with the undo changes of
+ * every change that was lost, so that it can take them back out of the list.
+ * A flush reports the failure instead, without them. Until the failure has
+ * been reported, further records and saves are refused. Changes still queued
+ * when the JVM shuts down are flushed by a shutdown hook shared by every open
+ * AsyncStorage, which {@link #close} leaves.
+ */
+public class AsyncStorage extends Storage {
+    private static final Set<AsyncStorage> OPEN_STORAGES = new LinkedHashSet<>();
+    private static Thread shutdownHook;
+
+    private final Object queueLock = new Object();
+    private final ArrayDeque<Write> queue = new ArrayDeque<>();
+    private Thread writer;
+    private SnoraxException failure;
+    private final ArrayList<ListChange> lostChanges = new ArrayList<>();
+    private boolean isOpenChangeLost;
+    private boolean isWriting;
+    private int writeCount;
+
+    /**
+     * Constructs an AsyncStorage with the specified file path, saving in the text format.
+     *
+     * @param filePath The path to the file for storing tasks.
+     */
+    public AsyncStorage(String filePath) {
+        this(filePath, TaskFileFormat.TEXT);
+    }
+
+    /**
+     * Constructs an AsyncStorage that saves in the given format.
+     *
+     * @param filePath The path to the file for storing tasks.
+     * @param format   The format to save the file in.
+     */
+    public AsyncStorage(String filePath, TaskFileFormat format) {
+        super(filePath, format);
+    }
+
+    /**
+     * Waits for queued changes, then loads tasks from the file.
+     *
+     * @return An ArrayList of tasks loaded from the file.
+     * @throws SnoraxException If a queued change or the file cannot be read or written.
+     */
+    @Override
+    public ArrayList<Task> load() throws SnoraxException {
+        flush();
+        return super.load();
+    }
+
+    /**
+     * Waits for queued changes, then indexes the file for lazy loading.
+     *
+     * @return The tasks in the file, decoded on request.
+     * @throws SnoraxException If a queued change or the file cannot be read or written.
+     */
+    @Override
+    public TaskSource loadLazily() throws SnoraxException {
+        flush();
+        return super.loadLazily();
+    }
+
+    /**
+     * Queues a full save of a snapshot of the given tasks.
+     * The list is copied, but the tasks in it are not.
+     *
+     * @param tasks The list of tasks to save.
+     * @throws SnoraxException If an earlier change could not be written and no flush has reported it yet.
+     */
+    @Override
+    public void save(ArrayList<Task> tasks) throws SnoraxException {
+        enqueue(new Write(null, new ArrayList<>(tasks), null));
+    }
+
+    @Override
+    public void recordAdd(Task task) throws SnoraxException {
+        enqueue(new Write(Journal.addRecord(task), null, null));
+    }
+
+    @Override
+    public void recordInsert(int index, Task task) throws SnoraxException {
+        enqueue(new Write(Journal.insertRecord(index, task), null, null));
+    }
+
+    /**
+     * Queues the records of a series of changes together, so that they are written with one sync.
+     *
+     * @param changes The changes, in the order they apply.
+     * @throws SnoraxException If an earlier change could not be written and no flush has reported it yet.
+     */
+    @Override
+    public void recordChanges(List<ListChange> changes) throws SnoraxException {
+        ArrayList<Write> writes = new ArrayList<>();
+        for (ListChange change : changes) {
+            writes.add(new Write(Journal.changeRecord(change), null, null));
+        }
+        enqueue(writes);
+    }
+
+    @Override
+    public void recordStatus(int index, boolean isDone) throws SnoraxException {
+        enqueue(new Write(Journal.statusRecord(index, isDone), null, null));
+    }
+
+    @Override
+    public void recordDelete(int index) throws SnoraxException {
+        enqueue(new Write(Journal.deleteRecord(index), null, null));
+    }
+
+    @Override
+    public void recordReorder(int[] order) throws SnoraxException {
+        enqueue(new Write(Journal.reorderRecord(order), null, null));
+    }
+
+    /**
+     * Queues the end of the records of a change, so that the change can be undone if they are lost.
+     * A change whose records were already dropped by a failure is added to those to
+     * undo at once, and nothing is kept for one whose records are all written.
+     *
+     * @param undo The changes that undo the change, in the order they apply.
+     */
+    @Override
+    public void endChange(List<ListChange> undo) {
+        synchronized (queueLock) {
+            if (failure == null && !queue.isEmpty()) {
+                queue.add(new Write(null, null, new ArrayList<>(undo)));
+            } else if (isOpenChangeLost) {
+                lostChanges.addAll(0, undo);
+            }
+            isOpenChangeLost = false;
+        }
+    }
+
+    /**
+     * Reports a failed write once, with the changes that undo every change it made the storage drop.
+     *
+     * @param undo The list to add the changes that undo the lost changes to, in the order they apply.
+     * @return The failure, or null if no write has failed since it was last reported.
+     */
+    @Override
+    public SnoraxException takeFailure(List<ListChange> undo) {
+        synchronized (queueLock) {
+            SnoraxException reported = failure;
+            if (reported != null) {
+                undo.addAll(lostChanges);
+            }
+            clearFailure();
+            return reported;
+        }
+    }
+
+    private void enqueue(Write write) throws SnoraxException {
+        enqueue(List.of(write));
+    }
+
+    private void enqueue(List<Write> writes) throws SnoraxException {
+        synchronized (queueLock) {
+            if (failure != null) {
+                throw new SnoraxException("Earlier changes could not be saved: " + failure.getMessage());
+            }
+            queue.addAll(writes);
+            startWriter();
+            queueLock.notifyAll();
+        }
+    }
+
+    private void throwPendingFailure() throws SnoraxException {
+        if (failure == null) {
+            return;
+        }
+        SnoraxException reported = failure;
+        clearFailure();
+        throw new SnoraxException("The last changes could not be saved: " + reported.getMessage());
+    }
+
+    private void clearFailure() {
+        failure = null;
+        lostChanges.clear();
+        isOpenChangeLost = false;
+    }
+
+    /**
+     * Keeps the undo changes of the changes whose records are still queued, latest
+     * first, and notes whether the last of them has lost records but not ended yet.
+     */
+    private void collectLostChanges() {
+        boolean isLost = false;
+        for (Write write : queue) {
+            if (write.undo == null) {
+                isLost = true;
+            } else {
+                if (isLost) {
+                    lostChanges.addAll(0, write.undo);
+                }
+                isLost = false;
+            }
+        }
+        isOpenChangeLost = isLost;
+    }
+
+    private void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        writer = new Thread(this::runWriter, "snorax-writer");
+        writer.setDaemon(true);
+        writer.start();
+        register(this);
+    }
+
+    private void runWriter() {
+        while (true) {
+            List<Write> batch;
+            synchronized (queueLock) {
+                // Another writer may still be finishing a batch after a close and reopen
+                while (queue.isEmpty() || isWriting) {
+                    if (queue.isEmpty() && writer != Thread.currentThread()) {
+                        return;
+                    }
+                    try {
+                        queueLock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                batch = new ArrayList<>(queue);
+                isWriting = true;
+            }
+
+            // Only the last full save matters; the journal records after it share one sync
+            int lastSave = -1;
+            for (int i = 0; i < batch.size(); i++) {
+                if (batch.get(i).snapshot != null) {
+                    lastSave = i;
+                }
+            }
+            int written = 0;
+            SnoraxException error = null;
+            try {
+                if (lastSave >= 0) {
+                    super.save(batch.get(lastSave).snapshot);
+                    written = lastSave + 1;
+                }
+                ArrayList<String> records = new ArrayList<>();
+                for (Write write : batch.subList(written, batch.size())) {
+                    if (write.record != null) {
+                        records.add(write.record);
+                    }
+                }
+                if (!records.isEmpty()) {
+                    recordAll(records);
+                }
+                written = batch.size();
+            } catch (SnoraxException e) {
+                error = e;
+            }
+
+            synchronized (queueLock) {
+                for (int i = 0; i < written; i++) {
+                    queue.removeFirst();
+                }
+                if (error != null) {
+                    // The changes queued after a failed one build on it, so none of them can be written
+                    collectLostChanges();
+                    queue.clear();
+                    failure = error;
+                }
+                isWriting = false;
+                writeCount++;
+                queueLock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Blocks until every queued change is on disk.
+     *
+     * @throws SnoraxException If a queued change could not be written.
+     */
+    @Override
+    public void flush() throws SnoraxException {
+        synchronized (queueLock) {
+            while (true) {
+                throwPendingFailure();
+                if (queue.isEmpty() && !isWriting) {
+                    return;
+                }
+                try {
+                    queueLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SnoraxException("Interrupted while saving tasks");
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes every queued change, then stops the writer thread and leaves the
+     * shutdown hook. The storage stays usable, and starts a new writer when next needed.
+     *
+     * @throws SnoraxException If a queued change could not be written.
+     */
+    @Override
+    public void close() throws SnoraxException {
+        try {
+            flush();
+        } finally {
+            synchronized (queueLock) {
+                writer = null;
+                queueLock.notifyAll();
+            }
+            unregister(this);
+        }
+    }
+
+    /**
+     * Has the shared shutdown hook flush this storage, adding the hook for the first one.
+     */
+    private static void register(AsyncStorage storage) {
+        synchronized (OPEN_STORAGES) {
+            OPEN_STORAGES.add(storage);
+            if (shutdownHook == null) {
+                shutdownHook = new Thread(AsyncStorage::flushAllQuietly, "snorax-writer-shutdown");
+                Runtime.getRuntime().addShutdownHook(shutdownHook);
+            }
+        }
+    }
+
+    /**
+     * Stops the shared shutdown hook flushing this storage, removing the hook after the last one.
+     */
+    private static void unregister(AsyncStorage storage) {
+        synchronized (OPEN_STORAGES) {
+            if (!OPEN_STORAGES.remove(storage) || !OPEN_STORAGES.isEmpty()) {
+                return;
+            }
+            try {
+                Runtime.getRuntime().removeShutdownHook(shutdownHook);
+            } catch (IllegalStateException e) {
+                // The JVM is already shutting down, and the hook is running
+            }
+            shutdownHook = null;
+        }
+    }
+
+    private static void flushAllQuietly() {
+        List<AsyncStorage> storages;
+        synchronized (OPEN_STORAGES) {
+            storages = new ArrayList<>(OPEN_STORAGES);
+        }
+        for (AsyncStorage storage : storages) {
+            storage.flushQuietly();
+        }
+    }
+
+    /**
+     * Returns whether the shared shutdown hook flushes this storage.
+     */
+    boolean isFlushedOnShutdown() {
+        synchronized (OPEN_STORAGES) {
+            return OPEN_STORAGES.contains(this);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (SnoraxException e) {
+            System.err.println("Some changes could not be saved: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Returns how many batches the writer thread has written.
+     */
+    int getWriteCount() {
+        synchronized (queueLock) {
+            return writeCount;
+        }
+    }
+
+    /**
+     * A queued write: a journal record, a snapshot for a full save, or the end of
+     * a change with the changes that undo it.
+     */
+    private static class Write {
+        private final String record;
+        private final ArrayList<Task> snapshot;
+        private final List<ListChange> undo;
+
+        Write(String record, ArrayList<Task> snapshot, List<ListChange> undo) {
+            this.record = record;
+            this.snapshot = snapshot;
+            this.undo = undo;
+        }
+    }
+}
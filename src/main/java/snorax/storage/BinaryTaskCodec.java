@@ -0,0 +1,375 @@
+package snorax.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import snorax.task.DateTimeCodec;
+import snorax.task.Deadline;
+import snorax.task.Event;
+import snorax.task.Task;
+import snorax.task.Todo;
+import snorax.tasklist.TaskSource;
+
+/**
+ * Encodes tasks in the binary data file format.
+ *
+ * <p>The file starts with the magic bytes {@code SNXB}, a version byte and the
+ * task count. Each task is a flags byte (type in the low two bits, then a done
+ * bit and a raw-times bit), a length-prefixed UTF-8 description and, for
+ * deadlines and events, their times as minutes since the epoch. Times that do
+ * not parse as {@code yyyy-MM-dd HHmm} are kept as length-prefixed strings
+ * instead, so nothing the text format can hold is lost.
+ */
+class BinaryTaskCodec {
+    static final byte VERSION = 1;
+
+    private static final byte[] MAGIC = {'S', 'N', 'X', 'B'};
+    private static final int HEADER_BYTES = MAGIC.length + 1 + Integer.BYTES;
+    private static final int MIN_RECORD_BYTES = 1 + Integer.BYTES;
+    private static final int TYPE_TODO = 0;
+    private static final int TYPE_DEADLINE = 1;
+    private static final int TYPE_EVENT = 2;
+    private static final int TYPE_MASK = 0x03;
+    private static final int FLAG_DONE = 0x04;
+    private static final int FLAG_RAW_TIMES = 0x08;
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private BinaryTaskCodec() {
+    }
+
+    /**
+     * Returns whether the given file starts with the binary format's magic bytes.
+     *
+     * @param path The data file to check.
+     * @return true if the file is in the binary format.
+     * @throws IOException If the file cannot be read.
+     */
+    static boolean isBinary(Path path) throws IOException {
+        if (Files.size(path) < MAGIC.length) {
+            return false;
+        }
+        byte[] head = new byte[MAGIC.length];
+        try (InputStream in = Files.newInputStream(path)) {
+            if (in.readNBytes(head, 0, head.length) < head.length) {
+                return false;
+            }
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (head[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads every task in a binary data file. A truncated file is reported and
+     * the tasks before the damaged record are kept.
+     *
+     * @param path The data file to read.
+     * @return The tasks in the file, in order.
+     * @throws IOException If the file cannot be read or has an unsupported version.
+     */
+    static ArrayList<Task> read(Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+        int count = readHeader(buffer);
+        ArrayList<Task> tasks = new ArrayList<>(Math.min(count, buffer.remaining() / MIN_RECORD_BYTES));
+        for (int i = 0; i < count; i++) {
+            int start = buffer.position();
+            if (!skipTask(buffer, i)) {
+                break;
+            }
+            buffer.position(start);
+            tasks.add(readTask(buffer));
+        }
+        return tasks;
+    }
+
+    /**
+     * Records where each task in a binary data file starts, without building any tasks.
+     * A truncated file is reported and the tasks before the damaged record are kept.
+     *
+     * @param path The data file to index.
+     * @return The records of the file, decoded into tasks on request.
+     * @throws IOException If the file cannot be mapped or has an unsupported version.
+     */
+    static TaskSource index(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Data file is too large: " + size + " bytes");
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int count = readHeader(buffer);
+            int[] offsets = new int[Math.min(count, buffer.remaining() / MIN_RECORD_BYTES)];
+            int indexed = 0;
+            while (indexed < count) {
+                int start = buffer.position();
+                if (!skipTask(buffer, indexed)) {
+                    break;
+                }
+                offsets[indexed++] = start;
+            }
+            return new Index(buffer, offsets, indexed);
+        }
+    }
+
+    /**
+     * Checks the magic bytes and version, leaving the buffer at the first record.
+     *
+     * @return The number of tasks the header declares.
+     */
+    private static int readHeader(ByteBuffer buffer) throws IOException {
+        if (buffer.remaining() < HEADER_BYTES) {
+            throw new IOException("Binary data file header is truncated");
+        }
+        buffer.position(MAGIC.length);
+        byte version = buffer.get();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary data file version: " + version);
+        }
+        return Math.max(0, buffer.getInt());
+    }
+
+    /**
+     * Moves past one record, checking that it is complete and of a known type.
+     * Damaged records are reported.
+     *
+     * @param buffer The buffer positioned at the start of the record.
+     * @param record The zero-based number of the record, for reporting.
+     * @return true if the record is intact.
+     */
+    private static boolean skipTask(ByteBuffer buffer, int record) {
+        try {
+            int flags = buffer.get();
+            skipString(buffer);
+            boolean hasRawTimes = (flags & FLAG_RAW_TIMES) != 0;
+            int timeCount;
+            switch (flags & TYPE_MASK) {
+                case TYPE_TODO:
+                    return true;
+                case TYPE_DEADLINE:
+                    timeCount = 1;
+                    break;
+                case TYPE_EVENT:
+                    timeCount = 2;
+                    break;
+                default:
+                    System.err.println("Unknown task type in binary record " + (record + 1)
+                            + " — skipping the rest of the file.");
+                    return false;
+            }
+            for (int i = 0; i < timeCount; i++) {
+                if (hasRawTimes) {
+                    skipString(buffer);
+                } else {
+                    buffer.position(buffer.position() + Long.BYTES);
+                }
+            }
+            return true;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            System.err.println("Binary data file is truncated at record " + (record + 1) + " — skipping.");
+            return false;
+        }
+    }
+
+    private static void skipString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            throw new IllegalArgumentException("Negative string length " + length);
+        }
+        buffer.position(buffer.position() + length);
+    }
+
+    /**
+     * Decodes the record at the buffer's position, which must have passed {@link #skipTask}.
+     */
+    private static Task readTask(ByteBuffer buffer) {
+        int flags = buffer.get();
+        String description = readString(buffer);
+        boolean hasRawTimes = (flags & FLAG_RAW_TIMES) != 0;
+
+        Task task;
+        switch (flags & TYPE_MASK) {
+            case TYPE_DEADLINE:
+                task = hasRawTimes
+                        ? new Deadline(description, readString(buffer))
+                        : new Deadline(description, readTime(buffer));
+                break;
+            case TYPE_EVENT:
+                task = hasRawTimes
+                        ? new Event(description, readString(buffer), readString(buffer))
+                        : new Event(description, readTime(buffer), readTime(buffer));
+                break;
+            default:
+                task = new Todo(description);
+                break;
+        }
+        if ((flags & FLAG_DONE) != 0) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        String value;
+        if (buffer.hasArray()) {
+            value = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length,
+                    StandardCharsets.UTF_8);
+        } else {
+            byte[] bytes = new byte[length];
+            buffer.get(buffer.position(), bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+        }
+        buffer.position(buffer.position() + length);
+        return value;
+    }
+
+    private static LocalDateTime readTime(ByteBuffer buffer) {
+        return LocalDateTime.ofEpochSecond(buffer.getLong() * SECONDS_PER_MINUTE, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Writes the given tasks in the binary format. The stream is flushed but not closed.
+     *
+     * @param stream The stream to write to.
+     * @param tasks  The tasks to write, in order.
+     * @throws IOException If the stream cannot be written.
+     */
+    static void write(OutputStream stream, List<Task> tasks) throws IOException {
+        DataOutputStream out = new DataOutputStream(stream);
+        out.write(MAGIC);
+        out.writeByte(VERSION);
+        out.writeInt(tasks.size());
+        for (Task task : tasks) {
+            writeTask(out, task);
+        }
+        out.flush();
+    }
+
+    /**
+     * Encodes a single task record, without the file header.
+     *
+     * @param task The task to encode.
+     * @return The record bytes.
+     */
+    static byte[] encodeRecord(Task task) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            writeTask(new DataOutputStream(bytes), task);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Decodes a single task record written by {@link #encodeRecord}.
+     *
+     * @param buffer The buffer positioned at the start of the record.
+     * @return The task.
+     * @throws IOException If the record is damaged.
+     */
+    static Task decodeRecord(ByteBuffer buffer) throws IOException {
+        int start = buffer.position();
+        try {
+            if ((buffer.get(start) & TYPE_MASK) > TYPE_EVENT) {
+                throw new IOException("Unknown task type in record");
+            }
+            return readTask(buffer);
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("Task record is truncated");
+        }
+    }
+
+    private static void writeTask(DataOutputStream out, Task task) throws IOException {
+        int flags = task.isDone() ? FLAG_DONE : 0;
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            boolean hasRawTimes = !isCanonical(deadline.getBy(), deadline.getByDateTime());
+            out.writeByte(flags | TYPE_DEADLINE | (hasRawTimes ? FLAG_RAW_TIMES : 0));
+            writeString(out, task.getDescription());
+            if (hasRawTimes) {
+                writeString(out, deadline.getBy());
+            } else {
+                writeTime(out, deadline.getByDateTime());
+            }
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            boolean hasRawTimes = !isCanonical(event.getFrom(), event.getFromDateTime())
+                    || !isCanonical(event.getTo(), event.getToDateTime());
+            out.writeByte(flags | TYPE_EVENT | (hasRawTimes ? FLAG_RAW_TIMES : 0));
+            writeString(out, task.getDescription());
+            if (hasRawTimes) {
+                writeString(out, event.getFrom());
+                writeString(out, event.getTo());
+            } else {
+                writeTime(out, event.getFromDateTime());
+                writeTime(out, event.getToDateTime());
+            }
+        } else {
+            out.writeByte(flags | TYPE_TODO);
+            writeString(out, task.getDescription());
+        }
+    }
+
+    /**
+     * Returns whether the raw time string is exactly what its parsed value formats back to,
+     * so storing only the parsed value loses nothing.
+     */
+    private static boolean isCanonical(String raw, LocalDateTime dateTime) {
+        return dateTime != null && dateTime.getSecond() == 0 && dateTime.getNano() == 0
+                && DateTimeCodec.format(dateTime).equals(raw);
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static void writeTime(DataOutputStream out, LocalDateTime dateTime) throws IOException {
+        out.writeLong(dateTime.toEpochSecond(ZoneOffset.UTC) / SECONDS_PER_MINUTE);
+    }
+
+    /**
+     * The start offsets of the records in a mapped binary data file.
+     */
+    private static class Index implements TaskSource {
+        private final ByteBuffer buffer;
+        private final int[] offsets;
+        private final int size;
+
+        Index(ByteBuffer buffer, int[] offsets, int size) {
+            this.buffer = buffer;
+            this.offsets = offsets;
+            this.size = size;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Task load(int index) {
+            return readTask(buffer.duplicate().position(offsets[index]));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package snorax.storage;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import snorax.task.Task;
+import snorax.tasklist.TaskSource;
+
+/**
+ * The tasks of an indexed data file with the journal applied on top, decoded on request.
+ *
+ * <p>The journal is replayed over record numbers rather than tasks: each
+ * position holds either the number of a record in the data file or, for tasks
+ * the journal added, a negative reference to the added task. Status changes
+ * to records are kept aside and applied whenever the record is decoded.
+ */
+class IndexedTaskSource implements TaskSource, Journal.Target<Integer> {
+    private final TaskSource records;
+    private final Positions positions;
+    private final ArrayList<Task> added = new ArrayList<>();
+    private final HashMap<Integer, Boolean> statuses = new HashMap<>();
+
+    /**
+     * Constructs an IndexedTaskSource holding every record of the data file, in order.
+     *
+     * @param records The records of the data file.
+     */
+    IndexedTaskSource(TaskSource records) {
+        this.records = records;
+        this.positions = new Positions(records.size());
+    }
+
+    /**
+     * Returns the entries the journal is replayed over.
+     */
+    Positions getPositions() {
+        return positions;
+    }
+
+    @Override
+    public Integer wrap(Task task) {
+        added.add(task);
+        return -added.size();
+    }
+
+    @Override
+    public void setStatus(Integer entry, boolean isDone) {
+        if (entry < 0) {
+            Journal.TASKS.setStatus(added.get(-entry - 1), isDone);
+        } else {
+            statuses.put(entry, isDone);
+        }
+    }
+
+    @Override
+    public int size() {
+        return positions.size;
+    }
+
+    @Override
+    public Task load(int index) {
+        int entry = positions.values[index];
+        if (entry < 0) {
+            return added.get(-entry - 1);
+        }
+        Task task = records.load(entry);
+        Boolean isDone = statuses.get(entry);
+        if (isDone != null) {
+            Journal.TASKS.setStatus(task, isDone);
+        }
+        return task;
+    }
+
+    /**
+     * A list of entries backed by an int array, so replay does not box every position.
+     */
+    static class Positions extends AbstractList<Integer> {
+        private int[] values;
+        private int size;
+
+        Positions(int size) {
+            this.values = new int[Math.max(size, 1)];
+            this.size = size;
+            for (int i = 0; i < size; i++) {
+                values[i] = i;
+            }
+        }
+
+        @Override
+        public Integer get(int index) {
+            checkIndex(index, size);
+            return values[index];
+        }
+
+        @Override
+        public Integer set(int index, Integer value) {
+            checkIndex(index, size);
+            int previous = values[index];
+            values[index] = value;
+            return previous;
+        }
+
+        @Override
+        public void add(int index, Integer value) {
+            checkIndex(index, size + 1);
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+        }
+
+        @Override
+        public Integer remove(int index) {
+            checkIndex(index, size);
+            int previous = values[index];
+            System.arraycopy(values, index + 1, values, index, size - index - 1);
+            size--;
+            return previous;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        private static void checkIndex(int index, int bound) {
+            if (index < 0 || index >= bound) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + bound);
+            }
+        }
+    }
+}
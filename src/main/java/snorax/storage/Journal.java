@@ -0,0 +1,519 @@
+package snorax.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import snorax.exception.SnoraxException;
+import snorax.task.Task;
+import snorax.tasklist.ListChange;
+
+/**
+ * Append-only log of task list mutations, kept beside the data file.
+ * Each mutation is written as one short line, so recording it costs the same
+ * no matter how many tasks are stored. Appends are synced to disk before they
+ * return, with concurrent appends sharing one sync. The log is replayed on top
+ * of the data file when tasks are loaded.
+ */
+class Journal {
+    static final String FILE_SUFFIX = ".journal";
+
+    /** Replays records directly onto tasks. */
+    static final Target<Task> TASKS = new Target<>() {
+        @Override
+        public Task wrap(Task task) {
+            return task;
+        }
+
+        @Override
+        public void setStatus(Task task, boolean isDone) {
+            if (isDone) {
+                task.markAsDone();
+            } else {
+                task.markAsNotDone();
+            }
+        }
+    };
+
+    private static final String RECORD_ADD = "ADD";
+    private static final String RECORD_INSERT = "INSERT";
+    private static final String RECORD_MARK = "MARK";
+    private static final String RECORD_UNMARK = "UNMARK";
+    private static final String RECORD_DELETE = "DELETE";
+    private static final String RECORD_REORDER = "REORDER";
+    private static final String DELIMITER = " \\| ";
+    private static final String WRITE_DELIMITER = " | ";
+    private static final String ORDER_DELIMITER = ",";
+    private static final int INDEX_RECORD_TYPE = 0;
+    private static final int INDEX_ARGUMENT = 1;
+
+    private final Path path;
+    private FileChannel channel;
+    private Batch openBatch = new Batch();
+    private boolean isSyncing;
+    private long commitWindowMillis;
+    private int syncCount;
+    private int recordCount;
+    private long byteCount;
+
+    /**
+     * Constructs a Journal backed by the given file.
+     *
+     * @param path The path of the journal file.
+     */
+    Journal(Path path) {
+        this.path = path;
+        this.byteCount = path.toFile().length();
+    }
+
+    /**
+     * Returns the number of records appended or replayed since the journal was last emptied.
+     */
+    synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Returns the size of the journal file in bytes.
+     */
+    synchronized long getByteCount() {
+        return byteCount;
+    }
+
+    /**
+     * Returns how many batches have been written to disk.
+     */
+    synchronized int getSyncCount() {
+        return syncCount;
+    }
+
+    /**
+     * Sets how long the first of several concurrent appenders waits for others to join its batch.
+     *
+     * @param commitWindowMillis The wait in milliseconds; 0 syncs straight away.
+     */
+    void setCommitWindow(long commitWindowMillis) {
+        this.commitWindowMillis = commitWindowMillis;
+    }
+
+    void appendAdd(Task task) throws SnoraxException {
+        append(List.of(addRecord(task)));
+    }
+
+    void appendInsert(int index, Task task) throws SnoraxException {
+        append(List.of(insertRecord(index, task)));
+    }
+
+    void appendStatus(int index, boolean isDone) throws SnoraxException {
+        append(List.of(statusRecord(index, isDone)));
+    }
+
+    void appendDelete(int index) throws SnoraxException {
+        append(List.of(deleteRecord(index)));
+    }
+
+    void appendReorder(int[] order) throws SnoraxException {
+        append(List.of(reorderRecord(order)));
+    }
+
+    /**
+     * Appends several records with a single sync.
+     *
+     * @param records The records, as built by the record methods of this class.
+     * @throws SnoraxException If the records cannot be written.
+     */
+    void appendAll(List<String> records) throws SnoraxException {
+        if (!records.isEmpty()) {
+            append(records);
+        }
+    }
+
+    static String addRecord(Task task) {
+        return RECORD_ADD + WRITE_DELIMITER + Storage.formatTask(task);
+    }
+
+    static String insertRecord(int index, Task task) {
+        return RECORD_INSERT + WRITE_DELIMITER + index + WRITE_DELIMITER + Storage.formatTask(task);
+    }
+
+    static String statusRecord(int index, boolean isDone) {
+        return (isDone ? RECORD_MARK : RECORD_UNMARK) + WRITE_DELIMITER + index;
+    }
+
+    static String deleteRecord(int index) {
+        return RECORD_DELETE + WRITE_DELIMITER + index;
+    }
+
+    static String reorderRecord(int[] order) {
+        StringBuilder sb = new StringBuilder(RECORD_REORDER).append(WRITE_DELIMITER);
+        for (int i = 0; i < order.length; i++) {
+            if (i > 0) {
+                sb.append(ORDER_DELIMITER);
+            }
+            sb.append(order[i]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns the record for a change to the positions of a task list.
+     */
+    static String changeRecord(ListChange change) {
+        switch (change.getType()) {
+            case INSERT:
+                return insertRecord(change.getIndex(), change.getTask());
+            case DELETE:
+                return deleteRecord(change.getIndex());
+            case STATUS:
+                return statusRecord(change.getIndex(), change.isDone());
+            default:
+                return reorderRecord(change.getOrder());
+        }
+    }
+
+    /**
+     * Appends records and returns once they are on disk.
+     *
+     * <p>Records appended while another thread is syncing are gathered into the
+     * next batch, which the first of their appenders then writes and syncs in
+     * one go for all of them. A lone appender syncs straight away unless a
+     * group commit window is set.
+     */
+    private void append(List<String> records) throws SnoraxException {
+        Batch batch;
+        synchronized (this) {
+            batch = openBatch;
+            for (String record : records) {
+                byte[] bytes = (record + System.lineSeparator()).getBytes(StandardCharsets.UTF_8);
+                batch.add(bytes);
+                recordCount++;
+                byteCount += bytes.length;
+            }
+        }
+
+        Batch leading;
+        while ((leading = awaitTurn(batch)) != null) {
+            sleepForCommitWindow();
+            synchronized (this) {
+                openBatch = new Batch();
+            }
+            finish(leading, sync(leading));
+        }
+        if (batch.failure != null) {
+            throw toSnoraxException(batch.failure);
+        }
+    }
+
+    /**
+     * Waits until the given batch is on disk or this thread may sync the open batch.
+     *
+     * @return The batch this thread must sync, or null once the given batch is done.
+     */
+    private synchronized Batch awaitTurn(Batch batch) throws SnoraxException {
+        while (!batch.isDone) {
+            if (!isSyncing) {
+                isSyncing = true;
+                return openBatch;
+            }
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SnoraxException("Interrupted while saving tasks");
+            }
+        }
+        return null;
+    }
+
+    private void sleepForCommitWindow() {
+        if (commitWindowMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(commitWindowMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Writes a batch to the end of the journal and forces it to disk.
+     *
+     * @return The failure, or null if the batch was written.
+     */
+    private IOException sync(Batch batch) {
+        try {
+            if (channel == null) {
+                channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND);
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(batch.bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            return null;
+        } catch (IOException e) {
+            closeChannel();
+            return e;
+        }
+    }
+
+    private synchronized void finish(Batch batch, IOException failure) {
+        batch.failure = failure;
+        batch.isDone = true;
+        isSyncing = false;
+        syncCount++;
+        notifyAll();
+    }
+
+    /**
+     * Waits for any sync in progress, then syncs the open batch and closes the file,
+     * so the journal can be moved or deleted.
+     */
+    private synchronized void drain() throws SnoraxException {
+        while (isSyncing) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SnoraxException("Interrupted while saving tasks");
+            }
+        }
+        if (!openBatch.isEmpty()) {
+            Batch batch = openBatch;
+            openBatch = new Batch();
+            finish(batch, sync(batch));
+            if (batch.failure != null) {
+                throw toSnoraxException(batch.failure);
+            }
+        }
+        closeChannel();
+    }
+
+    private void closeChannel() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            System.err.println("Could not close journal: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    private SnoraxException toSnoraxException(IOException e) {
+        if (e instanceof AccessDeniedException) {
+            return new SnoraxException("Access denied when saving: " + path);
+        }
+        return new SnoraxException("Error saving tasks: " + e.getMessage());
+    }
+
+    /**
+     * Applies every record in the journal, in order, to the given tasks.
+     * Records that cannot be applied are reported and skipped.
+     *
+     * @param tasks The tasks loaded from the data file.
+     * @throws SnoraxException If the journal exists but cannot be read.
+     */
+    void replay(List<Task> tasks) throws SnoraxException {
+        replay(tasks, TASKS);
+    }
+
+    /**
+     * Applies every record in the journal, in order, to a list of entries standing in for tasks.
+     * Records that cannot be applied are reported and skipped.
+     *
+     * @param entries The entries for the tasks loaded from the data file.
+     * @param target  How added tasks become entries and how status changes reach them.
+     * @param <T>     The type of the entries.
+     * @throws SnoraxException If the journal exists but cannot be read.
+     */
+    synchronized <T> void replay(List<T> entries, Target<T> target) throws SnoraxException {
+        if (!Files.exists(path)) {
+            return;
+        }
+
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(path, StandardCharsets.UTF_8);
+        } catch (AccessDeniedException e) {
+            throw new SnoraxException("Access denied to journal file: " + path);
+        } catch (IOException e) {
+            throw new SnoraxException("Error reading journal file: " + e.getMessage());
+        }
+
+        recordCount = 0;
+        int lineNumber = 0;
+        for (String line : lines) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            recordCount++;
+            if (!applyRecord(line, lineNumber, entries, target)) {
+                System.err.println("Skipping corrupted journal record (line " + lineNumber
+                        + ": \"" + line + "\")");
+            }
+        }
+    }
+
+    private <T> boolean applyRecord(String line, int lineNumber, List<T> entries, Target<T> target) {
+        String[] parts = line.split(DELIMITER, 2);
+        if (parts.length < 2) {
+            return false;
+        }
+
+        String argument = parts[INDEX_ARGUMENT].trim();
+        try {
+            switch (parts[INDEX_RECORD_TYPE].trim()) {
+                case RECORD_ADD:
+                    Task task = Storage.parseTaskFromLine(argument, lineNumber);
+                    if (task == null) {
+                        return false;
+                    }
+                    entries.add(target.wrap(task));
+                    return true;
+                case RECORD_INSERT:
+                    return applyInsert(argument, lineNumber, entries, target);
+                case RECORD_MARK:
+                    target.setStatus(entries.get(Integer.parseInt(argument)), true);
+                    return true;
+                case RECORD_UNMARK:
+                    target.setStatus(entries.get(Integer.parseInt(argument)), false);
+                    return true;
+                case RECORD_DELETE:
+                    entries.remove(Integer.parseInt(argument));
+                    return true;
+                case RECORD_REORDER:
+                    return applyReorder(argument, entries);
+                default:
+                    return false;
+            }
+        } catch (NumberFormatException | IndexOutOfBoundsException e) {
+            return false;
+        }
+    }
+
+    private <T> boolean applyInsert(String argument, int lineNumber, List<T> entries, Target<T> target) {
+        String[] parts = argument.split(DELIMITER, 2);
+        if (parts.length < 2) {
+            return false;
+        }
+        int index = Integer.parseInt(parts[0].trim());
+        Task task = Storage.parseTaskFromLine(parts[1].trim(), lineNumber);
+        if (task == null || index < 0 || index > entries.size()) {
+            return false;
+        }
+        entries.add(index, target.wrap(task));
+        return true;
+    }
+
+    private <T> boolean applyReorder(String argument, List<T> tasks) {
+        String[] positions = argument.isEmpty() ? new String[0] : argument.split(ORDER_DELIMITER);
+        if (positions.length != tasks.size()) {
+            return false;
+        }
+
+        boolean[] isUsed = new boolean[positions.length];
+        ArrayList<T> reordered = new ArrayList<>(positions.length);
+        for (String position : positions) {
+            int oldIndex = Integer.parseInt(position.trim());
+            if (isUsed[oldIndex]) {
+                return false;
+            }
+            isUsed[oldIndex] = true;
+            reordered.add(tasks.get(oldIndex));
+        }
+
+        for (int i = 0; i < reordered.size(); i++) {
+            tasks.set(i, reordered.get(i));
+        }
+        return true;
+    }
+
+    /**
+     * Moves every record to the given file, leaving this journal empty.
+     *
+     * @param target The file that takes over the current records.
+     * @throws SnoraxException If the journal cannot be moved.
+     */
+    synchronized void rotateTo(Path target) throws SnoraxException {
+        drain();
+        try {
+            if (Files.exists(path)) {
+                Files.move(path, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException e) {
+            throw new SnoraxException("Error rotating journal: " + e.getMessage());
+        }
+        recordCount = 0;
+        byteCount = 0;
+    }
+
+    /**
+     * Removes all records, typically after they have been folded into the data file.
+     *
+     * @throws SnoraxException If the journal cannot be deleted.
+     */
+    synchronized void clear() throws SnoraxException {
+        drain();
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            throw new SnoraxException("Error clearing journal: " + e.getMessage());
+        }
+        recordCount = 0;
+        byteCount = 0;
+    }
+
+    /**
+     * Adapts replay to lists that hold something other than the tasks themselves.
+     *
+     * @param <T> The type of the list entries.
+     */
+    interface Target<T> {
+        /**
+         * Returns the entry for a task added by the journal.
+         *
+         * @param task The added task.
+         * @return The entry to add to the list.
+         */
+        T wrap(Task task);
+
+        /**
+         * Applies a journalled status change to an entry.
+         *
+         * @param entry  The entry whose task was marked or unmarked.
+         * @param isDone The new status of the task.
+         */
+        void setStatus(T entry, boolean isDone);
+    }
+
+    /**
+     * Records waiting to be written together with a single sync.
+     */
+    private static class Batch {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private boolean isDone;
+        private IOException failure;
+
+        void add(byte[] record) {
+            bytes.write(record, 0, record.length);
+        }
+
+        boolean isEmpty() {
+            return bytes.size() == 0;
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package snorax.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import snorax.task.Deadline;
+import snorax.task.Event;
+import snorax.task.Task;
+import snorax.task.Todo;
+import snorax.tasklist.TaskSource;
+
+/**
+ * Reads tasks straight out of a memory-mapped data file.
+ *
+ * <p>Lines are located by scanning for newline and {@code " | "} bytes in the
+ * mapped buffer, so no intermediate list of lines is built and only the field
+ * slices a task actually keeps are decoded into Strings. Corrupted lines are
+ * skipped with the same messages as {@link Storage#parseTaskFromLine}.
+ *
+ * <p>Large files are split into byte ranges that end on a newline and parsed
+ * in parallel on the common ForkJoinPool. The ranges are joined back in file
+ * order, so task positions and reported line numbers match a sequential read.
+ *
+ * <p>The offset index behind lazy loading reads the file into a heap buffer
+ * with positional reads instead of mapping it, as it outlives the call that
+ * builds it, and a file that stays mapped cannot be replaced on Windows, where
+ * every save renames a new file over it.
+ */
+class MappedTaskReader {
+    private static final int MIN_CHUNK_BYTES = 512 * 1024;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final String SKIPPING = " — skipping.";
+    private static final byte NEWLINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+    private static final byte SPACE = ' ';
+    private static final byte PIPE = '|';
+    private static final byte TYPE_TODO = 'T';
+    private static final byte TYPE_DEADLINE = 'D';
+    private static final byte TYPE_EVENT = 'E';
+    private static final byte STATUS_NOT_DONE = '0';
+    private static final byte STATUS_DONE = '1';
+    private static final int MAX_FIELDS = 5;
+    private static final int MIN_FIELDS_TODO = 3;
+    private static final int MIN_FIELDS_DEADLINE = 4;
+    private static final int MIN_FIELDS_EVENT = 5;
+    private static final int INDEX_TYPE = 0;
+    private static final int INDEX_STATUS = 1;
+    private static final int INDEX_DESC = 2;
+    private static final int INDEX_BY = 3;
+    private static final int INDEX_FROM = 3;
+    private static final int INDEX_TO = 4;
+
+    private final ByteBuffer buffer;
+    private final ArrayList<Task> tasks = new ArrayList<>();
+    private final ArrayList<Warning> warnings = new ArrayList<>();
+    private final int[] fieldStarts = new int[MAX_FIELDS];
+    private final int[] fieldEnds = new int[MAX_FIELDS];
+    private byte[] scratch = new byte[256];
+    private int lineCount;
+
+    private MappedTaskReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Reads every task in the given data file, in parallel if the file is large.
+     *
+     * @param path The data file to read.
+     * @return The tasks in the file, in order.
+     * @throws IOException If the file cannot be mapped.
+     */
+    static ArrayList<Task> read(Path path) throws IOException {
+        int threads = ForkJoinPool.getCommonPoolParallelism();
+        long size = Files.size(path);
+        return read(path, (int) Math.max(MIN_CHUNK_BYTES, size / ((long) threads * CHUNKS_PER_THREAD)));
+    }
+
+    /**
+     * Reads every task in the given data file, parsing chunks of roughly the given size in parallel.
+     *
+     * @param path      The data file to read.
+     * @param chunkSize The number of bytes after which a chunk ends at the next newline.
+     * @return The tasks in the file, in order.
+     * @throws IOException If the file cannot be mapped.
+     */
+    static ArrayList<Task> read(Path path, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Data file is too large: " + size + " bytes");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            int[] bounds = splitOnNewlines(buffer, (int) size, chunkSize);
+            MappedTaskReader[] chunks = new MappedTaskReader[bounds.length - 1];
+            if (chunks.length == 1) {
+                chunks[0] = new MappedTaskReader(buffer);
+                chunks[0].readRange(0, (int) size, 1);
+            } else {
+                ForkJoinPool.commonPool().invoke(new ChunkTask(buffer, bounds, chunks, 0, chunks.length));
+            }
+            return join(chunks);
+        }
+    }
+
+    /**
+     * Returns chunk boundaries: chunk i covers [bounds[i], bounds[i + 1]) and ends just after a newline.
+     */
+    private static int[] splitOnNewlines(ByteBuffer buffer, int size, int chunkSize) {
+        ArrayList<Integer> bounds = new ArrayList<>();
+        bounds.add(0);
+        int start = 0;
+        while (start < size) {
+            int end = size;
+            if ((long) start + chunkSize < size) {
+                end = Math.min(size, indexOf(buffer, NEWLINE, start + chunkSize - 1, size) + 1);
+            }
+            bounds.add(end);
+            start = end;
+        }
+        if (bounds.size() == 1) {
+            bounds.add(0);
+        }
+        return bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Concatenates parsed chunks in file order and reports their warnings with global line numbers.
+     */
+    private static ArrayList<Task> join(MappedTaskReader[] chunks) {
+        int total = 0;
+        for (MappedTaskReader chunk : chunks) {
+            total += chunk.tasks.size();
+        }
+
+        ArrayList<Task> tasks = new ArrayList<>(total);
+        int lineOffset = 0;
+        for (MappedTaskReader chunk : chunks) {
+            tasks.addAll(chunk.tasks);
+            for (Warning warning : chunk.warnings) {
+                System.err.println(warning.format(lineOffset));
+            }
+            lineOffset += chunk.lineCount;
+        }
+        return tasks;
+    }
+
+    /**
+     * Records where each valid line of the given data file starts, without building any tasks.
+     * Corrupted lines are reported and left out, as they are by {@link #read(Path)}.
+     *
+     * @param path The data file to index.
+     * @return The lines of the file, decoded into tasks on request.
+     * @throws IOException If the file cannot be read.
+     */
+    static TaskSource index(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Data file is too large: " + size + " bytes");
+            }
+            ByteBuffer bytes = ByteBuffer.allocate((int) size);
+            // Copied out rather than mapped, so nothing holds the file once the channel closes
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, bytes.position()) < 0) {
+                    break;
+                }
+            }
+            bytes.flip();
+            Index index = new Index(bytes);
+            index.indexRange(bytes.limit());
+            for (Warning warning : index.reader.warnings) {
+                System.err.println(warning.format(0));
+            }
+            index.reader.warnings.clear();
+            return index;
+        }
+    }
+
+    /**
+     * Parses the lines in [start, end), which must begin at the start of a line.
+     *
+     * @param start           The offset of the first byte to parse.
+     * @param end             The offset just past the last byte to parse.
+     * @param firstLineNumber The line number of the line at {@code start}.
+     */
+    private void readRange(int start, int end, int firstLineNumber) {
+        int lineNumber = firstLineNumber;
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = lineEnd(lineStart, end);
+            int next = indexOf(buffer, NEWLINE, lineStart, end) + 1;
+            if (!isBlank(lineStart, lineEnd)) {
+                Task task = parseLine(lineStart, lineEnd, lineNumber);
+                if (task != null) {
+                    tasks.add(task);
+                }
+            }
+            lineNumber++;
+            lineStart = next;
+        }
+        lineCount = lineNumber - firstLineNumber;
+    }
+
+    private Task parseLine(int lineStart, int lineEnd, int lineNumber) {
+        return checkLine(lineStart, lineEnd, lineNumber) ? createTask() : null;
+    }
+
+    /**
+     * Splits a line into fields and reports why it cannot hold a task, if it cannot.
+     *
+     * @return true if {@link #createTask()} can build a task from the fields.
+     */
+    private boolean checkLine(int lineStart, int lineEnd, int lineNumber) {
+        int fieldCount = splitFields(lineStart, lineEnd);
+        if (fieldCount < MIN_FIELDS_TODO) {
+            warn("Skipping corrupted entry", lineStart, lineEnd, lineNumber, "");
+            return false;
+        }
+
+        byte status = singleByte(INDEX_STATUS);
+        if (status != STATUS_NOT_DONE && status != STATUS_DONE) {
+            warn("Invalid status '" + decode(INDEX_STATUS) + "'", lineStart, lineEnd, lineNumber, SKIPPING);
+            return false;
+        }
+
+        if (fieldStarts[INDEX_DESC] == fieldEnds[INDEX_DESC]) {
+            warn("Empty description", lineStart, lineEnd, lineNumber, SKIPPING);
+            return false;
+        }
+
+        switch (singleByte(INDEX_TYPE)) {
+            case TYPE_TODO:
+                return true;
+            case TYPE_DEADLINE:
+                if (fieldCount < MIN_FIELDS_DEADLINE) {
+                    warn("Missing deadline time", lineStart, lineEnd, lineNumber, SKIPPING);
+                    return false;
+                }
+                return true;
+            case TYPE_EVENT:
+                if (fieldCount < MIN_FIELDS_EVENT) {
+                    warn("Missing event from/to times", lineStart, lineEnd, lineNumber, SKIPPING);
+                    return false;
+                }
+                return true;
+            default:
+                warn("Unknown task type '" + decode(INDEX_TYPE) + "'", lineStart, lineEnd, lineNumber, SKIPPING);
+                return false;
+        }
+    }
+
+    /**
+     * Builds a task from the fields of a line that passed {@link #checkLine}.
+     */
+    private Task createTask() {
+        Task task;
+        switch (singleByte(INDEX_TYPE)) {
+            case TYPE_DEADLINE:
+                task = new Deadline(decode(INDEX_DESC), decode(INDEX_BY));
+                break;
+            case TYPE_EVENT:
+                task = new Event(decode(INDEX_DESC), decode(INDEX_FROM), decode(INDEX_TO));
+                break;
+            default:
+                task = new Todo(decode(INDEX_DESC));
+                break;
+        }
+        if (singleByte(INDEX_STATUS) == STATUS_DONE) {
+            task.markAsDone();
+        }
+        return task;
+    }
+
+    /**
+     * Records the trimmed bounds of up to {@link #MAX_FIELDS} fields separated by " | ".
+     * Like String.split, trailing empty fields are not counted.
+     *
+     * @return The number of fields in the line.
+     */
+    private int splitFields(int lineStart, int lineEnd) {
+        int fieldCount = 0;
+        int nonEmptyCount = 0;
+        int fieldStart = lineStart;
+        for (int i = lineStart + 1; i < lineEnd - 1; i++) {
+            if (buffer.get(i) == PIPE && buffer.get(i - 1) == SPACE && buffer.get(i + 1) == SPACE) {
+                fieldCount = addField(fieldCount, fieldStart, i - 1);
+                if (i - 1 > fieldStart) {
+                    nonEmptyCount = fieldCount;
+                }
+                fieldStart = i + 2;
+                i += 2;
+            }
+        }
+        fieldCount = addField(fieldCount, fieldStart, lineEnd);
+        return lineEnd > fieldStart ? fieldCount : nonEmptyCount;
+    }
+
+    private int addField(int fieldCount, int start, int end) {
+        if (fieldCount < MAX_FIELDS) {
+            int trimmedStart = start;
+            int trimmedEnd = end;
+            while (trimmedStart < trimmedEnd && isWhitespace(trimmedStart)) {
+                trimmedStart++;
+            }
+            while (trimmedEnd > trimmedStart && isWhitespace(trimmedEnd - 1)) {
+                trimmedEnd--;
+            }
+            fieldStarts[fieldCount] = trimmedStart;
+            fieldEnds[fieldCount] = trimmedEnd;
+        }
+        return fieldCount + 1;
+    }
+
+    /**
+     * Returns the only byte of a one-byte field, or 0 if the field has any other length.
+     */
+    private byte singleByte(int field) {
+        return fieldEnds[field] - fieldStarts[field] == 1 ? buffer.get(fieldStarts[field]) : 0;
+    }
+
+    private String decode(int field) {
+        return decode(fieldStarts[field], fieldEnds[field]);
+    }
+
+    private String decode(int start, int end) {
+        int length = end - start;
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(start, scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+
+    private void warn(String problem, int lineStart, int lineEnd, int lineNumber, String suffix) {
+        warnings.add(new Warning(problem, decode(lineStart, lineEnd), lineNumber, suffix));
+    }
+
+    /**
+     * Returns the end of the line starting at the given offset, excluding any line terminator.
+     */
+    private int lineEnd(int lineStart, int end) {
+        int lineEnd = indexOf(buffer, NEWLINE, lineStart, end);
+        if (lineEnd > lineStart && buffer.get(lineEnd - 1) == CARRIAGE_RETURN) {
+            lineEnd--;
+        }
+        return lineEnd;
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte target, int from, int end) {
+        for (int i = from; i < end; i++) {
+            if (buffer.get(i) == target) {
+                return i;
+            }
+        }
+        return end;
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isWhitespace(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Matches the characters String.trim removes; bytes of multi-byte UTF-8 characters never match.
+     */
+    private boolean isWhitespace(int index) {
+        return (buffer.get(index) & 0xFF) <= SPACE;
+    }
+
+    /**
+     * The start offsets of the valid lines in a copy of a data file.
+     */
+    private static class Index implements TaskSource {
+        private final MappedTaskReader reader;
+        private int[] lineStarts = new int[64];
+        private int size;
+
+        Index(ByteBuffer buffer) {
+            this.reader = new MappedTaskReader(buffer);
+        }
+
+        private void indexRange(int end) {
+            int lineNumber = 1;
+            int lineStart = 0;
+            while (lineStart < end) {
+                int lineEnd = reader.lineEnd(lineStart, end);
+                if (!reader.isBlank(lineStart, lineEnd) && reader.checkLine(lineStart, lineEnd, lineNumber)) {
+                    if (size == lineStarts.length) {
+                        lineStarts = Arrays.copyOf(lineStarts, size * 2);
+                    }
+                    lineStarts[size++] = lineStart;
+                }
+                lineNumber++;
+                lineStart = indexOf(reader.buffer, NEWLINE, lineStart, end) + 1;
+            }
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public synchronized Task load(int index) {
+            int lineStart = lineStarts[index];
+            int lineEnd = reader.lineEnd(lineStart, reader.buffer.limit());
+            reader.splitFields(lineStart, lineEnd);
+            return reader.createTask();
+        }
+    }
+
+    /**
+     * A skipped line, reported once the line numbers of earlier chunks are known.
+     */
+    private static class Warning {
+        private final String problem;
+        private final String line;
+        private final int lineNumber;
+        private final String suffix;
+
+        Warning(String problem, String line, int lineNumber, String suffix) {
+            this.problem = problem;
+            this.line = line;
+            this.lineNumber = lineNumber;
+            this.suffix = suffix;
+        }
+
+        String format(int lineOffset) {
+            return problem + " (line " + (lineOffset + lineNumber) + ": \"" + line + "\")" + suffix;
+        }
+    }
+
+    /**
+     * Parses a run of chunks, splitting it in half until a single chunk remains.
+     */
+    private static class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private final MappedByteBuffer buffer;
+        private final int[] bounds;
+        private final MappedTaskReader[] chunks;
+        private final int from;
+        private final int to;
+
+        ChunkTask(MappedByteBuffer buffer, int[] bounds, MappedTaskReader[] chunks, int from, int to) {
+            this.buffer = buffer;
+            this.bounds = bounds;
+            this.chunks = chunks;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from == 1) {
+                MappedTaskReader reader = new MappedTaskReader(buffer);
+                reader.readRange(bounds[from], bounds[from + 1], 1);
+                chunks[from] = reader;
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ChunkTask(buffer, bounds, chunks, from, middle),
+                    new ChunkTask(buffer, bounds, chunks, middle, to));
+        }
+    }
+}
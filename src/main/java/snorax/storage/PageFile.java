@@ -0,0 +1,317 @@
+package snorax.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.List;
+
+import snorax.task.Task;
+
+/**
+ * A file of fixed-size task slots, grouped into pages.
+ *
+ * <p>The first page is a header holding the magic bytes {@code SNXP}, a version
+ * byte and a generation number. Every later page holds
+ * {@value #SLOTS_PER_PAGE} slots of {@value #SLOT_SIZE} bytes, so writing a
+ * slot never touches more than one page. Each slot starts with its state, the
+ * done status of its task, the next slot of the task and its payload length. The
+ * payload is the task's binary record; a record too long for one slot
+ * continues in further slots. The done status lives outside the payload so
+ * that marking a task is a single one-byte positional write.
+ *
+ * <p>Slots are not ordered; the owner keeps the list order separately by head
+ * slot. Slots that no head reaches are reclaimed into a free list when the file
+ * is opened, which also tidies up after a crash between writing a slot and
+ * recording it in the order.
+ */
+class PageFile {
+    static final int PAGE_SIZE = 4096;
+    static final int SLOT_SIZE = 128;
+    static final int SLOTS_PER_PAGE = PAGE_SIZE / SLOT_SIZE;
+
+    private static final byte[] MAGIC = {'S', 'N', 'X', 'P'};
+    private static final byte VERSION = 1;
+    private static final int OFFSET_VERSION = MAGIC.length;
+    private static final int OFFSET_GENERATION = OFFSET_VERSION + 1;
+    private static final int OFFSET_STATE = 0;
+    private static final int OFFSET_DONE = 1;
+    private static final int OFFSET_NEXT = 2;
+    private static final int OFFSET_LENGTH = 6;
+    private static final int SLOT_HEADER_SIZE = 8;
+    private static final int PAYLOAD_SIZE = SLOT_SIZE - SLOT_HEADER_SIZE;
+    private static final byte STATE_FREE = 0;
+    private static final byte STATE_HEAD = 1;
+    private static final byte STATE_CONTINUATION = 2;
+    private static final int NO_SLOT = -1;
+
+    private final FileChannel channel;
+    private final long generation;
+    private final ArrayDeque<Integer> freeSlots = new ArrayDeque<>();
+    private int slotCount;
+
+    private PageFile(FileChannel channel, long generation, int slotCount) {
+        this.channel = channel;
+        this.generation = generation;
+        this.slotCount = slotCount;
+    }
+
+    /**
+     * Returns whether the given file starts with the page file's magic bytes.
+     *
+     * @param path The file to check.
+     * @return true if the file is a page file.
+     * @throws IOException If the file cannot be read.
+     */
+    static boolean isPageFile(Path path) throws IOException {
+        byte[] head = new byte[MAGIC.length];
+        try (InputStream in = Files.newInputStream(path)) {
+            if (in.readNBytes(head, 0, head.length) < head.length) {
+                return false;
+            }
+        }
+        for (int i = 0; i < MAGIC.length; i++) {
+            if (head[i] != MAGIC[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes a new page file holding the given tasks in consecutive slots, and syncs it.
+     *
+     * @param path       The file to write.
+     * @param generation The generation to stamp in the header.
+     * @param tasks      The tasks to store.
+     * @return The head slot of each task, in order.
+     * @throws IOException If the file cannot be written.
+     */
+    static int[] create(Path path, long generation, List<Task> tasks) throws IOException {
+        Files.deleteIfExists(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            PageFile file = new PageFile(channel, generation, 0);
+            file.writeHeader();
+            int[] heads = new int[tasks.size()];
+            for (int i = 0; i < tasks.size(); i++) {
+                heads[i] = file.writeSlots(tasks.get(i));
+            }
+            channel.force(true);
+            return heads;
+        }
+    }
+
+    /**
+     * Opens an existing page file for reading and writing.
+     *
+     * @param path The page file.
+     * @return The open file, with no free slots known until {@link #reclaim} is called.
+     * @throws IOException If the file cannot be opened or is not a supported page file.
+     */
+    static PageFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(OFFSET_GENERATION + Long.BYTES);
+            channel.read(header, 0);
+            header.flip();
+            if (header.remaining() < header.capacity()) {
+                throw new IOException("Page file header is truncated");
+            }
+            byte version = header.get(OFFSET_VERSION);
+            if (version != VERSION) {
+                throw new IOException("Unsupported page file version: " + version);
+            }
+            int slotCount = (int) (Math.max(0, channel.size() - PAGE_SIZE) / SLOT_SIZE);
+            return new PageFile(channel, header.getLong(OFFSET_GENERATION), slotCount);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    long getGeneration() {
+        return generation;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(PAGE_SIZE);
+        header.put(MAGIC).put(VERSION).putLong(generation);
+        header.clear();
+        writeFully(header, 0);
+    }
+
+    /**
+     * Rebuilds the free list: every slot not reached from the given head slots is free.
+     *
+     * @param heads The head slots of the tasks in use.
+     * @param count How many entries of {@code heads} are in use.
+     * @throws IOException If a chain cannot be followed.
+     */
+    void reclaim(int[] heads, int count) throws IOException {
+        boolean[] isUsed = new boolean[slotCount];
+        for (int i = 0; i < count; i++) {
+            for (int slot = heads[i]; slot != NO_SLOT; slot = readHeader(slot).getInt(OFFSET_NEXT)) {
+                if (slot < 0 || slot >= slotCount || isUsed[slot]) {
+                    throw new IOException("Page file slot chain is broken at slot " + slot);
+                }
+                isUsed[slot] = true;
+            }
+        }
+
+        freeSlots.clear();
+        for (int slot = slotCount - 1; slot >= 0; slot--) {
+            if (!isUsed[slot]) {
+                freeSlots.push(slot);
+            }
+        }
+    }
+
+    int getFreeSlotCount() {
+        return freeSlots.size();
+    }
+
+    /**
+     * Stores a task in free slots, reusing freed ones first, and syncs it.
+     *
+     * @param task The task to store.
+     * @return The head slot of the task.
+     * @throws IOException If the slots cannot be written.
+     */
+    int write(Task task) throws IOException {
+        int head = writeSlots(task);
+        channel.force(false);
+        return head;
+    }
+
+    /**
+     * Writes the slots of a task, continuation slots first, so a head slot on disk
+     * always leads to a complete chain.
+     */
+    private int writeSlots(Task task) throws IOException {
+        byte[] record = BinaryTaskCodec.encodeRecord(task);
+        int chunkCount = Math.max(1, (record.length + PAYLOAD_SIZE - 1) / PAYLOAD_SIZE);
+        int[] slots = new int[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            slots[i] = freeSlots.isEmpty() ? slotCount++ : freeSlots.pop();
+        }
+
+        for (int i = chunkCount - 1; i >= 0; i--) {
+            int start = i * PAYLOAD_SIZE;
+            int length = Math.min(PAYLOAD_SIZE, record.length - start);
+            ByteBuffer slot = ByteBuffer.allocate(SLOT_SIZE);
+            slot.put(OFFSET_STATE, i == 0 ? STATE_HEAD : STATE_CONTINUATION);
+            slot.put(OFFSET_DONE, (byte) (task.isDone() ? 1 : 0));
+            slot.putInt(OFFSET_NEXT, i + 1 < chunkCount ? slots[i + 1] : NO_SLOT);
+            slot.putShort(OFFSET_LENGTH, (short) length);
+            slot.put(SLOT_HEADER_SIZE, record, start, length);
+            writeFully(slot, offsetOf(slots[i]));
+        }
+        return slots[0];
+    }
+
+    /**
+     * Updates the done status of a task in place with a single one-byte write, and syncs it.
+     *
+     * @param head   The head slot of the task.
+     * @param isDone The new status.
+     * @throws IOException If the slot cannot be written.
+     */
+    void setDone(int head, boolean isDone) throws IOException {
+        writeFully(ByteBuffer.wrap(new byte[] {(byte) (isDone ? 1 : 0)}), offsetOf(head) + OFFSET_DONE);
+        channel.force(false);
+    }
+
+    /**
+     * Marks every slot of a task free and adds them to the free list.
+     *
+     * @param head The head slot of the task.
+     * @throws IOException If a slot cannot be read or written.
+     */
+    void free(int head) throws IOException {
+        int slot = head;
+        while (slot != NO_SLOT) {
+            int next = readHeader(slot).getInt(OFFSET_NEXT);
+            writeFully(ByteBuffer.wrap(new byte[] {STATE_FREE}), offsetOf(slot) + OFFSET_STATE);
+            freeSlots.push(slot);
+            slot = next;
+        }
+    }
+
+    /**
+     * Decodes the task whose chain starts at the given head slot.
+     *
+     * @param head The head slot of the task.
+     * @return The task.
+     * @throws IOException If a slot cannot be read or the record is damaged.
+     */
+    Task read(int head) throws IOException {
+        ByteBuffer record = ByteBuffer.allocate(PAYLOAD_SIZE);
+        boolean isDone = false;
+        for (int slot = head; slot != NO_SLOT; ) {
+            if (slot < 0 || slot >= slotCount) {
+                throw new IOException("Page file slot chain is broken at slot " + slot);
+            }
+            ByteBuffer bytes = ByteBuffer.allocate(SLOT_SIZE);
+            readFully(bytes, offsetOf(slot));
+            if (slot == head) {
+                if (bytes.get(OFFSET_STATE) != STATE_HEAD) {
+                    throw new IOException("Slot " + slot + " does not start a task");
+                }
+                isDone = bytes.get(OFFSET_DONE) != 0;
+            }
+            int length = Math.min(PAYLOAD_SIZE, Math.max(0, bytes.getShort(OFFSET_LENGTH)));
+            if (record.remaining() < length) {
+                record = ByteBuffer.allocate(record.capacity() * 2).put(record.flip());
+            }
+            record.put(bytes.array(), SLOT_HEADER_SIZE, length);
+            slot = bytes.getInt(OFFSET_NEXT);
+        }
+
+        record.flip();
+        Task task = BinaryTaskCodec.decodeRecord(record);
+        if (isDone) {
+            task.markAsDone();
+        } else {
+            task.markAsNotDone();
+        }
+        return task;
+    }
+
+    private ByteBuffer readHeader(int slot) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(SLOT_HEADER_SIZE);
+        readFully(header, offsetOf(slot));
+        return header;
+    }
+
+    private static long offsetOf(int slot) {
+        return PAGE_SIZE + (long) slot * SLOT_SIZE;
+    }
+
+    private void readFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new IOException("Page file is truncated");
+            }
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position());
+        }
+    }
+
+    /**
+     * Closes the underlying file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,547 @@
+package snorax.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import snorax.exception.SnoraxException;
+import snorax.task.Task;
+import snorax.tasklist.ListChange;
+import snorax.tasklist.TaskSource;
+
+/**
+ * Storage that keeps each task in its own slot of a {@link PageFile}, so a change
+ * rewrites only the slots it touches instead of the whole data file.
+ *
+ * <p>The list order lives in a separate {@code <data>.order} file holding the
+ * generation of the page file it belongs to, a count and the head slot of each
+ * task. Adding a task writes its slots and then appends its head to the order;
+ * marking a task flips one byte of its head slot in place; deleting or
+ * reordering rewrites only the order file, which is small, and a delete then
+ * frees the task's slots for reuse. A series of changes, such as a bulk
+ * delete or an undo, rewrites the order file once for the whole series. A full
+ * save writes a new page file of the next generation and its order file beside
+ * the old ones, and the page file's rename is the commit point.
+ *
+ * <p>A text or binary data file is converted on first load, through the
+ * journal-based {@link Storage} of the same path, whose journals are then
+ * cleared. Journals are not used afterwards, as every change is already written
+ * in place before it returns.
+ */
+public class PageFileStorage implements TaskStore {
+    private static final String ORDER_SUFFIX = ".order";
+    private static final String NEXT_SUFFIX = ".next";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final int OFFSET_COUNT = Long.BYTES;
+    private static final int ORDER_HEADER_SIZE = OFFSET_COUNT + Integer.BYTES;
+
+    private final Storage legacy;
+    private final Path dataPath;
+    private final Path orderPath;
+    private final Path orderNextPath;
+    private final Path orderTempPath;
+    private final Path pageTempPath;
+    private PageFile pages;
+    private int[] order = new int[0];
+    private int count;
+    private int orderWriteCount;
+
+    /**
+     * Constructs a PageFileStorage with the specified file path.
+     *
+     * @param filePath The path to the page file for storing tasks.
+     */
+    public PageFileStorage(String filePath) {
+        this.legacy = new Storage(filePath);
+        this.dataPath = Paths.get(filePath);
+        this.orderPath = Paths.get(filePath + ORDER_SUFFIX);
+        this.orderNextPath = Paths.get(filePath + ORDER_SUFFIX + NEXT_SUFFIX);
+        this.orderTempPath = Paths.get(filePath + ORDER_SUFFIX + TEMP_SUFFIX);
+        this.pageTempPath = Paths.get(filePath + NEXT_SUFFIX + TEMP_SUFFIX);
+    }
+
+    /**
+     * Loads every task from the page file, converting an older data file first.
+     *
+     * @return An ArrayList of tasks loaded from the file.
+     * @throws SnoraxException If the file cannot be read or converted.
+     */
+    @Override
+    public synchronized ArrayList<Task> load() throws SnoraxException {
+        open();
+        ArrayList<Task> tasks = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                tasks.add(pages.read(order[i]));
+            }
+        } catch (IOException e) {
+            throw new SnoraxException("Error reading data file: " + e.getMessage());
+        }
+        return tasks;
+    }
+
+    /**
+     * Loads every task from the page file, as {@link #load()} does.
+     * Slots are reused and rewritten in place, so a source that decoded them later
+     * could see tasks that were changed after it was created.
+     *
+     * @return The tasks in the file.
+     * @throws SnoraxException If the file cannot be read or converted.
+     */
+    @Override
+    public synchronized TaskSource loadLazily() throws SnoraxException {
+        return new ListSource(load());
+    }
+
+    /**
+     * Reads the tasks of a page file and its order file, without opening it for writing.
+     *
+     * @param path The page file.
+     * @return The tasks in list order.
+     * @throws IOException If either file cannot be read.
+     */
+    static ArrayList<Task> read(Path path) throws IOException {
+        Path orderPath = Paths.get(path + ORDER_SUFFIX);
+        PageFile file = PageFile.open(path);
+        try {
+            int[] heads = readOrder(orderPath, file.getGeneration());
+            ArrayList<Task> tasks = new ArrayList<>(heads.length);
+            for (int head : heads) {
+                tasks.add(file.read(head));
+            }
+            return tasks;
+        } finally {
+            file.close();
+        }
+    }
+
+    /**
+     * Reads a page file as {@link #read(Path)} does, for callers that expect a source.
+     *
+     * @param path The page file.
+     * @return The tasks in list order.
+     * @throws IOException If either file cannot be read.
+     */
+    static TaskSource index(Path path) throws IOException {
+        return new ListSource(read(path));
+    }
+
+    private PageFile ensureOpen() throws SnoraxException {
+        if (pages == null) {
+            open();
+        }
+        return pages;
+    }
+
+    /**
+     * Recovers an interrupted save, converts an older data file, then opens the page file
+     * and rebuilds its free list.
+     */
+    private void open() throws SnoraxException {
+        if (pages != null) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(pageTempPath);
+            Files.deleteIfExists(orderTempPath);
+            if (!Files.exists(dataPath) || Files.size(dataPath) == 0) {
+                Files.createDirectories(dataPath.toAbsolutePath().getParent());
+                writeAll(new ArrayList<>(), 0);
+            } else if (!PageFile.isPageFile(dataPath)) {
+                ArrayList<Task> tasks = legacy.load();
+                writeAll(tasks, 0);
+            }
+            recoverOrder();
+            // Journals left from before a conversion have already been applied
+            legacy.clearJournals();
+
+            PageFile file = PageFile.open(dataPath);
+            try {
+                order = readOrder(orderPath, file.getGeneration());
+                count = order.length;
+                file.reclaim(order, count);
+            } catch (IOException e) {
+                file.close();
+                throw e;
+            }
+            pages = file;
+        } catch (AccessDeniedException e) {
+            throw new SnoraxException("Access denied to data file: " + dataPath);
+        } catch (IOException e) {
+            throw new SnoraxException("Error reading data file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Promotes the order file of a save whose page file was committed,
+     * or discards it if the save never reached its commit point.
+     */
+    private void recoverOrder() throws IOException, SnoraxException {
+        if (!Files.exists(orderNextPath)) {
+            return;
+        }
+
+        long pageGeneration;
+        PageFile file = PageFile.open(dataPath);
+        try {
+            pageGeneration = file.getGeneration();
+        } finally {
+            file.close();
+        }
+        if (readGeneration(orderNextPath) == pageGeneration) {
+            Storage.moveAtomically(orderNextPath, orderPath);
+        } else {
+            Files.delete(orderNextPath);
+        }
+    }
+
+    private static long readGeneration(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(Long.BYTES);
+            channel.read(header, 0);
+            return header.flip().remaining() < Long.BYTES ? -1 : header.getLong();
+        }
+    }
+
+    private static int[] readOrder(Path path, long generation) throws IOException {
+        if (!Files.exists(path)) {
+            throw new IOException("Order file is missing: " + path);
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(path));
+        if (bytes.remaining() < ORDER_HEADER_SIZE) {
+            throw new IOException("Order file header is truncated");
+        }
+        if (bytes.getLong() != generation) {
+            throw new IOException("Order file does not match the data file");
+        }
+        int size = bytes.getInt();
+        if (size < 0 || size > bytes.remaining() / Integer.BYTES) {
+            throw new IOException("Order file is truncated");
+        }
+        int[] heads = new int[size];
+        bytes.asIntBuffer().get(heads);
+        return heads;
+    }
+
+    private static void writeOrder(Path path, long generation, int[] heads, int size) throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(ORDER_HEADER_SIZE + size * Integer.BYTES);
+        bytes.putLong(generation).putInt(size);
+        bytes.asIntBuffer().put(heads, 0, size);
+        bytes.rewind();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * Writes a complete page file and order file of the given generation beside the current ones,
+     * then moves them into place. Renaming the page file commits the save.
+     */
+    private void writeAll(List<Task> tasks, long generation) throws IOException, SnoraxException {
+        int[] heads = PageFile.create(pageTempPath, generation, tasks);
+        writeOrder(orderNextPath, generation, heads, heads.length);
+        closePages();
+        Storage.moveAtomically(pageTempPath, dataPath);
+        Storage.moveAtomically(orderNextPath, orderPath);
+    }
+
+    /**
+     * Replaces every task with the given list by writing a new page file.
+     *
+     * @param tasks The list of tasks to save.
+     * @throws SnoraxException If there is an error writing to the file.
+     */
+    @Override
+    public synchronized void save(ArrayList<Task> tasks) throws SnoraxException {
+        long generation = ensureOpen().getGeneration() + 1;
+        try {
+            writeAll(tasks, generation);
+        } catch (AccessDeniedException e) {
+            throw new SnoraxException("Access denied when saving: " + dataPath);
+        } catch (IOException e) {
+            throw new SnoraxException("Error saving tasks: " + e.getMessage());
+        }
+        open();
+    }
+
+    /**
+     * Writes the added task into free slots, then appends it to the order file.
+     *
+     * @param task The task that was added.
+     * @throws SnoraxException If the task cannot be written.
+     */
+    @Override
+    public synchronized void recordAdd(Task task) throws SnoraxException {
+        PageFile file = ensureOpen();
+        try {
+            int head = file.write(task);
+            try (FileChannel channel = FileChannel.open(orderPath, StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, head),
+                        ORDER_HEADER_SIZE + (long) count * Integer.BYTES);
+                channel.force(false);
+                // The new head only counts once the count covers it
+                channel.write(ByteBuffer.allocate(Integer.BYTES).putInt(0, count + 1), OFFSET_COUNT);
+                channel.force(false);
+            }
+            if (count == order.length) {
+                order = Arrays.copyOf(order, Math.max(8, count * 2));
+            }
+            order[count++] = head;
+        } catch (IOException e) {
+            throw new SnoraxException("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the inserted task into free slots, then rewrites the order file with it in place.
+     *
+     * @param index The zero-based index the task takes.
+     * @param task  The task that was inserted.
+     * @throws SnoraxException If the task or the order file cannot be written.
+     */
+    @Override
+    public void recordInsert(int index, Task task) throws SnoraxException {
+        recordChanges(List.of(ListChange.insert(index, task)));
+    }
+
+    /**
+     * Rewrites the done status of the task in place.
+     *
+     * @param index  The zero-based index of the task.
+     * @param isDone The new status of the task.
+     * @throws SnoraxException If the status cannot be written.
+     */
+    @Override
+    public synchronized void recordStatus(int index, boolean isDone) throws SnoraxException {
+        PageFile file = ensureOpen();
+        checkIndex(index);
+        try {
+            file.setDone(order[index], isDone);
+        } catch (IOException e) {
+            throw new SnoraxException("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the task from the order file, then frees its slots.
+     *
+     * @param index The zero-based index of the removed task.
+     * @throws SnoraxException If the order file cannot be written.
+     */
+    @Override
+    public void recordDelete(int index) throws SnoraxException {
+        recordChanges(List.of(ListChange.delete(index)));
+    }
+
+    /**
+     * Rewrites the order file in the new order; no task is moved.
+     *
+     * @param newOrder For each new position, the position the task held before.
+     * @throws SnoraxException If the order file cannot be written.
+     */
+    @Override
+    public void recordReorder(int[] newOrder) throws SnoraxException {
+        recordChanges(List.of(ListChange.reorder(newOrder)));
+    }
+
+    /**
+     * Writes a series of changes with a single rewrite of the order file. The
+     * changes are first worked out on a copy of the order: inserted tasks are
+     * written to free slots as they come, and status changes are noted against
+     * the slots they apply to. Then the order file is replaced once, the statuses
+     * of the tasks still in it are flipped in place, and the slots of the deleted
+     * tasks are freed. A change that does not fit the stored list writes nothing.
+     *
+     * @param changes The changes, in the order they apply.
+     * @throws SnoraxException If a change does not fit the stored list or cannot be written.
+     */
+    @Override
+    public synchronized void recordChanges(List<ListChange> changes) throws SnoraxException {
+        PageFile file = ensureOpen();
+        int[] heads = Arrays.copyOf(order, Math.max(8, count));
+        int size = count;
+        boolean isReordered = false;
+        ArrayList<Integer> removed = new ArrayList<>();
+        LinkedHashMap<Integer, Boolean> statuses = new LinkedHashMap<>();
+        ArrayList<Integer> written = new ArrayList<>();
+        try {
+            for (ListChange change : changes) {
+                int index = change.getIndex();
+                switch (change.getType()) {
+                    case INSERT:
+                        checkPosition(index, size + 1);
+                        if (size == heads.length) {
+                            heads = Arrays.copyOf(heads, size * 2);
+                        }
+                        int head = writeTask(file, change.getTask());
+                        written.add(head);
+                        System.arraycopy(heads, index, heads, index + 1, size - index);
+                        heads[index] = head;
+                        size++;
+                        isReordered = true;
+                        break;
+                    case DELETE:
+                        checkPosition(index, size);
+                        removed.add(heads[index]);
+                        statuses.remove(heads[index]);
+                        System.arraycopy(heads, index + 1, heads, index, size - index - 1);
+                        size--;
+                        isReordered = true;
+                        break;
+                    case STATUS:
+                        checkPosition(index, size);
+                        statuses.put(heads[index], change.isDone());
+                        break;
+                    default:
+                        heads = reorder(heads, size, change.getOrder());
+                        isReordered = true;
+                        break;
+                }
+            }
+            if (isReordered) {
+                replaceOrder(heads, size);
+            }
+        } catch (SnoraxException e) {
+            // The order file still refers only to the slots it did before
+            freeQuietly(file, written);
+            throw e;
+        }
+
+        try {
+            for (Map.Entry<Integer, Boolean> status : statuses.entrySet()) {
+                file.setDone(status.getKey(), status.getValue());
+            }
+        } catch (IOException e) {
+            throw new SnoraxException("Error saving tasks: " + e.getMessage());
+        }
+        freeQuietly(file, removed);
+    }
+
+    private static int writeTask(PageFile file, Task task) throws SnoraxException {
+        try {
+            return file.write(task);
+        } catch (IOException e) {
+            throw new SnoraxException("Error saving tasks: " + e.getMessage());
+        }
+    }
+
+    private static int[] reorder(int[] heads, int size, int[] newOrder) throws SnoraxException {
+        if (newOrder.length != size) {
+            throw new SnoraxException("Reorder does not match the " + size + " stored tasks");
+        }
+        int[] reordered = new int[Math.max(8, size)];
+        for (int i = 0; i < size; i++) {
+            checkPosition(newOrder[i], size);
+            reordered[i] = heads[newOrder[i]];
+        }
+        return reordered;
+    }
+
+    /**
+     * Frees the slots of tasks that are no longer referenced. Slots left unfreed are
+     * reclaimed the next time the file is opened.
+     */
+    private static void freeQuietly(PageFile file, List<Integer> freedHeads) {
+        try {
+            for (int head : freedHeads) {
+                file.free(head);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not free deleted task: " + e.getMessage());
+        }
+    }
+
+    private void replaceOrder(int[] heads, int size) throws SnoraxException {
+        try {
+            writeOrder(orderTempPath, pages.getGeneration(), heads, size);
+        } catch (IOException e) {
+            throw new SnoraxException("Error saving tasks: " + e.getMessage());
+        }
+        Storage.moveAtomically(orderTempPath, orderPath);
+        order = heads;
+        count = size;
+        orderWriteCount++;
+    }
+
+    private void checkIndex(int index) throws SnoraxException {
+        checkPosition(index, count);
+    }
+
+    private static void checkPosition(int index, int size) throws SnoraxException {
+        if (index < 0 || index >= size) {
+            throw new SnoraxException("No stored task at index " + index);
+        }
+    }
+
+    /**
+     * Closes the page file. It is opened again when next needed.
+     *
+     * @throws SnoraxException If the file cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws SnoraxException {
+        try {
+            closePages();
+        } catch (IOException e) {
+            throw new SnoraxException("Error closing data file: " + e.getMessage());
+        }
+    }
+
+    private void closePages() throws IOException {
+        if (pages != null) {
+            PageFile file = pages;
+            pages = null;
+            file.close();
+        }
+    }
+
+    /**
+     * Returns how many slots are free for reuse.
+     */
+    synchronized int getFreeSlotCount() throws SnoraxException {
+        return ensureOpen().getFreeSlotCount();
+    }
+
+    /**
+     * Returns how many times the order file has been replaced.
+     */
+    synchronized int getOrderWriteCount() {
+        return orderWriteCount;
+    }
+
+    /**
+     * A source over tasks that are already decoded.
+     */
+    private static class ListSource implements TaskSource {
+        private final List<Task> tasks;
+
+        ListSource(List<Task> tasks) {
+            this.tasks = tasks;
+        }
+
+        @Override
+        public int size() {
+            return tasks.size();
+        }
+
+        @Override
+        public Task load(int index) {
+            return tasks.get(index);
+        }
+    }
+}
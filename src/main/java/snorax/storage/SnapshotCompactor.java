@@ -0,0 +1,226 @@
+package snorax.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import snorax.exception.SnoraxException;
+import snorax.task.Task;
+
+/**
+ * Folds the journal back into the data file on a background thread.
+ *
+ * <p>Once the journal grows past a record or size threshold it is renamed to a
+ * pending file and a fresh journal is started, so foreground commands keep
+ * appending while the pending records are merged with the data file into a new
+ * snapshot. The snapshot is synced, renamed into place and committed by deleting
+ * the pending journal, then renamed over the data file; {@link #recover()} finishes or rolls
+ * back a commit that was interrupted between those two steps.
+ */
+class SnapshotCompactor {
+    static final int DEFAULT_MAX_RECORDS = 1000;
+    static final long DEFAULT_MAX_BYTES = 1024 * 1024;
+
+    private static final String PENDING_SUFFIX = ".compacting";
+    private static final String OUTPUT_SUFFIX = ".compacted";
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "snorax-compactor");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Object lock;
+    private final Path dataPath;
+    private final Path pendingPath;
+    private final Path outputPath;
+    private final Path tempPath;
+    private final TaskFileFormat format;
+    private final Journal journal;
+    private int maxRecords = DEFAULT_MAX_RECORDS;
+    private long maxBytes = DEFAULT_MAX_BYTES;
+    private long generation;
+    private Future<?> running;
+
+    /**
+     * Constructs a SnapshotCompactor for the given data file and journal.
+     *
+     * @param lock         The lock guarding every change to the data file and journal.
+     * @param dataFilePath The path of the data file.
+     * @param format       The format to write snapshots in.
+     * @param journal      The journal that foreground mutations are appended to.
+     */
+    SnapshotCompactor(Object lock, String dataFilePath, TaskFileFormat format, Journal journal) {
+        this.lock = lock;
+        this.dataPath = Paths.get(dataFilePath);
+        this.pendingPath = Paths.get(dataFilePath + Journal.FILE_SUFFIX + PENDING_SUFFIX);
+        this.outputPath = Paths.get(dataFilePath + OUTPUT_SUFFIX);
+        this.tempPath = Paths.get(dataFilePath + OUTPUT_SUFFIX + TEMP_SUFFIX);
+        this.format = format;
+        this.journal = journal;
+    }
+
+    void setThresholds(int maxRecords, long maxBytes) {
+        this.maxRecords = maxRecords;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Starts a background compaction if the journal has grown too large or an
+     * earlier compaction was left unfinished. Must be called holding the lock.
+     * Failures are reported but never thrown, as the journal alone stays correct.
+     */
+    void compactIfNeeded() {
+        if (isRunning()) {
+            return;
+        }
+
+        boolean hasPending = Files.exists(pendingPath);
+        boolean isOverThreshold = journal.getRecordCount() >= maxRecords
+                || journal.getByteCount() >= maxBytes;
+        if (!hasPending && !isOverThreshold) {
+            return;
+        }
+        if (!hasPending) {
+            try {
+                journal.rotateTo(pendingPath);
+            } catch (SnoraxException e) {
+                System.err.println("Could not start compaction: " + e.getMessage());
+                return;
+            }
+        }
+
+        long startGeneration = generation;
+        running = EXECUTOR.submit(() -> compact(startGeneration));
+    }
+
+    private boolean isRunning() {
+        return running != null && !running.isDone();
+    }
+
+    private void compact(long startGeneration) {
+        try {
+            File dataFile = dataPath.toFile();
+            ArrayList<Task> tasks = dataFile.exists() ? Storage.readTasks(dataFile) : new ArrayList<>();
+            new Journal(pendingPath).replay(tasks);
+            Storage.writeTasks(tempPath.toFile(), tasks, format);
+            commit(startGeneration);
+        } catch (SnoraxException | IOException e) {
+            synchronized (lock) {
+                if (generation == startGeneration) {
+                    System.err.println("Background compaction failed: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Publishes the synced snapshot, then commits it by deleting the pending journal.
+     * Runs entirely under the lock so a full save cannot interleave with it.
+     */
+    private void commit(long startGeneration) throws SnoraxException, IOException {
+        synchronized (lock) {
+            if (generation != startGeneration) {
+                // A full save has superseded this snapshot
+                Files.deleteIfExists(tempPath);
+                return;
+            }
+            Storage.moveAtomically(tempPath, outputPath);
+            Files.delete(pendingPath);
+            Storage.moveAtomically(outputPath, dataPath);
+        }
+    }
+
+    /**
+     * Completes or rolls back a compaction interrupted by a crash.
+     * Must be called holding the lock, before the data file is read.
+     *
+     * @throws SnoraxException If the leftover files cannot be cleaned up.
+     */
+    void recover() throws SnoraxException {
+        if (isRunning()) {
+            return;
+        }
+
+        try {
+            Files.deleteIfExists(tempPath);
+            if (!Files.exists(outputPath)) {
+                return;
+            }
+            if (Files.exists(pendingPath)) {
+                // Interrupted before the commit point; the pending journal is still authoritative
+                Files.delete(outputPath);
+            } else {
+                Storage.moveAtomically(outputPath, dataPath);
+            }
+        } catch (IOException e) {
+            throw new SnoraxException("Error recovering interrupted compaction: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies the records of a rotated journal that has not been compacted yet.
+     *
+     * @param tasks The tasks loaded from the data file.
+     * @throws SnoraxException If the pending journal cannot be read.
+     */
+    void replayPending(List<Task> tasks) throws SnoraxException {
+        new Journal(pendingPath).replay(tasks);
+    }
+
+    /**
+     * Applies the records of a rotated journal that has not been compacted yet to a list of entries.
+     *
+     * @param entries The entries for the tasks loaded from the data file.
+     * @param target  How added tasks become entries and how status changes reach them.
+     * @param <T>     The type of the entries.
+     * @throws SnoraxException If the pending journal cannot be read.
+     */
+    <T> void replayPending(List<T> entries, Journal.Target<T> target) throws SnoraxException {
+        new Journal(pendingPath).replay(entries, target);
+    }
+
+    /**
+     * Abandons any pending or running compaction after a full save has made it obsolete.
+     * Must be called holding the lock.
+     *
+     * @throws SnoraxException If the pending journal or snapshot cannot be deleted.
+     */
+    void discard() throws SnoraxException {
+        generation++;
+        try {
+            Files.deleteIfExists(pendingPath);
+            Files.deleteIfExists(outputPath);
+        } catch (IOException e) {
+            throw new SnoraxException("Error clearing journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Blocks until the running compaction, if any, has finished.
+     */
+    void await() {
+        Future<?> current;
+        synchronized (lock) {
+            current = running;
+        }
+        if (current == null) {
+            return;
+        }
+        try {
+            current.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            System.err.println("Background compaction failed: " + e.getCause());
+        }
+    }
+}
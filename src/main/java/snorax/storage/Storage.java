@@ -1,22 +1,45 @@
 package snorax.storage;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.AccessDeniedException;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.List;
 
 import snorax.exception.SnoraxException;
 import snorax.task.Deadline;
 import snorax.task.Event;
 import snorax.task.Task;
 import snorax.task.Todo;
+import snorax.tasklist.ListChange;
+import snorax.tasklist.TaskSource;
 
 /**
  * Handles loading and saving of tasks to a file.
+ * Full saves rewrite the data file, while single mutations are appended to a
+ * journal beside it, replayed on the next load and periodically compacted back
+ * into the data file in the background.
+ *
+ * <p>A full save never overwrites the data file in place. The tasks are written
+ * and synced to a sibling file, which is renamed to {@code <data>.next} once
+ * complete. From then on it supersedes the data file and every journal, so the
+ * journals are cleared and it is renamed over the data file. A crash at any
+ * point leaves either the old or the new tasks, and the next load finishes an
+ * interrupted save.
  */
-public class Storage {
+public class Storage implements TaskStore {
     private static final String TASK_TYPE_TODO = "T";
     private static final String TASK_TYPE_DEADLINE = "D";
     private static final String TASK_TYPE_EVENT = "E";
@@ -32,58 +55,155 @@ public class Storage {
     private static final int INDEX_BY = 3;
     private static final int INDEX_FROM = 3;
     private static final int INDEX_TO = 4;
+    private static final String NEXT_SUFFIX = ".next";
+    private static final String TEMP_SUFFIX = ".tmp";
 
     private String filePath;
+    private Path nextPath;
+    private Path nextTempPath;
+    private TaskFileFormat format;
+    private Journal journal;
+    private SnapshotCompactor compactor;
 
     /**
-     * Constructs a Storage instance with the specified file path.
+     * Constructs a Storage instance with the specified file path, saving in the text format.
      *
      * @param filePath The path to the file for storing tasks.
      */
     public Storage(String filePath) {
+        this(filePath, TaskFileFormat.TEXT);
+    }
+
+    /**
+     * Constructs a Storage instance that saves in the given text or binary format.
+     * Files in any format are loaded, and converted on the next save.
+     *
+     * @param filePath The path to the file for storing tasks.
+     * @param format   The format to save the file in.
+     */
+    public Storage(String filePath, TaskFileFormat format) {
+        if (format == TaskFileFormat.PAGED) {
+            throw new IllegalArgumentException("Page files are kept by PageFileStorage");
+        }
         this.filePath = filePath;
+        this.nextPath = Paths.get(filePath + NEXT_SUFFIX);
+        this.nextTempPath = Paths.get(filePath + NEXT_SUFFIX + TEMP_SUFFIX);
+        this.format = format;
+        this.journal = new Journal(Paths.get(filePath + Journal.FILE_SUFFIX));
+        this.compactor = new SnapshotCompactor(this, filePath, format, journal);
     }
 
     /**
-     * Loads tasks from the file.
+     * Loads tasks from the file, then replays any journalled mutations on top.
      *
      * @return An ArrayList of tasks loaded from the file.
      * @throws SnoraxException If there is an error reading the file.
      */
-    public ArrayList<Task> load() throws SnoraxException {
+    @Override
+    public synchronized ArrayList<Task> load() throws SnoraxException {
+        recoverSave();
+        compactor.recover();
         File file = new File(filePath);
 
+        ArrayList<Task> tasks;
+        if (file.exists()) {
+            tasks = readTasks(file);
+        } else {
+            createFileAndDirectories(file);
+            tasks = new ArrayList<>();
+        }
+
+        compactor.replayPending(tasks);
+        journal.replay(tasks);
+        compactor.compactIfNeeded();
+        return tasks;
+    }
+
+    /**
+     * Indexes the data file without decoding its tasks, then replays any journalled mutations on top.
+     * Each task is decoded from the file only when it is read from the returned source.
+     *
+     * @return The tasks in the file, decoded on request.
+     * @throws SnoraxException If there is an error reading the file.
+     */
+    @Override
+    public synchronized TaskSource loadLazily() throws SnoraxException {
+        recoverSave();
+        compactor.recover();
+        File file = new File(filePath);
         if (!file.exists()) {
             createFileAndDirectories(file);
-            return new ArrayList<>();
         }
 
+        IndexedTaskSource source = new IndexedTaskSource(indexTasks(file));
+        compactor.replayPending(source.getPositions(), source);
+        journal.replay(source.getPositions(), source);
+        compactor.compactIfNeeded();
+        return source;
+    }
+
+    /**
+     * Finishes a full save that was interrupted after its new data file was complete,
+     * and removes any incomplete one.
+     */
+    private void recoverSave() throws SnoraxException {
+        try {
+            Files.deleteIfExists(nextTempPath);
+            if (Files.exists(nextPath)) {
+                promoteNext();
+            }
+        } catch (IOException e) {
+            throw new SnoraxException("Error recovering interrupted save: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the tasks stored in a data file in either format, skipping corrupted entries.
+     *
+     * @param file The data file to read.
+     * @return The tasks in the file, in order.
+     * @throws SnoraxException If the file cannot be read.
+     */
+    static ArrayList<Task> readTasks(File file) throws SnoraxException {
         if (!file.canRead()) {
-            throw new SnoraxException("Cannot read data file: " + filePath
+            throw new SnoraxException("Cannot read data file: " + file.getPath()
                     + "\nPlease check file permissions.");
         }
 
-        ArrayList<Task> tasks = new ArrayList<>();
-        int lineNumber = 0;
-
         try {
-            for (String line : Files.readAllLines(file.toPath())) {
-                lineNumber++;
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
-                Task task = parseTaskFromLine(line, lineNumber);
-                if (task != null) {
-                    tasks.add(task);
-                }
+            if (BinaryTaskCodec.isBinary(file.toPath())) {
+                return BinaryTaskCodec.read(file.toPath());
             }
+            if (PageFile.isPageFile(file.toPath())) {
+                return PageFileStorage.read(file.toPath());
+            }
+            return MappedTaskReader.read(file.toPath());
         } catch (AccessDeniedException e) {
-            throw new SnoraxException("Access denied to data file: " + filePath);
+            throw new SnoraxException("Access denied to data file: " + file.getPath());
         } catch (IOException e) {
             throw new SnoraxException("Error reading data file: " + e.getMessage());
         }
+    }
 
-        return tasks;
+    private static TaskSource indexTasks(File file) throws SnoraxException {
+        if (!file.canRead()) {
+            throw new SnoraxException("Cannot read data file: " + file.getPath()
+                    + "\nPlease check file permissions.");
+        }
+
+        try {
+            if (BinaryTaskCodec.isBinary(file.toPath())) {
+                return BinaryTaskCodec.index(file.toPath());
+            }
+            if (PageFile.isPageFile(file.toPath())) {
+                return PageFileStorage.index(file.toPath());
+            }
+            return MappedTaskReader.index(file.toPath());
+        } catch (AccessDeniedException e) {
+            throw new SnoraxException("Access denied to data file: " + file.getPath());
+        } catch (IOException e) {
+            throw new SnoraxException("Error reading data file: " + e.getMessage());
+        }
     }
 
     private void createFileAndDirectories(File file) throws SnoraxException {
@@ -103,7 +223,7 @@ public class Storage {
         }
     }
 
-    private Task parseTaskFromLine(String line, int lineNumber) {
+    static Task parseTaskFromLine(String line, int lineNumber) {
         String[] parts = line.split(DELIMITER);
         String context = " (line " + lineNumber + ": \"" + line + "\")";
 
@@ -135,7 +255,7 @@ public class Storage {
         return task;
     }
 
-    private Task createTask(String type, String description, String[] parts, String context) {
+    private static Task createTask(String type, String description, String[] parts, String context) {
         switch (type) {
             case TASK_TYPE_TODO:
                 return new Todo(description);
@@ -158,12 +278,14 @@ public class Storage {
     }
 
     /**
-     * Saves the task list to the file.
+     * Saves the task list to the file and clears the journal it supersedes.
+     * The data file is replaced atomically once the new contents are on disk.
      *
      * @param tasks The list of tasks to save.
      * @throws SnoraxException If there is an error writing to the file.
      */
-    public void save(ArrayList<Task> tasks) throws SnoraxException {
+    @Override
+    public synchronized void save(ArrayList<Task> tasks) throws SnoraxException {
         File file = new File(filePath);
         file.getParentFile().mkdirs();
 
@@ -172,18 +294,215 @@ public class Storage {
                     + "\nPlease check file permissions.");
         }
 
-        try (FileWriter writer = new FileWriter(filePath)) {
-            for (Task task : tasks) {
-                writer.write(formatTask(task) + System.lineSeparator());
+        writeTasks(nextTempPath.toFile(), tasks, format);
+        moveAtomically(nextTempPath, nextPath);
+        promoteNext();
+    }
+
+    /**
+     * Clears the journals that a complete {@code <data>.next} supersedes, then moves it over the data file.
+     */
+    private void promoteNext() throws SnoraxException {
+        journal.clear();
+        compactor.discard();
+        moveAtomically(nextPath, Paths.get(filePath));
+    }
+
+    /**
+     * Deletes the journal and any pending compaction, once the tasks they hold are stored elsewhere.
+     *
+     * @throws SnoraxException If a journal file cannot be deleted.
+     */
+    synchronized void clearJournals() throws SnoraxException {
+        journal.clear();
+        compactor.discard();
+    }
+
+    /**
+     * Writes the given tasks to a file, replacing its contents, and syncs it to disk.
+     *
+     * @param file   The file to write.
+     * @param tasks  The tasks to write, in order.
+     * @param format The format to write the file in.
+     * @throws SnoraxException If the file cannot be written.
+     */
+    static void writeTasks(File file, List<Task> tasks, TaskFileFormat format) throws SnoraxException {
+        try (FileOutputStream out = new FileOutputStream(file)) {
+            BufferedOutputStream buffered = new BufferedOutputStream(out);
+            if (format == TaskFileFormat.BINARY) {
+                BinaryTaskCodec.write(buffered, tasks);
+            } else {
+                writeText(buffered, tasks);
             }
+            buffered.flush();
+            out.getFD().sync();
         } catch (AccessDeniedException e) {
-            throw new SnoraxException("Access denied when saving: " + filePath);
+            throw new SnoraxException("Access denied when saving: " + file.getPath());
         } catch (IOException e) {
             throw new SnoraxException("Error saving tasks: " + e.getMessage());
         }
     }
 
-    private String formatTask(Task task) {
+    private static void writeText(OutputStream out, List<Task> tasks) throws IOException {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        for (Task task : tasks) {
+            writer.write(formatTask(task) + System.lineSeparator());
+        }
+        writer.flush();
+    }
+
+    /**
+     * Renames a file over another in one step, then syncs the directory so the rename survives a crash.
+     *
+     * @param source The file to move.
+     * @param target The file to replace.
+     * @throws SnoraxException If the file cannot be moved.
+     */
+    static void moveAtomically(Path source, Path target) throws SnoraxException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new SnoraxException("Error saving tasks: " + e.getMessage());
+        }
+
+        Path directory = target.toAbsolutePath().getParent();
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms cannot open or sync a directory; the rename itself is still atomic
+        }
+    }
+
+    /**
+     * Records a task appended to the end of the list.
+     *
+     * @param task The task that was added.
+     * @throws SnoraxException If the journal cannot be written.
+     */
+    @Override
+    public void recordAdd(Task task) throws SnoraxException {
+        journal.appendAdd(task);
+        compactIfNeeded();
+    }
+
+    /**
+     * Records a task put back at the given index, moving the tasks from there on back by one.
+     *
+     * @param index The zero-based index the task takes.
+     * @param task  The task that was inserted.
+     * @throws SnoraxException If the journal cannot be written.
+     */
+    @Override
+    public void recordInsert(int index, Task task) throws SnoraxException {
+        journal.appendInsert(index, task);
+        compactIfNeeded();
+    }
+
+    /**
+     * Records a change to the done status of the task at the given index.
+     *
+     * @param index  The zero-based index of the task.
+     * @param isDone The new status of the task.
+     * @throws SnoraxException If the journal cannot be written.
+     */
+    @Override
+    public void recordStatus(int index, boolean isDone) throws SnoraxException {
+        journal.appendStatus(index, isDone);
+        compactIfNeeded();
+    }
+
+    /**
+     * Records the removal of the task at the given index.
+     *
+     * @param index The zero-based index of the removed task.
+     * @throws SnoraxException If the journal cannot be written.
+     */
+    @Override
+    public void recordDelete(int index) throws SnoraxException {
+        journal.appendDelete(index);
+        compactIfNeeded();
+    }
+
+    /**
+     * Records a reordering of the whole list.
+     *
+     * @param order For each new position, the position the task held before.
+     * @throws SnoraxException If the journal cannot be written.
+     */
+    @Override
+    public void recordReorder(int[] order) throws SnoraxException {
+        journal.appendReorder(order);
+        compactIfNeeded();
+    }
+
+    /**
+     * Records a series of changes, such as those of an undo or redo, with a single sync.
+     *
+     * @param changes The changes, in the order they apply.
+     * @throws SnoraxException If the journal cannot be written.
+     */
+    @Override
+    public void recordChanges(List<ListChange> changes) throws SnoraxException {
+        ArrayList<String> records = new ArrayList<>();
+        for (ListChange change : changes) {
+            records.add(Journal.changeRecord(change));
+        }
+        recordAll(records);
+    }
+
+    /**
+     * Records several journal records with a single sync.
+     *
+     * @param records The records, as built by the record methods of {@link Journal}.
+     * @throws SnoraxException If the journal cannot be written.
+     */
+    void recordAll(List<String> records) throws SnoraxException {
+        journal.appendAll(records);
+        compactIfNeeded();
+    }
+
+    /**
+     * Checks the journal size after an append. The append itself runs outside
+     * this lock so that concurrent appends can share one sync.
+     */
+    private synchronized void compactIfNeeded() {
+        compactor.compactIfNeeded();
+    }
+
+    /**
+     * Overrides how large the journal may grow before it is compacted.
+     *
+     * @param maxRecords The number of records that triggers a compaction.
+     * @param maxBytes   The journal size in bytes that triggers a compaction.
+     */
+    void setCompactionThresholds(int maxRecords, long maxBytes) {
+        compactor.setThresholds(maxRecords, maxBytes);
+    }
+
+    /**
+     * Sets how long a journal append waits for concurrent appends to join its sync.
+     *
+     * @param commitWindowMillis The wait in milliseconds; 0 syncs straight away.
+     */
+    void setGroupCommitWindow(long commitWindowMillis) {
+        journal.setCommitWindow(commitWindowMillis);
+    }
+
+    /**
+     * Returns how many syncs the journal has made.
+     */
+    int getJournalSyncCount() {
+        return journal.getSyncCount();
+    }
+
+    /**
+     * Blocks until any running background compaction has finished.
+     */
+    void awaitCompaction() {
+        compactor.await();
+    }
+
+    static String formatTask(Task task) {
         StringBuilder sb = new StringBuilder();
         String type = task instanceof Todo ? TASK_TYPE_TODO
                 : task instanceof Deadline ? TASK_TYPE_DEADLINE
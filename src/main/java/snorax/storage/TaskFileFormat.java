@@ -0,0 +1,17 @@
+package snorax.storage;
+
+/**
+ * Enumeration of the formats the data file can be written in.
+ * Any format is recognised when loading, so switching formats converts the
+ * file on the next save.
+ */
+public enum TaskFileFormat {
+    /** Human-readable pipe-delimited lines, one task per line. */
+    TEXT,
+
+    /** Compact versioned binary records, see {@link BinaryTaskCodec}. */
+    BINARY,
+
+    /** Fixed-size slots rewritten in place, kept by {@link PageFileStorage} rather than {@link Storage}. */
+    PAGED
+}
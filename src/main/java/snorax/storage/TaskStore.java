@@ -0,0 +1,136 @@
+package snorax.storage;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import snorax.exception.SnoraxException;
+import snorax.task.Task;
+import snorax.tasklist.ListChange;
+import snorax.tasklist.TaskSource;
+
+/**
+ * Where the tasks are kept between runs, and how each change to the list reaches disk.
+ *
+ * <p>{@link Storage} rewrites a data file on full saves and appends every other
+ * change to a journal beside it; {@link AsyncStorage} does the same on a
+ * background thread. {@link PageFileStorage} rewrites each change in place in
+ * a page file instead. Commands work against this interface, so they run the
+ * same on any of them.
+ */
+public interface TaskStore {
+    /**
+     * Loads every task.
+     *
+     * @return An ArrayList of the tasks, in list order.
+     * @throws SnoraxException If the tasks cannot be read.
+     */
+    ArrayList<Task> load() throws SnoraxException;
+
+    /**
+     * Loads the tasks, decoding each only when it is first read if the storage can.
+     *
+     * @return The tasks, in list order.
+     * @throws SnoraxException If the tasks cannot be read.
+     */
+    TaskSource loadLazily() throws SnoraxException;
+
+    /**
+     * Replaces every stored task with the given list.
+     *
+     * @param tasks The list of tasks to save.
+     * @throws SnoraxException If the tasks cannot be written.
+     */
+    void save(ArrayList<Task> tasks) throws SnoraxException;
+
+    /**
+     * Records a task appended to the end of the list.
+     *
+     * @param task The task that was added.
+     * @throws SnoraxException If the change cannot be written.
+     */
+    void recordAdd(Task task) throws SnoraxException;
+
+    /**
+     * Records a task put at the given index, moving the tasks from there on back by one.
+     *
+     * @param index The zero-based index the task takes.
+     * @param task  The task that was inserted.
+     * @throws SnoraxException If the change cannot be written.
+     */
+    void recordInsert(int index, Task task) throws SnoraxException;
+
+    /**
+     * Records a change to the done status of the task at the given index.
+     *
+     * @param index  The zero-based index of the task.
+     * @param isDone The new status of the task.
+     * @throws SnoraxException If the change cannot be written.
+     */
+    void recordStatus(int index, boolean isDone) throws SnoraxException;
+
+    /**
+     * Records the removal of the task at the given index.
+     *
+     * @param index The zero-based index of the removed task.
+     * @throws SnoraxException If the change cannot be written.
+     */
+    void recordDelete(int index) throws SnoraxException;
+
+    /**
+     * Records a reordering of the whole list.
+     *
+     * @param order For each new position, the position the task held before.
+     * @throws SnoraxException If the change cannot be written.
+     */
+    void recordReorder(int[] order) throws SnoraxException;
+
+    /**
+     * Records a series of changes, such as those of a bulk command, an undo or a redo, as one write.
+     *
+     * @param changes The changes, in the order they apply.
+     * @throws SnoraxException If the changes cannot be written.
+     */
+    void recordChanges(List<ListChange> changes) throws SnoraxException;
+
+    /**
+     * Marks the end of the records of one change to the list, given the changes
+     * that would undo it. Storage that writes each change before its record method
+     * returns never loses one it has accepted, so by default nothing is kept.
+     *
+     * @param undo The changes that undo the change, in the order they apply.
+     */
+    default void endChange(List<ListChange> undo) {
+    }
+
+    /**
+     * Reports a failure to write changes after their record methods returned, together
+     * with the changes that take those lost changes back out of the list. By default
+     * every change is written before its record method returns, so there is never one.
+     *
+     * @param undo The list to add the changes that undo the lost changes to, in the order they apply.
+     * @return The failure, or null if every change has been written.
+     */
+    default SnoraxException takeFailure(List<ListChange> undo) {
+        return null;
+    }
+
+    /**
+     * Blocks until every change handed to this storage is on disk. By default
+     * changes are written before their record or save method returns, so there is
+     * nothing to wait for.
+     *
+     * @throws SnoraxException If an earlier change could not be written.
+     */
+    default void flush() throws SnoraxException {
+    }
+
+    /**
+     * Writes any outstanding changes before the application exits.
+     * The storage stays usable afterwards.
+     *
+     * @throws SnoraxException If an outstanding change could not be written.
+     */
+    default void close() throws SnoraxException {
+        flush();
+    }
+}
@@ -0,0 +1,153 @@
+package snorax.task;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.ResolverStyle;
+
+/**
+ * Parses and formats date/times in the fixed {@code uuuu-MM-dd HHmm} input format.
+ *
+ * <p>The format is always 15 characters, so it is read digit by digit and checked
+ * against the calendar directly, instead of through a {@link DateTimeFormatter}.
+ * Invalid input is reported as a result code rather than an exception, and
+ * checking a string allocates nothing.
+ */
+public final class DateTimeCodec {
+    /** The text is a valid date/time. */
+    public static final int VALID = 0;
+    /** The text does not have the {@code uuuu-MM-dd HHmm} shape. */
+    public static final int MALFORMED = 1;
+    /** The text has the right shape but names a date or time that does not exist. */
+    public static final int NONEXISTENT = 2;
+
+    private static final int LENGTH = 15;
+    private static final int MAX_YEAR = 9999;
+    private static final int[] DAYS_IN_MONTH = {31, 28, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+    private static final DateTimeFormatter FALLBACK_FORMATTER = DateTimeFormatter.ofPattern("uuuu-MM-dd HHmm")
+            .withResolverStyle(ResolverStyle.STRICT);
+
+    private DateTimeCodec() {
+    }
+
+    /**
+     * Checks whether the text, ignoring surrounding whitespace, is a valid date/time.
+     *
+     * @param text The text to check.
+     * @return {@link #VALID}, {@link #MALFORMED} or {@link #NONEXISTENT}.
+     */
+    public static int check(CharSequence text) {
+        int start = trimStart(text);
+        int end = trimEnd(text, start);
+        if (end - start != LENGTH || !hasShape(text, start)) {
+            return MALFORMED;
+        }
+
+        int year = digits(text, start, 4);
+        int month = digits(text, start + 5, 2);
+        int day = digits(text, start + 8, 2);
+        int hour = digits(text, start + 11, 2);
+        int minute = digits(text, start + 13, 2);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)
+                || hour > 23 || minute > 59) {
+            return NONEXISTENT;
+        }
+        return VALID;
+    }
+
+    /**
+     * Parses the text, ignoring surrounding whitespace.
+     *
+     * @param text The text to parse.
+     * @return The date/time, or null if {@link #check} does not find it valid.
+     */
+    public static LocalDateTime parse(CharSequence text) {
+        if (check(text) != VALID) {
+            return null;
+        }
+        int start = trimStart(text);
+        return LocalDateTime.of(digits(text, start, 4), digits(text, start + 5, 2), digits(text, start + 8, 2),
+                digits(text, start + 11, 2), digits(text, start + 13, 2));
+    }
+
+    /**
+     * Formats a date/time in the input format, so that {@link #parse} reads it back.
+     * Seconds are dropped.
+     *
+     * @param dateTime The date/time to format.
+     * @return The formatted text.
+     */
+    public static String format(LocalDateTime dateTime) {
+        int year = dateTime.getYear();
+        if (year < 0 || year > MAX_YEAR) {
+            return dateTime.format(FALLBACK_FORMATTER);
+        }
+
+        char[] chars = new char[LENGTH];
+        putDigits(chars, 0, year, 4);
+        chars[4] = '-';
+        putDigits(chars, 5, dateTime.getMonthValue(), 2);
+        chars[7] = '-';
+        putDigits(chars, 8, dateTime.getDayOfMonth(), 2);
+        chars[10] = ' ';
+        putDigits(chars, 11, dateTime.getHour(), 2);
+        putDigits(chars, 13, dateTime.getMinute(), 2);
+        return new String(chars);
+    }
+
+    private static boolean hasShape(CharSequence text, int start) {
+        for (int i = 0; i < LENGTH; i++) {
+            char c = text.charAt(start + i);
+            char expected = i == 4 || i == 7 ? '-' : i == 10 ? ' ' : 0;
+            boolean isValid = expected == 0 ? c >= '0' && c <= '9' : c == expected;
+            if (!isValid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int digits(CharSequence text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            value = value * 10 + (text.charAt(i) - '0');
+        }
+        return value;
+    }
+
+    private static void putDigits(char[] chars, int start, int value, int count) {
+        for (int i = start + count - 1; i >= start; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2 && isLeapYear(year)) {
+            return 29;
+        }
+        return DAYS_IN_MONTH[month - 1];
+    }
+
+    private static boolean isLeapYear(int year) {
+        return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0;
+    }
+
+    /**
+     * Skips leading characters that {@link String#trim()} would remove.
+     */
+    private static int trimStart(CharSequence text) {
+        int start = 0;
+        while (start < text.length() && text.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(CharSequence text, int start) {
+        int end = text.length();
+        while (end > start && text.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
@@ -2,17 +2,12 @@ package snorax.task;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.time.format.ResolverStyle;
 
 /**
  * Represents a task with a deadline.
  */
 public class Deadline extends Task {
-    private static final String INPUT_DATE_FORMAT = "uuuu-MM-dd HHmm";
     private static final String OUTPUT_DATE_FORMAT = "MMM dd yyyy, HH:mm";
-    private static final DateTimeFormatter INPUT_FORMATTER = DateTimeFormatter.ofPattern(INPUT_DATE_FORMAT)
-            .withResolverStyle(ResolverStyle.STRICT);
     private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern(OUTPUT_DATE_FORMAT);
 
     private String by;
@@ -27,16 +22,20 @@ public class Deadline extends Task {
     public Deadline(String description, String by) {
         super(description);
         this.by = by;
-        this.byDateTime = parseDateTime(by);
+        // Left null for raw strings loaded from files in an old format
+        this.byDateTime = DateTimeCodec.parse(by);
     }
 
-    private LocalDateTime parseDateTime(String dateTimeStr) {
-        try {
-            return LocalDateTime.parse(dateTimeStr.trim(), INPUT_FORMATTER);
-        } catch (DateTimeParseException e) {
-            // Return null for raw string storage (loaded from file in old format)
-            return null;
-        }
+    /**
+     * Constructs a Deadline task from an already parsed date/time.
+     *
+     * @param description The description of the task.
+     * @param byDateTime  The deadline date/time.
+     */
+    public Deadline(String description, LocalDateTime byDateTime) {
+        super(description);
+        this.by = DateTimeCodec.format(byDateTime);
+        this.byDateTime = byDateTime;
     }
 
     /**
@@ -46,16 +45,29 @@ public class Deadline extends Task {
      * @throws IllegalArgumentException If the date is invalid.
      */
     public static void validate(String by) {
-        try {
-            LocalDateTime.parse(by.trim(), INPUT_FORMATTER);
-        } catch (DateTimeParseException e) {
-            throw new IllegalArgumentException(
-                    "Invalid deadline date/time: '" + by + "'\n"
-                            + "Please use format: yyyy-MM-dd HHmm (e.g., 2025-03-15 1430)\n"
-                            + "Make sure the date actually exists (e.g., not Feb 30).");
+        if (DateTimeCodec.check(by) != DateTimeCodec.VALID) {
+            throw invalidDeadline(by);
+        }
+    }
+
+    /**
+     * Validates this deadline's date, which was already parsed when it was constructed.
+     *
+     * @throws IllegalArgumentException If the date is invalid.
+     */
+    public void validate() {
+        if (byDateTime == null) {
+            throw invalidDeadline(by);
         }
     }
 
+    private static IllegalArgumentException invalidDeadline(String by) {
+        return new IllegalArgumentException(
+                "Invalid deadline date/time: '" + by + "'\n"
+                        + "Please use format: yyyy-MM-dd HHmm (e.g., 2025-03-15 1430)\n"
+                        + "Make sure the date actually exists (e.g., not Feb 30).");
+    }
+
     /**
      * Gets the raw deadline string.
      *
@@ -74,6 +86,11 @@ public class Deadline extends Task {
         return byDateTime;
     }
 
+    @Override
+    public TaskType getType() {
+        return TaskType.DEADLINE;
+    }
+
     @Override
     public String toString() {
         String displayBy = byDateTime != null
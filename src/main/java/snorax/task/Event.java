@@ -2,17 +2,12 @@ package snorax.task;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.time.format.ResolverStyle;
 
 /**
  * Represents an event task with a start and end time.
  */
 public class Event extends Task {
-    private static final String INPUT_DATE_FORMAT = "uuuu-MM-dd HHmm";
     private static final String OUTPUT_DATE_FORMAT = "MMM dd yyyy, HH:mm";
-    private static final DateTimeFormatter INPUT_FORMATTER = DateTimeFormatter.ofPattern(INPUT_DATE_FORMAT)
-            .withResolverStyle(ResolverStyle.STRICT);
     private static final DateTimeFormatter OUTPUT_FORMATTER = DateTimeFormatter.ofPattern(OUTPUT_DATE_FORMAT);
 
     private String from;
@@ -31,16 +26,23 @@ public class Event extends Task {
         super(description);
         this.from = from;
         this.to = to;
-        this.fromDateTime = parseDateTime(from);
-        this.toDateTime = parseDateTime(to);
+        this.fromDateTime = DateTimeCodec.parse(from);
+        this.toDateTime = DateTimeCodec.parse(to);
     }
 
-    private LocalDateTime parseDateTime(String dateTimeStr) {
-        try {
-            return LocalDateTime.parse(dateTimeStr.trim(), INPUT_FORMATTER);
-        } catch (DateTimeParseException e) {
-            return null;
-        }
+    /**
+     * Constructs an Event task from already parsed date/times.
+     *
+     * @param description  The description of the event.
+     * @param fromDateTime The start date/time.
+     * @param toDateTime   The end date/time.
+     */
+    public Event(String description, LocalDateTime fromDateTime, LocalDateTime toDateTime) {
+        super(description);
+        this.from = DateTimeCodec.format(fromDateTime);
+        this.to = DateTimeCodec.format(toDateTime);
+        this.fromDateTime = fromDateTime;
+        this.toDateTime = toDateTime;
     }
 
     /**
@@ -51,21 +53,27 @@ public class Event extends Task {
      * @throws IllegalArgumentException If validation fails.
      */
     public static void validate(String from, String to) {
-        LocalDateTime fromDt;
-        LocalDateTime toDt;
+        validate(from, DateTimeCodec.parse(from), to, DateTimeCodec.parse(to));
+    }
 
-        try {
-            fromDt = LocalDateTime.parse(from.trim(), INPUT_FORMATTER);
-        } catch (DateTimeParseException e) {
+    /**
+     * Validates this event's times, which were already parsed when it was constructed.
+     *
+     * @throws IllegalArgumentException If validation fails.
+     */
+    public void validate() {
+        validate(from, fromDateTime, to, toDateTime);
+    }
+
+    private static void validate(String from, LocalDateTime fromDt, String to, LocalDateTime toDt) {
+        if (fromDt == null) {
             throw new IllegalArgumentException(
                     "Invalid start date/time: '" + from + "'\n"
                             + "Please use format: yyyy-MM-dd HHmm (e.g., 2025-03-15 0900)\n"
                             + "Make sure the date actually exists (e.g., not Feb 30).");
         }
 
-        try {
-            toDt = LocalDateTime.parse(to.trim(), INPUT_FORMATTER);
-        } catch (DateTimeParseException e) {
+        if (toDt == null) {
             throw new IllegalArgumentException(
                     "Invalid end date/time: '" + to + "'\n"
                             + "Please use format: yyyy-MM-dd HHmm (e.g., 2025-03-15 1700)\n"
@@ -116,6 +124,11 @@ public class Event extends Task {
         return toDateTime;
     }
 
+    @Override
+    public TaskType getType() {
+        return TaskType.EVENT;
+    }
+
     @Override
     public String toString() {
         String displayFrom = fromDateTime != null
@@ -46,6 +46,15 @@ public class Task {
         return this.description;
     }
 
+    /**
+     * Returns the type of the task.
+     *
+     * @return The type, or null for a plain task of no particular type.
+     */
+    public TaskType getType() {
+        return null;
+    }
+
     /**
      * Marks the task as done.
      */
@@ -14,6 +14,11 @@ public class Todo extends Task {
         super(description);
     }
 
+    @Override
+    public TaskType getType() {
+        return TaskType.TODO;
+    }
+
     /**
      * Returns a string representation of the todo task.
      *
@@ -0,0 +1,83 @@
+package snorax.tasklist;
+
+import java.util.BitSet;
+
+import snorax.task.Task;
+import snorax.task.TaskType;
+
+/**
+ * Keeps one bitmap of task IDs per task type and one of the IDs of tasks that are done.
+ *
+ * <p>Which tasks of a type are done or not, and how many there are, then come
+ * from intersecting bitmaps and counting their bits, a word of 64 IDs at a time,
+ * without looking at any task.
+ */
+class BitmapIndex implements TaskIndex {
+    private final BitSet[] byType = new BitSet[TaskType.values().length];
+    private final BitSet all = new BitSet();
+    private final BitSet done = new BitSet();
+
+    BitmapIndex() {
+        for (int i = 0; i < byType.length; i++) {
+            byType[i] = new BitSet();
+        }
+    }
+
+    @Override
+    public void add(Task task, int id) {
+        all.set(id);
+        if (task.getType() != null) {
+            byType[task.getType().ordinal()].set(id);
+        }
+        done.set(id, task.isDone());
+    }
+
+    @Override
+    public void remove(Task task, int id) {
+        all.clear(id);
+        if (task.getType() != null) {
+            byType[task.getType().ordinal()].clear(id);
+        }
+        done.clear(id);
+    }
+
+    @Override
+    public void setDone(int id, boolean isDone) {
+        assert all.get(id) : "Task must be in the index";
+        done.set(id, isDone);
+    }
+
+    /**
+     * Returns the IDs of the tasks of a type with a status.
+     *
+     * @param type   The type, or null for tasks of any type.
+     * @param isDone Whether the tasks are done, or null for tasks with any status.
+     * @return A new bitmap of the IDs.
+     */
+    BitSet select(TaskType type, Boolean isDone) {
+        BitSet selected = (BitSet) (type == null ? all : byType[type.ordinal()]).clone();
+        if (isDone == null) {
+            return selected;
+        }
+        if (isDone) {
+            selected.and(done);
+        } else {
+            selected.andNot(done);
+        }
+        return selected;
+    }
+
+    /**
+     * Counts the tasks of a type with a status.
+     *
+     * @param type   The type, or null for tasks of any type.
+     * @param isDone Whether the tasks are done, or null for tasks with any status.
+     * @return The number of tasks.
+     */
+    int count(TaskType type, Boolean isDone) {
+        if (isDone == null) {
+            return (type == null ? all : byType[type.ordinal()]).cardinality();
+        }
+        return select(type, isDone).cardinality();
+    }
+}
@@ -0,0 +1,306 @@
+package snorax.tasklist;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Supplier;
+
+import snorax.exception.SnoraxException;
+import snorax.search.SearchQuery;
+import snorax.task.Task;
+import snorax.task.TaskType;
+
+/**
+ * A task list that can be shared between threads, such as a front end, background
+ * saves and reminders.
+ *
+ * <p>Every call is passed on to a wrapped list under a {@link StampedLock}. All
+ * changes go through the write lock, one at a time, and every query through the
+ * read lock, so queries run alongside each other but never alongside a change;
+ * the wrapped list builds its indexes and decodes its tasks safely for queries
+ * running together. The size and modification count are read optimistically,
+ * without taking any lock unless a change interrupts the read. Commands that
+ * read several things from the list should run inside {@link #read} or
+ * {@link #write} so that they see a single state of it. {@link #getTasks} hands
+ * out copies of an immutable snapshot, taken once after each change to which
+ * tasks are in the list or their order.
+ */
+public class ConcurrentTaskList implements TaskCollection {
+    private final StampedLock lock = new StampedLock();
+    private final TaskList tasks;
+    private volatile List<Task> snapshot;
+
+    /**
+     * Constructs a ConcurrentTaskList over the given list, which must not be used directly afterwards.
+     *
+     * @param tasks The list to wrap.
+     */
+    public ConcurrentTaskList(TaskList tasks) {
+        assert tasks != null : "Wrapped task list cannot be null";
+        this.tasks = tasks;
+    }
+
+    @Override
+    public int addTask(Task task) {
+        return changeLocked(() -> tasks.addTask(task));
+    }
+
+    @Override
+    public Task deleteTask(int index) {
+        return changeLocked(() -> tasks.deleteTask(index));
+    }
+
+    @Override
+    public Task[] deleteTasks(int[] indexes) {
+        return changeLocked(() -> tasks.deleteTasks(indexes));
+    }
+
+    @Override
+    public void restoreTask(int index, int id, Task task) {
+        changeLocked(() -> {
+            tasks.restoreTask(index, id, task);
+            return null;
+        });
+    }
+
+    @Override
+    public void setDone(int index, boolean isDone) {
+        writeLocked(() -> {
+            tasks.setDone(index, isDone);
+            return null;
+        });
+    }
+
+    @Override
+    public int setDone(int[] indexes, boolean isDone) {
+        return writeLocked(() -> tasks.setDone(indexes, isDone));
+    }
+
+    @Override
+    public long getModificationCount() {
+        return readOptimistically(tasks::getModificationCount);
+    }
+
+    @Override
+    public boolean undo() {
+        return changeLocked(tasks::undo);
+    }
+
+    @Override
+    public boolean redo() {
+        return changeLocked(tasks::redo);
+    }
+
+    @Override
+    public boolean undo(List<ListChange> changes) {
+        return changeLocked(() -> tasks.undo(changes));
+    }
+
+    @Override
+    public boolean redo(List<ListChange> changes) {
+        return changeLocked(() -> tasks.redo(changes));
+    }
+
+    @Override
+    public int findDuplicate(Task task) {
+        return readLocked(() -> tasks.findDuplicate(task));
+    }
+
+    @Override
+    public int[] getUpcoming(LocalDateTime from, int limit) {
+        return readLocked(() -> tasks.getUpcoming(from, limit));
+    }
+
+    @Override
+    public int[] findOverlappingEvents(LocalDateTime from, LocalDateTime to) {
+        return readLocked(() -> tasks.findOverlappingEvents(from, to));
+    }
+
+    @Override
+    public int[] findEventsAt(LocalDateTime time) {
+        return readLocked(() -> tasks.findEventsAt(time));
+    }
+
+    @Override
+    public int countTasks(TaskType type, Boolean isDone) {
+        return readLocked(() -> tasks.countTasks(type, isDone));
+    }
+
+    @Override
+    public int[] findTasks(TaskType type, Boolean isDone) {
+        return readLocked(() -> tasks.findTasks(type, isDone));
+    }
+
+    @Override
+    public int[] search(SearchQuery query) {
+        return readLocked(() -> tasks.search(query));
+    }
+
+    @Override
+    public int[] searchWords(SearchQuery query) {
+        return readLocked(() -> tasks.searchWords(query));
+    }
+
+    @Override
+    public int[] filter(TaskFilter filter) {
+        return readLocked(() -> tasks.filter(filter));
+    }
+
+    @Override
+    public int[] searchFuzzy(String word, int maxDistance) {
+        return readLocked(() -> tasks.searchFuzzy(word, maxDistance));
+    }
+
+    @Override
+    public Task getTask(int index) {
+        return readLocked(() -> tasks.getTask(index));
+    }
+
+    @Override
+    public Task peekTask(int index) {
+        return readLocked(() -> tasks.peekTask(index));
+    }
+
+    @Override
+    public TaskRange getRange(int from, int to) {
+        return readLocked(() -> tasks.getRange(from, to));
+    }
+
+    @Override
+    public int getId(int index) {
+        return readLocked(() -> tasks.getId(index));
+    }
+
+    @Override
+    public int indexOfId(int id) {
+        return readLocked(() -> tasks.indexOfId(id));
+    }
+
+    @Override
+    public int size() {
+        return readOptimistically(tasks::size);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns a copy of the tasks in list order, all taken at the same moment.
+     * The tasks are shared with the list and must only be changed inside {@link #write}.
+     *
+     * @return An ArrayList of the tasks.
+     */
+    @Override
+    public ArrayList<Task> getTasks() {
+        List<Task> current = snapshot;
+        if (current == null) {
+            // Queries taking a snapshot together all take an equal one, so any of them may keep it
+            current = readLocked(() -> {
+                List<Task> taken = snapshot;
+                if (taken == null) {
+                    taken = Collections.unmodifiableList(tasks.getTasks());
+                    snapshot = taken;
+                }
+                return taken;
+            });
+        }
+        return new ArrayList<>(current);
+    }
+
+    @Override
+    public int[] sortTasks() {
+        return changeLocked(tasks::sortTasks);
+    }
+
+    @Override
+    public int[] sortDeadlines() {
+        return changeLocked(tasks::sortDeadlines);
+    }
+
+    @Override
+    public int[] sortEvents() {
+        return changeLocked(tasks::sortEvents);
+    }
+
+    @Override
+    public <T> T read(Operation<T> query) throws SnoraxException {
+        long stamp = lock.readLock();
+        try {
+            return tasks.read(query);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    @Override
+    public <T> T write(Operation<T> change) throws SnoraxException {
+        return write(change, null);
+    }
+
+    @Override
+    public <T> T write(Operation<T> change, List<ListChange> undo) throws SnoraxException {
+        long stamp = lock.writeLock();
+        try {
+            snapshot = null;
+            return tasks.write(change, undo);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    @Override
+    public void applyChanges(List<ListChange> changes) {
+        changeLocked(() -> {
+            tasks.applyChanges(changes);
+            return null;
+        });
+    }
+
+    /**
+     * Runs a query that reads no more than a field or two of the list without taking
+     * the lock, and again under the read lock if a change may have overlapped it.
+     * The query must not fail or loop on a state that a change has left half made.
+     */
+    private <T> T readOptimistically(Supplier<T> query) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            T result = query.get();
+            if (lock.validate(stamp)) {
+                return result;
+            }
+        }
+        return readLocked(query);
+    }
+
+    private <T> T readLocked(Supplier<T> query) {
+        long stamp = lock.readLock();
+        try {
+            return query.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private <T> T writeLocked(Supplier<T> action) {
+        long stamp = lock.writeLock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Runs a change to the tasks in the list or their order, dropping the snapshot it makes stale.
+     */
+    private <T> T changeLocked(Supplier<T> change) {
+        return writeLocked(() -> {
+            snapshot = null;
+            return change.get();
+        });
+    }
+}
@@ -0,0 +1,215 @@
+package snorax.tasklist;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import snorax.task.Deadline;
+import snorax.task.Event;
+import snorax.task.Task;
+import snorax.task.Todo;
+
+/**
+ * Finds tasks with the same type, description and dates as a given task in constant time.
+ *
+ * <p>Each task is reduced to a 64-bit fingerprint of those fields, computed
+ * straight from the task without building any strings. Fingerprints map to
+ * task IDs in an open-addressed table of primitive arrays, so neither adding
+ * nor looking up a task allocates. Different tasks can share a fingerprint, so
+ * the caller confirms each candidate with {@link #isSame}.
+ */
+class DuplicateIndex implements TaskIndex {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long EMPTY = 0;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long NO_TIME = Long.MIN_VALUE;
+
+    private long[] keys = new long[INITIAL_CAPACITY];
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int size;
+
+    /**
+     * Records a task under its ID.
+     *
+     * @param task The task.
+     * @param id   The ID of the task.
+     */
+    @Override
+    public void add(Task task, int id) {
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        insert(fingerprint(task), id);
+        size++;
+    }
+
+    private void insert(long key, int id) {
+        int slot = home(key, keys.length);
+        while (keys[slot] != EMPTY) {
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        keys[slot] = key;
+        ids[slot] = id;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldIds = ids;
+        keys = new long[capacity];
+        ids = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != EMPTY) {
+                insert(oldKeys[i], oldIds[i]);
+            }
+        }
+    }
+
+    /**
+     * Forgets the task recorded under an ID.
+     *
+     * @param task The task, as it was when it was added.
+     * @param id   The ID of the task.
+     */
+    @Override
+    public void remove(Task task, int id) {
+        long key = fingerprint(task);
+        int mask = keys.length - 1;
+        int slot = home(key, keys.length);
+        while (keys[slot] != EMPTY && (keys[slot] != key || ids[slot] != id)) {
+            slot = (slot + 1) & mask;
+        }
+        if (keys[slot] == EMPTY) {
+            return;
+        }
+
+        // Shift later entries of the probe run back so that no lookup stops early at the hole
+        int hole = slot;
+        for (int next = (hole + 1) & mask; keys[next] != EMPTY; next = (next + 1) & mask) {
+            int nextHome = home(keys[next], keys.length);
+            boolean canMove = hole <= next
+                    ? nextHome <= hole || nextHome > next
+                    : nextHome <= hole && nextHome > next;
+            if (canMove) {
+                keys[hole] = keys[next];
+                ids[hole] = ids[next];
+                hole = next;
+            }
+        }
+        keys[hole] = EMPTY;
+        size--;
+    }
+
+    /**
+     * Returns the first table slot that may hold a task like the given one.
+     * Pass the result to {@link #getId} and {@link #next}.
+     *
+     * @param task The task to look up.
+     * @return The slot, or -1 if no recorded task can be like it.
+     */
+    int first(Task task) {
+        long key = fingerprint(task);
+        return scan(key, home(key, keys.length));
+    }
+
+    /**
+     * Returns the next table slot after the given one that may hold a task like the given one.
+     *
+     * @param task The task being looked up.
+     * @param slot The slot returned by the previous call.
+     * @return The slot, or -1 if there are no more candidates.
+     */
+    int next(Task task, int slot) {
+        return scan(fingerprint(task), (slot + 1) & (keys.length - 1));
+    }
+
+    private int scan(long key, int slot) {
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & (keys.length - 1);
+        }
+        return -1;
+    }
+
+    int getId(int slot) {
+        return ids[slot];
+    }
+
+    private static int home(long key, int capacity) {
+        return (int) (key ^ (key >>> 32)) & (capacity - 1);
+    }
+
+    /**
+     * Returns whether two tasks have the same type, description and dates.
+     * Dates are compared as points in time when both parse, and as raw text otherwise.
+     *
+     * @param a The first task.
+     * @param b The second task.
+     * @return true if the tasks are alike.
+     */
+    static boolean isSame(Task a, Task b) {
+        if (a.getClass() != b.getClass() || !a.getDescription().equals(b.getDescription())) {
+            return false;
+        }
+        if (a instanceof Deadline) {
+            Deadline x = (Deadline) a;
+            Deadline y = (Deadline) b;
+            return isSameTime(x.getByDateTime(), x.getBy(), y.getByDateTime(), y.getBy());
+        }
+        if (a instanceof Event) {
+            Event x = (Event) a;
+            Event y = (Event) b;
+            return isSameTime(x.getFromDateTime(), x.getFrom(), y.getFromDateTime(), y.getFrom())
+                    && isSameTime(x.getToDateTime(), x.getTo(), y.getToDateTime(), y.getTo());
+        }
+        return true;
+    }
+
+    private static boolean isSameTime(LocalDateTime a, String rawA, LocalDateTime b, String rawB) {
+        if (a != null || b != null) {
+            return a != null && a.equals(b);
+        }
+        return rawA.equals(rawB);
+    }
+
+    /**
+     * Hashes the fields compared by {@link #isSame}, never returning the empty marker.
+     */
+    static long fingerprint(Task task) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, task instanceof Todo ? 'T' : task instanceof Deadline ? 'D' : 'E');
+        hash = mix(hash, task.getDescription());
+        if (task instanceof Deadline) {
+            Deadline deadline = (Deadline) task;
+            hash = mix(hash, deadline.getByDateTime(), deadline.getBy());
+        } else if (task instanceof Event) {
+            Event event = (Event) task;
+            hash = mix(hash, event.getFromDateTime(), event.getFrom());
+            hash = mix(hash, event.getToDateTime(), event.getTo());
+        }
+        // Spread the bits so that the table index depends on all of them
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash == EMPTY ? 1 : hash;
+    }
+
+    private static long mix(long hash, long value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    private static long mix(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash = mix(hash, text.charAt(i));
+        }
+        return mix(hash, text.length());
+    }
+
+    private static long mix(long hash, LocalDateTime dateTime, String raw) {
+        if (dateTime == null) {
+            return mix(mix(hash, NO_TIME), raw);
+        }
+        return mix(hash, dateTime.toEpochSecond(ZoneOffset.UTC));
+    }
+}
@@ -0,0 +1,213 @@
+package snorax.tasklist;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import snorax.task.Event;
+import snorax.task.Task;
+
+/**
+ * Keeps events as intervals from their start to their end, to find the events
+ * that overlap a period or are on at an instant.
+ *
+ * <p>The intervals live in a treap ordered by (start, ID) in which every node
+ * also holds the latest end in its subtree. A query skips every subtree whose
+ * latest end is before the period and every right subtree that starts after it,
+ * so it takes O(log n + k) expected time for k results, as do adds and deletes.
+ * An event covers the minutes from its start up to, but not including, its end.
+ * Events whose times could not be parsed are not indexed.
+ */
+class IntervalIndex implements TaskIndex {
+    private static final int SECONDS_PER_MINUTE = 60;
+
+    private final Random random = new Random();
+    private Node root;
+
+    @Override
+    public void add(Task task, int id) {
+        Node node = nodeFor(task, id);
+        if (node != null) {
+            root = insert(root, node);
+        }
+    }
+
+    @Override
+    public void remove(Task task, int id) {
+        Node node = nodeFor(task, id);
+        if (node != null) {
+            root = delete(root, node.start, id);
+        }
+    }
+
+    private Node nodeFor(Task task, int id) {
+        if (!(task instanceof Event)) {
+            return null;
+        }
+        Event event = (Event) task;
+        if (event.getFromDateTime() == null || event.getToDateTime() == null) {
+            return null;
+        }
+        return new Node(toMinutes(event.getFromDateTime()), toMinutes(event.getToDateTime()), id,
+                random.nextInt());
+    }
+
+    private static long toMinutes(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) / SECONDS_PER_MINUTE;
+    }
+
+    /**
+     * Returns the IDs of the events that overlap a period, in order of start time.
+     *
+     * @param from The start of the period.
+     * @param to   The end of the period, excluded.
+     * @return The IDs of the overlapping events.
+     */
+    List<Integer> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<Integer> ids = new ArrayList<>();
+        collect(root, toMinutes(from), toMinutes(to), ids);
+        return ids;
+    }
+
+    /**
+     * Returns the IDs of the events that are on at an instant, in order of start time.
+     *
+     * @param time The instant.
+     * @return The IDs of the events that have started but not ended by then.
+     */
+    List<Integer> findAt(LocalDateTime time) {
+        List<Integer> ids = new ArrayList<>();
+        long minute = toMinutes(time);
+        collect(root, minute, minute + 1, ids);
+        return ids;
+    }
+
+    /**
+     * Collects, in order, the intervals in a subtree that start before {@code to} and end after {@code from}.
+     */
+    private static void collect(Node node, long from, long to, List<Integer> ids) {
+        if (node == null || node.maxEnd <= from) {
+            return;
+        }
+        collect(node.left, from, to, ids);
+        if (node.start >= to) {
+            return;
+        }
+        if (node.end > from) {
+            ids.add(node.id);
+        }
+        collect(node.right, from, to, ids);
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.compareTo(node) < 0) {
+            node.left = insert(node.left, added);
+            if (node.left.priority > node.priority) {
+                node = rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, added);
+            if (node.right.priority > node.priority) {
+                node = rotateLeft(node);
+            }
+        }
+        node.update();
+        return node;
+    }
+
+    private static Node delete(Node node, long start, int id) {
+        if (node == null) {
+            return null;
+        }
+        int order = node.start != start ? Long.compare(start, node.start) : Integer.compare(id, node.id);
+        if (order < 0) {
+            node.left = delete(node.left, start, id);
+        } else if (order > 0) {
+            node.right = delete(node.right, start, id);
+        } else {
+            return merge(node.left, node.right);
+        }
+        node.update();
+        return node;
+    }
+
+    /**
+     * Joins two treaps where every interval in the first orders before every interval in the second.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            left.update();
+            return left;
+        }
+        right.left = merge(left, right.left);
+        right.update();
+        return right;
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        node.update();
+        pivot.update();
+        return pivot;
+    }
+
+    /**
+     * An event interval in minutes since the epoch.
+     */
+    private static class Node implements Comparable<Node> {
+        private final long start;
+        private final long end;
+        private final int id;
+        private final int priority;
+        private long maxEnd;
+        private Node left;
+        private Node right;
+
+        Node(long start, long end, int id, int priority) {
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+
+        void update() {
+            maxEnd = end;
+            if (left != null) {
+                maxEnd = Math.max(maxEnd, left.maxEnd);
+            }
+            if (right != null) {
+                maxEnd = Math.max(maxEnd, right.maxEnd);
+            }
+        }
+
+        @Override
+        public int compareTo(Node other) {
+            int byStart = Long.compare(start, other.start);
+            return byStart != 0 ? byStart : Integer.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package snorax.tasklist;
+
+import snorax.task.Task;
+
+/**
+ * One change to the positions of a task list, as storage records it: a task
+ * inserted or deleted at an index, a status set at an index, or the whole list
+ * reordered. {@link TaskList#undo(java.util.List)} and
+ * {@link TaskList#redo(java.util.List)} describe what they do as a series of
+ * these, each applying to the list as the ones before it left it.
+ */
+public class ListChange {
+    /**
+     * The kinds of change.
+     */
+    public enum Type {
+        INSERT, DELETE, STATUS, REORDER
+    }
+
+    private final Type type;
+    private final int index;
+    private final Task task;
+    private final boolean isDone;
+    private final int[] order;
+
+    private ListChange(Type type, int index, Task task, boolean isDone, int[] order) {
+        this.type = type;
+        this.index = index;
+        this.task = task;
+        this.isDone = isDone;
+        this.order = order;
+    }
+
+    /**
+     * Returns a change that puts a task at an index, moving the tasks from there on back by one.
+     *
+     * @param index The index the task takes.
+     * @param task  The task.
+     * @return The change.
+     */
+    public static ListChange insert(int index, Task task) {
+        return new ListChange(Type.INSERT, index, task, false, null);
+    }
+
+    /**
+     * Returns a change that removes the task at an index.
+     *
+     * @param index The index of the task.
+     * @return The change.
+     */
+    public static ListChange delete(int index) {
+        return new ListChange(Type.DELETE, index, null, false, null);
+    }
+
+    /**
+     * Returns a change that marks the task at an index as done or not done.
+     *
+     * @param index  The index of the task.
+     * @param isDone The new status of the task.
+     * @return The change.
+     */
+    public static ListChange status(int index, boolean isDone) {
+        return new ListChange(Type.STATUS, index, null, isDone, null);
+    }
+
+    /**
+     * Returns a change that reorders the whole list.
+     *
+     * @param order For each new position, the position the task held before.
+     * @return The change.
+     */
+    public static ListChange reorder(int[] order) {
+        return new ListChange(Type.REORDER, -1, null, false, order);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public Task getTask() {
+        return task;
+    }
+
+    public boolean isDone() {
+        return isDone;
+    }
+
+    public int[] getOrder() {
+        return order;
+    }
+}
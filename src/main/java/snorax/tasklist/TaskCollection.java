@@ -0,0 +1,335 @@
+package snorax.tasklist;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import snorax.exception.SnoraxException;
+import snorax.search.SearchQuery;
+import snorax.task.Task;
+import snorax.task.TaskType;
+
+/**
+ * The operations on an ordered list of tasks, each with a position and a stable ID.
+ *
+ * <p>{@link TaskList} keeps the tasks; {@link ConcurrentTaskList} shares another
+ * list between threads. Commands work against this interface, so they run the
+ * same on either.
+ */
+public interface TaskCollection {
+    /**
+     * Adds a task to the end of the list.
+     *
+     * @param task The task to be added.
+     * @return The ID given to the task.
+     */
+    int addTask(Task task);
+
+    /**
+     * Deletes a task at the specified index.
+     *
+     * @param index The index of the task to delete.
+     * @return The deleted task.
+     */
+    Task deleteTask(int index);
+
+    /**
+     * Deletes the tasks at the given indexes, which may come in any order, as one change.
+     *
+     * @param indexes The distinct indexes of the tasks to delete.
+     * @return The deleted tasks, in list order.
+     */
+    Task[] deleteTasks(int[] indexes);
+
+    /**
+     * Puts a deleted task back at its old position under its old ID.
+     *
+     * @param index The index the task had.
+     * @param id    The ID the task had.
+     * @param task  The deleted task.
+     */
+    void restoreTask(int index, int id, Task task);
+
+    /**
+     * Marks the task at the specified index as done or not done, as a change that can be undone.
+     *
+     * @param index  The index of the task.
+     * @param isDone Whether the task is done.
+     */
+    void setDone(int index, boolean isDone);
+
+    /**
+     * Marks the tasks at the given indexes as done or not done, as one change that can be undone.
+     *
+     * @param indexes The indexes of the tasks.
+     * @param isDone  Whether the tasks are done.
+     * @return The number of tasks whose status changed.
+     */
+    int setDone(int[] indexes, boolean isDone);
+
+    /**
+     * Finds a task with the same type, description and dates as the given one, and the same status.
+     *
+     * @param task The task to look for.
+     * @return The index of a matching task, or -1 if there is none.
+     */
+    int findDuplicate(Task task);
+
+    /**
+     * Returns the positions of the first tasks not yet done that are due or start
+     * at or after a point in time, earliest first.
+     *
+     * @param from  The earliest time to include.
+     * @param limit The most tasks to return.
+     * @return The indexes of the tasks.
+     */
+    int[] getUpcoming(LocalDateTime from, int limit);
+
+    /**
+     * Returns the positions of the events that overlap a period, in order of start time.
+     *
+     * @param from The start of the period.
+     * @param to   The end of the period, excluded.
+     * @return The indexes of the overlapping events.
+     */
+    int[] findOverlappingEvents(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Returns the positions of the events that are on at an instant, in order of start time.
+     *
+     * @param time The instant.
+     * @return The indexes of the events that have started but not ended by then.
+     */
+    int[] findEventsAt(LocalDateTime time);
+
+    /**
+     * Counts the tasks of a type with a status.
+     *
+     * @param type   The type, or null for tasks of any type.
+     * @param isDone Whether the tasks are done, or null for tasks with any status.
+     * @return The number of tasks.
+     */
+    int countTasks(TaskType type, Boolean isDone);
+
+    /**
+     * Returns the positions of the tasks of a type with a status, in list order.
+     *
+     * @param type   The type, or null for tasks of any type.
+     * @param isDone Whether the tasks are done, or null for tasks with any status.
+     * @return The indexes of the tasks.
+     */
+    int[] findTasks(TaskType type, Boolean isDone);
+
+    /**
+     * Returns the positions of the tasks whose descriptions contain the phrases of a
+     * query, ignoring case, in list order.
+     *
+     * @param query The query.
+     * @return The indexes of the tasks.
+     */
+    int[] search(SearchQuery query);
+
+    /**
+     * Returns the positions of the tasks with words in their descriptions that start
+     * with the words of a query, in list order.
+     *
+     * @param query The query.
+     * @return The indexes of the tasks.
+     */
+    int[] searchWords(SearchQuery query);
+
+    /**
+     * Returns the positions of the tasks with a word in their descriptions within an
+     * edit distance of the given word, closest first and then in list order.
+     *
+     * @param word        The word.
+     * @param maxDistance The largest number of single-character edits allowed.
+     * @return The indexes of the tasks.
+     */
+    int[] searchFuzzy(String word, int maxDistance);
+
+    /**
+     * Returns the positions of the tasks that pass a filter, in list order.
+     *
+     * @param filter The filter.
+     * @return The indexes of the tasks.
+     */
+    int[] filter(TaskFilter filter);
+
+    /**
+     * Gets a task at the specified index.
+     *
+     * @param index The index of the task.
+     * @return The task at the specified index.
+     */
+    Task getTask(int index);
+
+    /**
+     * Gets a task at the specified index for reading only. The returned task must not be modified.
+     *
+     * @param index The index of the task.
+     * @return The task at the specified index.
+     */
+    Task peekTask(int index);
+
+    /**
+     * Returns a window onto the tasks from one position up to another, without copying them.
+     *
+     * @param from The index of the first task in the window.
+     * @param to   The index after the last task in the window.
+     * @return The window.
+     */
+    TaskRange getRange(int from, int to);
+
+    /**
+     * Returns the stable ID of the task at the specified index.
+     *
+     * @param index The index of the task.
+     * @return The ID of the task.
+     */
+    int getId(int index);
+
+    /**
+     * Returns the current index of the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The index of the task, or -1 if no task in the list has that ID.
+     */
+    int indexOfId(int id);
+
+    /**
+     * Returns the number of tasks in the list.
+     *
+     * @return The size of the task list.
+     */
+    int size();
+
+    /**
+     * Checks if the task list is empty.
+     *
+     * @return true if the list is empty, false otherwise.
+     */
+    boolean isEmpty();
+
+    /**
+     * Returns the tasks in list order, as a copy that can be changed without changing the list.
+     *
+     * @return An ArrayList of the tasks.
+     */
+    ArrayList<Task> getTasks();
+
+    /**
+     * Sorts all tasks by type and chronologically.
+     *
+     * @return For each new position, the position the task held before sorting.
+     */
+    int[] sortTasks();
+
+    /**
+     * Sorts only deadline tasks chronologically and keeps other tasks in original order.
+     *
+     * @return For each new position, the position the task held before sorting.
+     */
+    int[] sortDeadlines();
+
+    /**
+     * Sorts only event tasks chronologically by start time.
+     *
+     * @return For each new position, the position the task held before sorting.
+     */
+    int[] sortEvents();
+
+    /**
+     * Steps back to the version of the list before the last change.
+     *
+     * @return true if there was a change to undo.
+     */
+    boolean undo();
+
+    /**
+     * Steps back like {@link #undo()}, and describes what that did position by position.
+     *
+     * @param changes The list to add the changes to, in the order they apply, or null.
+     * @return true if there was a change to undo.
+     */
+    boolean undo(List<ListChange> changes);
+
+    /**
+     * Steps forward to the version of the list before the last {@link #undo}.
+     *
+     * @return true if there was a change to redo.
+     */
+    boolean redo();
+
+    /**
+     * Steps forward like {@link #redo()}, and describes what that did position by position.
+     *
+     * @param changes The list to add the changes to, in the order they apply, or null.
+     * @return true if there was a change to redo.
+     */
+    boolean redo(List<ListChange> changes);
+
+    /**
+     * Returns a number that goes up whenever the list changes. Results worked out
+     * from the list stay valid for as long as the number stays the same.
+     *
+     * @return The modification count.
+     */
+    long getModificationCount();
+
+    /**
+     * Runs a query that only reads the list and the tasks in it.
+     *
+     * @param query The query, given the list to read.
+     * @param <T>   The type of the result.
+     * @return The result of the query.
+     * @throws SnoraxException If the query fails.
+     */
+    <T> T read(Operation<T> query) throws SnoraxException;
+
+    /**
+     * Runs a change to the list or the tasks in it as one step, which is undone
+     * as a whole and rolled back if the change fails.
+     *
+     * @param change The change, given the list to change.
+     * @param <T>    The type of the result.
+     * @return The result of the change.
+     * @throws SnoraxException If the change fails.
+     */
+    <T> T write(Operation<T> change) throws SnoraxException;
+
+    /**
+     * Runs a change like {@link #write(Operation)}, and describes how to undo it position by position.
+     *
+     * @param change The change, given the list to change.
+     * @param undo   The list to add the changes that undo it to, in the order they apply, or null.
+     * @param <T>    The type of the result.
+     * @return The result of the change.
+     * @throws SnoraxException If the change fails.
+     */
+    <T> T write(Operation<T> change, List<ListChange> undo) throws SnoraxException;
+
+    /**
+     * Makes a series of changes described position by position as one step.
+     *
+     * @param changes The changes, in the order they apply.
+     */
+    void applyChanges(List<ListChange> changes);
+
+    /**
+     * A query or change run against a task list by {@link #read} or {@link #write}.
+     *
+     * @param <T> The type of the result.
+     */
+    @FunctionalInterface
+    interface Operation<T> {
+        /**
+         * Runs the operation.
+         *
+         * @param tasks The list to work on, to be used in place of the list the operation was passed to.
+         * @return The result.
+         * @throws SnoraxException If the operation fails.
+         */
+        T apply(TaskCollection tasks) throws SnoraxException;
+    }
+}
@@ -0,0 +1,128 @@
+package snorax.tasklist;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import snorax.task.Deadline;
+import snorax.task.Event;
+import snorax.task.Task;
+import snorax.task.TaskType;
+
+/**
+ * A set of conditions that a task must all meet: its type, whether it is done,
+ * when it is due or starts, and words its description contains.
+ *
+ * <p>The conditions are compiled once into a pipeline of predicates, cheapest
+ * first. {@link TaskList#filter} uses the conditions to pick the index with the
+ * fewest candidates and runs the pipeline on those candidates only.
+ */
+public class TaskFilter {
+    private final TaskType type;
+    private final Boolean isDone;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private final List<String> words;
+    private final List<Predicate<Task>> pipeline = new ArrayList<>();
+
+    /**
+     * Constructs a TaskFilter. Every condition is optional.
+     *
+     * @param type   The type the tasks must have, or null for any type.
+     * @param isDone Whether the tasks must be done, or null for any status.
+     * @param from   The earliest time the tasks may be due or start, or null for no limit.
+     * @param to     The time before which the tasks must be due or start, or null for no limit.
+     * @param words  Words the descriptions must all contain, ignoring case.
+     */
+    public TaskFilter(TaskType type, Boolean isDone, LocalDateTime from, LocalDateTime to, List<String> words) {
+        this.type = type;
+        this.isDone = isDone;
+        this.from = from;
+        this.to = to;
+        this.words = new ArrayList<>();
+        for (String word : words) {
+            this.words.add(word.toLowerCase());
+        }
+
+        if (type != null) {
+            pipeline.add(task -> task.getType() == type);
+        }
+        if (isDone != null) {
+            pipeline.add(task -> task.isDone() == isDone);
+        }
+        if (hasTimeLimit()) {
+            pipeline.add(this::isInPeriod);
+        }
+        if (!this.words.isEmpty()) {
+            pipeline.add(this::containsWords);
+        }
+    }
+
+    private boolean isInPeriod(Task task) {
+        LocalDateTime time = timeOf(task);
+        return time != null && (from == null || !time.isBefore(from)) && (to == null || time.isBefore(to));
+    }
+
+    /**
+     * Returns when a task is due or starts, as the time index files it.
+     */
+    private static LocalDateTime timeOf(Task task) {
+        if (task instanceof Deadline) {
+            return ((Deadline) task).getByDateTime();
+        }
+        if (task instanceof Event) {
+            return ((Event) task).getFromDateTime();
+        }
+        return null;
+    }
+
+    private boolean containsWords(Task task) {
+        String description = task.getDescription().toLowerCase();
+        for (String word : words) {
+            if (!description.contains(word)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether a task meets every condition.
+     *
+     * @param task The task.
+     * @return true if the task passes the filter.
+     */
+    public boolean test(Task task) {
+        for (Predicate<Task> predicate : pipeline) {
+            if (!predicate.test(task)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    TaskType getType() {
+        return type;
+    }
+
+    Boolean getIsDone() {
+        return isDone;
+    }
+
+    boolean hasTimeLimit() {
+        return from != null || to != null;
+    }
+
+    LocalDateTime getFrom() {
+        return from;
+    }
+
+    LocalDateTime getTo() {
+        return to;
+    }
+
+    List<String> getWords() {
+        return words;
+    }
+}
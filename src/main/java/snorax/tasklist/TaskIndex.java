@@ -0,0 +1,35 @@
+package snorax.tasklist;
+
+import snorax.task.Task;
+
+/**
+ * A secondary index over the tasks in a {@link TaskList}, kept up to date as tasks are added and deleted.
+ * Indexes refer to tasks by their stable IDs, so reordering the list does not touch them.
+ */
+public interface TaskIndex {
+    /**
+     * Records a task that joined the list.
+     *
+     * @param task The task.
+     * @param id   The ID of the task.
+     */
+    void add(Task task, int id);
+
+    /**
+     * Forgets a task that left the list.
+     *
+     * @param task The task, as it was when it was added.
+     * @param id   The ID of the task.
+     */
+    void remove(Task task, int id);
+
+    /**
+     * Notes that a task in the list was marked as done or not done.
+     * Indexes that do not look at the status need not override this.
+     *
+     * @param id     The ID of the task.
+     * @param isDone Whether the task is now done.
+     */
+    default void setDone(int id, boolean isDone) {
+    }
+}
@@ -1,26 +1,71 @@
 package snorax.tasklist;
 
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Predicate;
 
+import snorax.exception.SnoraxException;
+import snorax.search.InvertedIndex;
+import snorax.search.SearchQuery;
+import snorax.search.TrigramIndex;
 import snorax.task.Deadline;
 import snorax.task.Event;
 import snorax.task.Task;
+import snorax.task.TaskType;
 
 /**
  * Represents a list of tasks.
  * Provides operations to add, delete, and retrieve tasks.
+ *
+ * <p>Besides its position in the list, every task has a numeric ID that stays
+ * the same for as long as the list is in memory, however the list is sorted or
+ * shrunk. The tasks are kept in a persistent {@link TaskTree}, so every change
+ * makes a new version of the list that shares all but O(log n) nodes with the
+ * last one. The last 500 versions are kept, and
+ * {@link #undo} and {@link #redo} step between them in O(log n) time, apart from
+ * sorts, which take O(n) time to undo. All the changes made inside one
+ * {@link #write} form a single step, and a write that fails is rolled back.
+ * Status changes are only undoable, and only seen by the status bitmaps, when
+ * made through {@link #setDone}.
+ *
+ * <p>Queries may run on several threads at once, as long as no change runs
+ * alongside them: the indexes they build on first use and the tasks they
+ * decode from storage are each made once and shared safely.
+ * {@link ConcurrentTaskList} keeps changes apart from them.
  */
-public class TaskList {
-    private static final int FIRST_TASK_INDEX = 0;
-    private ArrayList<Task> tasks;
+public class TaskList implements TaskCollection {
+    private static final int FIRST_ID = 1;
+    private static final long KEY_GAP = 1L << 20;
+    private static final int MAX_UNDO_STEPS = 500;
+    private TaskTree tree;
+    private final HashMap<Integer, Long> keysById = new HashMap<>();
+    private int nextId = FIRST_ID;
+    private TaskSource source;
+    private final ArrayList<TaskIndex> indexes = new ArrayList<>();
+    private DuplicateIndex duplicates;
+    private TimeIndex timeIndex;
+    private IntervalIndex intervalIndex;
+    private BitmapIndex bitmapIndex;
+    private InvertedIndex wordIndex;
+    private TrigramIndex substringIndex;
+    private final ArrayDeque<Step> undoSteps = new ArrayDeque<>();
+    private final ArrayDeque<Step> redoSteps = new ArrayDeque<>();
+    private Step step;
+    private int writeDepth;
+    private long modificationCount;
+    private List<ListChange> inverse;
 
     /**
      * Constructs an empty TaskList.
      */
     public TaskList() {
-        this.tasks = new ArrayList<>();
-        assert tasks != null : "Tasks list should be initialized";
+        this(new ArrayList<>());
     }
 
     /**
@@ -30,19 +75,54 @@ public class TaskList {
      */
     public TaskList(ArrayList<Task> tasks) {
         assert tasks != null : "Initial tasks list cannot be null";
-        this.tasks = tasks;
+        initTasks(tasks.toArray(new Task[0]));
     }
 
     /**
-     * Adds a task to the task list.
+     * Constructs a TaskList over stored tasks that are decoded only when first needed.
+     *
+     * @param source The stored tasks.
+     */
+    public TaskList(TaskSource source) {
+        assert source != null : "Task source cannot be null";
+        this.source = source;
+        Task[] placeholders = new Task[source.size()];
+        for (int i = 0; i < placeholders.length; i++) {
+            placeholders[i] = new UnloadedTask(i);
+        }
+        initTasks(placeholders);
+    }
+
+    private void initTasks(Task[] tasks) {
+        long[] keys = new long[tasks.length];
+        int[] taskIds = new int[tasks.length];
+        for (int i = 0; i < tasks.length; i++) {
+            keys[i] = i * KEY_GAP;
+            taskIds[i] = nextId++;
+            keysById.put(taskIds[i], keys[i]);
+        }
+        tree = TaskTree.of(keys, taskIds, tasks);
+    }
+
+    /**
+     * Adds a task to the end of the task list.
      *
      * @param task The task to be added.
+     * @return The ID given to the task.
      */
-    public void addTask(Task task) {
+    @Override
+    public int addTask(Task task) {
         assert task != null : "Cannot add null task";
-        int sizeBefore = tasks.size();
-        tasks.add(task);
-        assert tasks.size() == sizeBefore + 1 : "Task should be added to list";
+        int sizeBefore = size();
+        beginStep();
+        int id = nextId++;
+        long key = freeKey(size());
+        tree = tree.insert(key, id, task);
+        remember(id, key, task);
+        record(new Edit(EditType.ADD, id, key, task));
+        endStep(true);
+        assert size() == sizeBefore + 1 : "Task should be added to list";
+        return id;
     }
 
     /**
@@ -51,11 +131,543 @@ public class TaskList {
      * @param index The index of the task to delete.
      * @return The deleted task.
      */
+    @Override
     public Task deleteTask(int index) {
-        if (index < 0 || index >= tasks.size()) {
+        checkIndex(index);
+        TaskTree.Node node = tree.get(index);
+        Task task = load(node.getTask());
+        beginStep();
+        tree = tree.remove(node.getKey());
+        forget(node.getId(), task);
+        record(new Edit(EditType.DELETE, node.getId(), node.getKey(), task));
+        endStep(true);
+        return task;
+    }
+
+    /**
+     * Deletes the tasks at the given indexes, which may come in any order, as one change.
+     * A few tasks are removed one at a time, from the last back, in O(k log n) time;
+     * more than that and the list is rebuilt without them in one O(n) pass.
+     *
+     * @param indexes The distinct indexes of the tasks to delete.
+     * @return The deleted tasks, in list order.
+     */
+    @Override
+    public Task[] deleteTasks(int[] indexes) {
+        int[] sorted = indexes.clone();
+        Arrays.sort(sorted);
+        for (int i = 0; i < sorted.length; i++) {
+            checkIndex(sorted[i]);
+            if (i > 0 && sorted[i] == sorted[i - 1]) {
+                throw new IllegalArgumentException("Indexes must be distinct");
+            }
+        }
+
+        int size = size();
+        Task[] removed = new Task[sorted.length];
+        beginStep();
+        if ((long) sorted.length * (Integer.SIZE - Integer.numberOfLeadingZeros(size)) < size) {
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                TaskTree.Node node = tree.get(sorted[i]);
+                tree = tree.remove(node.getKey());
+                removed[i] = recordDelete(node);
+            }
+        } else {
+            TaskTree.Node[] nodes = tree.toArray();
+            int kept = size - sorted.length;
+            long[] keys = new long[kept];
+            int[] taskIds = new int[kept];
+            Task[] tasks = new Task[kept];
+            int next = 0;
+            int count = 0;
+            for (int i = 0; i < nodes.length; i++) {
+                if (next < sorted.length && sorted[next] == i) {
+                    removed[next++] = recordDelete(nodes[i]);
+                } else {
+                    keys[count] = nodes[i].getKey();
+                    taskIds[count] = nodes[i].getId();
+                    tasks[count++] = nodes[i].getTask();
+                }
+            }
+            tree = TaskTree.of(keys, taskIds, tasks);
+        }
+        endStep(true);
+        return removed;
+    }
+
+    /**
+     * Forgets a task taken out of the tree and records its deletion.
+     */
+    private Task recordDelete(TaskTree.Node node) {
+        Task task = load(node.getTask());
+        forget(node.getId(), task);
+        record(new Edit(EditType.DELETE, node.getId(), node.getKey(), task));
+        return task;
+    }
+
+    /**
+     * Puts a deleted task back at its old position under its old ID, undoing {@link #deleteTask}.
+     *
+     * @param index The index the task had.
+     * @param id    The ID the task had.
+     * @param task  The deleted task.
+     */
+    @Override
+    public void restoreTask(int index, int id, Task task) {
+        if (index < 0 || index > size()) {
             throw new IndexOutOfBoundsException("Index must be within valid range");
         }
-        return tasks.remove(index);
+        assert !keysById.containsKey(id) : "ID must not be in use";
+        beginStep();
+        long key = freeKey(index);
+        tree = tree.insert(key, id, task);
+        remember(id, key, task);
+        record(new Edit(EditType.ADD, id, key, task));
+        endStep(true);
+    }
+
+    /**
+     * Marks the task at the specified index as done or not done, as a change that can be undone.
+     *
+     * @param index  The index of the task.
+     * @param isDone Whether the task is done.
+     */
+    @Override
+    public void setDone(int index, boolean isDone) {
+        Task task = getTask(index);
+        if (task.isDone() == isDone) {
+            return;
+        }
+        beginStep();
+        int id = getId(index);
+        changeStatus(id, task, isDone);
+        record(new Edit(EditType.STATUS, id, keysById.get(id), task));
+        endStep(true);
+    }
+
+    /**
+     * Marks the tasks at the given indexes as done or not done, as one change that can be undone.
+     *
+     * @param indexes The indexes of the tasks.
+     * @param isDone  Whether the tasks are done.
+     * @return The number of tasks whose status changed.
+     */
+    @Override
+    public int setDone(int[] indexes, boolean isDone) {
+        for (int index : indexes) {
+            checkIndex(index);
+        }
+        int changed = 0;
+        beginStep();
+        for (int index : indexes) {
+            Task task = getTask(index);
+            if (task.isDone() != isDone) {
+                int id = getId(index);
+                changeStatus(id, task, isDone);
+                record(new Edit(EditType.STATUS, id, keysById.get(id), task));
+                changed++;
+            }
+        }
+        endStep(true);
+        return changed;
+    }
+
+    private void changeStatus(int id, Task task, boolean isDone) {
+        if (isDone) {
+            task.markAsDone();
+        } else {
+            task.markAsNotDone();
+        }
+        for (TaskIndex taskIndex : indexes) {
+            taskIndex.setDone(id, isDone);
+        }
+    }
+
+    /**
+     * Returns a key that no task has, between the keys of the tasks at index - 1 and index.
+     */
+    private long freeKey(int index) {
+        int size = size();
+        if (size == 0) {
+            return 0;
+        }
+        if (index == size) {
+            return tree.get(size - 1).getKey() + KEY_GAP;
+        }
+        long after = tree.get(index).getKey();
+        long before = index == 0 ? after - 2 * KEY_GAP : tree.get(index - 1).getKey();
+        if (after - before < 2) {
+            relabel();
+            return freeKey(index);
+        }
+        return before + (after - before) / 2;
+    }
+
+    /**
+     * Spreads the keys evenly again once insertions have used up the gap between two of them.
+     */
+    private void relabel() {
+        TaskTree.Node[] nodes = tree.toArray();
+        long[] keys = new long[nodes.length];
+        int[] taskIds = new int[nodes.length];
+        Task[] tasks = new Task[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            keys[i] = i * KEY_GAP;
+            taskIds[i] = nodes[i].getId();
+            tasks[i] = nodes[i].getTask();
+        }
+        tree = TaskTree.of(keys, taskIds, tasks);
+        rebuildKeys();
+        record(new Edit(EditType.REORDER, 0, 0, null));
+    }
+
+    private void rebuildKeys() {
+        keysById.clear();
+        for (TaskTree.Node node : tree.toArray()) {
+            keysById.put(node.getId(), node.getKey());
+        }
+    }
+
+    /**
+     * Makes a task findable by its ID and known to every index.
+     */
+    private void remember(int id, long key, Task task) {
+        keysById.put(id, key);
+        for (TaskIndex taskIndex : indexes) {
+            taskIndex.add(task, id);
+        }
+    }
+
+    private void forget(int id, Task task) {
+        keysById.remove(id);
+        for (TaskIndex taskIndex : indexes) {
+            taskIndex.remove(task, id);
+        }
+    }
+
+    /**
+     * Finds a task with the same type, description and dates as the given one, and the same status.
+     * The first call indexes every task; later calls take constant time.
+     *
+     * @param task The task to look for.
+     * @return The index of a matching task, or -1 if there is none.
+     */
+    @Override
+    public int findDuplicate(Task task) {
+        DuplicateIndex duplicateIndex = getDuplicateIndex();
+        for (int slot = duplicateIndex.first(task); slot >= 0; slot = duplicateIndex.next(task, slot)) {
+            int index = indexOfId(duplicateIndex.getId(slot));
+            Task existing = peekTask(index);
+            if (existing.isDone() == task.isDone() && DuplicateIndex.isSame(existing, task)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the positions of the first tasks not yet done that are due or start
+     * at or after a point in time, earliest first.
+     * The first call indexes every task; later calls take O(log n + k) time.
+     *
+     * @param from  The earliest time to include.
+     * @param limit The most tasks to return.
+     * @return The indexes of the tasks.
+     */
+    @Override
+    public int[] getUpcoming(LocalDateTime from, int limit) {
+        int[] upcoming = new int[Math.min(limit, size())];
+        int count = 0;
+        for (Iterator<Integer> ids = getTimeIndex().iterateFrom(from); ids.hasNext() && count < upcoming.length; ) {
+            int index = indexOfId(ids.next());
+            if (!peekTask(index).isDone()) {
+                upcoming[count++] = index;
+            }
+        }
+        return Arrays.copyOf(upcoming, count);
+    }
+
+    /**
+     * Returns the positions of the events that overlap a period, in order of start time.
+     * The first call indexes every task; later calls take O(log n + k) time.
+     *
+     * @param from The start of the period.
+     * @param to   The end of the period, excluded.
+     * @return The indexes of the overlapping events.
+     */
+    @Override
+    public int[] findOverlappingEvents(LocalDateTime from, LocalDateTime to) {
+        return indexesOf(getIntervalIndex().findOverlapping(from, to));
+    }
+
+    /**
+     * Returns the positions of the events that are on at an instant, in order of start time.
+     * The first call indexes every task; later calls take O(log n + k) time.
+     *
+     * @param time The instant.
+     * @return The indexes of the events that have started but not ended by then.
+     */
+    @Override
+    public int[] findEventsAt(LocalDateTime time) {
+        return indexesOf(getIntervalIndex().findAt(time));
+    }
+
+    private int[] indexesOf(List<Integer> taskIds) {
+        int[] positions = new int[taskIds.size()];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = indexOfId(taskIds.get(i));
+        }
+        return positions;
+    }
+
+    /**
+     * Counts the tasks of a type with a status.
+     * The first call indexes every task; later calls count bits in bitmaps of
+     * task IDs without looking at any task.
+     *
+     * @param type   The type, or null for tasks of any type.
+     * @param isDone Whether the tasks are done, or null for tasks with any status.
+     * @return The number of tasks.
+     */
+    @Override
+    public int countTasks(TaskType type, Boolean isDone) {
+        return getBitmapIndex().count(type, isDone);
+    }
+
+    /**
+     * Returns the positions of the tasks of a type with a status, in list order.
+     * The first call indexes every task; later calls intersect bitmaps of task IDs
+     * and look up only the k matching tasks, in O(k log n) time.
+     *
+     * @param type   The type, or null for tasks of any type.
+     * @param isDone Whether the tasks are done, or null for tasks with any status.
+     * @return The indexes of the tasks.
+     */
+    @Override
+    public int[] findTasks(TaskType type, Boolean isDone) {
+        BitSet selected = getBitmapIndex().select(type, isDone);
+        int[] positions = new int[selected.cardinality()];
+        int count = 0;
+        for (int id = selected.nextSetBit(0); id >= 0; id = selected.nextSetBit(id + 1)) {
+            positions[count++] = indexOfId(id);
+        }
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    /**
+     * Returns the positions of the tasks whose descriptions contain the phrases of a
+     * query, ignoring case, in list order. The first call indexes the trigrams of
+     * every task; later calls check only the tasks that have every trigram of the phrases.
+     *
+     * @param query The query.
+     * @return The indexes of the tasks.
+     */
+    @Override
+    public int[] search(SearchQuery query) {
+        return positionsOf(getSubstringIndex().search(query, id -> peekTask(indexOfId(id)).getDescription()));
+    }
+
+    /**
+     * Returns the positions of the tasks with words in their descriptions that start
+     * with the words of a query, in list order. The first call indexes the words of
+     * every task; later calls merge the posting lists of the query words and look
+     * up only the k matching tasks.
+     *
+     * @param query The query.
+     * @return The indexes of the tasks.
+     */
+    @Override
+    public int[] searchWords(SearchQuery query) {
+        return positionsOf(getWordIndex().search(query));
+    }
+
+    /**
+     * Returns the positions of the tasks with a word in their descriptions within an
+     * edit distance of the given word, closest first and then in list order.
+     * The first call indexes the words of every task; later calls compare the
+     * word with only part of the vocabulary.
+     *
+     * @param word        The word.
+     * @param maxDistance The largest number of single-character edits allowed.
+     * @return The indexes of the tasks.
+     */
+    @Override
+    public int[] searchFuzzy(String word, int maxDistance) {
+        int[][] idsByDistance = getWordIndex().searchFuzzy(word.toLowerCase(), maxDistance);
+        int[] positions = new int[0];
+        for (int[] taskIds : idsByDistance) {
+            int[] closer = positions;
+            int[] further = positionsOf(taskIds);
+            positions = Arrays.copyOf(closer, closer.length + further.length);
+            System.arraycopy(further, 0, positions, closer.length, further.length);
+        }
+        return positions;
+    }
+
+    /**
+     * Returns the positions of the tasks that pass a filter, in list order.
+     *
+     * <p>The candidates come from whichever structure narrows the list the most:
+     * the type and status bitmaps, whose counts are exact; the trigram index, whose
+     * shortest posting list bounds its candidates; or the time index, walked only
+     * until it yields more tasks than the best of the others. The whole filter is
+     * then run on those candidates alone, and on every task only if nothing narrows them.
+     *
+     * @param filter The filter.
+     * @return The indexes of the tasks.
+     */
+    @Override
+    public int[] filter(TaskFilter filter) {
+        TaskType type = filter.getType();
+        Boolean isDone = filter.getIsDone();
+        List<String> words = filter.getWords();
+        int fewest = size();
+        boolean isByStatus = false;
+        boolean isByText = false;
+        if (type != null || isDone != null) {
+            int count = getBitmapIndex().count(type, isDone);
+            if (count < fewest) {
+                fewest = count;
+                isByStatus = true;
+            }
+        }
+        if (!words.isEmpty()) {
+            int count = getSubstringIndex().estimateCandidates(words);
+            if (count < fewest) {
+                fewest = count;
+                isByStatus = false;
+                isByText = true;
+            }
+        }
+
+        int[] candidates = null;
+        if (filter.hasTimeLimit()) {
+            candidates = findInPeriod(type, filter.getFrom(), filter.getTo(), fewest);
+        }
+        if (candidates == null && isByStatus) {
+            candidates = getBitmapIndex().select(type, isDone).stream().toArray();
+        } else if (candidates == null && isByText) {
+            candidates = getSubstringIndex().findCandidates(words);
+        }
+
+        ArrayList<Integer> matches = new ArrayList<>();
+        if (candidates == null) {
+            TaskTree.Node[] nodes = tree.toArray();
+            for (int i = 0; i < nodes.length; i++) {
+                if (filter.test(peek(nodes[i].getTask()))) {
+                    matches.add(i);
+                }
+            }
+        } else {
+            for (int id : candidates) {
+                int index = indexOfId(id);
+                if (filter.test(peekTask(index))) {
+                    matches.add(index);
+                }
+            }
+        }
+        int[] positions = matches.stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    /**
+     * Returns the IDs of the tasks of a type that are due or start in a period, or
+     * null once there turn out to be more than the given limit.
+     */
+    private int[] findInPeriod(TaskType type, LocalDateTime from, LocalDateTime to, int limit) {
+        if (type == TaskType.TODO) {
+            return new int[0];
+        }
+        int[] ids = new int[Math.min(limit, 16)];
+        int count = 0;
+        for (Iterator<Integer> inPeriod = getTimeIndex().iterateBetween(type, from, to); inPeriod.hasNext(); ) {
+            if (count == limit) {
+                return null;
+            }
+            if (count == ids.length) {
+                ids = Arrays.copyOf(ids, Math.min(limit, count * 2));
+            }
+            ids[count++] = inPeriod.next();
+        }
+        return Arrays.copyOf(ids, count);
+    }
+
+    private TrigramIndex getSubstringIndex() {
+        synchronized (indexes) {
+            if (substringIndex == null) {
+                substringIndex = buildIndex(new TrigramIndex());
+            }
+            return substringIndex;
+        }
+    }
+
+    private InvertedIndex getWordIndex() {
+        synchronized (indexes) {
+            if (wordIndex == null) {
+                wordIndex = buildIndex(new InvertedIndex());
+            }
+            return wordIndex;
+        }
+    }
+
+    private int[] positionsOf(int[] taskIds) {
+        int[] positions = new int[taskIds.length];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = indexOfId(taskIds[i]);
+        }
+        Arrays.sort(positions);
+        return positions;
+    }
+
+    private BitmapIndex getBitmapIndex() {
+        synchronized (indexes) {
+            if (bitmapIndex == null) {
+                bitmapIndex = buildIndex(new BitmapIndex());
+            }
+            return bitmapIndex;
+        }
+    }
+
+    private IntervalIndex getIntervalIndex() {
+        synchronized (indexes) {
+            if (intervalIndex == null) {
+                intervalIndex = buildIndex(new IntervalIndex());
+            }
+            return intervalIndex;
+        }
+    }
+
+    private DuplicateIndex getDuplicateIndex() {
+        synchronized (indexes) {
+            if (duplicates == null) {
+                duplicates = buildIndex(new DuplicateIndex());
+            }
+            return duplicates;
+        }
+    }
+
+    private TimeIndex getTimeIndex() {
+        synchronized (indexes) {
+            if (timeIndex == null) {
+                timeIndex = buildIndex(new TimeIndex());
+            }
+            return timeIndex;
+        }
+    }
+
+    /**
+     * Fills a new index with every task, then keeps it up to date from here on.
+     * Indexes are built while holding the lock on the list of indexes, so that
+     * queries running together on several threads build each one only once.
+     */
+    private <T extends TaskIndex> T buildIndex(T index) {
+        for (TaskTree.Node node : tree.toArray()) {
+            index.add(peek(node.getTask()), node.getId());
+        }
+        indexes.add(index);
+        return index;
     }
 
     /**
@@ -64,11 +676,105 @@ public class TaskList {
      * @param index The index of the task.
      * @return The task at the specified index.
      */
+    @Override
     public Task getTask(int index) {
-        if (index < 0 || index >= tasks.size()) {
+        checkIndex(index);
+        return load(tree.get(index).getTask());
+    }
+
+    /**
+     * Returns a task, decoding it from storage and keeping it if it is not loaded yet.
+     * The decoded task is kept in its placeholder, which every version of the list shares,
+     * and queries on other threads decoding the same task get the same object.
+     */
+    private Task load(Task task) {
+        if (task instanceof UnloadedTask) {
+            UnloadedTask placeholder = (UnloadedTask) task;
+            Task loaded = placeholder.loaded;
+            if (loaded != null) {
+                return loaded;
+            }
+            synchronized (placeholder) {
+                if (placeholder.loaded == null) {
+                    placeholder.loaded = source.load(placeholder.index);
+                }
+                return placeholder.loaded;
+            }
+        }
+        return task;
+    }
+
+    /**
+     * Gets a task at the specified index for reading only.
+     * A task not yet decoded from storage is decoded without being kept, so
+     * reading through the whole list does not hold every task in memory. The
+     * returned task must not be modified.
+     *
+     * @param index The index of the task.
+     * @return The task at the specified index.
+     */
+    @Override
+    public Task peekTask(int index) {
+        checkIndex(index);
+        return peek(tree.get(index).getTask());
+    }
+
+    /**
+     * Returns a task for reading only, decoding it from storage without keeping it if it is not loaded yet.
+     */
+    Task peek(Task task) {
+        if (task instanceof UnloadedTask) {
+            UnloadedTask placeholder = (UnloadedTask) task;
+            Task loaded = placeholder.loaded;
+            return loaded != null ? loaded : source.load(placeholder.index);
+        }
+        return task;
+    }
+
+    /**
+     * Returns a window onto the tasks from one position up to another, without copying them.
+     * The window keeps showing the tasks as they are now, whatever later happens to the list.
+     *
+     * @param from The index of the first task in the window.
+     * @param to   The index after the last task in the window.
+     * @return The window.
+     */
+    @Override
+    public TaskRange getRange(int from, int to) {
+        if (from < 0 || from > to || to > size()) {
+            throw new IndexOutOfBoundsException("Range must be within the list");
+        }
+        return new TaskRange(this, tree, from, to);
+    }
+
+    /**
+     * Returns the stable ID of the task at the specified index.
+     *
+     * @param index The index of the task.
+     * @return The ID of the task.
+     */
+    @Override
+    public int getId(int index) {
+        checkIndex(index);
+        return tree.get(index).getId();
+    }
+
+    /**
+     * Returns the current index of the task with the given ID.
+     *
+     * @param id The ID of the task.
+     * @return The index of the task, or -1 if no task in the list has that ID.
+     */
+    @Override
+    public int indexOfId(int id) {
+        Long key = keysById.get(id);
+        return key == null ? -1 : tree.rank(key);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size()) {
             throw new IndexOutOfBoundsException("Index must be within valid range");
         }
-        return tasks.get(index);
     }
 
     /**
@@ -76,16 +782,23 @@ public class TaskList {
      *
      * @return The size of the task list.
      */
+    @Override
     public int size() {
-        return tasks.size();
+        return tree.size();
     }
 
     /**
-     * Returns the internal task list.
+     * Returns the tasks in list order, decoding any tasks not yet loaded from storage.
+     * The returned list is a copy; changing it does not change this list.
      *
-     * @return The ArrayList of tasks.
+     * @return An ArrayList of the tasks.
      */
+    @Override
     public ArrayList<Task> getTasks() {
+        ArrayList<Task> tasks = new ArrayList<>(size());
+        for (TaskTree.Node node : tree.toArray()) {
+            tasks.add(load(node.getTask()));
+        }
         return tasks;
     }
 
@@ -94,99 +807,539 @@ public class TaskList {
      *
      * @return true if the list is empty, false otherwise.
      */
+    @Override
     public boolean isEmpty() {
-        return tasks.isEmpty();
+        return size() == 0;
     }
 
     /**
      * Sorts all tasks by type and chronologically.
      * Deadlines are sorted by their due date, Events by start time, Todos appear
-     * last.
+     * last. Tasks whose time cannot be parsed follow the others of their type.
+     * The order is read from the time index rather than sorted again.
+     *
+     * @return For each new position, the position the task held before sorting.
      */
-    public void sortTasks() {
-        tasks.sort(Comparator
-                .comparing(this::getTaskPriority)
-                .thenComparing(this::getTaskDateTime));
+    @Override
+    public int[] sortTasks() {
+        TaskTree.Node[] nodes = tree.toArray();
+        ArrayList<Integer> order = new ArrayList<>(nodes.length);
+        boolean[] isPlaced = new boolean[nodes.length];
+        placeIndexed(order, isPlaced, getTimeIndex().getDeadlineIds());
+        placeRemaining(order, isPlaced, nodes, task -> task instanceof Deadline);
+        placeIndexed(order, isPlaced, getTimeIndex().getEventIds());
+        placeRemaining(order, isPlaced, nodes, task -> task instanceof Event);
+        placeRemaining(order, isPlaced, nodes, task -> true);
+        return applyOrder(nodes, order);
     }
 
     /**
      * Sorts only deadline tasks chronologically and keeps other tasks in original
      * order.
+     *
+     * @return For each new position, the position the task held before sorting.
+     */
+    @Override
+    public int[] sortDeadlines() {
+        TaskTree.Node[] nodes = tree.toArray();
+        ArrayList<Integer> order = new ArrayList<>(nodes.length);
+        boolean[] isPlaced = new boolean[nodes.length];
+        placeIndexed(order, isPlaced, getTimeIndex().getDeadlineIds());
+        placeRemaining(order, isPlaced, nodes, task -> task instanceof Deadline);
+        // Add non-deadline tasks back
+        placeRemaining(order, isPlaced, nodes, task -> true);
+        return applyOrder(nodes, order);
+    }
+
+    /**
+     * Sorts only event tasks chronologically by start time.
+     *
+     * @return For each new position, the position the task held before sorting.
      */
-    public void sortDeadlines() {
-        ArrayList<Task> sorted = new ArrayList<>();
-        ArrayList<Task> nonDeadlines = new ArrayList<>();
+    @Override
+    public int[] sortEvents() {
+        TaskTree.Node[] nodes = tree.toArray();
+        ArrayList<Integer> order = new ArrayList<>(nodes.length);
+        boolean[] isPlaced = new boolean[nodes.length];
+        placeIndexed(order, isPlaced, getTimeIndex().getEventIds());
+        placeRemaining(order, isPlaced, nodes, task -> task instanceof Event);
+        placeRemaining(order, isPlaced, nodes, task -> true);
+        return applyOrder(nodes, order);
+    }
 
-        // Separate deadlines from other tasks
-        for (Task task : tasks) {
-            if (task instanceof Deadline) {
-                sorted.add(task);
-            } else {
-                nonDeadlines.add(task);
+    /**
+     * Appends the positions of the tasks with the given IDs.
+     */
+    private void placeIndexed(ArrayList<Integer> order, boolean[] isPlaced, List<Integer> orderedIds) {
+        for (int id : orderedIds) {
+            int position = indexOfId(id);
+            isPlaced[position] = true;
+            order.add(position);
+        }
+    }
+
+    /**
+     * Appends, in list order, the positions not yet placed whose tasks match the filter.
+     */
+    private void placeRemaining(ArrayList<Integer> order, boolean[] isPlaced, TaskTree.Node[] nodes,
+            Predicate<Task> filter) {
+        for (int position = 0; position < nodes.length; position++) {
+            if (!isPlaced[position] && filter.test(load(nodes[position].getTask()))) {
+                isPlaced[position] = true;
+                order.add(position);
             }
         }
+    }
 
-        // Sort deadlines chronologically
-        sorted.sort(Comparator.comparing(task -> ((Deadline) task).getByDateTime()));
+    /**
+     * Rearranges the tasks so that new position i holds the task previously at order.get(i).
+     *
+     * @param nodes The tasks in their previous order.
+     * @param order The previous positions, in their new order.
+     * @return The order as an array.
+     */
+    private int[] applyOrder(TaskTree.Node[] nodes, ArrayList<Integer> order) {
+        assert order.size() == nodes.length : "Order must cover every task";
+        long[] keys = new long[nodes.length];
+        int[] taskIds = new int[nodes.length];
+        Task[] tasks = new Task[nodes.length];
+        int[] result = new int[nodes.length];
+        for (int i = 0; i < nodes.length; i++) {
+            result[i] = order.get(i);
+            keys[i] = i * KEY_GAP;
+            taskIds[i] = nodes[result[i]].getId();
+            tasks[i] = nodes[result[i]].getTask();
+        }
+        beginStep();
+        tree = TaskTree.of(keys, taskIds, tasks);
+        rebuildKeys();
+        record(new Edit(EditType.REORDER, 0, 0, null));
+        endStep(true);
+        return result;
+    }
 
-        // Add non-deadline tasks back
-        sorted.addAll(nonDeadlines);
+    /**
+     * Steps back to the version of the list before the last change, or the last
+     * {@link #write}. Must not be called from a write that has changed the list.
+     *
+     * @return true if there was a change to undo.
+     */
+    @Override
+    public boolean undo() {
+        return undo(null);
+    }
 
-        this.tasks = sorted;
+    /**
+     * Steps back like {@link #undo()}, and describes what that did position by
+     * position, so that it can be stored without saving the whole list. Working out
+     * the changes takes O(k log n) time for a step of k edits, or O(n) time for a sort.
+     *
+     * @param changes The list to add the changes to, in the order they apply, or null.
+     * @return true if there was a change to undo.
+     */
+    @Override
+    public boolean undo(List<ListChange> changes) {
+        assert step == null || step.edits.isEmpty() : "Cannot undo part way through a change";
+        Step last = undoSteps.poll();
+        if (last == null) {
+            return false;
+        }
+        if (changes != null) {
+            describe(last, false, changes);
+        }
+        describeInverse(last, true);
+        revert(last);
+        redoSteps.push(last);
+        modificationCount++;
+        return true;
     }
 
     /**
-     * Sorts only event tasks chronologically by start time.
+     * Steps forward to the version of the list before the last {@link #undo}.
+     * Any other change since then discards the versions that could be redone.
+     *
+     * @return true if there was a change to redo.
      */
-    public void sortEvents() {
-        ArrayList<Task> sorted = new ArrayList<>();
-        ArrayList<Task> nonEvents = new ArrayList<>();
+    @Override
+    public boolean redo() {
+        return redo(null);
+    }
 
-        for (Task task : tasks) {
-            if (task instanceof Event) {
-                sorted.add(task);
-            } else {
-                nonEvents.add(task);
+    /**
+     * Steps forward like {@link #redo()}, and describes what that did position by
+     * position, so that it can be stored without saving the whole list. Working out
+     * the changes takes O(k log n) time for a step of k edits, or O(n) time for a sort.
+     *
+     * @param changes The list to add the changes to, in the order they apply, or null.
+     * @return true if there was a change to redo.
+     */
+    @Override
+    public boolean redo(List<ListChange> changes) {
+        assert step == null || step.edits.isEmpty() : "Cannot redo part way through a change";
+        Step next = redoSteps.poll();
+        if (next == null) {
+            return false;
+        }
+        if (changes != null) {
+            describe(next, true, changes);
+        }
+        describeInverse(next, false);
+        tree = next.after;
+        for (Edit edit : next.edits) {
+            switch (edit.type) {
+                case ADD:
+                    remember(edit.id, edit.key, edit.task);
+                    break;
+                case DELETE:
+                    forget(edit.id, edit.task);
+                    break;
+                case STATUS:
+                    changeStatus(edit.id, edit.task, edit.isDone);
+                    break;
+                default:
+                    break;
             }
         }
+        if (next.isReordered) {
+            rebuildKeys();
+        }
+        undoSteps.push(next);
+        modificationCount++;
+        return true;
+    }
 
-        sorted.sort(Comparator.comparing(task -> ((Event) task).getFromDateTime()));
-        sorted.addAll(nonEvents);
+    /**
+     * Adds the changes that take back an undo or redo of a step, or a step just
+     * finished, in front of those describing how to undo the rest of the current write.
+     */
+    private void describeInverse(Step described, boolean isRedo) {
+        if (inverse == null) {
+            return;
+        }
+        ArrayList<ListChange> changes = new ArrayList<>();
+        describe(described, isRedo, changes);
+        inverse.addAll(0, changes);
+    }
 
-        this.tasks = sorted;
+    /**
+     * Describes redoing or undoing a step as changes to positions. The edits are
+     * replayed, in reverse to undo, on the version of the tree they start from, which
+     * gives the position of each; a step whose keys were reassigned is compared task
+     * by task instead.
+     */
+    private void describe(Step described, boolean isRedo, List<ListChange> changes) {
+        int count = described.edits.size();
+        TaskTree replayed = isRedo ? described.before : described.after;
+        HashMap<Integer, Integer> positions = null;
+        if (described.isReordered) {
+            positions = describeDifference(replayed, isRedo ? described.after : described.before, changes);
+        }
+        for (int i = 0; i < count; i++) {
+            Edit edit = described.edits.get(isRedo ? i : count - 1 - i);
+            if (edit.type == EditType.STATUS) {
+                // A task the step both changed and removed has no position to record
+                Integer index = positions == null ? Integer.valueOf(replayed.rank(edit.key)) : positions.get(edit.id);
+                if (index != null) {
+                    changes.add(ListChange.status(index, isRedo == edit.isDone));
+                }
+            } else if (positions == null && (edit.type == EditType.ADD) == isRedo) {
+                replayed = replayed.insert(edit.key, edit.id, edit.task);
+                changes.add(ListChange.insert(replayed.rank(edit.key), edit.task));
+            } else if (positions == null) {
+                changes.add(ListChange.delete(replayed.rank(edit.key)));
+                replayed = replayed.remove(edit.key);
+            }
+        }
     }
 
     /**
-     * Gets the priority of a task for sorting.
-     * Deadlines have highest priority (0), Events next (1), Todos last (2).
+     * Describes the way from one version of the list to another by task ID, in O(n) time:
+     * the tasks missing from the second are deleted from the last back, the rest are put
+     * in their new order, and the tasks new to the second are inserted from the first on.
      *
-     * @param task The task to get priority for.
-     * @return The priority value.
+     * @return The positions of the tasks in the second version, by ID.
      */
-    private int getTaskPriority(Task task) {
-        if (task instanceof Deadline) {
-            return 0;
-        } else if (task instanceof Event) {
-            return 1;
-        } else {
-            return 2;
+    private HashMap<Integer, Integer> describeDifference(TaskTree from, TaskTree to, List<ListChange> changes) {
+        TaskTree.Node[] before = from.toArray();
+        TaskTree.Node[] after = to.toArray();
+        HashMap<Integer, Integer> keptPositions = new HashMap<>();
+        for (TaskTree.Node node : after) {
+            keptPositions.put(node.getId(), -1);
+        }
+        int kept = 0;
+        for (TaskTree.Node node : before) {
+            if (keptPositions.containsKey(node.getId())) {
+                keptPositions.put(node.getId(), kept++);
+            }
+        }
+        for (int i = before.length - 1; i >= 0; i--) {
+            if (!keptPositions.containsKey(before[i].getId())) {
+                changes.add(ListChange.delete(i));
+            }
         }
+
+        int[] order = new int[kept];
+        boolean isMoved = false;
+        int next = 0;
+        for (TaskTree.Node node : after) {
+            int position = keptPositions.get(node.getId());
+            if (position >= 0) {
+                isMoved |= position != next;
+                order[next++] = position;
+            }
+        }
+        if (isMoved) {
+            changes.add(ListChange.reorder(order));
+        }
+        for (int i = 0; i < after.length; i++) {
+            if (keptPositions.get(after[i].getId()) < 0) {
+                changes.add(ListChange.insert(i, load(after[i].getTask())));
+            }
+            keptPositions.put(after[i].getId(), i);
+        }
+        return keptPositions;
     }
 
     /**
-     * Gets the comparable date/time of a task for sorting.
+     * Puts the list back as it was before a step, undoing its edits in reverse.
+     */
+    private void revert(Step reverted) {
+        tree = reverted.before;
+        for (int i = reverted.edits.size() - 1; i >= 0; i--) {
+            Edit edit = reverted.edits.get(i);
+            switch (edit.type) {
+                case ADD:
+                    forget(edit.id, edit.task);
+                    break;
+                case DELETE:
+                    remember(edit.id, edit.key, edit.task);
+                    break;
+                case STATUS:
+                    changeStatus(edit.id, edit.task, !edit.isDone);
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (reverted.isReordered) {
+            rebuildKeys();
+        }
+    }
+
+    private void beginStep() {
+        if (writeDepth++ == 0) {
+            step = new Step(tree);
+        }
+    }
+
+    private void record(Edit edit) {
+        step.edits.add(edit);
+        if (edit.type == EditType.REORDER) {
+            step.isReordered = true;
+        }
+    }
+
+    /**
+     * Finishes a change. Once the outermost change finishes, its step is kept for
+     * undoing if it succeeded and rolled back if it failed.
+     */
+    private void endStep(boolean isApplied) {
+        step.isFailed |= !isApplied;
+        if (--writeDepth > 0) {
+            return;
+        }
+        Step finished = step;
+        step = null;
+        if (finished.edits.isEmpty()) {
+            return;
+        }
+        modificationCount++;
+        if (finished.isFailed) {
+            revert(finished);
+            return;
+        }
+        finished.after = tree;
+        undoSteps.push(finished);
+        if (undoSteps.size() > MAX_UNDO_STEPS) {
+            undoSteps.removeLast();
+        }
+        redoSteps.clear();
+    }
+
+    /**
+     * Returns a number that goes up whenever the list changes: whenever a change or
+     * {@link #write} that changed it finishes, and on every undo and redo. Results
+     * worked out from the list stay valid for as long as the number stays the same.
+     * Status changes are only counted when made through {@link #setDone}.
      *
-     * @param task The task to get date/time from.
-     * @return The task's date/time or a far future date for todos.
+     * @return The modification count.
      */
-    private Comparable getTaskDateTime(Task task) {
-        if (task instanceof Deadline) {
-            return ((Deadline) task).getByDateTime();
-        } else if (task instanceof Event) {
-            return ((Event) task).getFromDateTime();
-        } else {
-            // Todos don't have dates, so they go to the end
-            return java.time.LocalDateTime.MAX;
+    @Override
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Runs a query that only reads the list and the tasks in it.
+     * A list shared between threads lets other queries run alongside it, but no changes.
+     *
+     * @param query The query, given the list to read.
+     * @param <T>   The type of the result.
+     * @return The result of the query.
+     * @throws SnoraxException If the query fails.
+     */
+    @Override
+    public <T> T read(Operation<T> query) throws SnoraxException {
+        return query.apply(this);
+    }
+
+    /**
+     * Runs a change to the list or the tasks in it as one step, which is undone
+     * as a whole and rolled back if the change fails.
+     * A list shared between threads runs no other query or change alongside it.
+     *
+     * @param change The change, given the list to change.
+     * @param <T>    The type of the result.
+     * @return The result of the change.
+     * @throws SnoraxException If the change fails.
+     */
+    @Override
+    public <T> T write(Operation<T> change) throws SnoraxException {
+        return write(change, null);
+    }
+
+    /**
+     * Runs a change like {@link #write(Operation)}, and describes how to undo it
+     * position by position, whether it changed the list directly or undid or redid
+     * an earlier change. Working out the changes takes O(k log n) time for a change
+     * of k edits, or O(n) time for a sort.
+     *
+     * @param change The change, given the list to change.
+     * @param undo   The list to add the changes that undo it to, in the order they apply, or null.
+     * @param <T>    The type of the result.
+     * @return The result of the change.
+     * @throws SnoraxException If the change fails.
+     */
+    @Override
+    public <T> T write(Operation<T> change, List<ListChange> undo) throws SnoraxException {
+        assert undo == null || writeDepth == 0 : "Only the outermost write can be described";
+        beginStep();
+        Step started = step;
+        if (undo != null) {
+            inverse = new ArrayList<>();
+        }
+        boolean isApplied = false;
+        try {
+            T result = change.apply(this);
+            isApplied = true;
+            return result;
+        } finally {
+            endStep(isApplied);
+            if (isApplied && undoSteps.peek() == started) {
+                describeInverse(started, false);
+            }
+            if (undo != null && isApplied) {
+                undo.addAll(inverse);
+            }
+            if (undo != null) {
+                inverse = null;
+            }
+        }
+    }
+
+    /**
+     * Makes a series of changes described position by position, such as those
+     * {@link #write(Operation, List)} gives to undo a write, as one step. Inserted
+     * tasks are given new IDs.
+     *
+     * @param changes The changes, in the order they apply.
+     */
+    @Override
+    public void applyChanges(List<ListChange> changes) {
+        beginStep();
+        boolean isApplied = false;
+        try {
+            for (ListChange change : changes) {
+                applyChange(change);
+            }
+            isApplied = true;
+        } finally {
+            endStep(isApplied);
+        }
+    }
+
+    private void applyChange(ListChange change) {
+        switch (change.getType()) {
+            case INSERT:
+                restoreTask(change.getIndex(), nextId++, change.getTask());
+                break;
+            case DELETE:
+                deleteTask(change.getIndex());
+                break;
+            case STATUS:
+                setDone(change.getIndex(), change.isDone());
+                break;
+            case REORDER:
+                ArrayList<Integer> order = new ArrayList<>();
+                for (int position : change.getOrder()) {
+                    order.add(position);
+                }
+                applyOrder(tree.toArray(), order);
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Stands in for a task that has not been decoded from its source yet.
+     */
+    private static class UnloadedTask extends Task {
+        private final int index;
+        private volatile Task loaded;
+
+        UnloadedTask(int index) {
+            super(null);
+            this.index = index;
+        }
+    }
+
+    private enum EditType {
+        ADD, DELETE, STATUS, REORDER
+    }
+
+    /**
+     * One change to the list, with what is needed to undo or redo it besides the tree.
+     */
+    private static class Edit {
+        private final EditType type;
+        private final int id;
+        private final long key;
+        private final Task task;
+        private final boolean isDone;
+
+        Edit(EditType type, int id, long key, Task task) {
+            this.type = type;
+            this.id = id;
+            this.key = key;
+            this.task = task;
+            // The status the change left the task in
+            this.isDone = task != null && task.isDone();
+        }
+    }
+
+    /**
+     * The versions of the list before and after a step, and the edits that led from one to the other.
+     */
+    private static class Step {
+        private final TaskTree before;
+        private TaskTree after;
+        private final ArrayList<Edit> edits = new ArrayList<>();
+        private boolean isReordered;
+        private boolean isFailed;
+
+        Step(TaskTree before) {
+            this.before = before;
         }
     }
 }
@@ -0,0 +1,84 @@
+package snorax.tasklist;
+
+import snorax.task.Task;
+
+/**
+ * A window onto consecutive tasks of a list, as they were when the window was taken.
+ *
+ * <p>The window holds on to the version of the list it was taken from instead
+ * of copying any tasks, so taking one takes O(1) time, and reading a task in it
+ * O(log n). Later changes to the list do not show through.
+ */
+public class TaskRange {
+    private final TaskList tasks;
+    private final TaskTree tree;
+    private final int start;
+    private final int end;
+
+    TaskRange(TaskList tasks, TaskTree tree, int start, int end) {
+        assert 0 <= start && start <= end && end <= tree.size() : "Range must be within the list";
+        this.tasks = tasks;
+        this.tree = tree;
+        this.start = start;
+        this.end = end;
+    }
+
+    /**
+     * Returns the position in the list of the first task in the window.
+     *
+     * @return The zero-based position.
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the number of tasks in the window.
+     *
+     * @return The size of the window.
+     */
+    public int size() {
+        return end - start;
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of tasks in the whole list when the window was taken.
+     *
+     * @return The size of the list.
+     */
+    public int getTotal() {
+        return tree.size();
+    }
+
+    /**
+     * Gets a task in the window for reading only, as {@link TaskList#peekTask} does.
+     *
+     * @param offset The zero-based offset of the task from the start of the window.
+     * @return The task.
+     */
+    public Task peekTask(int offset) {
+        checkOffset(offset);
+        return tasks.peek(tree.get(start + offset).getTask());
+    }
+
+    /**
+     * Returns the stable ID of a task in the window.
+     *
+     * @param offset The zero-based offset of the task from the start of the window.
+     * @return The ID of the task.
+     */
+    public int getId(int offset) {
+        checkOffset(offset);
+        return tree.get(start + offset).getId();
+    }
+
+    private void checkOffset(int offset) {
+        if (offset < 0 || offset >= size()) {
+            throw new IndexOutOfBoundsException("Offset must be within the range");
+        }
+    }
+}
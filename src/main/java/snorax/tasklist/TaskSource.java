@@ -0,0 +1,23 @@
+package snorax.tasklist;
+
+import snorax.task.Task;
+
+/**
+ * A sequence of stored tasks that are decoded one at a time, on request.
+ */
+public interface TaskSource {
+    /**
+     * Returns the number of tasks in the source.
+     *
+     * @return The number of tasks.
+     */
+    int size();
+
+    /**
+     * Decodes the task at the given position. Each call may return a new Task object.
+     *
+     * @param index The zero-based position of the task.
+     * @return The task at that position.
+     */
+    Task load(int index);
+}
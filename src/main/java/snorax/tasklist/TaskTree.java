@@ -0,0 +1,247 @@
+package snorax.tasklist;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import snorax.task.Task;
+
+/**
+ * An immutable sequence of tasks, each stored under an ID and a key that gives its place in the order.
+ *
+ * <p>The tasks sit in a treap ordered by key in which every node also counts the
+ * nodes below it, so the task at a position, the position of a key, insertion
+ * and removal all take O(log n) expected time. Nothing is changed in place: an
+ * insertion or removal copies only the O(log n) nodes on the path it follows and
+ * shares every other node with the tree it started from, so keeping every old
+ * version of a list costs O(log n) memory per change.
+ */
+final class TaskTree {
+    static final TaskTree EMPTY = new TaskTree(null);
+
+    private static final Random RANDOM = new Random();
+
+    private final Node root;
+
+    private TaskTree(Node root) {
+        this.root = root;
+    }
+
+    /**
+     * Builds a tree of the given tasks in O(n) time.
+     *
+     * @param keys  The keys of the tasks, in increasing order.
+     * @param ids   The IDs of the tasks.
+     * @param tasks The tasks.
+     * @return The tree.
+     */
+    static TaskTree of(long[] keys, int[] ids, Task[] tasks) {
+        assert keys.length == ids.length && ids.length == tasks.length : "Every task needs a key and an ID";
+        return new TaskTree(build(keys, ids, tasks, 0, keys.length, 0));
+    }
+
+    /**
+     * Builds a balanced tree of the tasks in a range. Its nodes get priorities above
+     * any random one, so the balanced shape is kept and later insertions settle beneath it.
+     */
+    private static Node build(long[] keys, int[] ids, Task[] tasks, int from, int to, int depth) {
+        if (from >= to) {
+            return null;
+        }
+        int mid = (from + to) >>> 1;
+        return new Node(keys[mid], ids[mid], tasks[mid], Integer.MAX_VALUE - depth,
+                build(keys, ids, tasks, from, mid, depth + 1), build(keys, ids, tasks, mid + 1, to, depth + 1));
+    }
+
+    int size() {
+        return size(root);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    /**
+     * Returns the node at a position.
+     *
+     * @param position The zero-based position.
+     * @return The node.
+     */
+    Node get(int position) {
+        assert position >= 0 && position < size() : "Position must be within range";
+        Node node = root;
+        while (true) {
+            int leftSize = size(node.left);
+            if (position < leftSize) {
+                node = node.left;
+            } else if (position == leftSize) {
+                return node;
+            } else {
+                position -= leftSize + 1;
+                node = node.right;
+            }
+        }
+    }
+
+    /**
+     * Returns the position of the node with a key.
+     *
+     * @param key The key.
+     * @return The zero-based position, or -1 if no node has the key.
+     */
+    int rank(long key) {
+        int position = 0;
+        Node node = root;
+        while (node != null) {
+            if (key < node.key) {
+                node = node.left;
+            } else if (key > node.key) {
+                position += size(node.left) + 1;
+                node = node.right;
+            } else {
+                return position + size(node.left);
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a tree that also holds the given task.
+     *
+     * @param key  A key that no node has yet.
+     * @param id   The ID of the task.
+     * @param task The task.
+     * @return The new tree.
+     */
+    TaskTree insert(long key, int id, Task task) {
+        return new TaskTree(insert(root, new Node(key, id, task, RANDOM.nextInt(), null, null)));
+    }
+
+    private static Node insert(Node node, Node added) {
+        if (node == null) {
+            return added;
+        }
+        if (added.priority > node.priority) {
+            Node[] parts = split(node, added.key);
+            return added.with(parts[0], parts[1]);
+        }
+        assert added.key != node.key : "Key must not be in use";
+        return added.key < node.key
+                ? node.with(insert(node.left, added), node.right)
+                : node.with(node.left, insert(node.right, added));
+    }
+
+    /**
+     * Splits a subtree into the nodes with keys below a key and the rest.
+     */
+    private static Node[] split(Node node, long key) {
+        if (node == null) {
+            return new Node[2];
+        }
+        if (node.key < key) {
+            Node[] parts = split(node.right, key);
+            parts[0] = node.with(node.left, parts[0]);
+            return parts;
+        }
+        Node[] parts = split(node.left, key);
+        parts[1] = node.with(parts[1], node.right);
+        return parts;
+    }
+
+    /**
+     * Returns a tree without the node with a key.
+     *
+     * @param key The key of a node in the tree.
+     * @return The new tree.
+     */
+    TaskTree remove(long key) {
+        return new TaskTree(remove(root, key));
+    }
+
+    private static Node remove(Node node, long key) {
+        assert node != null : "Key must be in the tree";
+        if (key < node.key) {
+            return node.with(remove(node.left, key), node.right);
+        }
+        if (key > node.key) {
+            return node.with(node.left, remove(node.right, key));
+        }
+        return merge(node.left, node.right);
+    }
+
+    /**
+     * Joins two subtrees where every key in the first is below every key in the second.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.with(left.left, merge(left.right, right));
+        }
+        return right.with(merge(left, right.left), right.right);
+    }
+
+    /**
+     * Returns every node in order.
+     *
+     * @return The nodes.
+     */
+    Node[] toArray() {
+        Node[] nodes = new Node[size()];
+        ArrayDeque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        int count = 0;
+        while (node != null || !path.isEmpty()) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            node = path.pop();
+            nodes[count++] = node;
+            node = node.right;
+        }
+        return nodes;
+    }
+
+    /**
+     * A task in the tree. Nodes are never changed once built.
+     */
+    static final class Node {
+        private final long key;
+        private final int id;
+        private final Task task;
+        private final int priority;
+        private final int size;
+        private final Node left;
+        private final Node right;
+
+        private Node(long key, int id, Task task, int priority, Node left, Node right) {
+            this.key = key;
+            this.id = id;
+            this.task = task;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            this.size = 1 + TaskTree.size(left) + TaskTree.size(right);
+        }
+
+        private Node with(Node left, Node right) {
+            return new Node(key, id, task, priority, left, right);
+        }
+
+        long getKey() {
+            return key;
+        }
+
+        int getId() {
+            return id;
+        }
+
+        Task getTask() {
+            return task;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package snorax.tasklist;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+
+import snorax.task.Deadline;
+import snorax.task.Event;
+import snorax.task.Task;
+import snorax.task.TaskType;
+
+/**
+ * Keeps deadlines ordered by due time and events ordered by start time.
+ *
+ * <p>Each kind lives in its own red-black tree keyed by (time, ID), so adding
+ * or deleting a task takes O(log n) time, walking either kind in order takes
+ * O(n) and finding the next k tasks from a point in time takes O(log n + k).
+ * Tasks whose time could not be parsed are not indexed.
+ */
+class TimeIndex implements TaskIndex {
+    private final TreeSet<Entry> deadlines = new TreeSet<>();
+    private final TreeSet<Entry> events = new TreeSet<>();
+
+    @Override
+    public void add(Task task, int id) {
+        Entry entry = entryFor(task, id);
+        if (entry != null) {
+            setFor(task).add(entry);
+        }
+    }
+
+    @Override
+    public void remove(Task task, int id) {
+        Entry entry = entryFor(task, id);
+        if (entry != null) {
+            setFor(task).remove(entry);
+        }
+    }
+
+    private TreeSet<Entry> setFor(Task task) {
+        return task instanceof Deadline ? deadlines : events;
+    }
+
+    private static Entry entryFor(Task task, int id) {
+        LocalDateTime time = null;
+        if (task instanceof Deadline) {
+            time = ((Deadline) task).getByDateTime();
+        } else if (task instanceof Event) {
+            time = ((Event) task).getFromDateTime();
+        }
+        return time == null ? null : new Entry(time, id);
+    }
+
+    /**
+     * Returns the IDs of the indexed deadlines, earliest due first.
+     */
+    List<Integer> getDeadlineIds() {
+        return idsOf(deadlines);
+    }
+
+    /**
+     * Returns the IDs of the indexed events, earliest start first.
+     */
+    List<Integer> getEventIds() {
+        return idsOf(events);
+    }
+
+    private static List<Integer> idsOf(TreeSet<Entry> entries) {
+        List<Integer> ids = new ArrayList<>(entries.size());
+        for (Entry entry : entries) {
+            ids.add(entry.id);
+        }
+        return ids;
+    }
+
+    /**
+     * Walks the deadlines and events at or after a point in time, merged in time order.
+     * Each step takes amortised constant time after an O(log n) start.
+     *
+     * @param from The earliest time to include.
+     * @return The IDs, earliest first.
+     */
+    Iterator<Integer> iterateFrom(LocalDateTime from) {
+        Entry start = new Entry(from, Integer.MIN_VALUE);
+        return new MergingIterator(deadlines.tailSet(start, true).iterator(),
+                events.tailSet(start, true).iterator());
+    }
+
+    /**
+     * Walks the tasks of a type that are due or start in a period, in no particular order.
+     *
+     * @param type The type of the tasks, or null for both deadlines and events.
+     * @param from The earliest time to include, or null for no limit.
+     * @param to   The time to stop before, or null for no limit.
+     * @return The IDs.
+     */
+    Iterator<Integer> iterateBetween(TaskType type, LocalDateTime from, LocalDateTime to) {
+        Iterator<Entry> none = Collections.emptyIterator();
+        return new MergingIterator(
+                type == null || type == TaskType.DEADLINE ? range(deadlines, from, to) : none,
+                type == null || type == TaskType.EVENT ? range(events, from, to) : none);
+    }
+
+    private static Iterator<Entry> range(TreeSet<Entry> entries, LocalDateTime from, LocalDateTime to) {
+        NavigableSet<Entry> range = entries;
+        if (from != null) {
+            range = range.tailSet(new Entry(from, Integer.MIN_VALUE), true);
+        }
+        if (to != null) {
+            range = range.headSet(new Entry(to, Integer.MIN_VALUE), false);
+        }
+        return range.iterator();
+    }
+
+    /**
+     * A task's time, with its ID to keep equal times apart.
+     */
+    private static class Entry implements Comparable<Entry> {
+        private final LocalDateTime time;
+        private final int id;
+
+        Entry(LocalDateTime time, int id) {
+            this.time = time;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(Entry other) {
+            int byTime = time.compareTo(other.time);
+            return byTime != 0 ? byTime : Integer.compare(id, other.id);
+        }
+    }
+
+    /**
+     * Merges two ordered walks over entries into one walk over their IDs.
+     */
+    private static class MergingIterator implements Iterator<Integer> {
+        private final Iterator<Entry> first;
+        private final Iterator<Entry> second;
+        private Entry nextFirst;
+        private Entry nextSecond;
+
+        MergingIterator(Iterator<Entry> first, Iterator<Entry> second) {
+            this.first = first;
+            this.second = second;
+            this.nextFirst = first.hasNext() ? first.next() : null;
+            this.nextSecond = second.hasNext() ? second.next() : null;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextFirst != null || nextSecond != null;
+        }
+
+        @Override
+        public Integer next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            if (nextSecond == null || (nextFirst != null && nextFirst.compareTo(nextSecond) <= 0)) {
+                int id = nextFirst.id;
+                nextFirst = first.hasNext() ? first.next() : null;
+                return id;
+            }
+            int id = nextSecond.id;
+            nextSecond = second.hasNext() ? second.next() : null;
+            return id;
+        }
+    }
+}
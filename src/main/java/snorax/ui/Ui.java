@@ -4,7 +4,8 @@ import java.util.ArrayList;
 import java.util.Scanner;
 
 import snorax.task.Task;
-import snorax.tasklist.TaskList;
+import snorax.tasklist.TaskCollection;
+import snorax.tasklist.TaskRange;
 
 /**
  * Handles user interface interactions including displaying messages and reading
@@ -89,7 +90,7 @@ public class Ui {
      *
      * @param tasks The task list to display.
      */
-    public void showTaskList(TaskList tasks) {
+    public void showTaskList(TaskCollection tasks) {
         assert tasks != null : "Task list cannot be null";
 
         if (tasks.isEmpty()) {
@@ -98,7 +99,30 @@ public class Ui {
         }
 
         System.out.println(TASKS_HEADER);
-        printTasksWithNumbers(tasks.getTasks());
+        for (int i = 0; i < tasks.size(); i++) {
+            System.out.println((i + TASK_NUMBER_OFFSET) + ". " + tasks.peekTask(i));
+        }
+    }
+
+    /**
+     * Displays the tasks in a window of the task list, numbered by their positions in the whole list.
+     *
+     * @param range        The window to display.
+     * @param isShowingIds Whether to show the ID of each task after it.
+     */
+    public void showTaskRange(TaskRange range, boolean isShowingIds) {
+        assert range != null : "Task range cannot be null";
+
+        if (range.size() == range.getTotal()) {
+            System.out.println(TASKS_HEADER);
+        } else {
+            System.out.println("Here are tasks " + (range.getStart() + TASK_NUMBER_OFFSET) + "-"
+                    + (range.getStart() + range.size()) + " of " + range.getTotal() + " in your list:");
+        }
+        for (int i = 0; i < range.size(); i++) {
+            System.out.println((range.getStart() + i + TASK_NUMBER_OFFSET) + ". " + range.peekTask(i)
+                    + (isShowingIds ? " #" + range.getId(i) : ""));
+        }
     }
 
     /**
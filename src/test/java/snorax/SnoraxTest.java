@@ -4,12 +4,17 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.io.TempDir;
+import snorax.exception.SnoraxException;
+import snorax.storage.PageFileStorage;
+import snorax.storage.TaskFileFormat;
+import snorax.task.Task;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.InputStream;
 import java.io.PrintStream;
 import java.nio.file.Path;
+import java.util.ArrayList;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -55,4 +60,48 @@ public class SnoraxTest {
         
         System.setIn(originalIn);
     }
+
+    @Test
+    public void testGetResponse_readOnlyCommandCachedUntilListChanges(@TempDir Path tempDir) {
+        Snorax snorax = new Snorax(tempDir.resolve("snorax.txt").toString());
+        snorax.getResponse("todo read book");
+
+        String first = snorax.getResponse("find book");
+        assertEquals(first, snorax.getResponse("  FIND  book"));
+        assertEquals(1, snorax.getResponseCache().getHits());
+
+        snorax.getResponse("todo return book");
+        assertTrue(snorax.getResponse("find book").contains("return book"));
+        assertEquals(1, snorax.getResponseCache().getHits());
+        assertEquals(2, snorax.getResponseCache().getMisses());
+    }
+
+    @Test
+    public void testGetResponse_statsCachedButNextFromNowNot(@TempDir Path tempDir) {
+        Snorax snorax = new Snorax(tempDir.resolve("snorax.txt").toString());
+        snorax.getResponse("todo read book");
+
+        snorax.getResponse("stats");
+        snorax.getResponse("stats");
+        assertEquals(1, snorax.getResponseCache().getHits());
+
+        snorax.getResponse("next");
+        snorax.getResponse("next");
+        assertEquals(1, snorax.getResponseCache().getHits());
+        assertEquals(1, snorax.getResponseCache().getMisses());
+    }
+
+    @Test
+    public void testGetResponse_pagedFormat_changesKeptInPageFile(@TempDir Path tempDir) throws SnoraxException {
+        String filePath = tempDir.resolve("snorax.txt").toString();
+        Snorax snorax = new Snorax(filePath, TaskFileFormat.PAGED);
+        snorax.getResponse("todo read book");
+        snorax.getResponse("todo return book");
+        snorax.getResponse("mark 2");
+
+        ArrayList<Task> loaded = new PageFileStorage(filePath).load();
+        assertEquals(2, loaded.size());
+        assertTrue(loaded.get(1).isDone());
+        assertTrue(new Snorax(filePath, TaskFileFormat.PAGED).getResponse("list").contains("[T][X] return book"));
+    }
 }
@@ -101,6 +101,26 @@ public class AddCommandTest {
                         .execute(tasks, ui, storage));
     }
 
+    @Test
+    public void testExecute_overlappingEvent_warnsAboutConflict() throws SnoraxException {
+        new AddCommand(new Event("Conference", "2024-12-25 0900", "2024-12-25 1700"))
+                .execute(tasks, ui, storage);
+        String result = new AddCommand(new Event("Dinner", "2024-12-25 1600", "2024-12-25 1900"))
+                .execute(tasks, ui, storage);
+        assertEquals(2, tasks.size());
+        assertTrue(result.contains("overlaps"));
+        assertTrue(result.contains("1. [E][ ] Conference"));
+    }
+
+    @Test
+    public void testExecute_adjacentEvent_noConflict() throws SnoraxException {
+        new AddCommand(new Event("Conference", "2024-12-25 0900", "2024-12-25 1700"))
+                .execute(tasks, ui, storage);
+        String result = new AddCommand(new Event("Dinner", "2024-12-25 1700", "2024-12-25 1900"))
+                .execute(tasks, ui, storage);
+        assertFalse(result.contains("overlaps"));
+    }
+
     // ======================== Task Count ========================
 
     @Test
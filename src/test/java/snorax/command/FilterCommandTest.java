@@ -0,0 +1,41 @@
+package snorax.command;
+
+import org.junit.jupiter.api.Test;
+import snorax.exception.SnoraxException;
+import snorax.parser.Parser;
+import snorax.task.Deadline;
+import snorax.task.Todo;
+import snorax.tasklist.TaskList;
+import snorax.ui.Ui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FilterCommandTest {
+
+    @Test
+    public void testExecute_listsMatchesWithListPositions() throws SnoraxException {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("Write report"));
+        tasks.addTask(new Deadline("Submit report", "2025-02-20 1200"));
+        tasks.addTask(new Deadline("Submit report draft", "2025-03-01 0000"));
+        tasks.addTask(new Deadline("File report", "2025-02-01 1200"));
+        tasks.setDone(3, true);
+
+        String result = Parser.parse("filter type:deadline done:no before:2025-03-01 text:report")
+                .execute(tasks, new Ui(), null);
+
+        assertTrue(result.contains("1 task(s)"));
+        assertTrue(result.contains("2. [D][ ] Submit report"));
+        assertFalse(result.contains("draft"));
+        assertFalse(result.contains("File report"));
+    }
+
+    @Test
+    public void testExecute_noMatches() throws SnoraxException {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("Write report"));
+        assertEquals("No tasks match your filter.",
+                Parser.parse("filter type:event").execute(tasks, new Ui(), null));
+        assertTrue(Parser.parse("filter type:event").isReadOnly());
+    }
+}
@@ -60,6 +60,66 @@ public class FindCommandTest {
         assertTrue(output.contains("return book"));
     }
 
+    @Test
+    public void testExecute_matchesInsideWords() {
+        String result = new FindCommand("OOK").execute(tasks, ui, storage);
+        assertTrue(result.contains("read book"));
+        assertTrue(result.contains("return book"));
+        assertFalse(result.contains("groceries"));
+    }
+
+    @Test
+    public void testExecute_andOrQuery() {
+        String result = new FindCommand("read book OR groceries").execute(tasks, ui, storage);
+        assertTrue(result.contains("1. [T][ ] read book"));
+        assertTrue(result.contains("2. [T][ ] buy groceries"));
+        assertFalse(result.contains("return book"));
+    }
+
+    @Test
+    public void testExecute_wordsWithoutOperators_matchedAsOnePhrase() {
+        assertTrue(new FindCommand("book read").execute(tasks, ui, storage).contains("No matching tasks found bro"));
+        assertTrue(new FindCommand("book AND read").execute(tasks, ui, storage).contains("1. [T][ ] read book"));
+    }
+
+    @Test
+    public void testExecute_loneOperator_matchedAsWord() {
+        tasks.addTask(new Todo("finish work"));
+        tasks.addTask(new Todo("read and reply"));
+        String result = new FindCommand("OR").execute(tasks, ui, storage);
+        assertTrue(result.contains("finish work"));
+        assertFalse(result.contains("groceries"));
+        assertFalse(result.contains("read book"));
+    }
+
+    @Test
+    public void testExecute_trailingOperator_matchedAsWord() {
+        tasks.addTask(new Todo("read and reply"));
+        String result = new FindCommand("read AND").execute(tasks, ui, storage);
+        assertTrue(result.contains("1. [T][ ] read and reply"));
+        assertFalse(result.contains("read book"));
+    }
+
+    @Test
+    public void testExecute_wordSearch_matchesStartsOfWordsInAnyOrder() {
+        String result = new FindCommand("BOOK re", true).execute(tasks, ui, storage);
+        assertTrue(result.contains("1. [T][ ] read book"));
+        assertTrue(result.contains("2. [T][ ] return book"));
+        assertFalse(result.contains("groceries"));
+        assertTrue(new FindCommand("ook", true).execute(tasks, ui, storage).contains("No matching tasks found bro"));
+        assertTrue(new FindCommand("ook", false).execute(tasks, ui, storage).contains("read book"));
+    }
+
+    @Test
+    public void testExecute_fuzzyFindsMistypedWord() {
+        String result = new FindCommand("bok", 1).execute(tasks, ui, storage);
+        assertTrue(result.contains("closest to 'bok'"));
+        assertTrue(result.contains("1. [T][ ] read book"));
+        assertTrue(result.contains("2. [T][ ] return book"));
+        assertFalse(result.contains("groceries"));
+        assertTrue(new FindCommand("bok").execute(tasks, ui, storage).contains("No matching tasks found bro"));
+    }
+
     @Test
     public void testIsExit() {
         FindCommand command = new FindCommand("test");
@@ -0,0 +1,68 @@
+package snorax.command;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import snorax.exception.SnoraxException;
+import snorax.storage.Storage;
+import snorax.task.Todo;
+import snorax.tasklist.TaskList;
+import snorax.ui.Ui;
+
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ListCommandTest {
+
+    private TaskList tasks;
+    private Ui ui;
+    private Storage storage;
+
+    @BeforeEach
+    public void setUp(@TempDir Path tempDir) {
+        tasks = new TaskList();
+        for (int i = 1; i <= 45; i++) {
+            tasks.addTask(new Todo("Task " + i));
+        }
+        ui = new Ui();
+        storage = new Storage(tempDir.resolve("test.txt").toString());
+    }
+
+    @Test
+    public void testExecute_wholeList_listsEveryTask() throws SnoraxException {
+        String result = new ListCommand().execute(tasks, ui, storage);
+        assertTrue(result.startsWith("Here are the tasks in your list:"));
+        assertTrue(result.contains("45. [T][ ] Task 45"));
+    }
+
+    @Test
+    public void testExecute_window_listsOnlyWindowWithTotal() throws SnoraxException {
+        String result = new ListCommand(20, 40).execute(tasks, ui, storage);
+        assertTrue(result.startsWith("Here are tasks 21-40 of 45 in your list:"));
+        assertTrue(result.contains("\n21. [T][ ] Task 21\n"));
+        assertFalse(result.contains("Task 41"));
+        assertFalse(result.contains("\n20."));
+    }
+
+    @Test
+    public void testExecute_windowPastEnd_stopsAtLastTask() throws SnoraxException {
+        String result = new ListCommand(40, 60).execute(tasks, ui, storage);
+        assertTrue(result.startsWith("Here are tasks 41-45 of 45"));
+        assertThrows(SnoraxException.class, () -> new ListCommand(45, 60).execute(tasks, ui, storage));
+    }
+
+    @Test
+    public void testExecute_emptyList() throws SnoraxException {
+        assertEquals("You have no tasks in your list.",
+                new ListCommand(0, 20).execute(new TaskList(), ui, storage));
+    }
+
+    @Test
+    public void testExecute_showingIds_followsEachTaskWithItsId() throws SnoraxException {
+        tasks.deleteTask(0);
+        String result = new ListCommand(0, 2, true).execute(tasks, ui, storage);
+        assertTrue(result.contains("\n1. [T][ ] Task 2 #" + tasks.getId(0)));
+        assertTrue(result.endsWith("\n2. [T][ ] Task 3 #" + tasks.getId(1)));
+    }
+}
@@ -5,11 +5,14 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 import snorax.exception.SnoraxException;
 import snorax.storage.Storage;
+import snorax.task.Task;
 import snorax.task.Todo;
 import snorax.tasklist.TaskList;
 import snorax.ui.Ui;
 
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -118,4 +121,112 @@ public class MarkUnmarkDeleteCommandTest {
     public void testDeleteIsExit() {
         assertFalse(new DeleteCommand(0).isExit());
     }
+
+    // ======================== By ID ========================
+
+    @Test
+    public void testMark_byId_marksTaskWithThatId() throws SnoraxException {
+        int id = tasks.getId(1);
+        new DeleteCommand(0).execute(tasks, ui, storage);
+
+        new MarkCommand(id, true).execute(tasks, ui, storage);
+        assertTrue(tasks.getTask(0).isDone());
+    }
+
+    @Test
+    public void testDelete_unknownId_throwsException() {
+        assertThrows(SnoraxException.class, () -> new DeleteCommand(99, true).execute(tasks, ui, storage));
+    }
+
+    @Test
+    public void testDelete_saveFails_taskRestoredInPlace(@TempDir Path tempDir) throws Exception {
+        Path blocker = Files.createFile(tempDir.resolve("blocker"));
+        Storage broken = new Storage(blocker.resolve("test.txt").toString());
+        int id = tasks.getId(0);
+
+        assertThrows(SnoraxException.class, () -> new DeleteCommand(0).execute(tasks, ui, broken));
+        assertEquals("Task 1", tasks.getTask(0).getDescription());
+        assertEquals(0, tasks.indexOfId(id));
+    }
+
+    // ======================== Bulk ========================
+
+    @Test
+    public void testBulkMark_rangesAndLists_marksEachTaskOnce() throws SnoraxException {
+        for (int i = 3; i <= 12; i++) {
+            tasks.addTask(new Todo("Task " + i));
+        }
+        List<int[]> ranges = List.of(new int[] {2, 2}, new int[] {6, 6}, new int[] {8, 11}, new int[] {9, 10});
+
+        String result = new BulkStatusCommand(TaskSelection.of(ranges), true).execute(tasks, ui, storage);
+
+        assertTrue(result.contains("6 task(s)"));
+        assertEquals(6, tasks.countTasks(null, true));
+        assertTrue(tasks.getTask(8).isDone());
+        assertFalse(tasks.getTask(7).isDone());
+        tasks.undo();
+        assertEquals(0, tasks.countTasks(null, true));
+    }
+
+    @Test
+    public void testBulkUnmark_allDone_unmarksOnlyDoneTasks() throws SnoraxException {
+        tasks.setDone(1, true);
+        new BulkStatusCommand(TaskSelection.all(true), false).execute(tasks, ui, storage);
+        assertEquals(0, tasks.countTasks(null, true));
+        assertThrows(SnoraxException.class, () ->
+                new BulkStatusCommand(TaskSelection.all(true), false).execute(tasks, ui, storage));
+    }
+
+    @Test
+    public void testBulkDelete_recordsDeletionsWithRemainingTasks(@TempDir Path tempDir) throws Exception {
+        Storage saved = new Storage(tempDir.resolve("bulk.txt").toString());
+        tasks.addTask(new Todo("Task 3"));
+        tasks.addTask(new Todo("Task 4"));
+        saved.save(tasks.getTasks());
+        long dataSize = Files.size(tempDir.resolve("bulk.txt"));
+
+        String result = new BulkDeleteCommand(TaskSelection.of(List.of(new int[] {1, 2})))
+                .execute(tasks, ui, saved);
+
+        assertTrue(result.contains("2 task(s)"));
+        assertEquals(2, tasks.size());
+        assertEquals("Task 4", tasks.getTask(1).getDescription());
+        assertEquals(dataSize, Files.size(tempDir.resolve("bulk.txt")));
+        List<Task> loaded = new Storage(tempDir.resolve("bulk.txt").toString()).load();
+        assertEquals(List.of("Task 1", "Task 4"), loaded.stream().map(Task::getDescription).toList());
+    }
+
+    @Test
+    public void testBulkMark_recordsOnlyChangedStatuses(@TempDir Path tempDir) throws SnoraxException {
+        Storage saved = new Storage(tempDir.resolve("bulk.txt").toString());
+        tasks.addTask(new Todo("Task 3"));
+        tasks.setDone(0, true);
+        saved.save(tasks.getTasks());
+
+        new BulkStatusCommand(TaskSelection.all(null), true).execute(tasks, ui, saved);
+
+        List<Task> loaded = new Storage(tempDir.resolve("bulk.txt").toString()).load();
+        assertTrue(loaded.stream().allMatch(Task::isDone));
+    }
+
+    @Test
+    public void testBulkDelete_pastEnd_throwsAndDeletesNothing() {
+        assertThrows(SnoraxException.class, () ->
+                new BulkDeleteCommand(TaskSelection.of(List.of(new int[] {0, 2}))).execute(tasks, ui, storage));
+        assertEquals(2, tasks.size());
+    }
+
+    @Test
+    public void testBulkDelete_saveFails_nothingDeleted(@TempDir Path tempDir) throws Exception {
+        Path blocker = Files.createFile(tempDir.resolve("blocker"));
+        Storage broken = new Storage(blocker.resolve("test.txt").toString());
+
+        assertThrows(SnoraxException.class, () -> new BulkDeleteCommand(TaskSelection.all(null))
+                .execute(tasks, ui, broken));
+        assertEquals(2, tasks.size());
+        assertEquals("Task 1", tasks.getTask(0).getDescription());
+        // The failed command leaves nothing to undo, so undo takes back the last add
+        tasks.undo();
+        assertEquals(1, tasks.size());
+    }
 }
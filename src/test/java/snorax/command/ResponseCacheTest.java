@@ -0,0 +1,43 @@
+package snorax.command;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResponseCacheTest {
+
+    @Test
+    public void testGet_countsHitsAndMisses() {
+        ResponseCache cache = new ResponseCache(4);
+        assertNull(cache.get("list", 0));
+        cache.put("list", 0, "Here are the tasks");
+
+        assertEquals("Here are the tasks", cache.get("list", 0));
+        assertNull(cache.get("find book", 0));
+        assertEquals(1, cache.getHits());
+        assertEquals(2, cache.getMisses());
+    }
+
+    @Test
+    public void testGet_newerVersion_misses() {
+        ResponseCache cache = new ResponseCache(4);
+        cache.put("list", 3, "old");
+        assertNull(cache.get("list", 4));
+        cache.put("list", 4, "new");
+        assertEquals("new", cache.get("list", 4));
+    }
+
+    @Test
+    public void testPut_full_evictsLeastRecentlyUsed() {
+        ResponseCache cache = new ResponseCache(2);
+        cache.put("list", 0, "a");
+        cache.put("find a", 0, "b");
+        cache.get("list", 0);
+        cache.put("find b", 0, "c");
+
+        assertEquals(2, cache.size());
+        assertEquals("a", cache.get("list", 0));
+        assertNull(cache.get("find a", 0));
+        assertEquals("c", cache.get("find b", 0));
+    }
+}
@@ -0,0 +1,35 @@
+package snorax.command;
+
+import org.junit.jupiter.api.Test;
+import snorax.task.Deadline;
+import snorax.task.Event;
+import snorax.task.Todo;
+import snorax.tasklist.TaskList;
+import snorax.ui.Ui;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StatsCommandTest {
+
+    @Test
+    public void testExecute_countsByTypeAndStatus() {
+        TaskList tasks = new TaskList();
+        tasks.addTask(new Todo("Read book"));
+        tasks.addTask(new Deadline("Submit report", "2024-12-31 2359"));
+        tasks.addTask(new Deadline("Pay rent", "2024-12-01 0900"));
+        tasks.addTask(new Event("Conference", "2024-06-01 0900", "2024-06-03 1700"));
+        tasks.setDone(2, true);
+
+        String result = new StatsCommand().execute(tasks, new Ui(), null);
+
+        assertTrue(result.contains("Todos: 1 (1 not done)"));
+        assertTrue(result.contains("Deadlines: 2 (1 not done)"));
+        assertTrue(result.contains("Events: 1 (1 not done)"));
+        assertTrue(result.contains("Total: 4 (3 not done)"));
+    }
+
+    @Test
+    public void testExecute_emptyList() {
+        assertEquals("You have no tasks in your list.", new StatsCommand().execute(new TaskList(), new Ui(), null));
+    }
+}
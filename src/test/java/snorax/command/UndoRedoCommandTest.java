@@ -0,0 +1,115 @@
+package snorax.command;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import snorax.exception.SnoraxException;
+import snorax.storage.Storage;
+import snorax.task.Deadline;
+import snorax.task.Task;
+import snorax.task.Todo;
+import snorax.tasklist.TaskList;
+import snorax.ui.Ui;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UndoRedoCommandTest {
+
+    private TaskList tasks;
+    private Ui ui;
+    private Storage storage;
+    private Path file;
+
+    @BeforeEach
+    public void setUp(@TempDir Path tempDir) {
+        tasks = new TaskList();
+        ui = new Ui();
+        file = tempDir.resolve("test.txt");
+        storage = new Storage(file.toString());
+    }
+
+    // ======================== Undo ========================
+
+    @Test
+    public void testUndo_stepsBackAndSaves() throws SnoraxException {
+        new AddCommand(new Todo("Task 1")).execute(tasks, ui, storage);
+        new AddCommand(new Todo("Task 2")).execute(tasks, ui, storage);
+        new MarkCommand(0).execute(tasks, ui, storage);
+
+        String result = new UndoCommand(2).execute(tasks, ui, storage);
+
+        assertTrue(result.contains("2 change(s)"));
+        assertEquals(1, tasks.size());
+        assertFalse(tasks.getTask(0).isDone());
+        ArrayList<Task> saved = new Storage(file.toString()).load();
+        assertEquals(1, saved.size());
+        assertFalse(saved.get(0).isDone());
+    }
+
+    @Test
+    public void testUndo_recordsEditsWithoutRewritingDataFile() throws Exception {
+        new AddCommand(new Todo("Task 1")).execute(tasks, ui, storage);
+        storage.save(tasks.getTasks());
+        String data = Files.readString(file);
+        new AddCommand(new Todo("Task 2")).execute(tasks, ui, storage);
+        new DeleteCommand(0).execute(tasks, ui, storage);
+
+        new UndoCommand(1).execute(tasks, ui, storage);
+
+        assertEquals(data, Files.readString(file));
+        assertEquals(tasks.getTasks().toString(), new Storage(file.toString()).load().toString());
+    }
+
+    @Test
+    public void testUndoRedo_mixedChanges_storedListMatchesMemory() throws SnoraxException {
+        for (int i = 1; i <= 6; i++) {
+            new AddCommand(new Todo("Task " + i)).execute(tasks, ui, storage);
+            new AddCommand(new Deadline("Due " + i, "2025-01-0" + (7 - i) + " 1200")).execute(tasks, ui, storage);
+        }
+        new MarkCommand(2).execute(tasks, ui, storage);
+        new BulkDeleteCommand(TaskSelection.of(List.of(new int[] {1, 1}, new int[] {4, 5})))
+                .execute(tasks, ui, storage);
+        new SortCommand().execute(tasks, ui, storage);
+        new DeleteCommand(1).execute(tasks, ui, storage);
+        new BulkStatusCommand(TaskSelection.all(null), true).execute(tasks, ui, storage);
+
+        assertTrue(tasks.getTask(0) instanceof Deadline);
+        for (int i = 0; i < 5; i++) {
+            new UndoCommand(1).execute(tasks, ui, storage);
+            assertEquals(tasks.getTasks().toString(), new Storage(file.toString()).load().toString());
+        }
+        for (int i = 0; i < 5; i++) {
+            new RedoCommand(1).execute(tasks, ui, storage);
+            assertEquals(tasks.getTasks().toString(), new Storage(file.toString()).load().toString());
+        }
+        new UndoCommand(5).execute(tasks, ui, storage);
+        assertEquals(tasks.getTasks().toString(), new Storage(file.toString()).load().toString());
+    }
+
+    @Test
+    public void testUndo_nothingToUndo_throwsException() {
+        assertThrows(SnoraxException.class, () -> new UndoCommand(1).execute(tasks, ui, storage));
+    }
+
+    // ======================== Redo ========================
+
+    @Test
+    public void testRedo_afterUndo_reappliesChanges() throws SnoraxException {
+        new AddCommand(new Todo("Task 1")).execute(tasks, ui, storage);
+        new DeleteCommand(0).execute(tasks, ui, storage);
+        new UndoCommand(5).execute(tasks, ui, storage);
+
+        new RedoCommand(1).execute(tasks, ui, storage);
+
+        assertEquals(1, tasks.size());
+        assertEquals(1, new Storage(file.toString()).load().size());
+        new RedoCommand(1).execute(tasks, ui, storage);
+        assertTrue(tasks.isEmpty());
+        assertThrows(SnoraxException.class, () -> new RedoCommand(1).execute(tasks, ui, storage));
+    }
+}
@@ -2,13 +2,21 @@ package snorax.parser;
 
 import org.junit.jupiter.api.Test;
 import snorax.command.AddCommand;
+import snorax.command.BulkDeleteCommand;
+import snorax.command.BulkStatusCommand;
 import snorax.command.Command;
 import snorax.command.DeleteCommand;
 import snorax.command.ExitCommand;
+import snorax.command.FilterCommand;
 import snorax.command.FindCommand;
 import snorax.command.ListCommand;
 import snorax.command.MarkCommand;
+import snorax.command.NextCommand;
+import snorax.command.RedoCommand;
+import snorax.command.ScheduleCommand;
 import snorax.command.SortCommand;
+import snorax.command.StatsCommand;
+import snorax.command.UndoCommand;
 import snorax.command.UnmarkCommand;
 import snorax.exception.SnoraxException;
 
@@ -68,6 +76,114 @@ public class ParserTest {
         assertInstanceOf(DeleteCommand.class, command);
     }
 
+    @Test
+    public void testParse_deleteById() throws SnoraxException {
+        Command command = Parser.parse("delete #12");
+        assertInstanceOf(DeleteCommand.class, command);
+    }
+
+    @Test
+    public void testParse_invalidId_throwsException() {
+        assertThrows(SnoraxException.class, () -> Parser.parse("mark #abc"));
+    }
+
+    @Test
+    public void testParse_nextCommand() throws SnoraxException {
+        assertInstanceOf(NextCommand.class, Parser.parse("next"));
+        assertInstanceOf(NextCommand.class, Parser.parse("next 3"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("next 0"));
+    }
+
+    @Test
+    public void testParse_pagedListCommands() throws SnoraxException {
+        assertInstanceOf(ListCommand.class, Parser.parse("list 2"));
+        assertInstanceOf(ListCommand.class, Parser.parse("list 2 50"));
+        assertInstanceOf(ListCommand.class, Parser.parse("list from 10 to 30"));
+        assertInstanceOf(ListCommand.class, Parser.parse("list ids"));
+        assertInstanceOf(ListCommand.class, Parser.parse("list 2 50 ids"));
+        assertInstanceOf(ListCommand.class, Parser.parse("list from 10 to 30 ids"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("list 0"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("list 1 2 3"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("list from 5 to 3"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("list from 5"));
+    }
+
+    @Test
+    public void testParse_bulkCommands() throws SnoraxException {
+        assertInstanceOf(BulkStatusCommand.class, Parser.parse("mark 1-50"));
+        assertInstanceOf(BulkDeleteCommand.class, Parser.parse("delete 3,7,9-12"));
+        assertInstanceOf(BulkDeleteCommand.class, Parser.parse("delete 12-9"));
+        assertInstanceOf(BulkStatusCommand.class, Parser.parse("unmark all done"));
+        assertInstanceOf(BulkStatusCommand.class, Parser.parse("mark ALL not done"));
+        assertInstanceOf(BulkDeleteCommand.class, Parser.parse("delete all"));
+    }
+
+    @Test
+    public void testParse_invalidBulkSelection_throwsException() {
+        assertThrows(SnoraxException.class, () -> Parser.parse("mark 1-"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("mark 1-2-3"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("delete 1,,2"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("delete 0-3"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("unmark all pending"));
+    }
+
+    @Test
+    public void testParse_filterCommand() throws SnoraxException {
+        assertInstanceOf(FilterCommand.class,
+                Parser.parse("filter type:deadline done:no before:2025-03-01 text:report"));
+        assertInstanceOf(FilterCommand.class, Parser.parse("filter TYPE:Event after:2025-01-31 text:a text:b"));
+    }
+
+    @Test
+    public void testParse_invalidFilter_throwsException() {
+        assertThrows(SnoraxException.class, () -> Parser.parse("filter"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("filter type:chore"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("filter done:maybe"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("filter before:2025-02-30"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("filter done:yes done:no"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("filter text:"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("filter report"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("filter after:2025-03-01 before:2025-03-02"));
+    }
+
+    @Test
+    public void testNormalise_spacesAndCommandWordCase() {
+        assertEquals("find read OR book", Parser.normalise("  FIND   read \t OR book "));
+        assertEquals("list", Parser.normalise("List"));
+    }
+
+    @Test
+    public void testParse_statsCommand() throws SnoraxException {
+        assertInstanceOf(StatsCommand.class, Parser.parse("stats"));
+    }
+
+    @Test
+    public void testParse_undoRedoCommands() throws SnoraxException {
+        assertInstanceOf(UndoCommand.class, Parser.parse("undo"));
+        assertInstanceOf(UndoCommand.class, Parser.parse("undo 3"));
+        assertInstanceOf(RedoCommand.class, Parser.parse("redo"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("undo 0"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("redo all"));
+    }
+
+    @Test
+    public void testParse_atCommand() throws SnoraxException {
+        assertInstanceOf(ScheduleCommand.class, Parser.parse("at 2024-03-01 0900"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("at"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("at tomorrow"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("at 2024-02-30 0900"));
+    }
+
+    @Test
+    public void testParse_overlapCommand() throws SnoraxException {
+        assertInstanceOf(ScheduleCommand.class,
+                Parser.parse("overlap /from 2024-03-01 0900 /to 2024-03-01 1700"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("overlap /from 2024-03-01 0900"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("overlap 2024-03-01 0900 /to 2024-03-01 1700"));
+        assertThrows(SnoraxException.class,
+                () -> Parser.parse("overlap /from 2024-03-01 1700 /to 2024-03-01 0900"));
+    }
+
     @Test
     public void testParse_findCommand() throws SnoraxException {
         Command command = Parser.parse("find book");
@@ -278,6 +394,28 @@ public class ParserTest {
         assertThrows(SnoraxException.class, () -> Parser.parse("find"));
     }
 
+    @Test
+    public void testParse_findWithOnlyOperators_searchesForThem() throws SnoraxException {
+        assertInstanceOf(FindCommand.class, Parser.parse("find OR AND"));
+    }
+
+    @Test
+    public void testParse_fuzzyFind() throws SnoraxException {
+        assertInstanceOf(FindCommand.class, Parser.parse("find ~bok"));
+        assertInstanceOf(FindCommand.class, Parser.parse("find ~ groceries 3"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("find ~"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("find ~read book"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("find ~bok 4"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("find ~bok 1 2"));
+    }
+
+    @Test
+    public void testParse_wordFind() throws SnoraxException {
+        assertInstanceOf(FindCommand.class, Parser.parse("find ^boo"));
+        assertInstanceOf(FindCommand.class, Parser.parse("find ^ read OR buy"));
+        assertThrows(SnoraxException.class, () -> Parser.parse("find ^"));
+    }
+
     @Test
     public void testParse_findWithSpaceOnly_throwsException() {
         assertThrows(SnoraxException.class, () -> Parser.parse("find   "));
@@ -0,0 +1,181 @@
+package snorax.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import snorax.task.Task;
+import snorax.task.Todo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class InvertedIndexTest {
+
+    private InvertedIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new InvertedIndex();
+        index.add(new Todo("Read book"), 1);
+        index.add(new Todo("Return library book"), 2);
+        index.add(new Todo("Buy milk, eggs"), 3);
+        index.add(new Todo("Read e-mail"), 4);
+    }
+
+    // ======================== Tokenize ========================
+
+    @Test
+    public void testTokenize_splitsOnNonWordCharactersAndLowercases() {
+        assertEquals(List.of("buy", "milk", "eggs"), InvertedIndex.tokenize("Buy MILK, eggs!"));
+        assertEquals(List.of("e", "mail"), InvertedIndex.tokenize("e-mail e"));
+        assertEquals(List.of(), InvertedIndex.tokenize(" -- "));
+    }
+
+    @Test
+    public void testParse_operators() {
+        SearchQuery query = SearchQuery.parse("read AND book OR milk");
+        assertEquals(List.of(List.of("read", "book"), List.of("milk")), query.getGroups());
+        assertEquals(List.of(List.of("e-mail")), SearchQuery.parse("E-Mail").getGroups());
+        assertEquals(List.of(List.of("read book", "buy")), SearchQuery.parse(" Read  book AND buy").getGroups());
+        assertTrue(SearchQuery.parse("  ").isEmpty());
+    }
+
+    @Test
+    public void testParse_operatorWithoutPhraseOnOneSide_keptAsWord() {
+        assertEquals(List.of(List.of("or")), SearchQuery.parse("OR").getGroups());
+        assertEquals(List.of(List.of("read and")), SearchQuery.parse("read AND").getGroups());
+        assertEquals(List.of(List.of("milk or")), SearchQuery.parse("milk OR").getGroups());
+        assertEquals(List.of(List.of("and read")), SearchQuery.parse("AND read").getGroups());
+        assertEquals(List.of(List.of("or and")), SearchQuery.parse("OR AND").getGroups());
+        assertEquals(List.of(List.of("a"), List.of("or b")), SearchQuery.parse("a OR OR b").getGroups());
+    }
+
+    // ======================== Search ========================
+
+    @Test
+    public void testSearch_allTermsInGroupMustMatch() {
+        assertArrayEquals(new int[] {1}, index.search(SearchQuery.parse("book read")));
+        assertArrayEquals(new int[] {1, 2}, index.search(SearchQuery.parse("BOOK")));
+        assertArrayEquals(new int[0], index.search(SearchQuery.parse("book milk")));
+    }
+
+    @Test
+    public void testSearch_anyGroupMayMatch() {
+        assertArrayEquals(new int[] {1, 3, 4}, index.search(SearchQuery.parse("milk OR read")));
+        assertArrayEquals(new int[] {2, 3}, index.search(SearchQuery.parse("library OR eggs milk")));
+    }
+
+    @Test
+    public void testSearch_termMatchesWordsStartingWithIt() {
+        assertArrayEquals(new int[] {1, 2}, index.search(SearchQuery.parse("boo")));
+        assertArrayEquals(new int[] {1, 2, 4}, index.search(SearchQuery.parse("re")));
+        assertArrayEquals(new int[0], index.search(SearchQuery.parse("ook")));
+        assertArrayEquals(new int[0], index.search(SearchQuery.parse("?!")));
+        assertArrayEquals(new int[] {4}, index.search(SearchQuery.parse("e-mail")));
+    }
+
+    @Test
+    public void testSearch_afterRemoveAndReAdd() {
+        Todo task = new Todo("Read book");
+        index.remove(task, 1);
+        assertArrayEquals(new int[] {2}, index.search(SearchQuery.parse("book")));
+        assertArrayEquals(new int[] {4}, index.search(SearchQuery.parse("read")));
+
+        index.add(task, 1);
+        assertArrayEquals(new int[] {1, 2}, index.search(SearchQuery.parse("book")));
+    }
+
+    @Test
+    public void testSearch_manyTasks_matchesLinearScan() {
+        String[] words = {"alpha", "beta", "gamma", "delta", "alps"};
+        Random random = new Random(21);
+        InvertedIndex large = new InvertedIndex();
+        List<Task> tasks = new ArrayList<>();
+        for (int id = 0; id < 300; id++) {
+            Task task = new Todo(words[random.nextInt(5)] + " " + words[random.nextInt(5)]);
+            tasks.add(task);
+            large.add(task, id);
+        }
+        for (int id = 0; id < 300; id += 7) {
+            large.remove(tasks.get(id), id);
+            tasks.set(id, null);
+        }
+
+        int[] found = large.search(SearchQuery.parse("alp beta OR gamma"));
+        List<Integer> expected = new ArrayList<>();
+        for (int id = 0; id < tasks.size(); id++) {
+            Task task = tasks.get(id);
+            if (task == null) {
+                continue;
+            }
+            String text = " " + task.getDescription();
+            if (text.contains(" alp") && text.contains(" beta") || text.contains(" gamma")) {
+                expected.add(id);
+            }
+        }
+        assertEquals(expected.size(), found.length);
+        for (int i = 0; i < found.length; i++) {
+            assertEquals((int) expected.get(i), found[i]);
+        }
+    }
+
+    // ======================== Fuzzy ========================
+
+    @Test
+    public void testDistance_countsEdits() {
+        assertEquals(0, BkTree.distance("book", "book"));
+        assertEquals(1, BkTree.distance("bok", "book"));
+        assertEquals(2, BkTree.distance("raed", "read"));
+        assertEquals(3, BkTree.distance("kitten", "sitting"));
+        assertEquals(4, BkTree.distance("", "milk"));
+    }
+
+    @Test
+    public void testSearchFuzzy_groupsTasksByClosestTerm() {
+        index.add(new Todo("Box of books"), 5);
+        int[][] byDistance = index.searchFuzzy("bok", 2);
+
+        assertArrayEquals(new int[0], byDistance[0]);
+        assertArrayEquals(new int[] {1, 2, 5}, byDistance[1]);
+        // "buy" is two edits from "bok"
+        assertArrayEquals(new int[] {3}, byDistance[2]);
+    }
+
+    @Test
+    public void testSearchFuzzy_skipsTermsNoLongerUsed() {
+        index.remove(new Todo("Buy milk, eggs"), 3);
+        assertArrayEquals(new int[0], index.searchFuzzy("milk", 1)[0]);
+        assertArrayEquals(new int[0], index.searchFuzzy("milk", 1)[1]);
+    }
+
+    @Test
+    public void testSearchFuzzy_manyTerms_matchesBruteForce() {
+        Random random = new Random(23);
+        InvertedIndex large = new InvertedIndex();
+        List<String> terms = new ArrayList<>();
+        for (int id = 0; id < 1000; id++) {
+            StringBuilder term = new StringBuilder();
+            for (int i = random.nextInt(6); i >= 0; i--) {
+                term.append((char) ('a' + random.nextInt(4)));
+            }
+            terms.add(term.toString());
+            large.add(new Todo(term.toString()), id);
+        }
+
+        int[][] byDistance = large.searchFuzzy("abca", 2);
+        for (int distance = 0; distance <= 2; distance++) {
+            List<Integer> expected = new ArrayList<>();
+            for (int id = 0; id < terms.size(); id++) {
+                if (BkTree.distance(terms.get(id), "abca") == distance) {
+                    expected.add(id);
+                }
+            }
+            assertEquals(expected.size(), byDistance[distance].length);
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals((int) expected.get(i), byDistance[distance][i]);
+            }
+        }
+    }
+}
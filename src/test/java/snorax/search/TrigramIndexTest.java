@@ -0,0 +1,74 @@
+package snorax.search;
+
+import org.junit.jupiter.api.Test;
+import snorax.task.Task;
+import snorax.task.Todo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+    @Test
+    public void testSearch_matchesSubstringsIgnoringCase() {
+        List<Task> tasks = List.of(new Todo("Read BOOK"), new Todo("Notebook"), new Todo("ok"),
+                new Todo("Bookkeeping"));
+        TrigramIndex index = new TrigramIndex();
+        for (int id = 0; id < tasks.size(); id++) {
+            index.add(tasks.get(id), id);
+        }
+
+        assertArrayEquals(new int[] {0, 1, 3}, index.search(SearchQuery.parse("oOk"), id -> describe(tasks, id)));
+        assertArrayEquals(new int[] {0, 1, 2, 3}, index.search(SearchQuery.parse("ok"), id -> describe(tasks, id)));
+        assertArrayEquals(new int[] {1, 3}, index.search(SearchQuery.parse("kee OR note"), id -> describe(tasks, id)));
+        assertArrayEquals(new int[0], index.search(SearchQuery.parse("books"), id -> describe(tasks, id)));
+        assertArrayEquals(new int[] {0}, index.search(SearchQuery.parse("d b"), id -> describe(tasks, id)));
+    }
+
+    @Test
+    public void testSearch_allTrigramsPresentButNotInOrder_notMatched() {
+        List<Task> tasks = List.of(new Todo("abcxbcd"));
+        TrigramIndex index = new TrigramIndex();
+        index.add(tasks.get(0), 0);
+        assertArrayEquals(new int[0], index.search(SearchQuery.parse("abcd"), id -> describe(tasks, id)));
+    }
+
+    @Test
+    public void testSearch_manyTasks_matchesContainsScan() {
+        Random random = new Random(22);
+        List<Task> tasks = new ArrayList<>();
+        TrigramIndex index = new TrigramIndex();
+        for (int id = 0; id < 2000; id++) {
+            StringBuilder description = new StringBuilder();
+            for (int i = random.nextInt(12); i >= 0; i--) {
+                description.append("abcAB ".charAt(random.nextInt(6)));
+            }
+            tasks.add(new Todo(description.toString()));
+            index.add(tasks.get(id), id);
+        }
+        for (int id = 0; id < tasks.size(); id += 3) {
+            index.remove(tasks.get(id), id);
+        }
+
+        for (String word : new String[] {"a", "ab", "abc", "bca b", "cab"}) {
+            int[] found = index.search(SearchQuery.parse(word), id -> describe(tasks, id));
+            List<Integer> expected = new ArrayList<>();
+            for (int id = 0; id < tasks.size(); id++) {
+                if (id % 3 != 0 && tasks.get(id).getDescription().toLowerCase().contains(word)) {
+                    expected.add(id);
+                }
+            }
+            assertEquals(expected.size(), found.length);
+            for (int i = 0; i < found.length; i++) {
+                assertEquals((int) expected.get(i), found[i]);
+            }
+        }
+    }
+
+    private static String describe(List<Task> tasks, int id) {
+        return tasks.get(id).getDescription();
+    }
+}
@@ -0,0 +1,173 @@
+package snorax.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import snorax.command.AddCommand;
+import snorax.exception.SnoraxException;
+import snorax.task.Task;
+import snorax.task.Todo;
+import snorax.tasklist.ListChange;
+import snorax.tasklist.TaskList;
+import snorax.ui.Ui;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AsyncStorageTest {
+
+    // ======================== Write-behind ========================
+
+    @Test
+    public void testRecords_visibleAfterFlush(@TempDir Path tempDir) throws SnoraxException {
+        Path filePath = tempDir.resolve("async.txt");
+        AsyncStorage storage = new AsyncStorage(filePath.toString());
+        storage.recordAdd(new Todo("First"));
+        storage.recordAdd(new Todo("Second"));
+        storage.recordStatus(0, true);
+        storage.flush();
+
+        ArrayList<Task> loaded = new Storage(filePath.toString()).load();
+        assertEquals(2, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+    }
+
+    @Test
+    public void testLoad_waitsForQueuedChanges(@TempDir Path tempDir) throws SnoraxException {
+        AsyncStorage storage = new AsyncStorage(tempDir.resolve("async.txt").toString());
+        storage.recordAdd(new Todo("Queued"));
+        assertEquals("Queued", storage.load().get(0).getDescription());
+    }
+
+    @Test
+    public void testSave_queuedWhileBusy_coalesced(@TempDir Path tempDir) throws SnoraxException {
+        Path filePath = tempDir.resolve("async.txt");
+        AsyncStorage storage = new AsyncStorage(filePath.toString());
+        ArrayList<Task> tasks = new ArrayList<>();
+
+        // Holding the storage lock stalls the writer inside its first full save
+        synchronized (storage) {
+            for (int i = 0; i < 5; i++) {
+                tasks.add(new Todo("Task " + i));
+                storage.save(tasks);
+            }
+            storage.recordAdd(new Todo("After saves"));
+        }
+        storage.flush();
+
+        assertTrue(storage.getWriteCount() <= 2);
+        ArrayList<Task> loaded = storage.load();
+        assertEquals(6, loaded.size());
+        assertEquals("After saves", loaded.get(5).getDescription());
+    }
+
+    // ======================== Failures ========================
+
+    @Test
+    public void testFlush_failedWrite_throwsException(@TempDir Path tempDir) throws SnoraxException, IOException {
+        Path blocker = Files.createFile(tempDir.resolve("not-a-directory"));
+        AsyncStorage storage = new AsyncStorage(blocker.resolve("async.txt").toString());
+
+        storage.recordAdd(new Todo("Unsaved"));
+
+        assertThrows(SnoraxException.class, storage::flush);
+    }
+
+    @Test
+    public void testFlush_failedChange_rolledBackAndNotRetried(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path blocker = Files.createFile(tempDir.resolve("blocked"));
+        Path filePath = blocker.resolve("async.txt");
+        AsyncStorage storage = new AsyncStorage(filePath.toString());
+        TaskList tasks = new TaskList();
+
+        assertThrows(SnoraxException.class, () -> tasks.write(list -> {
+            new AddCommand(new Todo("First")).execute(list, new Ui(), storage);
+            storage.flush();
+            return null;
+        }));
+        assertEquals(0, tasks.size());
+
+        Files.delete(blocker);
+        Files.createDirectory(blocker);
+        tasks.write(list -> {
+            new AddCommand(new Todo("Second")).execute(list, new Ui(), storage);
+            storage.flush();
+            return null;
+        });
+        assertEquals(1, tasks.size());
+        ArrayList<Task> loaded = new Storage(filePath.toString()).load();
+        assertEquals(1, loaded.size());
+        assertEquals("Second", loaded.get(0).getDescription());
+    }
+
+    @Test
+    public void testTakeFailure_givesChangesUndoingLostWrites(@TempDir Path tempDir)
+            throws SnoraxException, IOException, InterruptedException {
+        Path blocker = Files.createFile(tempDir.resolve("blocked"));
+        AsyncStorage storage = new AsyncStorage(blocker.resolve("async.txt").toString());
+        ArrayList<Task> initial = new ArrayList<>();
+        initial.add(new Todo("Kept"));
+        TaskList tasks = new TaskList(initial);
+
+        ArrayList<ListChange> undo = new ArrayList<>();
+        tasks.write(list -> new AddCommand(new Todo("Lost")).execute(list, new Ui(), storage), undo);
+        storage.endChange(undo);
+        assertEquals(2, tasks.size());
+        awaitWrites(storage, 1);
+
+        ArrayList<ListChange> lost = new ArrayList<>();
+        assertNotNull(storage.takeFailure(lost));
+        tasks.applyChanges(lost);
+        assertEquals(1, tasks.size());
+        assertEquals("Kept", tasks.getTask(0).getDescription());
+        assertNull(storage.takeFailure(new ArrayList<>()));
+    }
+
+    @Test
+    public void testEndChange_afterRecordsWritten_keepsNothing(@TempDir Path tempDir) throws SnoraxException {
+        AsyncStorage storage = new AsyncStorage(tempDir.resolve("async.txt").toString());
+        storage.recordAdd(new Todo("Saved"));
+        storage.flush();
+
+        storage.endChange(List.of(ListChange.delete(0)));
+        storage.flush();
+        assertNull(storage.takeFailure(new ArrayList<>()));
+        assertEquals(1, storage.load().size());
+    }
+
+    private static void awaitWrites(AsyncStorage storage, int count) throws InterruptedException {
+        for (int i = 0; i < 500 && storage.getWriteCount() < count; i++) {
+            Thread.sleep(10);
+        }
+    }
+
+    // ======================== Shutdown ========================
+
+    @Test
+    public void testClose_leavesSharedShutdownHook(@TempDir Path tempDir) throws SnoraxException {
+        AsyncStorage first = new AsyncStorage(tempDir.resolve("first.txt").toString());
+        AsyncStorage second = new AsyncStorage(tempDir.resolve("second.txt").toString());
+        assertFalse(first.isFlushedOnShutdown());
+
+        first.recordAdd(new Todo("First"));
+        second.recordAdd(new Todo("Second"));
+        assertTrue(first.isFlushedOnShutdown());
+        assertTrue(second.isFlushedOnShutdown());
+
+        first.close();
+        assertFalse(first.isFlushedOnShutdown());
+        assertTrue(second.isFlushedOnShutdown());
+        second.close();
+        assertFalse(second.isFlushedOnShutdown());
+
+        first.recordAdd(new Todo("After close"));
+        first.flush();
+        assertEquals(2, first.load().size());
+        first.close();
+    }
+}
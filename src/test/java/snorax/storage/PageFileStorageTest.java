@@ -0,0 +1,249 @@
+package snorax.storage;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import snorax.exception.SnoraxException;
+import snorax.task.Deadline;
+import snorax.task.Event;
+import snorax.task.Task;
+import snorax.task.Todo;
+import snorax.tasklist.ListChange;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageFileStorageTest {
+
+    private static ArrayList<Task> sampleTasks() {
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Read book"));
+        tasks.add(new Deadline("Submit report", "2025-10-15 2359"));
+        tasks.add(new Event("Team meeting", "2025-10-20 1400", "2025-10-20 1600"));
+        return tasks;
+    }
+
+    private static List<String> formatAll(List<Task> tasks) {
+        List<String> lines = new ArrayList<>();
+        for (Task task : tasks) {
+            lines.add(Storage.formatTask(task));
+        }
+        return lines;
+    }
+
+    private static int countDifferentBytes(byte[] before, byte[] after) {
+        assertEquals(before.length, after.length);
+        int count = 0;
+        for (int i = 0; i < before.length; i++) {
+            if (before[i] != after[i]) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // ======================== Round Trip ========================
+
+    @Test
+    public void testSaveAndLoad_roundTrip(@TempDir Path tempDir) throws SnoraxException {
+        String filePath = tempDir.resolve("tasks.db").toString();
+        ArrayList<Task> tasks = sampleTasks();
+        tasks.get(1).markAsDone();
+        new PageFileStorage(filePath).save(tasks);
+
+        ArrayList<Task> loaded = new PageFileStorage(filePath).load();
+        assertEquals(formatAll(tasks), formatAll(loaded));
+    }
+
+    @Test
+    public void testLoad_plainStorageReadsPageFile(@TempDir Path tempDir) throws SnoraxException {
+        String filePath = tempDir.resolve("tasks.db").toString();
+        new PageFileStorage(filePath).save(sampleTasks());
+
+        assertEquals(formatAll(sampleTasks()), formatAll(new Storage(filePath).load()));
+    }
+
+    @Test
+    public void testLoad_convertsTextFile(@TempDir Path tempDir) throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("tasks.txt");
+        Storage text = new Storage(filePath.toString());
+        text.save(sampleTasks());
+        text.recordStatus(0, true);
+
+        PageFileStorage storage = new PageFileStorage(filePath.toString());
+        ArrayList<Task> loaded = storage.load();
+        assertEquals(3, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+        assertTrue(PageFile.isPageFile(filePath));
+        assertFalse(Files.exists(tempDir.resolve("tasks.txt" + Journal.FILE_SUFFIX)));
+    }
+
+    @Test
+    public void testAdd_longDescription_spansSlots(@TempDir Path tempDir) throws SnoraxException {
+        String filePath = tempDir.resolve("tasks.db").toString();
+        String description = "x".repeat(PageFile.SLOT_SIZE * 3);
+        PageFileStorage storage = new PageFileStorage(filePath);
+        storage.load();
+        storage.recordAdd(new Todo(description));
+        storage.recordAdd(new Todo("Short"));
+
+        ArrayList<Task> loaded = new PageFileStorage(filePath).load();
+        assertEquals(description, loaded.get(0).getDescription());
+        assertEquals("Short", loaded.get(1).getDescription());
+    }
+
+    // ======================== In-place Changes ========================
+
+    @Test
+    public void testStatus_changesOneByte(@TempDir Path tempDir) throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("tasks.db");
+        PageFileStorage storage = new PageFileStorage(filePath.toString());
+        storage.save(sampleTasks());
+        byte[] before = Files.readAllBytes(filePath);
+
+        storage.recordStatus(2, true);
+        assertEquals(1, countDifferentBytes(before, Files.readAllBytes(filePath)));
+        assertTrue(new PageFileStorage(filePath.toString()).load().get(2).isDone());
+
+        storage.recordStatus(2, false);
+        assertEquals(0, countDifferentBytes(before, Files.readAllBytes(filePath)));
+    }
+
+    @Test
+    public void testReorder_leavesPageFileUntouched(@TempDir Path tempDir) throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("tasks.db");
+        PageFileStorage storage = new PageFileStorage(filePath.toString());
+        storage.save(sampleTasks());
+        byte[] before = Files.readAllBytes(filePath);
+
+        storage.recordReorder(new int[] {2, 0, 1});
+        assertEquals(0, countDifferentBytes(before, Files.readAllBytes(filePath)));
+        ArrayList<Task> loaded = new PageFileStorage(filePath.toString()).load();
+        assertEquals("Team meeting", loaded.get(0).getDescription());
+        assertEquals("Read book", loaded.get(1).getDescription());
+        assertEquals("Submit report", loaded.get(2).getDescription());
+    }
+
+    @Test
+    public void testDelete_slotReusedByNextAdd(@TempDir Path tempDir) throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("tasks.db");
+        PageFileStorage storage = new PageFileStorage(filePath.toString());
+        storage.save(sampleTasks());
+        long size = Files.size(filePath);
+
+        storage.recordDelete(1);
+        assertEquals(1, storage.getFreeSlotCount());
+        storage.recordAdd(new Todo("Replacement"));
+        assertEquals(0, storage.getFreeSlotCount());
+        assertEquals(size, Files.size(filePath));
+
+        ArrayList<Task> loaded = new PageFileStorage(filePath.toString()).load();
+        assertEquals(List.of("Read book", "Team meeting", "Replacement"),
+                loaded.stream().map(Task::getDescription).toList());
+    }
+
+    @Test
+    public void testRecordChanges_insertPutsTaskBackInPlace(@TempDir Path tempDir) throws SnoraxException {
+        String filePath = tempDir.resolve("tasks.db").toString();
+        PageFileStorage storage = new PageFileStorage(filePath);
+        storage.save(sampleTasks());
+
+        storage.recordChanges(List.of(ListChange.delete(1), ListChange.insert(0, new Todo("Undeleted")),
+                ListChange.status(2, true)));
+
+        ArrayList<Task> loaded = new PageFileStorage(filePath).load();
+        assertEquals(List.of("Undeleted", "Read book", "Team meeting"),
+                loaded.stream().map(Task::getDescription).toList());
+        assertTrue(loaded.get(2).isDone());
+    }
+
+    @Test
+    public void testRecordChanges_batchReplacesOrderOnce(@TempDir Path tempDir) throws SnoraxException {
+        String filePath = tempDir.resolve("tasks.db").toString();
+        PageFileStorage storage = new PageFileStorage(filePath);
+        storage.save(sampleTasks());
+        int before = storage.getOrderWriteCount();
+
+        storage.recordChanges(List.of(ListChange.delete(2), ListChange.delete(0),
+                ListChange.insert(1, new Todo("Inserted")), ListChange.reorder(new int[] {1, 0})));
+
+        assertEquals(before + 1, storage.getOrderWriteCount());
+        ArrayList<Task> loaded = new PageFileStorage(filePath).load();
+        assertEquals(List.of("Inserted", "Submit report"), loaded.stream().map(Task::getDescription).toList());
+    }
+
+    @Test
+    public void testRecordChanges_statusesOnly_orderUntouched(@TempDir Path tempDir) throws SnoraxException {
+        String filePath = tempDir.resolve("tasks.db").toString();
+        PageFileStorage storage = new PageFileStorage(filePath);
+        storage.save(sampleTasks());
+        int before = storage.getOrderWriteCount();
+
+        storage.recordChanges(List.of(ListChange.status(0, true), ListChange.status(2, true)));
+
+        assertEquals(before, storage.getOrderWriteCount());
+        ArrayList<Task> loaded = new PageFileStorage(filePath).load();
+        assertTrue(loaded.get(0).isDone());
+        assertFalse(loaded.get(1).isDone());
+        assertTrue(loaded.get(2).isDone());
+    }
+
+    // ======================== Recovery ========================
+
+    @Test
+    public void testLoad_unreferencedSlotReclaimed(@TempDir Path tempDir) throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("tasks.db");
+        PageFileStorage storage = new PageFileStorage(filePath.toString());
+        storage.save(sampleTasks());
+        Path order = tempDir.resolve("tasks.db.order");
+        byte[] orderBefore = Files.readAllBytes(order);
+
+        // A crash after writing the slot but before the order recorded it
+        storage.recordAdd(new Todo("Lost"));
+        storage.close();
+        Files.write(order, orderBefore);
+
+        PageFileStorage reopened = new PageFileStorage(filePath.toString());
+        assertEquals(3, reopened.load().size());
+        assertEquals(1, reopened.getFreeSlotCount());
+    }
+
+    @Test
+    public void testLoad_interruptedSave_committedOrderPromoted(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("tasks.db");
+        PageFileStorage storage = new PageFileStorage(filePath.toString());
+        storage.save(sampleTasks());
+        Path order = tempDir.resolve("tasks.db.order");
+        byte[] oldOrder = Files.readAllBytes(order);
+
+        ArrayList<Task> tasks = sampleTasks();
+        tasks.add(new Todo("New"));
+        storage.save(tasks);
+        storage.close();
+        // A crash after the page file was renamed but before its order file was
+        Files.move(order, tempDir.resolve("tasks.db.order.next"));
+        Files.write(order, oldOrder);
+
+        assertEquals(4, new PageFileStorage(filePath.toString()).load().size());
+        assertFalse(Files.exists(tempDir.resolve("tasks.db.order.next")));
+    }
+
+    @Test
+    public void testLoad_uncommittedSave_orderDiscarded(@TempDir Path tempDir) throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("tasks.db");
+        PageFileStorage storage = new PageFileStorage(filePath.toString());
+        storage.save(sampleTasks());
+        storage.close();
+        // An order file written for a page file that never replaced the data file
+        Path next = tempDir.resolve("tasks.db.order.next");
+        Files.write(next, new byte[] {0, 0, 0, 0, 0, 0, 0, 9, 0, 0, 0, 0});
+
+        assertEquals(3, new PageFileStorage(filePath.toString()).load().size());
+        assertFalse(Files.exists(next));
+    }
+}
@@ -7,12 +7,19 @@ import snorax.task.Deadline;
 import snorax.task.Event;
 import snorax.task.Task;
 import snorax.task.Todo;
+import snorax.tasklist.TaskSource;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -137,6 +144,72 @@ public class StorageTest {
         assertEquals(1, tasks.size());
     }
 
+    @Test
+    public void testLoad_windowsLineEndings_parsed(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("crlf.txt");
+        try (FileWriter fw = new FileWriter(filePath.toFile())) {
+            fw.write("T | 1 | First\r\n");
+            fw.write("D | 0 | Second | 2024-12-31 2359\r\n");
+        }
+        ArrayList<Task> tasks = new Storage(filePath.toString()).load();
+        assertEquals(2, tasks.size());
+        assertEquals("First", tasks.get(0).getDescription());
+        assertTrue(tasks.get(0).isDone());
+        assertEquals("2024-12-31 2359", ((Deadline) tasks.get(1)).getBy());
+    }
+
+    @Test
+    public void testLoad_nonAsciiDescription_decoded(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("utf8.txt");
+        Files.write(filePath, List.of("T | 0 | café über ☕"));
+        ArrayList<Task> tasks = new Storage(filePath.toString()).load();
+        assertEquals("café über ☕", tasks.get(0).getDescription());
+    }
+
+    @Test
+    public void testRead_smallChunks_matchesSequentialRead(@TempDir Path tempDir) throws IOException {
+        Path filePath = tempDir.resolve("chunked.txt");
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            lines.add(i % 3 == 0 ? "T | " + (i % 2) + " | todo " + i
+                    : i % 3 == 1 ? "D | 0 | deadline " + i + " | 2024-12-31 2359"
+                    : "E | 1 | event " + i + " | 2024-12-01 1000 | 2024-12-01 1200");
+            if (i % 50 == 0) {
+                lines.add("");
+                lines.add("corrupted");
+            }
+        }
+        Files.write(filePath, lines);
+
+        ArrayList<Task> sequential = MappedTaskReader.read(filePath, Integer.MAX_VALUE);
+        for (int chunkSize : new int[] {1, 7, 64, 1000}) {
+            ArrayList<Task> chunked = MappedTaskReader.read(filePath, chunkSize);
+            assertEquals(sequential.size(), chunked.size());
+            for (int i = 0; i < sequential.size(); i++) {
+                assertEquals(sequential.get(i).toString(), chunked.get(i).toString());
+            }
+        }
+        assertEquals(200, sequential.size());
+    }
+
+    @Test
+    public void testRead_smallChunks_reportsFileLineNumbers(@TempDir Path tempDir) throws IOException {
+        Path filePath = tempDir.resolve("chunked.txt");
+        Files.write(filePath, List.of("T | 0 | first", "", "T | 0 | second", "corrupted", "T | 0 | third"));
+
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(err, true, StandardCharsets.UTF_8));
+        try {
+            assertEquals(3, MappedTaskReader.read(filePath, 1).size());
+        } finally {
+            System.setErr(originalErr);
+        }
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("(line 4: \"corrupted\")"));
+    }
+
     // ======================== Save ========================
 
     @Test
@@ -271,4 +344,356 @@ public class StorageTest {
         storage.save(new ArrayList<>());
         assertTrue(nestedPath.toFile().exists());
     }
+
+    // ======================== Journal ========================
+
+    @Test
+    public void testRecordAdd_replayedOnLoad(@TempDir Path tempDir) throws SnoraxException {
+        Storage storage = new Storage(tempDir.resolve("journal.txt").toString());
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Saved"));
+        storage.save(tasks);
+
+        storage.recordAdd(new Deadline("Journalled", "2024-12-31 2359"));
+
+        ArrayList<Task> loaded = storage.load();
+        assertEquals(2, loaded.size());
+        assertEquals("Saved", loaded.get(0).getDescription());
+        assertInstanceOf(Deadline.class, loaded.get(1));
+        assertEquals("2024-12-31 2359", ((Deadline) loaded.get(1)).getBy());
+    }
+
+    @Test
+    public void testRecordAdd_doesNotRewriteDataFile(@TempDir Path tempDir)
+            throws SnoraxException {
+        Path filePath = tempDir.resolve("journal.txt");
+        Storage storage = new Storage(filePath.toString());
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Saved"));
+        storage.save(tasks);
+        long sizeBefore = filePath.toFile().length();
+
+        storage.recordAdd(new Todo("Journalled"));
+
+        assertEquals(sizeBefore, filePath.toFile().length());
+        assertTrue(tempDir.resolve("journal.txt.journal").toFile().exists());
+    }
+
+    @Test
+    public void testRecordStatusAndDelete_replayedInOrder(@TempDir Path tempDir)
+            throws SnoraxException {
+        Storage storage = new Storage(tempDir.resolve("journal.txt").toString());
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Task 1"));
+        tasks.add(new Todo("Task 2"));
+        tasks.add(new Todo("Task 3"));
+        storage.save(tasks);
+
+        storage.recordStatus(2, true);
+        storage.recordDelete(0);
+        storage.recordStatus(1, false);
+        storage.recordStatus(0, true);
+
+        ArrayList<Task> loaded = storage.load();
+        assertEquals(2, loaded.size());
+        assertEquals("Task 2", loaded.get(0).getDescription());
+        assertTrue(loaded.get(0).isDone());
+        assertEquals("Task 3", loaded.get(1).getDescription());
+        assertFalse(loaded.get(1).isDone());
+    }
+
+    @Test
+    public void testRecordReorder_replayedOnLoad(@TempDir Path tempDir) throws SnoraxException {
+        Storage storage = new Storage(tempDir.resolve("journal.txt").toString());
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("A"));
+        tasks.add(new Todo("B"));
+        tasks.add(new Todo("C"));
+        storage.save(tasks);
+
+        storage.recordReorder(new int[] {2, 0, 1});
+
+        ArrayList<Task> loaded = storage.load();
+        assertEquals("C", loaded.get(0).getDescription());
+        assertEquals("A", loaded.get(1).getDescription());
+        assertEquals("B", loaded.get(2).getDescription());
+    }
+
+    @Test
+    public void testLoad_corruptedJournalRecord_skipsRecord(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("journal.txt");
+        Storage storage = new Storage(filePath.toString());
+        storage.recordAdd(new Todo("Kept"));
+        try (FileWriter fw = new FileWriter(filePath + ".journal", true)) {
+            fw.write("DELETE | 99\n");
+            fw.write("ADD | T | 0");
+        }
+
+        ArrayList<Task> loaded = storage.load();
+        assertEquals(1, loaded.size());
+        assertEquals("Kept", loaded.get(0).getDescription());
+    }
+
+    @Test
+    public void testSave_clearsJournal(@TempDir Path tempDir) throws SnoraxException {
+        Storage storage = new Storage(tempDir.resolve("journal.txt").toString());
+        storage.recordAdd(new Todo("Journalled"));
+
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Saved"));
+        storage.save(tasks);
+
+        assertFalse(tempDir.resolve("journal.txt.journal").toFile().exists());
+        assertEquals(1, storage.load().size());
+    }
+
+    @Test
+    public void testRecordAdd_concurrentAppends_shareSyncs(@TempDir Path tempDir)
+            throws SnoraxException, InterruptedException {
+        Path filePath = tempDir.resolve("group.txt");
+        Storage storage = new Storage(filePath.toString());
+        storage.setGroupCommitWindow(200);
+
+        Thread[] threads = new Thread[8];
+        for (int i = 0; i < threads.length; i++) {
+            String description = "Task " + i;
+            threads[i] = new Thread(() -> {
+                try {
+                    storage.recordAdd(new Todo(description));
+                } catch (SnoraxException e) {
+                    throw new AssertionError(e);
+                }
+            });
+            threads[i].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(storage.getJournalSyncCount() < threads.length);
+        assertEquals(threads.length, storage.load().size());
+    }
+
+    // ======================== Atomic Save ========================
+
+    @Test
+    public void testSave_leavesNoTemporaryFiles(@TempDir Path tempDir) throws SnoraxException {
+        Path filePath = tempDir.resolve("atomic.txt");
+        Storage storage = new Storage(filePath.toString());
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Saved"));
+        storage.save(tasks);
+
+        assertFalse(tempDir.resolve("atomic.txt.next").toFile().exists());
+        assertFalse(tempDir.resolve("atomic.txt.next.tmp").toFile().exists());
+        assertEquals("Saved", storage.load().get(0).getDescription());
+    }
+
+    @Test
+    public void testLoad_interruptedAfterNextWritten_usesNextFile(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("atomic.txt");
+        Files.write(filePath, List.of("T | 0 | Old"));
+        Files.write(tempDir.resolve("atomic.txt.journal"), List.of("ADD | T | 0 | Already saved"));
+        Files.write(tempDir.resolve("atomic.txt.next"), List.of("T | 0 | Old", "T | 0 | Already saved"));
+
+        ArrayList<Task> loaded = new Storage(filePath.toString()).load();
+
+        assertEquals(2, loaded.size());
+        assertFalse(tempDir.resolve("atomic.txt.journal").toFile().exists());
+        assertFalse(tempDir.resolve("atomic.txt.next").toFile().exists());
+    }
+
+    @Test
+    public void testLoad_incompleteNextFile_ignored(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("atomic.txt");
+        Files.write(filePath, List.of("T | 0 | Old"));
+        Files.write(tempDir.resolve("atomic.txt.next.tmp"), List.of("T | 0 | Half writ"));
+
+        ArrayList<Task> loaded = new Storage(filePath.toString()).load();
+
+        assertEquals(1, loaded.size());
+        assertEquals("Old", loaded.get(0).getDescription());
+        assertFalse(tempDir.resolve("atomic.txt.next.tmp").toFile().exists());
+    }
+
+    // ======================== Compaction ========================
+
+    @Test
+    public void testCompaction_foldsJournalIntoDataFile(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("compact.txt");
+        Storage storage = new Storage(filePath.toString());
+        storage.setCompactionThresholds(3, Long.MAX_VALUE);
+
+        storage.recordAdd(new Todo("Task 1"));
+        storage.recordAdd(new Todo("Task 2"));
+        storage.recordAdd(new Todo("Task 3"));
+        storage.awaitCompaction();
+        storage.recordStatus(0, true);
+
+        assertEquals(3, Files.readAllLines(filePath).size());
+        assertEquals(1, Files.readAllLines(tempDir.resolve("compact.txt.journal")).size());
+        ArrayList<Task> loaded = storage.load();
+        assertEquals(3, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+    }
+
+    @Test
+    public void testLoad_interruptedBeforeCommit_usesPendingJournal(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("crash.txt");
+        Files.write(filePath, List.of("T | 0 | Saved"));
+        Files.write(tempDir.resolve("crash.txt.journal.compacting"), List.of("ADD | T | 0 | Pending"));
+        Files.write(tempDir.resolve("crash.txt.compacted"), List.of("T | 0 | Stale"));
+
+        ArrayList<Task> loaded = new Storage(filePath.toString()).load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("Saved", loaded.get(0).getDescription());
+        assertEquals("Pending", loaded.get(1).getDescription());
+    }
+
+    @Test
+    public void testLoad_interruptedAfterCommit_promotesSnapshot(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("crash.txt");
+        Files.write(filePath, List.of("T | 0 | Saved"));
+        Files.write(tempDir.resolve("crash.txt.compacted"), List.of("T | 0 | Saved", "T | 0 | Compacted"));
+
+        ArrayList<Task> loaded = new Storage(filePath.toString()).load();
+
+        assertEquals(2, loaded.size());
+        assertEquals("Compacted", loaded.get(1).getDescription());
+        assertFalse(tempDir.resolve("crash.txt.compacted").toFile().exists());
+    }
+
+    // ======================== Binary Format ========================
+
+    @Test
+    public void testSaveAndLoad_binary_roundTripsAllTypes(@TempDir Path tempDir) throws SnoraxException {
+        Path filePath = tempDir.resolve("tasks.bin");
+        Storage storage = new Storage(filePath.toString(), TaskFileFormat.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Read café menu"));
+        tasks.add(new Deadline("Submit", "2024-12-31 2359"));
+        tasks.add(new Event("Meeting", "2024-12-01 1000", "2024-12-01 1200"));
+        tasks.add(new Deadline("Someday", "next week"));
+        tasks.get(1).markAsDone();
+        storage.save(tasks);
+
+        ArrayList<Task> loaded = storage.load();
+
+        assertEquals(tasks.size(), loaded.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i).toString());
+        }
+        assertEquals("2024-12-31 2359", ((Deadline) loaded.get(1)).getBy());
+        assertEquals("2024-12-01 1200", ((Event) loaded.get(2)).getTo());
+        assertEquals("next week", ((Deadline) loaded.get(3)).getBy());
+    }
+
+    @Test
+    public void testSave_switchingFormat_convertsFile(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("tasks.txt");
+        Files.write(filePath, List.of("T | 1 | Text task", "D | 0 | Due | 2024-12-31 2359"));
+
+        Storage binary = new Storage(filePath.toString(), TaskFileFormat.BINARY);
+        binary.save(binary.load());
+        assertTrue(BinaryTaskCodec.isBinary(filePath));
+
+        Storage text = new Storage(filePath.toString());
+        text.save(text.load());
+        assertEquals(List.of("T | 1 | Text task", "D | 0 | Due | 2024-12-31 2359"), Files.readAllLines(filePath));
+    }
+
+    @Test
+    public void testLoad_truncatedBinaryFile_keepsEarlierTasks(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("tasks.bin");
+        Storage storage = new Storage(filePath.toString(), TaskFileFormat.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("Kept"));
+        tasks.add(new Todo("Cut off"));
+        storage.save(tasks);
+        byte[] bytes = Files.readAllBytes(filePath);
+        Files.write(filePath, Arrays.copyOf(bytes, bytes.length - 3));
+
+        ArrayList<Task> loaded = storage.load();
+
+        assertEquals(1, loaded.size());
+        assertEquals("Kept", loaded.get(0).getDescription());
+    }
+
+    @Test
+    public void testLoad_unsupportedBinaryVersion_throwsException(@TempDir Path tempDir) throws IOException {
+        Path filePath = tempDir.resolve("tasks.bin");
+        Files.write(filePath, new byte[] {'S', 'N', 'X', 'B', 99, 0, 0, 0, 0});
+        assertThrows(SnoraxException.class, () -> new Storage(filePath.toString()).load());
+    }
+
+    // ======================== Lazy Loading ========================
+
+    private static void assertSameTasks(List<Task> expected, TaskSource actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), actual.load(i).toString());
+        }
+    }
+
+    @Test
+    public void testLoadLazily_textWithJournal_matchesLoad(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("lazy.txt");
+        Files.write(filePath, List.of("T | 0 | First", "", "corrupted", "D | 0 | Second | 2024-12-31 2359",
+                "E | 1 | Third | 2024-12-01 1000 | 2024-12-01 1200"));
+        Storage storage = new Storage(filePath.toString());
+        storage.recordAdd(new Todo("Journalled"));
+        storage.recordStatus(0, true);
+        storage.recordStatus(3, true);
+        storage.recordDelete(1);
+        storage.recordReorder(new int[] {2, 0, 1});
+
+        assertSameTasks(storage.load(), storage.loadLazily());
+    }
+
+    @Test
+    public void testLoadLazily_binary_matchesLoad(@TempDir Path tempDir) throws SnoraxException {
+        Path filePath = tempDir.resolve("lazy.bin");
+        Storage storage = new Storage(filePath.toString(), TaskFileFormat.BINARY);
+        ArrayList<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("First"));
+        tasks.add(new Deadline("Second", "2024-12-31 2359"));
+        tasks.add(new Event("Third", "someday", "2024-12-01 1200"));
+        storage.save(tasks);
+        storage.recordStatus(1, true);
+
+        TaskSource lazy = storage.loadLazily();
+
+        assertSameTasks(storage.load(), lazy);
+        assertTrue(lazy.load(1).isDone());
+    }
+
+    @Test
+    public void testLoadLazily_missingFile_createsEmptyFile(@TempDir Path tempDir) throws SnoraxException {
+        Path filePath = tempDir.resolve("missing.txt");
+        assertEquals(0, new Storage(filePath.toString()).loadLazily().size());
+        assertTrue(filePath.toFile().exists());
+    }
+
+    @Test
+    public void testLoadLazily_fileRewrittenInPlace_keepsIndexedTasks(@TempDir Path tempDir)
+            throws SnoraxException, IOException {
+        Path filePath = tempDir.resolve("lazy.txt");
+        Files.write(filePath, List.of("T | 0 | First", "T | 1 | Second"));
+        TaskSource lazy = new Storage(filePath.toString()).loadLazily();
+
+        Files.write(filePath, List.of("T | 0 | X"));
+
+        assertEquals("Second", lazy.load(1).getDescription());
+        assertTrue(lazy.load(1).isDone());
+    }
 }
@@ -0,0 +1,63 @@
+package snorax.task;
+
+import org.junit.jupiter.api.Test;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class DateTimeCodecTest {
+
+    // ======================== Check ========================
+
+    @Test
+    public void testCheck_validDateTime() {
+        assertEquals(DateTimeCodec.VALID, DateTimeCodec.check("2024-12-31 2359"));
+        assertEquals(DateTimeCodec.VALID, DateTimeCodec.check("  2024-01-01 0000 "));
+    }
+
+    @Test
+    public void testCheck_wrongShape_malformed() {
+        assertEquals(DateTimeCodec.MALFORMED, DateTimeCodec.check(""));
+        assertEquals(DateTimeCodec.MALFORMED, DateTimeCodec.check("31-12-2024 2359"));
+        assertEquals(DateTimeCodec.MALFORMED, DateTimeCodec.check("2024-12-31 23:59"));
+        assertEquals(DateTimeCodec.MALFORMED, DateTimeCodec.check("2024-12-3a 2359"));
+        assertEquals(DateTimeCodec.MALFORMED, DateTimeCodec.check("2024-12-31  2359"));
+    }
+
+    @Test
+    public void testCheck_impossibleValues_nonexistent() {
+        assertEquals(DateTimeCodec.NONEXISTENT, DateTimeCodec.check("2024-13-01 1200"));
+        assertEquals(DateTimeCodec.NONEXISTENT, DateTimeCodec.check("2024-00-01 1200"));
+        assertEquals(DateTimeCodec.NONEXISTENT, DateTimeCodec.check("2024-04-31 1200"));
+        assertEquals(DateTimeCodec.NONEXISTENT, DateTimeCodec.check("2024-12-31 2400"));
+        assertEquals(DateTimeCodec.NONEXISTENT, DateTimeCodec.check("2024-12-31 2360"));
+    }
+
+    @Test
+    public void testCheck_leapYears() {
+        assertEquals(DateTimeCodec.VALID, DateTimeCodec.check("2024-02-29 1200"));
+        assertEquals(DateTimeCodec.VALID, DateTimeCodec.check("2000-02-29 1200"));
+        assertEquals(DateTimeCodec.NONEXISTENT, DateTimeCodec.check("1900-02-29 1200"));
+        assertEquals(DateTimeCodec.NONEXISTENT, DateTimeCodec.check("2023-02-29 1200"));
+    }
+
+    // ======================== Parse and Format ========================
+
+    @Test
+    public void testParse_validDateTime() {
+        assertEquals(LocalDateTime.of(2024, 3, 5, 7, 9), DateTimeCodec.parse(" 2024-03-05 0709"));
+    }
+
+    @Test
+    public void testParse_invalid_returnsNull() {
+        assertNull(DateTimeCodec.parse("next monday"));
+        assertNull(DateTimeCodec.parse("2023-02-29 1200"));
+    }
+
+    @Test
+    public void testFormat_roundTrip() {
+        LocalDateTime dateTime = LocalDateTime.of(987, 1, 2, 3, 4);
+        assertEquals("0987-01-02 0304", DateTimeCodec.format(dateTime));
+        assertEquals(dateTime, DateTimeCodec.parse(DateTimeCodec.format(dateTime)));
+    }
+}
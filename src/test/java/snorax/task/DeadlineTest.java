@@ -24,6 +24,13 @@ public class DeadlineTest {
         assertNull(deadline.getByDateTime());
     }
 
+    @Test
+    public void testConstructor_parsedDateTime_formatsRawString() {
+        Deadline deadline = new Deadline("Submit report", LocalDateTime.of(2024, 12, 31, 23, 59));
+        assertEquals("2024-12-31 2359", deadline.getBy());
+        assertEquals(new Deadline("Submit report", "2024-12-31 2359").toString(), deadline.toString());
+    }
+
     // ======================== Getters ========================
 
     @Test
@@ -0,0 +1,248 @@
+package snorax.tasklist;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import snorax.exception.SnoraxException;
+import snorax.task.Deadline;
+import snorax.search.SearchQuery;
+import snorax.task.Task;
+import snorax.task.TaskType;
+import snorax.task.Todo;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConcurrentTaskListTest {
+
+    private ConcurrentTaskList taskList;
+
+    @BeforeEach
+    public void setUp() {
+        taskList = new ConcurrentTaskList(new TaskList());
+    }
+
+    // ======================== Delegation ========================
+
+    @Test
+    public void testOperations_passedToWrappedList() {
+        int id = taskList.addTask(new Todo("Read book"));
+        taskList.addTask(new Deadline("Submit", "2024-01-01 0900"));
+
+        assertEquals(2, taskList.size());
+        assertFalse(taskList.isEmpty());
+        assertEquals(0, taskList.indexOfId(id));
+        assertEquals("Read book", taskList.peekTask(0).getDescription());
+        assertEquals(0, taskList.findDuplicate(new Todo("Read book")));
+
+        taskList.sortTasks();
+        assertEquals("Submit", taskList.getTask(0).getDescription());
+        assertEquals("Read book", taskList.deleteTask(1).getDescription());
+        assertEquals(1, taskList.size());
+    }
+
+    @Test
+    public void testWrite_returnsResultOfChange() throws SnoraxException {
+        int size = taskList.write(tasks -> {
+            tasks.addTask(new Todo("A"));
+            tasks.addTask(new Todo("B"));
+            return tasks.size();
+        });
+        assertEquals(2, size);
+        assertEquals("B", taskList.read(tasks -> tasks.peekTask(1).getDescription()));
+    }
+
+    @Test
+    public void testWrite_exceptionReleasesLock() {
+        assertThrows(SnoraxException.class, () -> taskList.write(tasks -> {
+            throw new SnoraxException("Failed");
+        }));
+        taskList.addTask(new Todo("A"));
+        assertEquals(1, taskList.size());
+    }
+
+    // ======================== Snapshots ========================
+
+    @Test
+    public void testGetTasks_isUnaffectedByLaterChanges() {
+        taskList.addTask(new Todo("A"));
+        ArrayList<Task> before = taskList.getTasks();
+        taskList.addTask(new Todo("B"));
+        before.clear();
+
+        ArrayList<Task> after = taskList.getTasks();
+        assertEquals(2, after.size());
+        assertEquals("B", after.get(1).getDescription());
+        assertEquals("A", after.get(0).getDescription());
+    }
+
+    @Test
+    public void testGetTasks_followsWriteOperations() throws SnoraxException {
+        taskList.addTask(new Todo("A"));
+        assertEquals(1, taskList.getTasks().size());
+        taskList.write(tasks -> tasks.deleteTask(0));
+        assertTrue(taskList.getTasks().isEmpty());
+    }
+
+    // ======================== Threads ========================
+
+    @Test
+    public void testAddTask_fromManyThreads_keepsEveryTask() throws InterruptedException {
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int writer = t;
+            writers[t] = new Thread(() -> {
+                for (int i = 0; i < 500; i++) {
+                    taskList.addTask(new Todo("Task " + writer + "-" + i));
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+
+        assertEquals(2000, taskList.size());
+        HashSet<Integer> ids = new HashSet<>();
+        for (int i = 0; i < taskList.size(); i++) {
+            ids.add(taskList.getId(i));
+        }
+        assertEquals(2000, ids.size());
+    }
+
+    @Test
+    public void testReaders_alongsideWriter_seeConsistentStates() throws Exception {
+        AtomicBoolean isDone = new AtomicBoolean();
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread reader = new Thread(() -> {
+            while (!isDone.get() && failure.get() == null) {
+                // Every change adds and deletes a pair, so a consistent state never has an odd size
+                ArrayList<Task> snapshot = taskList.getTasks();
+                if (snapshot.size() % 2 != 0) {
+                    failure.set("Snapshot of size " + snapshot.size());
+                }
+                try {
+                    int size = taskList.read(tasks -> {
+                        for (int i = 0; i < tasks.size(); i++) {
+                            tasks.peekTask(i);
+                        }
+                        return tasks.size();
+                    });
+                    if (size % 2 != 0) {
+                        failure.set("Read a list of size " + size);
+                    }
+                } catch (SnoraxException e) {
+                    failure.set(e.getMessage());
+                }
+            }
+        });
+        reader.start();
+
+        for (int i = 0; i < 2000; i++) {
+            int round = i;
+            taskList.write(tasks -> {
+                tasks.addTask(new Todo("First " + round));
+                tasks.addTask(new Todo("Second " + round));
+                if (round % 3 == 0) {
+                    tasks.deleteTask(0);
+                    tasks.deleteTask(0);
+                }
+                return null;
+            });
+        }
+        isDone.set(true);
+        reader.join();
+
+        assertNull(failure.get());
+        assertEquals(2 * 2000 - 2 * 667, taskList.size());
+    }
+
+    @Test
+    public void testQueries_fromManyReadersOnNewList_buildIndexesSafely() throws Exception {
+        ArrayList<Task> initial = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            initial.add(i % 3 == 0 ? new Deadline("Report " + i, "2024-01-01 0900") : new Todo("Read " + i));
+        }
+        taskList = new ConcurrentTaskList(new TaskList(initial));
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicReference<String> failure = new AtomicReference<>();
+        Thread[] readers = new Thread[8];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    int deadlines = taskList.read(tasks -> tasks.countTasks(TaskType.DEADLINE, null));
+                    int found = taskList.read(tasks -> tasks.search(SearchQuery.parse("report")).length);
+                    int words = taskList.searchWords(SearchQuery.parse("read")).length;
+                    int duplicate = taskList.findDuplicate(new Todo("Read 1"));
+                    if (deadlines != 1000 || found != 1000 || words != 2000 || duplicate != 1) {
+                        failure.set(deadlines + " " + found + " " + words + " " + duplicate);
+                    }
+                } catch (Exception e) {
+                    failure.set(e.toString());
+                }
+            });
+            readers[t].start();
+        }
+        start.countDown();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertNull(failure.get());
+        taskList.addTask(new Todo("Read more"));
+        assertEquals(2001, taskList.searchWords(SearchQuery.parse("read")).length);
+    }
+
+    @Test
+    public void testGetTask_fromManyReaders_decodesEachTaskOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        taskList = new ConcurrentTaskList(new TaskList(new TaskSource() {
+            @Override
+            public int size() {
+                return 100;
+            }
+
+            @Override
+            public Task load(int index) {
+                loads.incrementAndGet();
+                return new Todo("Task " + index);
+            }
+        }));
+
+        CountDownLatch start = new CountDownLatch(1);
+        Task[][] seen = new Task[4][100];
+        Thread[] readers = new Thread[seen.length];
+        for (int t = 0; t < readers.length; t++) {
+            Task[] tasks = seen[t];
+            readers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < tasks.length; i++) {
+                    tasks[i] = taskList.getTask(i);
+                }
+            });
+            readers[t].start();
+        }
+        start.countDown();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertEquals(100, loads.get());
+        for (int i = 0; i < 100; i++) {
+            for (Task[] tasks : seen) {
+                assertSame(seen[0][i], tasks[i]);
+            }
+        }
+    }
+}
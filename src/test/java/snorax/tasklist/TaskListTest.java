@@ -2,12 +2,19 @@ package snorax.tasklist;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import snorax.exception.SnoraxException;
+import snorax.search.SearchQuery;
+import snorax.task.DateTimeCodec;
 import snorax.task.Deadline;
 import snorax.task.Event;
 import snorax.task.Task;
+import snorax.task.TaskType;
 import snorax.task.Todo;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -210,4 +217,831 @@ public class TaskListTest {
         assertDoesNotThrow(() -> taskList.sortDeadlines());
         assertDoesNotThrow(() -> taskList.sortEvents());
     }
+
+    @Test
+    public void testSortDeadlines_returnsPreviousPositions() {
+        taskList.addTask(new Todo("A todo"));
+        taskList.addTask(new Deadline("Later", "2024-12-31 2359"));
+        taskList.addTask(new Deadline("Earlier", "2024-01-01 0900"));
+
+        int[] order = taskList.sortDeadlines();
+
+        assertArrayEquals(new int[] {2, 1, 0}, order);
+        assertEquals("Earlier", taskList.getTask(0).getDescription());
+        assertEquals("A todo", taskList.getTask(2).getDescription());
+    }
+
+    // ======================== Stable IDs ========================
+
+    @Test
+    public void testIds_surviveSortAndDelete() {
+        int laterId = taskList.addTask(new Deadline("Later", "2024-12-31 2359"));
+        int todoId = taskList.addTask(new Todo("A todo"));
+        int earlierId = taskList.addTask(new Deadline("Earlier", "2024-01-01 0900"));
+
+        taskList.sortTasks();
+        assertEquals(earlierId, taskList.getId(0));
+        assertEquals(2, taskList.indexOfId(todoId));
+
+        taskList.deleteTask(0);
+        assertEquals(-1, taskList.indexOfId(earlierId));
+        assertEquals(0, taskList.indexOfId(laterId));
+        assertEquals("A todo", taskList.getTask(taskList.indexOfId(todoId)).getDescription());
+    }
+
+    @Test
+    public void testIds_neverReused() {
+        int firstId = taskList.addTask(new Todo("First"));
+        taskList.deleteTask(0);
+        assertNotEquals(firstId, taskList.addTask(new Todo("Second")));
+    }
+
+    @Test
+    public void testRestoreTask_keepsPositionAndId() {
+        taskList.addTask(new Todo("A"));
+        int id = taskList.addTask(new Todo("B"));
+        taskList.addTask(new Todo("C"));
+
+        Task removed = taskList.deleteTask(1);
+        taskList.restoreTask(1, id, removed);
+
+        assertEquals("B", taskList.getTask(1).getDescription());
+        assertEquals(1, taskList.indexOfId(id));
+        assertEquals("C", taskList.getTask(2).getDescription());
+    }
+
+    @Test
+    public void testDelete_manyTombstones_positionsStayCorrect() {
+        ArrayList<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            ids.add(taskList.addTask(new Todo("Task " + i)));
+        }
+        // Delete every task at an even original index, from the front
+        for (int i = 0; i < 250; i++) {
+            taskList.deleteTask(i);
+        }
+
+        assertEquals(250, taskList.size());
+        for (int i = 0; i < 250; i++) {
+            assertEquals("Task " + (2 * i + 1), taskList.getTask(i).getDescription());
+            assertEquals(i, taskList.indexOfId(ids.get(2 * i + 1)));
+        }
+        assertEquals(250, taskList.getTasks().size());
+    }
+
+    // ======================== Duplicates ========================
+
+    @Test
+    public void testFindDuplicate_matchesTypeDescriptionAndDates() {
+        taskList.addTask(new Todo("Submit"));
+        taskList.addTask(new Deadline("Submit", "2024-12-31 2359"));
+
+        assertEquals(1, taskList.findDuplicate(new Deadline("Submit", " 2024-12-31 2359")));
+        assertEquals(0, taskList.findDuplicate(new Todo("Submit")));
+        assertEquals(-1, taskList.findDuplicate(new Deadline("Submit", "2024-12-31 2358")));
+        assertEquals(-1, taskList.findDuplicate(new Event("Submit", "2024-12-31 2359", "2025-01-01 0000")));
+    }
+
+    @Test
+    public void testFindDuplicate_doneTaskNotDuplicate() {
+        taskList.addTask(new Todo("Read book"));
+        taskList.getTask(0).markAsDone();
+        assertEquals(-1, taskList.findDuplicate(new Todo("Read book")));
+    }
+
+    @Test
+    public void testFindDuplicate_followsDeletesAndSorts() {
+        taskList.addTask(new Todo("A"));
+        taskList.addTask(new Deadline("B", "2024-12-31 2359"));
+        taskList.addTask(new Deadline("C", "2024-01-01 0900"));
+        assertEquals(0, taskList.findDuplicate(new Todo("A")));
+
+        taskList.deleteTask(0);
+        assertEquals(-1, taskList.findDuplicate(new Todo("A")));
+        taskList.sortTasks();
+        assertEquals(1, taskList.findDuplicate(new Deadline("B", "2024-12-31 2359")));
+    }
+
+    @Test
+    public void testFindDuplicate_manyTasks_matchesLinearScan() {
+        // Build the index up front so that every add and delete below updates it
+        assertEquals(-1, taskList.findDuplicate(new Todo("Task 0")));
+        for (int i = 0; i < 300; i++) {
+            taskList.addTask(new Todo("Task " + (i % 200)));
+            if (i % 3 == 0) {
+                taskList.deleteTask(taskList.size() / 2);
+            }
+        }
+        for (int i = 0; i < 220; i++) {
+            Todo probe = new Todo("Task " + i);
+            int expected = -1;
+            for (int j = 0; j < taskList.size() && expected < 0; j++) {
+                if (taskList.getTask(j).toString().equals(probe.toString())) {
+                    expected = j;
+                }
+            }
+            assertEquals(expected >= 0, taskList.findDuplicate(probe) >= 0);
+        }
+    }
+
+    // ======================== Time Index ========================
+
+    @Test
+    public void testSortTasks_followsAddsAndDeletes() {
+        taskList.addTask(new Deadline("Later", "2024-12-31 2359"));
+        taskList.addTask(new Todo("A todo"));
+        // Build the time index before the remaining changes
+        taskList.sortTasks();
+        taskList.addTask(new Deadline("Earlier", "2024-01-01 0900"));
+        taskList.addTask(new Event("An event", "2024-06-01 0900", "2024-06-01 1000"));
+        taskList.addTask(new Deadline("Gone", "2023-01-01 0900"));
+        taskList.deleteTask(4);
+
+        int[] order = taskList.sortTasks();
+
+        assertArrayEquals(new int[] {2, 0, 3, 1}, order);
+        assertEquals("Earlier", taskList.getTask(0).getDescription());
+        assertEquals("An event", taskList.getTask(2).getDescription());
+    }
+
+    @Test
+    public void testSortDeadlines_unparsedDateKeptAfterParsed() {
+        taskList.addTask(new Deadline("Someday", "next monday"));
+        taskList.addTask(new Deadline("Dated", "2024-01-01 0900"));
+
+        taskList.sortDeadlines();
+
+        assertEquals("Dated", taskList.getTask(0).getDescription());
+        assertEquals("Someday", taskList.getTask(1).getDescription());
+    }
+
+    @Test
+    public void testGetUpcoming_mergesKindsAndSkipsDoneAndPast() {
+        taskList.addTask(new Deadline("Past", "2024-01-01 0900"));
+        taskList.addTask(new Event("Meeting", "2024-03-01 0900", "2024-03-01 1000"));
+        taskList.addTask(new Deadline("Report", "2024-02-01 0900"));
+        taskList.addTask(new Deadline("Finished", "2024-02-15 0900"));
+        taskList.addTask(new Todo("Undated"));
+        taskList.getTask(3).markAsDone();
+
+        LocalDateTime from = LocalDateTime.of(2024, 1, 15, 0, 0);
+        assertArrayEquals(new int[] {2, 1}, taskList.getUpcoming(from, 5));
+        assertArrayEquals(new int[] {2}, taskList.getUpcoming(from, 1));
+    }
+
+    // ======================== Interval Index ========================
+
+    @Test
+    public void testFindOverlappingEvents_returnsOverlapsInStartOrder() {
+        taskList.addTask(new Event("Lunch", "2024-03-01 1200", "2024-03-01 1300"));
+        taskList.addTask(new Event("Workshop", "2024-03-01 0900", "2024-03-01 1230"));
+        taskList.addTask(new Event("Dinner", "2024-03-01 1800", "2024-03-01 2000"));
+        taskList.addTask(new Deadline("Report", "2024-03-01 1215"));
+
+        int[] overlapping = taskList.findOverlappingEvents(LocalDateTime.of(2024, 3, 1, 12, 15),
+                LocalDateTime.of(2024, 3, 1, 18, 0));
+
+        assertArrayEquals(new int[] {1, 0}, overlapping);
+    }
+
+    @Test
+    public void testFindEventsAt_endIsExcluded() {
+        taskList.addTask(new Event("Morning", "2024-03-01 0900", "2024-03-01 1000"));
+        taskList.addTask(new Event("Late morning", "2024-03-01 1000", "2024-03-01 1100"));
+
+        assertArrayEquals(new int[] {1}, taskList.findEventsAt(LocalDateTime.of(2024, 3, 1, 10, 0)));
+        assertArrayEquals(new int[] {0}, taskList.findEventsAt(LocalDateTime.of(2024, 3, 1, 9, 59)));
+        assertEquals(0, taskList.findEventsAt(LocalDateTime.of(2024, 3, 1, 11, 0)).length);
+    }
+
+    @Test
+    public void testFindEventsAt_followsDeletes() {
+        taskList.addTask(new Todo("A todo"));
+        taskList.addTask(new Event("Talk", "2024-03-01 0900", "2024-03-01 1000"));
+        taskList.addTask(new Event("Panel", "2024-03-01 0930", "2024-03-01 1030"));
+        LocalDateTime time = LocalDateTime.of(2024, 3, 1, 9, 45);
+        assertArrayEquals(new int[] {1, 2}, taskList.findEventsAt(time));
+
+        taskList.deleteTask(0);
+        taskList.deleteTask(0);
+
+        assertArrayEquals(new int[] {0}, taskList.findEventsAt(time));
+    }
+
+    @Test
+    public void testFindOverlappingEvents_manyEvents_matchesLinearScan() {
+        Random random = new Random(14);
+        LocalDateTime base = LocalDateTime.of(2024, 1, 1, 0, 0);
+        // Build the index up front so that every add and delete below updates it
+        assertEquals(0, taskList.findEventsAt(base).length);
+        for (int i = 0; i < 400; i++) {
+            LocalDateTime from = base.plusMinutes(random.nextInt(10000));
+            LocalDateTime to = from.plusMinutes(1 + random.nextInt(600));
+            taskList.addTask(new Event("Event " + i, DateTimeCodec.format(from), DateTimeCodec.format(to)));
+            if (i % 4 == 0) {
+                taskList.deleteTask(random.nextInt(taskList.size()));
+            }
+        }
+
+        for (int i = 0; i < 100; i++) {
+            LocalDateTime from = base.plusMinutes(random.nextInt(11000));
+            LocalDateTime to = from.plusMinutes(1 + random.nextInt(300));
+            ArrayList<Integer> expected = new ArrayList<>();
+            for (int j = 0; j < taskList.size(); j++) {
+                Event event = (Event) taskList.getTask(j);
+                if (event.getFromDateTime().isBefore(to) && event.getToDateTime().isAfter(from)) {
+                    expected.add(j);
+                }
+            }
+            int[] actual = taskList.findOverlappingEvents(from, to);
+            ArrayList<Integer> found = new ArrayList<>();
+            for (int index : actual) {
+                found.add(index);
+            }
+            found.sort(null);
+            assertEquals(expected, found);
+        }
+    }
+
+    // ======================== Undo / Redo ========================
+
+    @Test
+    public void testUndo_addDeleteAndStatus_restoresEachVersion() {
+        int id = taskList.addTask(new Todo("A"));
+        taskList.addTask(new Todo("B"));
+        taskList.setDone(0, true);
+        taskList.deleteTask(1);
+
+        assertTrue(taskList.undo());
+        assertEquals("B", taskList.getTask(1).getDescription());
+        assertTrue(taskList.undo());
+        assertFalse(taskList.getTask(0).isDone());
+        assertTrue(taskList.undo());
+        assertEquals(1, taskList.size());
+        assertTrue(taskList.undo());
+        assertTrue(taskList.isEmpty());
+        assertFalse(taskList.undo());
+
+        assertTrue(taskList.redo());
+        assertEquals(0, taskList.indexOfId(id));
+        assertTrue(taskList.redo());
+        assertTrue(taskList.redo());
+        assertTrue(taskList.getTask(0).isDone());
+        assertTrue(taskList.redo());
+        assertEquals(1, taskList.size());
+        assertFalse(taskList.redo());
+    }
+
+    @Test
+    public void testUndo_sort_restoresOrderAndIds() {
+        int laterId = taskList.addTask(new Deadline("Later", "2024-12-31 2359"));
+        int earlierId = taskList.addTask(new Deadline("Earlier", "2024-01-01 0900"));
+        taskList.sortTasks();
+        assertEquals(0, taskList.indexOfId(earlierId));
+
+        taskList.undo();
+
+        assertEquals(0, taskList.indexOfId(laterId));
+        assertEquals(1, taskList.indexOfId(earlierId));
+        assertEquals("Earlier", taskList.getTask(1).getDescription());
+    }
+
+    @Test
+    public void testUndo_restoresDuplicateIndex() {
+        taskList.addTask(new Todo("Read book"));
+        assertEquals(0, taskList.findDuplicate(new Todo("Read book")));
+
+        taskList.undo();
+        assertEquals(-1, taskList.findDuplicate(new Todo("Read book")));
+        taskList.redo();
+        assertEquals(0, taskList.findDuplicate(new Todo("Read book")));
+    }
+
+    @Test
+    public void testWrite_changesUndoneAsOneStep() throws SnoraxException {
+        taskList.addTask(new Todo("A"));
+        taskList.write(tasks -> {
+            tasks.addTask(new Todo("B"));
+            tasks.addTask(new Todo("C"));
+            return tasks.deleteTask(0);
+        });
+        assertEquals(2, taskList.size());
+
+        taskList.undo();
+
+        assertEquals(1, taskList.size());
+        assertEquals("A", taskList.getTask(0).getDescription());
+    }
+
+    @Test
+    public void testWrite_failure_rolledBack() {
+        taskList.addTask(new Todo("A"));
+        assertThrows(SnoraxException.class, () -> taskList.write(tasks -> {
+            tasks.addTask(new Todo("B"));
+            tasks.setDone(0, true);
+            throw new SnoraxException("Failed");
+        }));
+
+        assertEquals(1, taskList.size());
+        assertFalse(taskList.getTask(0).isDone());
+        // The failed write leaves nothing to undo but the first add
+        assertTrue(taskList.undo());
+        assertFalse(taskList.undo());
+    }
+
+    @Test
+    public void testRedo_discardedByNewChange() {
+        taskList.addTask(new Todo("A"));
+        taskList.undo();
+        taskList.addTask(new Todo("B"));
+        assertFalse(taskList.redo());
+    }
+
+    @Test
+    public void testUndo_keepsAtMostFiveHundredSteps() {
+        for (int i = 0; i < 600; i++) {
+            taskList.addTask(new Todo("Task " + i));
+        }
+        int undone = 0;
+        while (taskList.undo()) {
+            undone++;
+        }
+        assertEquals(500, undone);
+        assertEquals(100, taskList.size());
+    }
+
+    @Test
+    public void testUndoRedo_manyRandomChanges_matchesRecordedVersions() throws SnoraxException {
+        Random random = new Random(16);
+        ArrayList<String> versions = new ArrayList<>();
+        versions.add(describe(taskList));
+        for (int i = 0; i < 300; i++) {
+            int choice = random.nextInt(10);
+            if (choice < 4 || taskList.isEmpty()) {
+                taskList.addTask(new Deadline("Task " + i, "2024-01-" + (10 + random.nextInt(20)) + " 0900"));
+            } else if (choice < 6) {
+                taskList.deleteTask(random.nextInt(taskList.size()));
+            } else if (choice < 7) {
+                // Move a task elsewhere in one step
+                taskList.write(tasks -> {
+                    int index = random.nextInt(tasks.size());
+                    int id = tasks.getId(index);
+                    Task removed = tasks.deleteTask(index);
+                    tasks.restoreTask(random.nextInt(tasks.size() + 1), id, removed);
+                    return null;
+                });
+            } else if (choice < 9) {
+                int index = random.nextInt(taskList.size());
+                taskList.setDone(index, !taskList.getTask(index).isDone());
+            } else {
+                taskList.sortDeadlines();
+            }
+            versions.add(describe(taskList));
+        }
+
+        for (int i = versions.size() - 2; i >= 0; i--) {
+            assertTrue(taskList.undo());
+            assertEquals(versions.get(i), describe(taskList));
+        }
+        assertFalse(taskList.undo());
+        for (int i = 1; i < versions.size(); i++) {
+            assertTrue(taskList.redo());
+            assertEquals(versions.get(i), describe(taskList));
+        }
+        assertFalse(taskList.redo());
+    }
+
+    private static String describe(TaskList tasks) {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < tasks.size(); i++) {
+            description.append(tasks.getId(i)).append(tasks.peekTask(i)).append('\n');
+            assertEquals(i, tasks.indexOfId(tasks.getId(i)));
+        }
+        return description.toString();
+    }
+
+    @Test
+    public void testModificationCount_risesOnEveryChangeOnly() throws SnoraxException {
+        long count = taskList.getModificationCount();
+        taskList.addTask(new Deadline("B", "2024-12-31 2359"));
+        taskList.addTask(new Deadline("A", "2024-01-01 0900"));
+        assertEquals(count + 2, taskList.getModificationCount());
+
+        taskList.setDone(0, true);
+        taskList.sortTasks();
+        taskList.deleteTask(1);
+        assertEquals(count + 5, taskList.getModificationCount());
+
+        taskList.getTask(0);
+        taskList.search(SearchQuery.parse("a"));
+        taskList.setDone(0, true);
+        taskList.setDone(0, true);
+        assertEquals(count + 6, taskList.getModificationCount());
+
+        taskList.undo();
+        taskList.redo();
+        taskList.write(list -> list.setDone(new int[] {0}, true));
+        assertEquals(count + 8, taskList.getModificationCount());
+    }
+
+    @Test
+    public void testWrite_describedUndo_restoresList() throws SnoraxException {
+        taskList.addTask(new Deadline("Late", "2024-03-01 0900"));
+        taskList.addTask(new Todo("Plain"));
+        taskList.addTask(new Deadline("Early", "2024-01-01 0900"));
+        String before = taskList.getTasks().toString();
+
+        ArrayList<ListChange> undo = new ArrayList<>();
+        taskList.write(list -> {
+            list.setDone(1, true);
+            list.deleteTask(0);
+            list.addTask(new Todo("Added"));
+            return list.sortTasks();
+        }, undo);
+        taskList.applyChanges(undo);
+
+        assertEquals(before, taskList.getTasks().toString());
+        assertFalse(taskList.getTask(1).isDone());
+    }
+
+    @Test
+    public void testWrite_describedUndoOfUndoAndRedo_restoresList() throws SnoraxException {
+        taskList.addTask(new Todo("A"));
+        taskList.addTask(new Todo("B"));
+        taskList.setDone(0, true);
+        String before = taskList.getTasks().toString();
+
+        ArrayList<ListChange> undo = new ArrayList<>();
+        taskList.write(list -> list.undo(), undo);
+        assertFalse(taskList.getTask(0).isDone());
+        taskList.applyChanges(undo);
+        assertEquals(before, taskList.getTasks().toString());
+
+        taskList.undo();
+        taskList.undo();
+        String undone = taskList.getTasks().toString();
+        undo.clear();
+        taskList.write(list -> list.redo(), undo);
+        assertEquals(2, taskList.size());
+        taskList.applyChanges(undo);
+        assertEquals(undone, taskList.getTasks().toString());
+    }
+
+    @Test
+    public void testWrite_failedChange_describesNothing() {
+        taskList.addTask(new Todo("A"));
+        ArrayList<ListChange> undo = new ArrayList<>();
+        assertThrows(SnoraxException.class, () -> taskList.write(list -> {
+            list.deleteTask(0);
+            throw new SnoraxException("Failed");
+        }, undo));
+        assertTrue(undo.isEmpty());
+        assertEquals(1, taskList.size());
+    }
+
+    // ======================== Ranges ========================
+
+    @Test
+    public void testGetRange_readsWindowWithTotal() {
+        for (int i = 0; i < 10; i++) {
+            taskList.addTask(new Todo("Task " + i));
+        }
+        TaskRange range = taskList.getRange(3, 6);
+
+        assertEquals(3, range.getStart());
+        assertEquals(3, range.size());
+        assertEquals(10, range.getTotal());
+        assertEquals("Task 5", range.peekTask(2).getDescription());
+        assertEquals(taskList.getId(4), range.getId(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> range.peekTask(3));
+    }
+
+    @Test
+    public void testGetRange_unaffectedByLaterChanges() {
+        taskList.addTask(new Todo("A"));
+        taskList.addTask(new Todo("B"));
+        TaskRange range = taskList.getRange(0, 2);
+
+        taskList.deleteTask(0);
+        taskList.addTask(new Todo("C"));
+
+        assertEquals("A", range.peekTask(0).getDescription());
+        assertEquals("B", range.peekTask(1).getDescription());
+        assertEquals(2, range.getTotal());
+    }
+
+    @Test
+    public void testGetRange_outsideList_throwsException() {
+        taskList.addTask(new Todo("A"));
+        assertTrue(taskList.getRange(1, 1).isEmpty());
+        assertThrows(IndexOutOfBoundsException.class, () -> taskList.getRange(0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> taskList.getRange(1, 0));
+    }
+
+    // ======================== Bitmaps ========================
+
+    @Test
+    public void testCountTasks_followsAddsDeletesAndStatus() {
+        taskList.addTask(new Todo("A"));
+        taskList.addTask(new Deadline("B", "2024-01-01 0900"));
+        taskList.addTask(new Deadline("C", "2024-02-01 0900"));
+        assertEquals(2, taskList.countTasks(TaskType.DEADLINE, false));
+
+        taskList.setDone(1, true);
+        taskList.addTask(new Event("D", "2024-03-01 0900", "2024-03-01 1000"));
+        taskList.deleteTask(0);
+
+        assertEquals(3, taskList.countTasks(null, null));
+        assertEquals(0, taskList.countTasks(TaskType.TODO, null));
+        assertEquals(1, taskList.countTasks(TaskType.DEADLINE, true));
+        assertEquals(2, taskList.countTasks(null, false));
+        assertArrayEquals(new int[] {1}, taskList.findTasks(TaskType.DEADLINE, false));
+        assertArrayEquals(new int[] {1, 2}, taskList.findTasks(null, false));
+    }
+
+    @Test
+    public void testFindTasks_followsUndoAndSort() {
+        taskList.addTask(new Deadline("Later", "2024-12-31 2359"));
+        taskList.addTask(new Deadline("Earlier", "2024-01-01 0900"));
+        taskList.setDone(0, true);
+        assertArrayEquals(new int[] {0}, taskList.findTasks(TaskType.DEADLINE, true));
+
+        taskList.sortTasks();
+        assertArrayEquals(new int[] {1}, taskList.findTasks(TaskType.DEADLINE, true));
+        taskList.undo();
+        taskList.undo();
+        assertEquals(0, taskList.countTasks(null, true));
+        assertArrayEquals(new int[] {0, 1}, taskList.findTasks(TaskType.DEADLINE, false));
+    }
+
+    @Test
+    public void testFindTasks_manyTasks_matchesLinearScan() {
+        Random random = new Random(19);
+        // Build the index up front so that every change below updates it
+        assertEquals(0, taskList.countTasks(null, null));
+        for (int i = 0; i < 500; i++) {
+            int kind = random.nextInt(3);
+            taskList.addTask(kind == 0 ? new Todo("T" + i)
+                    : kind == 1 ? new Deadline("D" + i, "2024-01-01 0900")
+                    : new Event("E" + i, "2024-01-01 0900", "2024-01-01 1000"));
+            if (random.nextInt(3) == 0) {
+                int index = random.nextInt(taskList.size());
+                taskList.setDone(index, !taskList.getTask(index).isDone());
+            }
+            if (random.nextInt(5) == 0) {
+                taskList.deleteTask(random.nextInt(taskList.size()));
+            }
+        }
+
+        for (TaskType type : new TaskType[] {null, TaskType.TODO, TaskType.DEADLINE, TaskType.EVENT}) {
+            for (Boolean isDone : new Boolean[] {null, true, false}) {
+                ArrayList<Integer> expected = new ArrayList<>();
+                for (int i = 0; i < taskList.size(); i++) {
+                    Task task = taskList.peekTask(i);
+                    if ((type == null || task.getType() == type) && (isDone == null || task.isDone() == isDone)) {
+                        expected.add(i);
+                    }
+                }
+                int[] found = taskList.findTasks(type, isDone);
+                assertEquals(expected.size(), found.length);
+                assertEquals(expected.size(), taskList.countTasks(type, isDone));
+                for (int i = 0; i < found.length; i++) {
+                    assertEquals((int) expected.get(i), found[i]);
+                }
+            }
+        }
+    }
+
+    // ======================== Bulk Changes ========================
+
+    @Test
+    public void testDeleteTasks_fewTasks_removesInAnyOrder() {
+        for (int i = 0; i < 100; i++) {
+            taskList.addTask(new Todo("T" + i));
+        }
+        Task[] removed = taskList.deleteTasks(new int[] {50, 3, 97});
+
+        assertEquals("T3", removed[0].getDescription());
+        assertEquals("T97", removed[2].getDescription());
+        assertEquals(97, taskList.size());
+        assertEquals("T51", taskList.getTask(49).getDescription());
+        assertEquals("T99", taskList.getTask(96).getDescription());
+    }
+
+    @Test
+    public void testDeleteTasks_manyTasks_rebuildsAndUndoesAsOneStep() {
+        for (int i = 0; i < 20; i++) {
+            taskList.addTask(new Todo("T" + i));
+        }
+        int keptId = taskList.getId(1);
+        int[] evens = new int[10];
+        for (int i = 0; i < evens.length; i++) {
+            evens[i] = 18 - 2 * i;
+        }
+
+        taskList.deleteTasks(evens);
+        assertEquals(10, taskList.size());
+        assertEquals("T19", taskList.getTask(9).getDescription());
+        assertEquals(0, taskList.indexOfId(keptId));
+        assertEquals(-1, taskList.findDuplicate(new Todo("T4")));
+
+        taskList.undo();
+        assertEquals(20, taskList.size());
+        assertEquals("T4", taskList.getTask(4).getDescription());
+        assertEquals(1, taskList.indexOfId(keptId));
+        taskList.addTask(new Todo("T20"));
+        assertEquals("T20", taskList.getTask(20).getDescription());
+    }
+
+    @Test
+    public void testDeleteTasks_repeatedIndex_throwsException() {
+        taskList.addTask(new Todo("A"));
+        taskList.addTask(new Todo("B"));
+        assertThrows(IllegalArgumentException.class, () -> taskList.deleteTasks(new int[] {1, 1}));
+        assertThrows(IndexOutOfBoundsException.class, () -> taskList.deleteTasks(new int[] {0, 2}));
+        assertEquals(2, taskList.size());
+    }
+
+    @Test
+    public void testSetDoneMany_countsChangesAndUndoesAsOneStep() {
+        taskList.addTask(new Todo("A"));
+        taskList.addTask(new Todo("B"));
+        taskList.addTask(new Todo("C"));
+        taskList.setDone(1, true);
+
+        assertEquals(2, taskList.setDone(new int[] {0, 1, 2}, true));
+        assertEquals(3, taskList.countTasks(null, true));
+        taskList.undo();
+        assertEquals(1, taskList.countTasks(null, true));
+        assertTrue(taskList.getTask(1).isDone());
+    }
+
+    // ======================== Search ========================
+
+    @Test
+    public void testSearch_followsAddsDeletesAndListOrder() {
+        taskList.addTask(new Todo("Read book"));
+        taskList.addTask(new Todo("Buy milk"));
+        taskList.addTask(new Deadline("Return book", "2024-12-31 2359"));
+        assertArrayEquals(new int[] {0, 2}, taskList.search(SearchQuery.parse("book")));
+
+        taskList.sortTasks();
+        taskList.addTask(new Todo("Book flights"));
+        assertArrayEquals(new int[] {0, 1, 3}, taskList.search(SearchQuery.parse("book")));
+
+        taskList.deleteTask(0);
+        assertArrayEquals(new int[] {0, 2}, taskList.search(SearchQuery.parse("book")));
+        taskList.undo();
+        assertArrayEquals(new int[] {1, 2}, taskList.search(SearchQuery.parse("milk OR read")));
+    }
+
+    @Test
+    public void testSearch_substringsAndWordPrefixes() {
+        taskList.addTask(new Todo("Read Book"));
+        taskList.addTask(new Todo("Notebook"));
+        assertArrayEquals(new int[] {0, 1}, taskList.search(SearchQuery.parse("ook")));
+        assertArrayEquals(new int[] {0, 1}, taskList.search(SearchQuery.parse("ad OR tebo AND note")));
+        assertArrayEquals(new int[] {1}, taskList.search(SearchQuery.parse("note AND ook")));
+        assertArrayEquals(new int[] {0}, taskList.search(SearchQuery.parse("read book")));
+        assertArrayEquals(new int[0], taskList.search(SearchQuery.parse("book read")));
+        assertArrayEquals(new int[] {0}, taskList.searchWords(SearchQuery.parse("boo")));
+        assertArrayEquals(new int[0], taskList.searchWords(SearchQuery.parse("ook")));
+    }
+
+    @Test
+    public void testSearchFuzzy_closestFirstThenListOrder() {
+        taskList.addTask(new Todo("Bake bread"));
+        taskList.addTask(new Todo("Read book"));
+        taskList.addTask(new Todo("Buy bread"));
+        taskList.addTask(new Todo("Rest"));
+
+        assertArrayEquals(new int[] {1, 0, 2, 3}, taskList.searchFuzzy("Read", 2));
+        assertArrayEquals(new int[] {1}, taskList.searchFuzzy("raad", 1));
+    }
+
+    // ======================== Filter ========================
+
+    @Test
+    public void testFilter_pendingDeadlinesBeforeDateWithWord() {
+        taskList.addTask(new Deadline("Submit report", "2025-02-20 1200"));
+        taskList.addTask(new Deadline("Submit report draft", "2025-03-05 1200"));
+        taskList.addTask(new Deadline("Review report", "2025-01-10 0900"));
+        taskList.addTask(new Event("Report meeting", "2025-02-01 1000", "2025-02-01 1100"));
+        taskList.addTask(new Todo("Read report"));
+        taskList.setDone(2, true);
+
+        TaskFilter filter = new TaskFilter(TaskType.DEADLINE, false, null,
+                LocalDateTime.of(2025, 3, 1, 0, 0), List.of("REPORT"));
+        assertArrayEquals(new int[] {0}, taskList.filter(filter));
+        assertArrayEquals(new int[] {3}, taskList.filter(new TaskFilter(null, false, null, null, List.of("port me"))));
+        assertArrayEquals(new int[] {2}, taskList.filter(new TaskFilter(null, true, null, null, List.of())));
+    }
+
+    @Test
+    public void testFilter_everyPlan_matchesLinearScan() {
+        Random random = new Random(24);
+        String[] words = {"report", "review", "meeting", "lunch"};
+        for (int i = 0; i < 400; i++) {
+            String description = words[random.nextInt(4)] + " " + words[random.nextInt(4)];
+            String time = String.format("2025-%02d-%02d 0900", 1 + random.nextInt(12), 1 + random.nextInt(28));
+            int kind = random.nextInt(3);
+            taskList.addTask(kind == 0 ? new Todo(description)
+                    : kind == 1 ? new Deadline(description, time) : new Event(description, time, "2026-01-01 0000"));
+            if (random.nextInt(2) == 0) {
+                taskList.setDone(i, true);
+            }
+        }
+
+        LocalDateTime march = LocalDateTime.of(2025, 3, 1, 0, 0);
+        LocalDateTime april = LocalDateTime.of(2025, 4, 1, 0, 0);
+        TaskFilter[] filters = {
+            new TaskFilter(TaskType.EVENT, true, null, null, List.of()),
+            new TaskFilter(null, null, march, april, List.of()),
+            new TaskFilter(null, false, march, null, List.of("lunch")),
+            new TaskFilter(TaskType.DEADLINE, null, null, april, List.of("rev", "eet")),
+            new TaskFilter(TaskType.TODO, null, march, null, List.of()),
+            new TaskFilter(null, null, null, null, List.of("t")),
+            new TaskFilter(null, null, null, null, List.of("nothing")),
+        };
+        for (TaskFilter filter : filters) {
+            ArrayList<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < taskList.size(); i++) {
+                if (filter.test(taskList.peekTask(i))) {
+                    expected.add(i);
+                }
+            }
+            int[] found = taskList.filter(filter);
+            assertEquals(expected.size(), found.length);
+            for (int i = 0; i < found.length; i++) {
+                assertEquals((int) expected.get(i), found[i]);
+            }
+        }
+    }
+
+    // ======================== Lazy Source ========================
+
+    /**
+     * A source of todos that counts how many times each one is decoded.
+     */
+    private static class CountingSource implements TaskSource {
+        private final int[] loads;
+
+        CountingSource(int size) {
+            this.loads = new int[size];
+        }
+
+        @Override
+        public int size() {
+            return loads.length;
+        }
+
+        @Override
+        public Task load(int index) {
+            loads[index]++;
+            return new Todo("Task " + index);
+        }
+    }
+
+    @Test
+    public void testLazySource_getTask_decodesOnce() {
+        CountingSource source = new CountingSource(3);
+        TaskList lazy = new TaskList(source);
+
+        assertEquals(3, lazy.size());
+        assertArrayEquals(new int[] {0, 0, 0}, source.loads);
+        Task task = lazy.getTask(1);
+        assertSame(task, lazy.getTask(1));
+        assertArrayEquals(new int[] {0, 1, 0}, source.loads);
+    }
+
+    @Test
+    public void testLazySource_peekTask_doesNotKeepTask() {
+        CountingSource source = new CountingSource(2);
+        TaskList lazy = new TaskList(source);
+
+        assertEquals("Task 0", lazy.peekTask(0).getDescription());
+        assertEquals("Task 0", lazy.peekTask(0).getDescription());
+        assertEquals(2, source.loads[0]);
+    }
+
+    @Test
+    public void testLazySource_markedTaskKeptAfterDelete() {
+        TaskList lazy = new TaskList(new CountingSource(3));
+        lazy.getTask(2).markAsDone();
+
+        assertEquals("Task 0", lazy.deleteTask(0).getDescription());
+
+        assertEquals("Task 2", lazy.getTask(1).getDescription());
+        assertTrue(lazy.getTask(1).isDone());
+        assertTrue(lazy.peekTask(1).isDone());
+    }
+
+    @Test
+    public void testLazySource_getTasks_decodesEveryTask() {
+        CountingSource source = new CountingSource(3);
+        ArrayList<Task> tasks = new TaskList(source).getTasks();
+
+        assertEquals("Task 2", tasks.get(2).getDescription());
+        assertArrayEquals(new int[] {1, 1, 1}, source.loads);
+    }
 }